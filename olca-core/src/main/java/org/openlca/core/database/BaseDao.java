@@ -71,6 +71,7 @@ public class BaseDao<T extends AbstractEntity> implements IDao<T> {
 			em.getTransaction().begin();
 			em.remove(em.merge(entity));
 			em.getTransaction().commit();
+			db.listeners().notifyDelete(entity);
 		} catch (Exception e) {
 			DatabaseException.logAndThrow(log, "Error while deleting "
 					+ entityType.getSimpleName(), e);
@@ -91,6 +92,9 @@ public class BaseDao<T extends AbstractEntity> implements IDao<T> {
 				em.remove(em.merge(entity));
 			}
 			em.getTransaction().commit();
+			for (T entity : entities) {
+				db.listeners().notifyDelete(entity);
+			}
 		} catch (Exception e) {
 			DatabaseException.logAndThrow(log, "Error while deleting "
 					+ entityType.getSimpleName(), e);
@@ -108,6 +112,7 @@ public class BaseDao<T extends AbstractEntity> implements IDao<T> {
 			em.getTransaction().begin();
 			T retval = em.merge(entity);
 			em.getTransaction().commit();
+			db.listeners().notifyUpdate(retval);
 			return retval;
 		} catch (Exception e) {
 			DatabaseException.logAndThrow(log, "Error while updating "
@@ -127,6 +132,7 @@ public class BaseDao<T extends AbstractEntity> implements IDao<T> {
 			em.getTransaction().begin();
 			em.persist(entity);
 			em.getTransaction().commit();
+			db.listeners().notifyInsert(entity);
 			return entity;
 		} catch (Exception e) {
 			DatabaseException.logAndThrow(log, "Error while inserting "
@@ -0,0 +1,138 @@
+package org.openlca.core.database;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.openlca.core.model.AbstractEntity;
+import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.descriptors.Descriptor;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The registry of database listeners of a database. The DAOs of a database
+ * notify these listeners when root entities are inserted, updated, or deleted.
+ * Changes that are directly executed via native SQL or in custom transactions
+ * are reported as unspecific database changes.
+ * <p>
+ * The registry also maintains a modification counter of the database and
+ * holds shared objects, like search indices or reference caches, that are
+ * derived from the database state and that are released together with the
+ * database.
+ */
+public final class DatabaseListeners {
+
+	private final List<IDatabaseListener> listeners = new CopyOnWriteArrayList<>();
+	private final AtomicLong version = new AtomicLong();
+	private final Map<Class<?>, Object> shared = new ConcurrentHashMap<>();
+
+	public void add(IDatabaseListener listener) {
+		if (listener == null || listeners.contains(listener))
+			return;
+		listeners.add(listener);
+	}
+
+	public void remove(IDatabaseListener listener) {
+		if (listener == null)
+			return;
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Returns the current value of the modification counter of the database.
+	 * It is increased with every change that is reported to the listeners. Thus,
+	 * derived data that was created for a specific version is outdated when the
+	 * version changed.
+	 */
+	public long version() {
+		return version.get();
+	}
+
+	/**
+	 * Returns the shared object of the given type for the database of these
+	 * listeners. If there is no such object yet, it is created with the given
+	 * function.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T shared(Class<T> type, Supplier<T> fn) {
+		return (T) shared.computeIfAbsent(type, t -> fn.get());
+	}
+
+	void notifyChange() {
+		version.incrementAndGet();
+		for (var listener : listeners) {
+			try {
+				listener.databaseChanged();
+			} catch (Exception ex) {
+				log(ex);
+			}
+		}
+	}
+
+	void notifyInsert(AbstractEntity e) {
+		version.incrementAndGet();
+		var d = descriptorOf(e);
+		if (d == null)
+			return;
+		for (var listener : listeners) {
+			try {
+				listener.modelInserted(d);
+			} catch (Exception ex) {
+				log(ex);
+			}
+		}
+	}
+
+	void notifyUpdate(AbstractEntity e) {
+		version.incrementAndGet();
+		var d = descriptorOf(e);
+		if (d != null) {
+			fireUpdate(d);
+		}
+	}
+
+	void notifyUpdate(Descriptor d) {
+		version.incrementAndGet();
+		fireUpdate(d);
+	}
+
+	private void fireUpdate(Descriptor d) {
+		for (var listener : listeners) {
+			try {
+				listener.modelUpdated(d);
+			} catch (Exception ex) {
+				log(ex);
+			}
+		}
+	}
+
+	void notifyDelete(AbstractEntity e) {
+		version.incrementAndGet();
+		var d = descriptorOf(e);
+		if (d == null)
+			return;
+		for (var listener : listeners) {
+			try {
+				listener.modelDeleted(d);
+			} catch (Exception ex) {
+				log(ex);
+			}
+		}
+	}
+
+	private Descriptor descriptorOf(AbstractEntity e) {
+		if (listeners.isEmpty())
+			return null;
+		return e instanceof RootEntity root
+				? Descriptor.of(root)
+				: null;
+	}
+
+	private void log(Exception e) {
+		LoggerFactory.getLogger(getClass())
+				.error("database listener failed", e);
+	}
+}
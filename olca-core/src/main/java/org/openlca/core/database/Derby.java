@@ -46,6 +46,7 @@ public class Derby implements IDatabase {
 
 	private boolean closed = false;
 	private HikariDataSource connectionPool;
+	private final DatabaseListeners listeners = new DatabaseListeners();
 
 	public static Derby createInMemory() {
 		int i = memInstances.incrementAndGet();
@@ -274,6 +275,11 @@ public class Derby implements IDatabase {
 		return entityFactory;
 	}
 
+	@Override
+	public DatabaseListeners listeners() {
+		return listeners;
+	}
+
 	@Override
 	public String getName() {
 		return name;
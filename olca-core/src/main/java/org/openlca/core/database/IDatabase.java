@@ -63,12 +63,24 @@ public interface IDatabase extends EntityStore, Closeable {
 	 */
 	File getFileStorageLocation();
 
+	/**
+	 * Returns the listeners of this database. The DAOs of the database notify
+	 * these listeners when root entities are inserted, updated, or deleted.
+	 * <p>
+	 * Implementations must return the same instance for every call, as the
+	 * registry also holds the objects that are derived from the database and
+	 * shared between its users, like search indices.
+	 */
+	DatabaseListeners listeners();
+
 	/**
 	 * Clears the cache of the entity manager of this database. You should always
 	 * call this method when you modified the database (via native SQL queries)
-	 * outside the entity manager.
+	 * outside the entity manager. This also notifies the database listeners
+	 * about an unspecific change of the database.
 	 */
 	default void clearCache() {
+		listeners().notifyChange();
 		var emf = getEntityFactory();
 		if (emf == null)
 			return;
@@ -297,6 +309,7 @@ public interface IDatabase extends EntityStore, Closeable {
 		try {
 			fn.accept(em);
 			transaction.commit();
+			listeners().notifyChange();
 		} catch (Exception e) {
 			transaction.rollback();
 			throw new RuntimeException("failed to execute transaction", e);
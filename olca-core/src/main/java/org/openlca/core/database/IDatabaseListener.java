@@ -10,4 +10,13 @@ public interface IDatabaseListener {
 
 	void modelDeleted(Descriptor descriptor);
 
+	/**
+	 * Called when the database was modified without reporting the changed data
+	 * sets, e.g. by native SQL updates or by batch inserts in a custom
+	 * transaction. Listeners that maintain derived state of the database should
+	 * assume that anything could have changed in this case.
+	 */
+	default void databaseChanged() {
+	}
+
 }
@@ -18,6 +18,7 @@ public class MySQL implements IDatabase {
 	private final EntityManagerFactory entityFactory;
 	private final HikariDataSource connectionPool;
 	private File fileDir;
+	private final DatabaseListeners listeners = new DatabaseListeners();
 
 	private MySQL(Config config) {
 		this.name = config.database;
@@ -84,6 +85,11 @@ public class MySQL implements IDatabase {
 		}
 	}
 
+	@Override
+	public DatabaseListeners listeners() {
+		return listeners;
+	}
+
 	@Override
 	public String getName() {
 		return name;
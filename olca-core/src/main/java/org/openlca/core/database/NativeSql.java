@@ -10,6 +10,13 @@ import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Executes native SQL statements on a database. Changes that are executed
+ * this way bypass the entity manager and are not reported to the listeners of
+ * the database (see {@link IDatabase#listeners()}). Callers that modify data
+ * this way should call {@link IDatabase#clearCache()} afterwards so that
+ * caches and listeners, like search indices or change trackers, are updated.
+ */
 public final class NativeSql {
 
 	private final Logger log = LoggerFactory.getLogger(this.getClass());
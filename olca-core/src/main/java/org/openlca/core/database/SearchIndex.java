@@ -0,0 +1,797 @@
+package org.openlca.core.database;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.ParameterScope;
+import org.openlca.core.model.descriptors.Descriptor;
+import org.openlca.core.model.descriptors.RootDescriptor;
+import org.openlca.util.Strings;
+
+import gnu.trove.map.hash.TLongIntHashMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import gnu.trove.set.hash.TLongHashSet;
+
+/**
+ * An in-memory inverted index over the descriptors of a database. It indexes
+ * the names, flow synonyms, CAS numbers, and category paths of the data sets
+ * and supports prefix and infix (n-gram based) matching of search terms. The
+ * index is built lazily with the first search and is then updated via the
+ * listeners of the database. There is one shared index per database instance
+ * which can be obtained via {@link #of(IDatabase)}.
+ * <p>
+ * The listener callbacks only record the IDs of the changed data sets, so
+ * that inserts and updates, e.g. in bulk imports, do not run additional
+ * queries. The recorded changes are loaded in batches and applied with the
+ * next search. When too many changes are recorded, the index is rebuilt
+ * instead. The data that are added to the index are always loaded from the
+ * database before the lock of the index is acquired; only the prepared
+ * entries are then swapped into the index so that searches are not blocked
+ * by database queries.
+ */
+public final class SearchIndex implements IDatabaseListener {
+
+	/** The size of the n-grams that are used for infix matching. */
+	private static final int N = 3;
+
+	/** The match position of terms that matched in a field other than the name. */
+	private static final int OTHER_FIELD = 1 << 20;
+
+	/**
+	 * The number of attempts to load the index without holding the lock. If
+	 * the database is modified during every attempt, it is finally loaded
+	 * while holding the lock.
+	 */
+	private static final int MAX_LOAD_ATTEMPTS = 3;
+
+	/**
+	 * The maximum number of recorded changes. When more data sets are
+	 * changed, the index is rebuilt with the next search instead of updating
+	 * it.
+	 */
+	private static final int MAX_PENDING = 10_000;
+
+	/** The maximum number of IDs in a query of changed data sets. */
+	private static final int MAX_CHUNK = 1000;
+
+	private final IDatabase db;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Serializes the building of the index and the application of recorded
+	 * changes, so that they are applied in the order in which they were
+	 * loaded.
+	 */
+	private final Object loadLock = new Object();
+
+	/**
+	 * A counter that is increased when the index is invalidated. It is used to
+	 * detect invalidations while the index is built without holding the lock.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	/**
+	 * The IDs of the data sets that were changed but not yet applied to the
+	 * index. The fields {@code pendingCount} and {@code building} are guarded
+	 * by this map too.
+	 */
+	private final Map<ModelType, TLongHashSet> pending = new EnumMap<>(ModelType.class);
+	private int pendingCount;
+	private boolean building;
+
+	/** The current index or null, if it needs to be (re-)built. */
+	private volatile Index index;
+
+	private SearchIndex(IDatabase db) {
+		this.db = db;
+		db.listeners().add(this);
+	}
+
+	/**
+	 * Returns the shared search index of the given database.
+	 */
+	public static SearchIndex of(IDatabase db) {
+		return db.listeners().shared(
+				SearchIndex.class, () -> new SearchIndex(db));
+	}
+
+	/**
+	 * The types that are searched by default, when no type filter is given.
+	 */
+	public static ModelType[] defaultTypes() {
+		return new ModelType[]{
+				ModelType.CATEGORY,
+				ModelType.PROJECT,
+				ModelType.PRODUCT_SYSTEM,
+				ModelType.IMPACT_METHOD,
+				ModelType.IMPACT_CATEGORY,
+				ModelType.PROCESS,
+				ModelType.FLOW,
+				ModelType.SOCIAL_INDICATOR,
+				ModelType.PARAMETER,
+				ModelType.FLOW_PROPERTY,
+				ModelType.UNIT_GROUP,
+				ModelType.CURRENCY,
+				ModelType.ACTOR,
+				ModelType.SOURCE,
+				ModelType.LOCATION,
+				ModelType.DQ_SYSTEM
+		};
+	}
+
+	/**
+	 * Searches the data sets of the default types.
+	 *
+	 * @see #find(String, ModelType)
+	 */
+	public List<Descriptor> find(String query) {
+		return find(query, null);
+	}
+
+	/**
+	 * Searches for data sets that match the given query. The query is split
+	 * into terms by white-spaces and a data set matches when at least one of
+	 * the terms matches its name, synonyms, CAS number, or category path. The
+	 * results are sorted by the positions of the terms in the names of the
+	 * data sets. If a single term is given that is equal to the ID of a data
+	 * set, this data set is also returned and ranked first. Terms that do not
+	 * contain letters or digits (e.g. {@code "-"}) are matched as sub-strings
+	 * of the names.
+	 *
+	 * @param query the search query
+	 * @param type  an optional type filter; if this is null, the data sets of
+	 *              the default types are searched
+	 */
+	public List<Descriptor> find(String query, ModelType type) {
+		var terms = termsOf(query);
+		if (terms.length == 0)
+			return Collections.emptyList();
+		while (true) {
+			applyPending();
+			lock.readLock().lock();
+			try {
+				if (index != null)
+					return index.find(terms, type);
+			} finally {
+				lock.readLock().unlock();
+			}
+			build();
+		}
+	}
+
+	/**
+	 * Marks the index as invalid so that it is rebuilt with the next search.
+	 * This should be called when the database was modified directly via native
+	 * SQL or batch imports which are not reported to the database listeners.
+	 */
+	public void invalidate() {
+		generation.incrementAndGet();
+		lock.writeLock().lock();
+		try {
+			index = null;
+		} finally {
+			lock.writeLock().unlock();
+		}
+		synchronized (pending) {
+			clearPending();
+		}
+	}
+
+	/**
+	 * Returns the number of slots in the index, including the slots of removed
+	 * entries that were not compacted yet. Only used in tests.
+	 */
+	int slots() {
+		lock.readLock().lock();
+		try {
+			return index != null
+					? index.entries.size()
+					: 0;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void modelInserted(Descriptor d) {
+		record(d);
+	}
+
+	@Override
+	public void modelUpdated(Descriptor d) {
+		record(d);
+	}
+
+	@Override
+	public void modelDeleted(Descriptor d) {
+		record(d);
+	}
+
+	@Override
+	public void databaseChanged() {
+		invalidate();
+	}
+
+	/**
+	 * Records the change of the given data set so that it is applied with the
+	 * next search. This does not run any queries.
+	 */
+	private void record(Descriptor d) {
+		if (d == null || d.type == null)
+			return;
+
+		// a changed category can change the paths of many data sets
+		if (d.type == ModelType.CATEGORY) {
+			invalidate();
+			return;
+		}
+
+		boolean overflow;
+		synchronized (pending) {
+			// without an index, the change is contained in the next build
+			if (index == null && !building)
+				return;
+			var ids = pending.computeIfAbsent(d.type, t -> new TLongHashSet());
+			if (ids.add(d.id)) {
+				pendingCount++;
+			}
+			overflow = pendingCount > MAX_PENDING;
+		}
+		if (overflow) {
+			invalidate();
+		}
+	}
+
+	private void clearPending() {
+		pending.clear();
+		pendingCount = 0;
+	}
+
+	/**
+	 * Loads the recorded changes from the database and applies them to the
+	 * index.
+	 */
+	private void applyPending() {
+		synchronized (pending) {
+			if (pendingCount == 0)
+				return;
+		}
+		synchronized (loadLock) {
+			var current = index;
+			if (current == null)
+				return;
+			Map<ModelType, TLongHashSet> changed;
+			synchronized (pending) {
+				if (pendingCount == 0)
+					return;
+				changed = new EnumMap<>(pending);
+				clearPending();
+			}
+
+			// load the new entries before the lock is acquired
+			var entries = Index.entriesOf(db, changed, current.paths);
+			lock.writeLock().lock();
+			try {
+				// when the index was invalidated in the meantime, it is
+				// rebuilt with the next search
+				if (index != current)
+					return;
+				for (var e : changed.entrySet()) {
+					var type = e.getKey();
+					e.getValue().forEach(id -> {
+						current.remove(type, id);
+						return true;
+					});
+				}
+				for (var entry : entries) {
+					current.add(entry);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	private void build() {
+		synchronized (loadLock) {
+			for (int attempt = 1; ; attempt++) {
+				if (index != null)
+					return;
+
+				// changes during the build are recorded and applied afterwards
+				long gen = generation.get();
+				synchronized (pending) {
+					clearPending();
+					building = true;
+				}
+				try {
+					if (attempt == MAX_LOAD_ATTEMPTS) {
+						lock.writeLock().lock();
+						try {
+							index = Index.load(db);
+							return;
+						} finally {
+							lock.writeLock().unlock();
+						}
+					}
+
+					var loaded = Index.load(db);
+					lock.writeLock().lock();
+					try {
+						// only use the loaded index when it was not invalidated
+						// while it was loaded; otherwise, load it again
+						if (gen == generation.get()) {
+							index = loaded;
+							return;
+						}
+					} finally {
+						lock.writeLock().unlock();
+					}
+				} finally {
+					synchronized (pending) {
+						building = false;
+					}
+				}
+			}
+		}
+	}
+
+	private static String[] termsOf(String query) {
+		if (query == null)
+			return new String[0];
+		var raw = query.toLowerCase().trim();
+		return Arrays.stream(raw.split(" "))
+				.filter(s -> !s.isBlank())
+				.toArray(String[]::new);
+	}
+
+	/**
+	 * Splits the given text into lower-case tokens of letters and digits.
+	 */
+	private static void tokenize(String text, Set<String> tokens) {
+		if (text == null)
+			return;
+		var buffer = new StringBuilder();
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				buffer.append(Character.toLowerCase(c));
+				continue;
+			}
+			if (buffer.length() > 0) {
+				tokens.add(buffer.toString());
+				buffer.setLength(0);
+			}
+		}
+		if (buffer.length() > 0) {
+			tokens.add(buffer.toString());
+		}
+	}
+
+	private static List<String> gramsOf(String token) {
+		if (token.length() < N)
+			return Collections.emptyList();
+		var list = new ArrayList<String>(token.length() - N + 1);
+		for (int i = 0; i <= token.length() - N; i++) {
+			list.add(token.substring(i, i + N));
+		}
+		return list;
+	}
+
+	private static int compare(Hit h1, Hit h2) {
+		// a match of the ID is always ranked first
+		if (h1.idMatch != h2.idMatch)
+			return h1.idMatch ? -1 : 1;
+		int n = Math.min(h1.positions.length, h2.positions.length);
+		for (int i = 0; i < n; i++) {
+			int pos1 = h1.positions[i];
+			int pos2 = h2.positions[i];
+			if (pos1 < 0 && pos2 < 0)
+				continue;
+			if (pos2 < 0)
+				return -1;
+			if (pos1 < 0)
+				return 1;
+			int diff = pos1 - pos2;
+			if (diff != 0)
+				return diff;
+		}
+		int typeDiff = h1.typeOrder - h2.typeOrder;
+		return typeDiff != 0
+				? typeDiff
+				: h1.entry.name.compareTo(h2.entry.name);
+	}
+
+	/**
+	 * The index data of a database state. It is not thread-safe; the search
+	 * index guards it with its lock.
+	 */
+	private static final class Index {
+
+		/**
+		 * The minimum number of removed entries before the index is compacted.
+		 */
+		private static final int MIN_TOMBSTONES = 64;
+
+		private final List<Entry> entries = new ArrayList<>();
+		private final Map<ModelType, TLongIntHashMap> docs = new HashMap<>();
+		private final Map<String, Integer> refIds = new HashMap<>();
+		private final TreeMap<String, TIntHashSet> postings = new TreeMap<>();
+		private final Map<String, Set<String>> grams = new HashMap<>();
+		private final TLongObjectHashMap<String> paths;
+		private int tombstones;
+
+		private Index(TLongObjectHashMap<String> paths) {
+			this.paths = paths;
+		}
+
+		static Index load(IDatabase db) {
+			var index = new Index(categoryPaths(db));
+			for (var type : ModelType.values()) {
+				if (type == ModelType.PARAMETER) {
+					for (var d : new ParameterDao(db).getGlobalDescriptors()) {
+						index.add(entryOf(d, null, index.paths));
+					}
+					continue;
+				}
+				var dao = Daos.root(db, type);
+				if (dao == null)
+					continue;
+				var extras = type == ModelType.FLOW
+						? flowFieldsOf(db, null)
+						: null;
+				for (var d : dao.getDescriptors()) {
+					index.add(entryOf(d, extras, index.paths));
+				}
+			}
+			return index;
+		}
+
+		/**
+		 * Loads the entries of the given data sets from the database in
+		 * chunks. Data sets that do not exist (anymore) or should not be
+		 * indexed are skipped.
+		 */
+		static List<Entry> entriesOf(IDatabase db,
+				Map<ModelType, TLongHashSet> ids, TLongObjectHashMap<String> paths) {
+			var entries = new ArrayList<Entry>();
+			for (var e : ids.entrySet()) {
+				var type = e.getKey();
+				var dao = Daos.root(db, type);
+				if (dao == null)
+					continue;
+				var all = e.getValue().toArray();
+				for (int start = 0; start < all.length; start += MAX_CHUNK) {
+					var chunk = new HashSet<Long>();
+					int end = Math.min(all.length, start + MAX_CHUNK);
+					for (int i = start; i < end; i++) {
+						chunk.add(all[i]);
+					}
+					var cond = "where id in (" + Strings.join(chunk, ',') + ")";
+					var globals = type == ModelType.PARAMETER
+							? globalParametersOf(db, cond)
+							: null;
+					var extras = type == ModelType.FLOW
+							? flowFieldsOf(db, cond)
+							: null;
+					for (var d : dao.getDescriptors(chunk)) {
+						if (globals != null && !globals.contains(d.id))
+							continue;
+						entries.add(entryOf(d, extras, paths));
+					}
+				}
+			}
+			return entries;
+		}
+
+		private static Entry entryOf(Descriptor d,
+				TLongObjectHashMap<String> extras,
+				TLongObjectHashMap<String> paths) {
+			var tokens = new HashSet<String>();
+			tokenize(d.name, tokens);
+			if (extras != null) {
+				tokenize(extras.get(d.id), tokens);
+			}
+			if (d instanceof RootDescriptor rd && rd.category != null) {
+				tokenize(paths.get(rd.category), tokens);
+			}
+			var name = d.name != null
+					? d.name.toLowerCase()
+					: "";
+			return new Entry(d, name, tokens.toArray(String[]::new));
+		}
+
+		List<Descriptor> find(String[] terms, ModelType type) {
+			var types = type != null
+					? new ModelType[]{type}
+					: defaultTypes();
+			var typeOrder = new HashMap<ModelType, Integer>();
+			for (int i = 0; i < types.length; i++) {
+				typeOrder.put(types[i], i);
+			}
+
+			// collect the documents that match a term
+			var matches = new TIntHashSet[terms.length];
+			var candidates = new TIntHashSet();
+			for (int i = 0; i < terms.length; i++) {
+				matches[i] = docsOf(terms[i]);
+				candidates.addAll(matches[i]);
+			}
+			int idMatch = -1;
+			if (terms.length == 1) {
+				var doc = refIds.get(terms[0]);
+				if (doc != null) {
+					idMatch = doc;
+					candidates.add(doc);
+				}
+			}
+
+			var hits = new ArrayList<Hit>();
+			int matchedId = idMatch;
+			candidates.forEach(doc -> {
+				var e = entries.get(doc);
+				if (e == null)
+					return true;
+				var order = typeOrder.get(e.descriptor.type);
+				if (order == null)
+					return true;
+				var positions = new int[terms.length];
+				for (int i = 0; i < terms.length; i++) {
+					int pos = e.name.indexOf(terms[i]);
+					positions[i] = pos >= 0 || !matches[i].contains(doc)
+							? pos
+							: OTHER_FIELD;
+				}
+				hits.add(new Hit(e, positions, order, doc == matchedId));
+				return true;
+			});
+
+			hits.sort(SearchIndex::compare);
+			var results = new ArrayList<Descriptor>(hits.size());
+			for (var hit : hits) {
+				results.add(hit.entry.descriptor);
+			}
+			return results;
+		}
+
+		void add(Entry entry) {
+			var d = entry.descriptor;
+			int doc = entries.size();
+			entries.add(entry);
+			docs.computeIfAbsent(d.type, t -> new TLongIntHashMap())
+					.put(d.id, doc);
+			if (d.refId != null) {
+				refIds.put(d.refId.toLowerCase(), doc);
+			}
+			for (var token : entry.tokens) {
+				var set = postings.get(token);
+				if (set == null) {
+					set = new TIntHashSet();
+					postings.put(token, set);
+					for (var gram : gramsOf(token)) {
+						grams.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+					}
+				}
+				set.add(doc);
+			}
+		}
+
+		/**
+		 * Removes the entry of the given data set. Removed entries leave an
+		 * empty slot in the index until the index is compacted.
+		 */
+		void remove(ModelType type, long id) {
+			var typeDocs = docs.get(type);
+			if (typeDocs == null || !typeDocs.containsKey(id))
+				return;
+			int doc = typeDocs.remove(id);
+			var entry = entries.get(doc);
+			if (entry == null)
+				return;
+			entries.set(doc, null);
+			tombstones++;
+			if (entry.descriptor.refId != null) {
+				refIds.remove(entry.descriptor.refId.toLowerCase(), doc);
+			}
+			for (var token : entry.tokens) {
+				var set = postings.get(token);
+				if (set == null)
+					continue;
+				set.remove(doc);
+				if (!set.isEmpty())
+					continue;
+				postings.remove(token);
+				for (var gram : gramsOf(token)) {
+					var tokens = grams.get(gram);
+					if (tokens == null)
+						continue;
+					tokens.remove(token);
+					if (tokens.isEmpty()) {
+						grams.remove(gram);
+					}
+				}
+			}
+			int live = entries.size() - tombstones;
+			if (tombstones > MIN_TOMBSTONES && tombstones > live / 4) {
+				compact();
+			}
+		}
+
+		/**
+		 * Rebuilds the entry list and postings without the empty slots of
+		 * removed entries.
+		 */
+		private void compact() {
+			var live = entries.stream()
+					.filter(Objects::nonNull)
+					.toList();
+			entries.clear();
+			docs.clear();
+			refIds.clear();
+			postings.clear();
+			grams.clear();
+			tombstones = 0;
+			for (var entry : live) {
+				add(entry);
+			}
+		}
+
+		/**
+		 * Returns the documents that match the given term. A term can contain
+		 * multiple tokens (e.g. a CAS number) and all these tokens need to
+		 * match. Terms without any token are matched as sub-strings of the
+		 * names.
+		 */
+		private TIntHashSet docsOf(String term) {
+			var tokens = new HashSet<String>();
+			tokenize(term, tokens);
+			if (tokens.isEmpty()) {
+				var result = new TIntHashSet();
+				for (int doc = 0; doc < entries.size(); doc++) {
+					var e = entries.get(doc);
+					if (e != null && e.name.contains(term)) {
+						result.add(doc);
+					}
+				}
+				return result;
+			}
+			TIntHashSet result = null;
+			for (var token : tokens) {
+				var tokenDocs = new TIntHashSet();
+				for (var match : tokensOf(token)) {
+					var set = postings.get(match);
+					if (set != null) {
+						tokenDocs.addAll(set);
+					}
+				}
+				if (result == null) {
+					result = tokenDocs;
+				} else {
+					result.retainAll(tokenDocs);
+				}
+				if (result.isEmpty())
+					break;
+			}
+			return result;
+		}
+
+		/**
+		 * Returns the indexed tokens that contain the given token. Tokens that
+		 * are shorter than the n-grams are matched by scanning the indexed
+		 * tokens.
+		 */
+		private Set<String> tokensOf(String token) {
+			if (token.length() < N) {
+				var matches = new HashSet<String>();
+				for (var indexed : postings.keySet()) {
+					if (indexed.contains(token)) {
+						matches.add(indexed);
+					}
+				}
+				return matches;
+			}
+			Set<String> candidates = null;
+			for (var gram : gramsOf(token)) {
+				var tokens = grams.get(gram);
+				if (tokens == null)
+					return Collections.emptySet();
+				if (candidates == null) {
+					candidates = new HashSet<>(tokens);
+				} else {
+					candidates.retainAll(tokens);
+				}
+				if (candidates.isEmpty())
+					return candidates;
+			}
+			if (candidates == null)
+				return Collections.emptySet();
+			candidates.removeIf(c -> !c.contains(token));
+			return candidates;
+		}
+
+		private static TLongObjectHashMap<String> flowFieldsOf(
+				IDatabase db, String condition) {
+			var map = new TLongObjectHashMap<String>();
+			var sql = "select id, synonyms, cas_number from tbl_flows";
+			if (condition != null) {
+				sql += " " + condition;
+			}
+			NativeSql.on(db).query(sql, r -> {
+				var synonyms = r.getString(2);
+				var cas = r.getString(3);
+				if (Strings.nullOrEmpty(synonyms) && Strings.nullOrEmpty(cas))
+					return true;
+				var text = Strings.nullOrEmpty(synonyms)
+						? cas
+						: Strings.nullOrEmpty(cas) ? synonyms : synonyms + " " + cas;
+				map.put(r.getLong(1), text);
+				return true;
+			});
+			return map;
+		}
+
+		private static TLongObjectHashMap<String> categoryPaths(IDatabase db) {
+			var names = new TLongObjectHashMap<String>();
+			var parents = new TLongObjectHashMap<Long>();
+			var sql = "select id, name, f_category from tbl_categories";
+			NativeSql.on(db).query(sql, r -> {
+				long id = r.getLong(1);
+				names.put(id, r.getString(2));
+				long parent = r.getLong(3);
+				if (!r.wasNull()) {
+					parents.put(id, parent);
+				}
+				return true;
+			});
+			var paths = new TLongObjectHashMap<String>();
+			for (long id : names.keys()) {
+				var path = new StringBuilder();
+				var next = Long.valueOf(id);
+				int depth = 0;
+				while (next != null && depth < 100) {
+					var name = names.get(next);
+					if (name != null) {
+						path.append(' ').append(name);
+					}
+					next = parents.get(next);
+					depth++;
+				}
+				paths.put(id, path.toString());
+			}
+			return paths;
+		}
+
+		private static TLongHashSet globalParametersOf(
+				IDatabase db, String condition) {
+			var ids = new TLongHashSet();
+			var sql = "select id, scope from tbl_parameters " + condition;
+			NativeSql.on(db).query(sql, r -> {
+				if (ParameterScope.GLOBAL.name().equals(r.getString(2))) {
+					ids.add(r.getLong(1));
+				}
+				return true;
+			});
+			return ids;
+		}
+	}
+
+	private record Entry(Descriptor descriptor, String name, String[] tokens) {
+	}
+
+	private record Hit(
+			Entry entry, int[] positions, int typeOrder, boolean idMatch) {
+	}
+}
@@ -33,7 +33,7 @@ public class CategorySync {
 		return new CategorySync(db);
 	}
 
-	public Category get(ModelType type, String path) {
+	public synchronized Category get(ModelType type, String path) {
 		if (type == null || path == null || path.isBlank())
 			return null;
 		var lower = path.toLowerCase();
@@ -19,6 +19,9 @@ import org.openlca.core.model.Process;
  * update this exchange after the import of the respective provider process
  * because we need the database internal ID of that process which is only
  * available after the import.
+ *
+ * The methods of this queue are synchronized so that it can be used in
+ * imports where data sets are read and written in different threads.
  */
 public class ExchangeProviderQueue {
 
@@ -53,7 +56,7 @@ public class ExchangeProviderQueue {
 	 * @param providerId the reference ID of the provider process
 	 * @param exchange   the exchange that should be linked to the provider
 	 */
-	public void add(String providerId, Exchange exchange) {
+	public synchronized void add(String providerId, Exchange exchange) {
 		if (providerId == null || exchange == null)
 			return;
 		var processId = processIds.get(providerId);
@@ -72,16 +75,26 @@ public class ExchangeProviderQueue {
 	 *
 	 * @param process a process that was saved in the database.
 	 */
-	public void pop(Process process) {
+	public synchronized void pop(Process process) {
 		if (process == null || process.refId == null || process.id == 0)
 			return;
 		processIds.put(process.refId, process.id);
 		var exchanges = queue.remove(process.refId);
 		if (exchanges == null || exchanges.isEmpty())
 			return;
+		// exchanges of processes that are not saved yet, e.g. because they
+		// wait in a batch for insertion, are just updated in memory
+		var saved = new ArrayList<Exchange>(exchanges.size());
+		for (var exchange : exchanges) {
+			exchange.defaultProviderId = process.id;
+			if (exchange.id != 0) {
+				saved.add(exchange);
+			}
+		}
+		if (saved.isEmpty())
+			return;
 		db.transaction(em -> {
-			for (var exchange : exchanges) {
-				exchange.defaultProviderId = process.id;
+			for (var exchange : saved) {
 				em.merge(exchange);
 			}
 		});
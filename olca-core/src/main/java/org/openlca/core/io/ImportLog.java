@@ -15,7 +15,8 @@ import org.openlca.core.model.descriptors.Descriptor;
 import org.slf4j.LoggerFactory;
 
 /**
- * Contains log messages of a data import.
+ * Contains log messages of a data import. Messages can be added from multiple
+ * threads of an import.
  */
 public final class ImportLog {
 
@@ -52,11 +53,11 @@ public final class ImportLog {
 		}
 	}
 
-	public int size() {
+	public synchronized int size() {
 		return dataSetLogs.size() + otherLogs.size();
 	}
 
-	public int countOf(State state) {
+	public synchronized int countOf(State state) {
 		if (state == null)
 			return 0;
 		var count = new Object() {
@@ -72,14 +73,14 @@ public final class ImportLog {
 		return count.value;
 	}
 
-	public Collection<Message> messages() {
+	public synchronized Collection<Message> messages() {
 		var all = new ArrayList<Message>(size());
 		all.addAll(otherLogs);
 		all.addAll(dataSetLogs.valueCollection());
 		return all;
 	}
 
-	public Set<Message> messagesOf(State state, State... more) {
+	public synchronized Set<Message> messagesOf(State state, State... more) {
 		var matched = new HashSet<Message>();
 		Consumer<Message> filter = message -> {
 			if (state == message.state) {
@@ -127,7 +128,7 @@ public final class ImportLog {
 		add(new Message(State.SKIPPED, d));
 	}
 
-	private void add(State state, RootEntity e) {
+	private synchronized void add(State state, RootEntity e) {
 		if (e == null || e.id == 0)
 			return;
 		var current = dataSetLogs.get(e.id);
@@ -168,7 +169,7 @@ public final class ImportLog {
 		error(message + ": " + err.getMessage());
 	}
 
-	private void add(Message message) {
+	private synchronized void add(Message message) {
 		if (size() >= MAX_SIZE)
 			return;
 		if (message.hasDescriptor()) {
@@ -0,0 +1,220 @@
+package org.openlca.core.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.RootEntity;
+
+/**
+ * Reads and writes the data sets of one type in an import as a pipeline. The
+ * data sets are read, which means parsed and with their references resolved,
+ * in one or more worker threads and collected into batches. These batches are
+ * then written to the database in a single writer thread. While a batch is
+ * written, the next batch is already read.
+ * <p>
+ * With a single thread, the read-tasks are directly executed in the calling
+ * thread. With more threads, the entity resolver that is used in these tasks
+ * must be thread-safe and the data sets of the type must not reference each
+ * other (see {@link #canReadInParallel(ModelType)}) as they are read in
+ * arbitrary order then.
+ */
+public class ImportPipeline implements AutoCloseable {
+
+	private final IDatabase db;
+	private final int batchSize;
+	private final Consumer<RootEntity> onSaved;
+
+	private final ExecutorService workers;
+	private final Semaphore slots;
+	private final ExecutorService writer = Executors.newSingleThreadExecutor();
+	private Future<?> task;
+	private volatile Throwable error;
+
+	private final ArrayList<RootEntity> inserts = new ArrayList<>();
+	private final ArrayList<RootEntity> updates = new ArrayList<>();
+
+	/**
+	 * Creates a new pipeline.
+	 *
+	 * @param db        the database into which the data sets are written
+	 * @param batchSize the number of data sets that are written in one
+	 *                  transaction
+	 * @param threads   the number of threads that read the data sets
+	 * @param onSaved   is called for each data set after its batch was
+	 *                  written; note that this is called in the writer thread
+	 */
+	public ImportPipeline(
+			IDatabase db, int batchSize, int threads, Consumer<RootEntity> onSaved) {
+		this.db = db;
+		this.batchSize = Math.max(1, batchSize);
+		this.onSaved = onSaved;
+		if (threads > 1) {
+			workers = Executors.newFixedThreadPool(threads);
+			// limit the number of data sets that are read in advance
+			slots = new Semaphore(2 * threads);
+		} else {
+			workers = null;
+			slots = null;
+		}
+	}
+
+	/**
+	 * Returns the number of threads that are available for reading data sets,
+	 * which is the number of available processors minus one for the writer.
+	 */
+	public static int defaultThreadCount() {
+		return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+	}
+
+	/**
+	 * Returns true if the data sets of the given type can be read in
+	 * parallel. This is not the case for types with data sets that can link
+	 * to other data sets of the same type, like the reference currency of a
+	 * currency, the reference property of the flow properties of unit groups,
+	 * or the sub-systems of a product system, because the linked data set
+	 * could be imported twice then.
+	 */
+	public static boolean canReadInParallel(ModelType type) {
+		if (type == null)
+			return false;
+		return switch (type) {
+			case CATEGORY, CURRENCY, UNIT_GROUP, PRODUCT_SYSTEM -> false;
+			default -> true;
+		};
+	}
+
+	/**
+	 * Submits a task that reads a data set and adds it via
+	 * {@link #insert(RootEntity)} or {@link #update(RootEntity)} to this
+	 * pipeline. If the first task that failed threw an exception, it is
+	 * re-thrown here.
+	 */
+	public void submit(Runnable task) {
+		checkError();
+		if (workers == null) {
+			task.run();
+			return;
+		}
+		slots.acquireUninterruptibly();
+		try {
+			workers.execute(() -> {
+				try {
+					if (error == null) {
+						task.run();
+					}
+				} catch (Throwable e) {
+					if (error == null) {
+						error = e;
+					}
+				} finally {
+					slots.release();
+				}
+			});
+		} catch (Exception e) {
+			slots.release();
+			throw e;
+		}
+	}
+
+	public synchronized void insert(RootEntity entity) {
+		if (entity == null)
+			return;
+		inserts.add(entity);
+		if (inserts.size() >= batchSize) {
+			write(inserts, true);
+		}
+	}
+
+	public synchronized void update(RootEntity entity) {
+		if (entity == null)
+			return;
+		updates.add(entity);
+		if (updates.size() >= batchSize) {
+			write(updates, false);
+		}
+	}
+
+	/**
+	 * Waits until all submitted data sets are read and written to the
+	 * database.
+	 */
+	@Override
+	public void close() {
+		try {
+			if (workers != null) {
+				workers.shutdown();
+				awaitWorkers();
+			}
+			synchronized (this) {
+				if (!inserts.isEmpty()) {
+					write(inserts, true);
+				}
+				if (!updates.isEmpty()) {
+					write(updates, false);
+				}
+				awaitWriter();
+			}
+		} finally {
+			writer.shutdown();
+			if (workers != null) {
+				workers.shutdownNow();
+			}
+		}
+		checkError();
+	}
+
+	private void write(List<RootEntity> batch, boolean isInsert) {
+		awaitWriter();
+		var buffer = new ArrayList<>(batch);
+		batch.clear();
+		task = writer.submit(() -> {
+			if (isInsert) {
+				db.transaction(em -> buffer.forEach(em::persist));
+			} else {
+				db.transaction(em -> buffer.replaceAll(em::merge));
+			}
+			if (onSaved != null) {
+				buffer.forEach(onSaved);
+			}
+		});
+	}
+
+	private void awaitWriter() {
+		if (task == null)
+			return;
+		try {
+			task.get();
+			task = null;
+		} catch (Exception e) {
+			throw new RuntimeException("failed to wait for writer", e);
+		}
+	}
+
+	private void awaitWorkers() {
+		try {
+			while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+				checkError();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("interrupted while reading data sets", e);
+		}
+	}
+
+	private void checkError() {
+		var e = error;
+		if (e == null)
+			return;
+		if (e instanceof RuntimeException re)
+			throw re;
+		throw new RuntimeException("failed to read data set", e);
+	}
+}
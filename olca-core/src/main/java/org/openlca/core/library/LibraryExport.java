@@ -10,11 +10,12 @@ import org.openlca.core.database.ImpactCategoryDao;
 import org.openlca.core.matrix.ImpactBuilder;
 import org.openlca.core.matrix.MatrixConfig;
 import org.openlca.core.matrix.MatrixData;
+import org.openlca.core.matrix.format.DenseMatrix;
 import org.openlca.core.matrix.index.EnviIndex;
 import org.openlca.core.matrix.index.ImpactIndex;
 import org.openlca.core.matrix.index.TechIndex;
 import org.openlca.core.matrix.io.MatrixExport;
-import org.openlca.core.matrix.io.NpyMatrix;
+import org.openlca.core.matrix.io.NpyColumnWriter;
 import org.openlca.core.matrix.io.index.IxContext;
 import org.openlca.core.matrix.io.index.IxEnviIndex;
 import org.openlca.core.matrix.io.index.IxImpactIndex;
@@ -27,6 +28,11 @@ import org.slf4j.LoggerFactory;
 
 public class LibraryExport implements Runnable {
 
+	/**
+	 * The number of columns of the inverse that are calculated at once.
+	 */
+	private static final int INVERSE_BLOCK = 256;
+
 	private final Logger log = LoggerFactory.getLogger(getClass());
 
 	final IDatabase db;
@@ -227,13 +233,37 @@ public class LibraryExport implements Runnable {
 		if (!solver.isNative()) {
 			log.warn("no native libraries loaded");
 		}
-		log.info("create matrix INV");
-		var inv = solver.invert(data.techMatrix);
-		NpyMatrix.write(folder, "INV", inv);
-		if (data.enviMatrix == null)
-			return;
-		log.info("create matrix M");
-		var m = solver.multiply(data.enviMatrix, inv);
-		NpyMatrix.write(folder, "M", m);
+		log.info("create matrices INV and M");
+
+		// the inverse and intensity matrix are calculated in blocks of columns
+		// and directly written to the mapped files, so that they are never
+		// fully kept in memory
+		int n = data.techMatrix.rows();
+		var enviMatrix = data.enviMatrix;
+		var factorization = solver.factorize(data.techMatrix);
+		try (var inv = NpyColumnWriter.dense(folder, "INV", n, n);
+			var m = enviMatrix != null
+				? NpyColumnWriter.dense(folder, "M", enviMatrix.rows(), n)
+				: null) {
+			for (int start = 0; start < n; start += INVERSE_BLOCK) {
+				int end = Math.min(n, start + INVERSE_BLOCK);
+				var unit = new DenseMatrix(n, end - start);
+				for (int j = start; j < end; j++) {
+					unit.set(j, j - start, 1);
+				}
+				var invBlock = factorization.solve(unit);
+				var mBlock = m != null
+					? solver.multiply(enviMatrix, invBlock)
+					: null;
+				for (int j = start; j < end; j++) {
+					inv.put(j, invBlock.getColumn(j - start));
+					if (m != null) {
+						m.put(j, mBlock.getColumn(j - start));
+					}
+				}
+			}
+		} finally {
+			factorization.dispose();
+		}
 	}
 }
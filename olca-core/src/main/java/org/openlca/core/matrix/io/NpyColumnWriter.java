@@ -0,0 +1,345 @@
+package org.openlca.core.matrix.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+
+import org.openlca.core.results.providers.ResultProvider;
+import org.openlca.npy.NpyByteOrder;
+import org.openlca.npy.NpyCharArray;
+import org.openlca.npy.NpyDataType;
+import org.openlca.npy.NpyIntArray;
+import org.openlca.npy.Npz;
+import org.openlca.npy.dict.NpyHeaderDict;
+import org.openlca.util.Dirs;
+
+/**
+ * Writes a matrix column by column into a file without creating the full
+ * matrix in memory. This is useful for matrices that are calculated column by
+ * column, like the inverse of the technology matrix. There are two variants:
+ * <ul>
+ * <li>{@link #dense}: the matrix is written as npy file in Fortran order. The
+ * file is pre-sized with the header and the full data block and the columns
+ * are written into memory-mapped windows of that file.</li>
+ * <li>{@link #sparse}: the matrix is written as npz file in the CSC format.
+ * As the number of non-zero values is not known in advance, the values and
+ * row indices are appended to temporary files which are then copied into the
+ * npz file when the writer is closed. The columns need to be added in order
+ * for this variant.</li>
+ * </ul>
+ * The files can be read with {@link NpyMatrix#read}.
+ */
+public abstract class NpyColumnWriter implements AutoCloseable {
+
+	final File file;
+	final int rows;
+	final int columns;
+
+	private NpyColumnWriter(File file, int rows, int columns) {
+		this.file = file;
+		this.rows = rows;
+		this.columns = columns;
+	}
+
+	/**
+	 * Creates a writer for a dense matrix that is stored in the npy file
+	 * {@code <name>.npy} in the given folder.
+	 */
+	public static NpyColumnWriter dense(
+		File folder, String name, int rows, int columns) {
+		Dirs.createIfAbsent(folder);
+		var file = new File(folder, name + ".npy");
+		try {
+			return new Dense(file, rows, columns);
+		} catch (IOException e) {
+			throw new UncheckedIOException("failed to create " + file, e);
+		}
+	}
+
+	/**
+	 * Creates a writer for a sparse matrix that is stored in the CSC format in
+	 * the npz file {@code <name>.npz} in the given folder.
+	 */
+	public static NpyColumnWriter sparse(
+		File folder, String name, int rows, int columns) {
+		Dirs.createIfAbsent(folder);
+		var file = new File(folder, name + ".npz");
+		try {
+			return new Sparse(file, rows, columns);
+		} catch (IOException e) {
+			throw new UncheckedIOException("failed to create " + file, e);
+		}
+	}
+
+	/**
+	 * Writes the solutions of the given result provider, which are the columns
+	 * of the inverse of the technology matrix, into a dense npy file. Note
+	 * that result providers may cache the columns that they calculate.
+	 */
+	public static File writeSolutionsOf(
+		ResultProvider provider, File folder, String name) {
+		int n = provider.techIndex().size();
+		try (var writer = dense(folder, name, n, n)) {
+			for (int j = 0; j < n; j++) {
+				writer.put(j, provider.solutionOfOne(j));
+			}
+			return writer.file();
+		}
+	}
+
+	/**
+	 * Writes the total flows of one unit of each technosphere flow of the
+	 * given result provider, which are the columns of the intensity matrix
+	 * {@code M = B * INV}, into a dense npy file.
+	 */
+	public static File writeTotalFlowsOf(
+		ResultProvider provider, File folder, String name) {
+		int m = provider.hasFlows()
+			? provider.enviIndex().size()
+			: 0;
+		int n = provider.techIndex().size();
+		try (var writer = dense(folder, name, m, n)) {
+			if (m == 0)
+				return writer.file();
+			for (int j = 0; j < n; j++) {
+				writer.put(j, provider.totalFlowsOfOne(j));
+			}
+			return writer.file();
+		}
+	}
+
+	/**
+	 * The file to which the matrix is written.
+	 */
+	public File file() {
+		return file;
+	}
+
+	/**
+	 * Writes the values of the given column. A {@code null} column is handled
+	 * as a column with only zero values.
+	 */
+	public abstract void put(int column, double[] values);
+
+	/**
+	 * Finishes the file. A column that was not written contains only zero
+	 * values.
+	 */
+	@Override
+	public abstract void close();
+
+	void checkColumn(int column, double[] values) {
+		if (column < 0 || column >= columns)
+			throw new IndexOutOfBoundsException(
+				"invalid column " + column + " of " + columns);
+		if (values != null && values.length != rows)
+			throw new IllegalArgumentException(
+				"column " + column + " has " + values.length
+					+ " values but the matrix has " + rows + " rows");
+	}
+
+	private static byte[] headerOf(NpyDataType type, int[] shape,
+		boolean fortranOrder) {
+		return NpyHeaderDict.of(type)
+			.withShape(shape)
+			.withByteOrder(NpyByteOrder.LITTLE_ENDIAN)
+			.withFortranOrder(fortranOrder)
+			.create()
+			.toNpyHeader();
+	}
+
+	private static class Dense extends NpyColumnWriter {
+
+		/**
+		 * The maximum size of a memory-mapped window in bytes.
+		 */
+		private static final long WINDOW_SIZE = 1L << 28;
+
+		private final RandomAccessFile raf;
+		private final FileChannel channel;
+		private final long offset;
+		private final int windowColumns;
+
+		private DoubleBuffer window;
+		private int windowStart = -1;
+
+		Dense(File file, int rows, int columns) throws IOException {
+			super(file, rows, columns);
+			var header = headerOf(NpyDataType.f8, new int[]{rows, columns}, true);
+			this.offset = header.length;
+			this.raf = new RandomAccessFile(file, "rw");
+			try {
+				raf.setLength(offset + 8L * rows * columns);
+				raf.write(header);
+			} catch (IOException e) {
+				raf.close();
+				throw e;
+			}
+			this.channel = raf.getChannel();
+			long columnSize = Math.max(8L * rows, 1);
+			this.windowColumns = (int) Math.max(1,
+				Math.min(columns, WINDOW_SIZE / columnSize));
+		}
+
+		@Override
+		public void put(int column, double[] values) {
+			checkColumn(column, values);
+			if (values == null || rows == 0)
+				return;
+			if (window == null
+				|| column < windowStart
+				|| column >= windowStart + windowColumns) {
+				map(column);
+			}
+			window.put((column - windowStart) * rows, values);
+		}
+
+		private void map(int column) {
+			int start = column - column % windowColumns;
+			int end = Math.min(columns, start + windowColumns);
+			long pos = offset + 8L * rows * start;
+			long size = 8L * rows * (end - start);
+			try {
+				window = channel.map(FileChannel.MapMode.READ_WRITE, pos, size)
+					.order(ByteOrder.LITTLE_ENDIAN)
+					.asDoubleBuffer();
+				windowStart = start;
+			} catch (IOException e) {
+				throw new UncheckedIOException("failed to map " + file, e);
+			}
+		}
+
+		@Override
+		public void close() {
+			window = null;
+			try {
+				raf.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException("failed to close " + file, e);
+			}
+		}
+	}
+
+	private static class Sparse extends NpyColumnWriter {
+
+		private static final int BUFFER_SIZE = 1 << 16;
+
+		private final int[] columnPointers;
+		private final File valueFile;
+		private final File indexFile;
+		private final FileChannel values;
+		private final FileChannel indices;
+		private final ByteBuffer valueBuffer;
+		private final ByteBuffer indexBuffer;
+
+		private int nextColumn;
+		private long count;
+
+		Sparse(File file, int rows, int columns) throws IOException {
+			super(file, rows, columns);
+			columnPointers = new int[columns + 1];
+			valueFile = Files.createTempFile("_olca_csc_", ".bin").toFile();
+			indexFile = Files.createTempFile("_olca_csc_", ".bin").toFile();
+			values = new RandomAccessFile(valueFile, "rw").getChannel();
+			indices = new RandomAccessFile(indexFile, "rw").getChannel();
+			valueBuffer = ByteBuffer.allocate(8 * BUFFER_SIZE)
+				.order(ByteOrder.LITTLE_ENDIAN);
+			indexBuffer = ByteBuffer.allocate(4 * BUFFER_SIZE)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		@Override
+		public void put(int column, double[] values) {
+			checkColumn(column, values);
+			if (column < nextColumn)
+				throw new IllegalArgumentException(
+					"column " + column + " was already written; the columns "
+						+ "of a sparse matrix need to be written in order");
+			skipTo(column);
+			if (values != null) {
+				for (int row = 0; row < values.length; row++) {
+					double value = values[row];
+					if (value == 0)
+						continue;
+					if (!valueBuffer.hasRemaining()) {
+						flush();
+					}
+					valueBuffer.putDouble(value);
+					indexBuffer.putInt(row);
+					count++;
+				}
+			}
+			if (count > Integer.MAX_VALUE)
+				throw new IllegalStateException(
+					"too many non-zero values for the CSC format");
+			columnPointers[column + 1] = (int) count;
+			nextColumn = column + 1;
+		}
+
+		private void skipTo(int column) {
+			for (int j = nextColumn; j < column; j++) {
+				columnPointers[j + 1] = (int) count;
+			}
+			nextColumn = column;
+		}
+
+		private void flush() {
+			try {
+				valueBuffer.flip();
+				while (valueBuffer.hasRemaining()) {
+					values.write(valueBuffer);
+				}
+				valueBuffer.clear();
+				indexBuffer.flip();
+				while (indexBuffer.hasRemaining()) {
+					indices.write(indexBuffer);
+				}
+				indexBuffer.clear();
+			} catch (IOException e) {
+				throw new UncheckedIOException("failed to write " + file, e);
+			}
+		}
+
+		@Override
+		public void close() {
+			try {
+				skipTo(columns);
+				flush();
+				values.close();
+				indices.close();
+				int n = (int) count;
+				Npz.create(file, npz -> {
+					Npz.write(npz, "format.npy", NpyCharArray.of("csc"));
+					Npz.write(npz, "shape.npy",
+						NpyIntArray.vectorOf(new int[]{rows, columns}));
+					try {
+						npz.putNextEntry(new ZipEntry("data.npy"));
+						npz.write(headerOf(NpyDataType.f8, new int[]{n}, false));
+						Files.copy(valueFile.toPath(), npz);
+						npz.closeEntry();
+						Npz.write(npz, "indptr.npy",
+							NpyIntArray.vectorOf(columnPointers));
+						npz.putNextEntry(new ZipEntry("indices.npy"));
+						npz.write(headerOf(NpyDataType.i4, new int[]{n}, false));
+						Files.copy(indexFile.toPath(), npz);
+						npz.closeEntry();
+					} catch (IOException e) {
+						throw new UncheckedIOException("failed to write " + file, e);
+					}
+				});
+			} catch (IOException e) {
+				throw new UncheckedIOException("failed to write " + file, e);
+			} finally {
+				valueFile.delete();
+				indexFile.delete();
+			}
+		}
+	}
+}
@@ -1,6 +1,11 @@
 package org.openlca.core.matrix.io;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.zip.ZipFile;
@@ -16,10 +21,13 @@ import org.openlca.core.matrix.format.MatrixReader;
 import org.openlca.npy.Array2d;
 import org.openlca.npy.Npy;
 import org.openlca.npy.NpyByteArray;
+import org.openlca.npy.NpyByteOrder;
 import org.openlca.npy.NpyCharArray;
+import org.openlca.npy.NpyDataType;
 import org.openlca.npy.NpyDoubleArray;
 import org.openlca.npy.NpyIntArray;
 import org.openlca.npy.Npz;
+import org.openlca.npy.dict.NpyHeaderDict;
 import org.openlca.util.Dirs;
 
 public class NpyMatrix {
@@ -141,6 +149,37 @@ public class NpyMatrix {
 		return file;
 	}
 
+	/**
+	 * Writes the given matrix as dense array in Fortran order in the npy format
+	 * to the given stream. The matrix is written column by column, so that no
+	 * dense copy of the matrix is created. The stream is not closed by this
+	 * method.
+	 */
+	public static void write(OutputStream out, MatrixReader matrix) {
+		int rows = matrix.rows();
+		int cols = matrix.columns();
+		var header = NpyHeaderDict.of(NpyDataType.f8)
+			.withShape(new int[]{rows, cols})
+			.withByteOrder(NpyByteOrder.LITTLE_ENDIAN)
+			.withFortranOrder(true)
+			.create();
+		try {
+			out.write(header.toNpyHeader());
+			var buffer = ByteBuffer.allocate(8 * rows)
+				.order(ByteOrder.LITTLE_ENDIAN);
+			for (int col = 0; col < cols; col++) {
+				buffer.clear();
+				for (double value : matrix.getColumn(col)) {
+					buffer.putDouble(value);
+				}
+				out.write(buffer.array(), 0, buffer.position());
+			}
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException("failed to write matrix", e);
+		}
+	}
+
 	private static void writeNpz(File file, CSCMatrix csc) {
 		Npz.create(file, npz -> {
 			Npz.write(npz, "format.npy",
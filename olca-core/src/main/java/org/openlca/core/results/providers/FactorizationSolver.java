@@ -3,7 +3,9 @@ package org.openlca.core.results.providers;
 import org.openlca.core.matrix.Demand;
 import org.openlca.core.matrix.MatrixData;
 import org.openlca.core.matrix.format.ColumnIterator;
+import org.openlca.core.matrix.format.DenseMatrix;
 import org.openlca.core.matrix.format.Matrix;
+import org.openlca.core.matrix.format.MatrixReader;
 import org.openlca.core.matrix.index.EnviIndex;
 import org.openlca.core.matrix.index.ImpactIndex;
 import org.openlca.core.matrix.index.TechIndex;
@@ -291,6 +293,58 @@ public class FactorizationSolver implements ResultProvider {
 		return directImpacts;
 	}
 
+	@Override
+	public MatrixReader directImpactMatrix() {
+		var impacts = directImpacts();
+		return impacts != null
+			? impacts
+			: ResultProvider.super.directImpactMatrix();
+	}
+
+	/**
+	 * Calculates the total impacts of all technosphere flows in blocks of
+	 * multiple columns: for each block, the equation system is solved for the
+	 * respective unit vectors at once and the solutions are multiplied with
+	 * the characterized intervention matrix `C * B`. The solutions are not
+	 * cached, so that the memory usage is limited to the size of a block.
+	 */
+	@Override
+	public MatrixReader totalImpactMatrix() {
+		int n = data.techIndex.size();
+		if (!hasImpacts() || data.impactMatrix == null || data.enviMatrix == null)
+			return ResultProvider.super.totalImpactMatrix();
+		int k = data.impactIndex.size();
+		var impacts = new DenseMatrix(k, n);
+		var cb = solver.multiply(data.impactMatrix, data.enviMatrix);
+
+		int blockSize = Math.max(1, Math.min(n, 256));
+		for (int offset = 0; offset < n; offset += blockSize) {
+			int cols = Math.min(blockSize, n - offset);
+			var units = new DenseMatrix(n, cols);
+			for (int j = 0; j < cols; j++) {
+				units.set(offset + j, j, 1.0);
+			}
+			var solutions = factorization.solve(units);
+			var intensities = solver.multiply(cb, solutions);
+
+			for (int j = 0; j < cols; j++) {
+				int techFlow = offset + j;
+
+				// the total factor tf[j] = t[j] * lf[j]; see loopFactorOf
+				var aii = data.techMatrix.get(techFlow, techFlow);
+				var eii = solutions.get(techFlow, j);
+				var f = aii * eii;
+				var tf = f == 0
+					? 0
+					: totalRequirementsOf(techFlow) / f;
+				for (int i = 0; i < k; i++) {
+					impacts.set(i, techFlow, tf * intensities.get(i, j));
+				}
+			}
+		}
+		return impacts;
+	}
+
 	@Override
 	public double[] totalImpactsOfOne(int techFlow) {
 		if (totalImpactsOfOne == null)
@@ -3,6 +3,7 @@ package org.openlca.core.results.providers;
 import org.openlca.core.matrix.Demand;
 import org.openlca.core.matrix.MatrixData;
 import org.openlca.core.matrix.format.ColumnIterator;
+import org.openlca.core.matrix.format.MatrixReader;
 import org.openlca.core.matrix.index.EnviIndex;
 import org.openlca.core.matrix.index.ImpactIndex;
 import org.openlca.core.matrix.index.TechIndex;
@@ -208,6 +209,13 @@ public class InversionResultProvider implements ResultProvider {
 			: 0;
 	}
 
+	@Override
+	public MatrixReader directImpactMatrix() {
+		return r.directImpacts() != null
+			? r.directImpacts()
+			: ResultProvider.super.directImpactMatrix();
+	}
+
 	@Override
 	public double[] totalImpactsOfOne(int techFlow) {
 		return r.impactIntensities() != null
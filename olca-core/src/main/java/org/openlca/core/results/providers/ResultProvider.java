@@ -5,6 +5,8 @@ import java.util.Arrays;
 import org.openlca.core.matrix.Demand;
 import org.openlca.core.matrix.format.ColumnIterator;
 import org.openlca.core.matrix.format.ColumnIterator.ArrayIterator;
+import org.openlca.core.matrix.format.DenseMatrix;
+import org.openlca.core.matrix.format.MatrixReader;
 import org.openlca.core.matrix.index.EnviFlow;
 import org.openlca.core.matrix.index.ImpactIndex;
 import org.openlca.core.matrix.index.EnviIndex;
@@ -500,6 +502,60 @@ public interface ResultProvider {
 		return totalFactorOf(techFlow) * totalImpactOfOne(indicator, techFlow);
 	}
 
+	/**
+	 * Returns the full direct impact matrix `H = C * B * diag(s)`, with the
+	 * impact categories in the rows and the technosphere flows in the columns.
+	 * The default implementation collects the matrix column by column; it
+	 * should be overwritten when the matrix is directly available.
+	 *
+	 * @see #directImpactsOf(int)
+	 */
+	default MatrixReader directImpactMatrix() {
+		var techIdx = techIndex();
+		var impactIdx = impactIndex();
+		int n = techIdx != null ? techIdx.size() : 0;
+		int k = impactIdx != null ? impactIdx.size() : 0;
+		var m = new DenseMatrix(k, n);
+		if (k == 0)
+			return m;
+		for (int j = 0; j < n; j++) {
+			var column = directImpactsOf(j);
+			if (isEmpty(column))
+				continue;
+			m.setColumn(j, column);
+		}
+		return m;
+	}
+
+	/**
+	 * Returns the full matrix of the total impact results (direct + upstream)
+	 * related to the total requirements of the technosphere flows. The column
+	 * `j` of this matrix is `N[:,j] * tf[j]` with the impact intensity matrix
+	 * `N` and the total factor `tf[j]` of the technosphere flow `j`. The
+	 * default implementation collects the matrix column by column which can
+	 * result in a solution of the equation system for each technosphere flow;
+	 * implementations should overwrite this with a more efficient method, e.g.
+	 * by solving the system for multiple columns at once.
+	 *
+	 * @see #totalImpactsOf(int)
+	 */
+	default MatrixReader totalImpactMatrix() {
+		var techIdx = techIndex();
+		var impactIdx = impactIndex();
+		int n = techIdx != null ? techIdx.size() : 0;
+		int k = impactIdx != null ? impactIdx.size() : 0;
+		var m = new DenseMatrix(k, n);
+		if (k == 0)
+			return m;
+		for (int j = 0; j < n; j++) {
+			var column = totalImpactsOf(j);
+			if (isEmpty(column))
+				continue;
+			m.setColumn(j, column);
+		}
+		return m;
+	}
+
 	/**
 	 * Returns the total impact assessment result `h` (the LCIA result) of the
 	 * product system: `h = C * g`, where `C` is the impact matrix, which contains
@@ -0,0 +1,29 @@
+package org.openlca.core.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Result content that is transferred in a binary format instead of JSON.
+ */
+public interface BinaryContent {
+
+	/**
+	 * The media type of the content, e.g. for the content type header of an
+	 * HTTP response.
+	 */
+	String mediaType();
+
+	/**
+	 * Returns the number of bytes of the encoded content or {@code -1} when
+	 * this is not known before the content is written.
+	 */
+	long byteSize();
+
+	/**
+	 * Writes the encoded content to the given stream. The stream is not closed
+	 * by this method.
+	 */
+	void writeTo(OutputStream out) throws IOException;
+
+}
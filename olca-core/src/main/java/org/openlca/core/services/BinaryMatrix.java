@@ -0,0 +1,35 @@
+package org.openlca.core.services;
+
+import java.io.OutputStream;
+import java.util.Objects;
+
+import org.openlca.core.matrix.format.MatrixReader;
+import org.openlca.core.matrix.io.NpyMatrix;
+
+/**
+ * A result matrix that is transferred as dense array in the npy format (in
+ * Fortran order). The rows and columns of the matrix are aligned with the
+ * respective indices of the result.
+ */
+public record BinaryMatrix(MatrixReader matrix) implements BinaryContent {
+
+	public BinaryMatrix {
+		Objects.requireNonNull(matrix);
+	}
+
+	@Override
+	public String mediaType() {
+		return "application/octet-stream";
+	}
+
+	@Override
+	public long byteSize() {
+		return -1;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) {
+		NpyMatrix.write(out, matrix);
+	}
+
+}
@@ -0,0 +1,298 @@
+package org.openlca.core.services;
+
+import static org.openlca.core.services.Util.*;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
+
+import org.openlca.core.matrix.format.MatrixReader;
+import org.openlca.core.matrix.index.MatrixIndex;
+import org.openlca.core.results.LcaResult;
+import org.openlca.core.results.providers.ResultProvider;
+import org.openlca.core.services.BinaryValues.IndexType;
+
+/**
+ * Provides the vector results of the {@link JsonResultService} in the compact
+ * {@link BinaryValues} format and full contribution matrices in the npy format
+ * ({@link BinaryMatrix}). The values are aligned with the respective result
+ * index, which can be requested via the JSON service. An instance of
+ * this service is obtained via {@link JsonResultService#binary()} and shares
+ * the calculation queue with it.
+ */
+public class BinaryResultService {
+
+	private final CalculationQueue queue;
+
+	BinaryResultService(CalculationQueue queue) {
+		this.queue = Objects.requireNonNull(queue);
+	}
+
+	// region: technosphere flows
+
+	public Response<BinaryValues> getScalingFactors(String resultId) {
+		return withResult(resultId,
+				result -> Response.of(techValues(result, scalingVectorOf(result))));
+	}
+
+	public Response<BinaryValues> getTotalityFactors(String resultId) {
+		return withResult(resultId,
+				result -> Response.of(techValues(
+						result, result.provider()::totalFactorOf)));
+	}
+
+	public Response<BinaryValues> getTotalRequirements(String resultId) {
+		return withResult(resultId,
+				result -> Response.of(techValues(
+						result, vectorOf(result.provider().totalRequirements()))));
+	}
+
+	public Response<BinaryValues> getScaledTechFlowsOf(
+			String resultId, TechFlowId techFlowId) {
+		return withResult(resultId, result -> techFlowOf(result, techFlowId)
+				.map(techFlow -> {
+					int j = result.provider().indexOf(techFlow);
+					return techValues(
+							result, i -> result.provider().scaledTechValueOf(i, j));
+				}));
+	}
+
+	public Response<BinaryValues> getUnscaledTechFlowsOf(
+			String resultId, TechFlowId techFlowId) {
+		return withResult(resultId, result -> techFlowOf(result, techFlowId)
+				.map(techFlow -> {
+					int j = result.provider().indexOf(techFlow);
+					return techValues(
+							result, vectorOf(result.provider().techColumnOf(j)));
+				}));
+	}
+
+	// endregion
+
+	// region: flows
+
+	public Response<BinaryValues> getTotalFlows(String resultId) {
+		return withResult(resultId,
+				result -> Response.of(enviValues(
+						result, vectorOf(result.provider().totalFlows()))));
+	}
+
+	public Response<BinaryValues> getFlowContributionsOf(
+			String resultId, EnviFlowId enviFlowId) {
+		return withResult(resultId, result -> enviFlowOf(result, enviFlowId)
+				.map(enviFlow -> {
+					int k = result.provider().indexOf(enviFlow);
+					return techValues(result, j -> ResultProvider.flowValueView(
+							enviFlow, result.provider().directFlowOf(k, j)));
+				}));
+	}
+
+	public Response<BinaryValues> getTotalFlowValuesOf(
+			String resultId, EnviFlowId enviFlowId) {
+		return withResult(resultId, result -> enviFlowOf(result, enviFlowId)
+				.map(enviFlow -> {
+					int k = result.provider().indexOf(enviFlow);
+					return techValues(result, j -> ResultProvider.flowValueView(
+							enviFlow, result.provider().totalFlowOf(k, j)));
+				}));
+	}
+
+	public Response<BinaryValues> getDirectInterventionsOf(
+			String resultId, TechFlowId techFlowId) {
+		return withResult(resultId, result -> techFlowOf(result, techFlowId)
+				.map(techFlow -> enviValues(result, vectorOf(
+						result.provider().directFlowsOf(result.provider().indexOf(techFlow))))));
+	}
+
+	public Response<BinaryValues> getFlowIntensitiesOf(
+			String resultId, TechFlowId techFlowId) {
+		return withResult(resultId, result -> techFlowOf(result, techFlowId)
+				.map(techFlow -> enviValues(result, vectorOf(
+						result.provider().totalFlowsOfOne(result.provider().indexOf(techFlow))))));
+	}
+
+	public Response<BinaryValues> getTotalInterventionsOf(
+			String resultId, TechFlowId techFlowId) {
+		return withResult(resultId, result -> techFlowOf(result, techFlowId)
+				.map(techFlow -> enviValues(result, vectorOf(
+						result.provider().totalFlowsOf(result.provider().indexOf(techFlow))))));
+	}
+
+	// endregion
+
+	// region: impacts
+
+	public Response<BinaryValues> getTotalImpacts(String resultId) {
+		return withResult(resultId,
+				result -> Response.of(impactValues(
+						result, vectorOf(result.provider().totalImpacts()))));
+	}
+
+	public Response<BinaryValues> getImpactContributionsOf(
+			String resultId, String impactId) {
+		return withResult(resultId, result -> impactCategoryOf(result, impactId)
+				.map(impact -> {
+					int k = result.provider().indexOf(impact);
+					return techValues(
+							result, j -> result.provider().directImpactOf(k, j));
+				}));
+	}
+
+	public Response<BinaryValues> getTotalImpactValuesOf(
+			String resultId, String impactId) {
+		return withResult(resultId, result -> impactCategoryOf(result, impactId)
+				.map(impact -> {
+					int k = result.provider().indexOf(impact);
+					return techValues(
+							result, j -> result.provider().totalImpactOf(k, j));
+				}));
+	}
+
+	public Response<BinaryValues> getDirectImpactsOf(
+			String resultId, TechFlowId techFlowId) {
+		return withResult(resultId, result -> techFlowOf(result, techFlowId)
+				.map(techFlow -> impactValues(result, vectorOf(
+						result.provider().directImpactsOf(result.provider().indexOf(techFlow))))));
+	}
+
+	public Response<BinaryValues> getImpactIntensitiesOf(
+			String resultId, TechFlowId techFlowId) {
+		return withResult(resultId, result -> techFlowOf(result, techFlowId)
+				.map(techFlow -> impactValues(result, vectorOf(
+						result.provider().totalImpactsOfOne(result.provider().indexOf(techFlow))))));
+	}
+
+	public Response<BinaryValues> getTotalImpactsOf(
+			String resultId, TechFlowId techFlowId) {
+		return withResult(resultId, result -> techFlowOf(result, techFlowId)
+				.map(techFlow -> impactValues(result, vectorOf(
+						result.provider().totalImpactsOf(result.provider().indexOf(techFlow))))));
+	}
+
+	public Response<BinaryValues> getImpactFactorsOf(
+			String resultId, String impactId) {
+		return withResult(resultId, result -> impactCategoryOf(result, impactId)
+				.map(impact -> {
+					int k = result.provider().indexOf(impact);
+					return enviValues(
+							result, i -> result.provider().impactFactorOf(k, i));
+				}));
+	}
+
+	public Response<BinaryValues> getFlowImpactsOf(
+			String resultId, String impactId) {
+		return withResult(resultId, result -> impactCategoryOf(result, impactId)
+				.map(impact -> {
+					int k = result.provider().indexOf(impact);
+					return valuesOf(IndexType.ENVI_FLOWS, result.enviIndex(),
+							i -> result.provider().flowImpactOf(k, i));
+				}));
+	}
+
+	/**
+	 * Returns the direct impact contributions of all technosphere flows as
+	 * matrix with the impact categories in the rows and the technosphere flows
+	 * in the columns.
+	 */
+	public Response<BinaryMatrix> getDirectImpactMatrix(String resultId) {
+		return withMatrix(resultId,
+				result -> result.provider().directImpactMatrix());
+	}
+
+	/**
+	 * Returns the total (direct + upstream) impact contributions of all
+	 * technosphere flows as matrix with the impact categories in the rows and
+	 * the technosphere flows in the columns. The matrix is calculated in one
+	 * pass instead of calculating the upstream results of each technosphere
+	 * flow separately.
+	 */
+	public Response<BinaryMatrix> getTotalImpactMatrix(String resultId) {
+		return withMatrix(resultId,
+				result -> result.provider().totalImpactMatrix());
+	}
+
+	// endregion
+
+	// region: costs
+
+	public Response<BinaryValues> getCostContributions(String resultId) {
+		return withResult(resultId,
+				result -> Response.of(result.hasCosts()
+						? techValues(result, result.provider()::directCostsOf)
+						: new BinaryValues(IndexType.TECH_FLOWS, new double[0])));
+	}
+
+	public Response<BinaryValues> getTotalCostValues(String resultId) {
+		return withResult(resultId,
+				result -> Response.of(result.hasCosts()
+						? techValues(result, result.provider()::totalCostsOf)
+						: new BinaryValues(IndexType.TECH_FLOWS, new double[0])));
+	}
+
+	// endregion
+
+	private <T> Response<T> withResult(
+			String resultId, Function<LcaResult, Response<T>> fn) {
+		var res = resultOf(queue, resultId);
+		if (res.isEmpty())
+			return Response.empty();
+		return res.isError()
+				? Response.error(res.error())
+				: fn.apply(res.value());
+	}
+
+	private Response<BinaryMatrix> withMatrix(
+			String resultId, Function<LcaResult, MatrixReader> fn) {
+		return withResult(resultId, result -> {
+			if (!result.hasImpacts())
+				return Response.error("not an LCIA result");
+			try {
+				return Response.of(new BinaryMatrix(fn.apply(result)));
+			} catch (Exception e) {
+				return Response.error(e);
+			}
+		});
+	}
+
+	private BinaryValues techValues(LcaResult result, IntToDoubleFunction fn) {
+		return valuesOf(IndexType.TECH_FLOWS, result.techIndex(), fn);
+	}
+
+	/**
+	 * Returns the values of an elementary flow vector. Like in the JSON
+	 * results, the values of input flows are shown as positive numbers.
+	 */
+	private BinaryValues enviValues(LcaResult result, IntToDoubleFunction fn) {
+		var index = result.enviIndex();
+		return valuesOf(IndexType.ENVI_FLOWS, index,
+				i -> ResultProvider.flowValueView(index.at(i), fn.applyAsDouble(i)));
+	}
+
+	private BinaryValues impactValues(LcaResult result, IntToDoubleFunction fn) {
+		return valuesOf(IndexType.IMPACT_CATEGORIES, result.impactIndex(), fn);
+	}
+
+	/**
+	 * Writes the values of the given function directly into the value array of
+	 * the binary result, without creating a value object for each element of
+	 * the index.
+	 */
+	private BinaryValues valuesOf(
+			IndexType type, MatrixIndex<?> index, IntToDoubleFunction fn) {
+		if (MatrixIndex.isAbsent(index))
+			return new BinaryValues(type, new double[0]);
+		var values = new double[index.size()];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = fn.applyAsDouble(i);
+		}
+		return new BinaryValues(type, values);
+	}
+
+	private IntToDoubleFunction scalingVectorOf(LcaResult result) {
+		return vectorOf(result.provider().scalingVector());
+	}
+
+	private IntToDoubleFunction vectorOf(double[] vector) {
+		return i -> vector != null && i < vector.length ? vector[i] : 0;
+	}
+}
@@ -0,0 +1,126 @@
+package org.openlca.core.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * A compact binary encoding of a result vector. The values are aligned with
+ * an index of the result (tech-flows, envi-flows, or impact categories): the
+ * value at position i belongs to the element at position i of the respective
+ * index. Thus, clients can request the index once (e.g. via
+ * {@code getTechFlows}) and then fetch the values of multiple vectors without
+ * transferring the references of the index elements again.
+ * <p>
+ * The format is: the 4 magic bytes {@code OLCV}, a format version byte, a
+ * byte with the ordinal of the index type, two reserved bytes, the number of
+ * values as 32-bit integer, four reserved bytes, and finally the values as
+ * 64-bit floating point numbers. All numbers are stored in little-endian byte
+ * order, and the values start at an 8-byte aligned offset, so that they can
+ * be directly mapped into typed arrays on the client side.
+ */
+public record BinaryValues(
+		IndexType indexType, double[] values) implements BinaryContent {
+
+	private static final byte[] MAGIC = {'O', 'L', 'C', 'V'};
+	private static final byte VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+
+	public enum IndexType {
+		TECH_FLOWS, ENVI_FLOWS, IMPACT_CATEGORIES
+	}
+
+	public BinaryValues {
+		Objects.requireNonNull(indexType);
+		Objects.requireNonNull(values);
+	}
+
+	public int size() {
+		return values.length;
+	}
+
+	@Override
+	public String mediaType() {
+		return "application/octet-stream";
+	}
+
+	@Override
+	public long byteSize() {
+		return HEADER_SIZE + 8L * values.length;
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		var header = ByteBuffer.allocate(HEADER_SIZE)
+				.order(ByteOrder.LITTLE_ENDIAN)
+				.put(MAGIC)
+				.put(VERSION)
+				.put((byte) indexType.ordinal())
+				.putShort((short) 0)
+				.putInt(values.length)
+				.putInt(0);
+		out.write(header.array());
+
+		// write the values in chunks to keep the buffer small
+		var buffer = ByteBuffer.allocate(8 * Math.min(values.length, 8192))
+				.order(ByteOrder.LITTLE_ENDIAN);
+		for (double value : values) {
+			if (!buffer.hasRemaining()) {
+				out.write(buffer.array(), 0, buffer.position());
+				buffer.clear();
+			}
+			buffer.putDouble(value);
+		}
+		if (buffer.position() > 0) {
+			out.write(buffer.array(), 0, buffer.position());
+		}
+		out.flush();
+	}
+
+	public byte[] toBytes() {
+		try {
+			var out = new ByteArrayOutputStream((int) byteSize());
+			writeTo(out);
+			return out.toByteArray();
+		} catch (IOException e) {
+			throw new RuntimeException("failed to encode values", e);
+		}
+	}
+
+	public static BinaryValues readFrom(InputStream in) throws IOException {
+		var data = new DataInputStream(in);
+		var header = new byte[HEADER_SIZE];
+		data.readFully(header);
+		var buffer = ByteBuffer.wrap(header).order(ByteOrder.LITTLE_ENDIAN);
+		for (byte b : MAGIC) {
+			if (buffer.get() != b)
+				throw new IOException("not a binary value stream");
+		}
+		byte version = buffer.get();
+		if (version != VERSION)
+			throw new IOException("unsupported format version: " + version);
+		int typeIdx = buffer.get();
+		var types = IndexType.values();
+		if (typeIdx < 0 || typeIdx >= types.length)
+			throw new IOException("invalid index type: " + typeIdx);
+		buffer.getShort();
+		int n = buffer.getInt();
+		if (n < 0)
+			throw new IOException("invalid number of values: " + n);
+
+		var bytes = new byte[8 * n];
+		data.readFully(bytes);
+		var values = new double[n];
+		ByteBuffer.wrap(bytes)
+				.order(ByteOrder.LITTLE_ENDIAN)
+				.asDoubleBuffer()
+				.get(values);
+		return new BinaryValues(types[typeIdx], values);
+	}
+
+}
@@ -6,15 +6,18 @@ import java.util.function.Supplier;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.SearchIndex;
 import org.openlca.core.io.DbEntityResolver;
 import org.openlca.core.matrix.ProductSystemBuilder;
 import org.openlca.core.matrix.cache.MatrixCache;
 import org.openlca.core.matrix.cache.ProcessTable;
 import org.openlca.core.model.Flow;
+import org.openlca.core.model.ModelType;
 import org.openlca.core.model.ParameterizedEntity;
 import org.openlca.core.model.Process;
 import org.openlca.core.model.ProductSystem;
 import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.descriptors.RootDescriptor;
 import org.openlca.jsonld.Json;
 import org.openlca.jsonld.MemStore;
 import org.openlca.jsonld.input.EntityReader;
@@ -88,7 +91,7 @@ public record JsonDataService(IDatabase db) {
 			return Response.error("type missing");
 		try {
 			var array = new JsonArray();
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var descriptors = db.getDescriptors(type);
 			for (var d : descriptors) {
 				var ref = refs.asRef(d);
@@ -100,6 +103,32 @@ public record JsonDataService(IDatabase db) {
 		}
 	}
 
+	/**
+	 * Searches for data sets that match the given query using the shared search
+	 * index of the database. If no type is given, the data sets of the default
+	 * search types are searched.
+	 */
+	public Response<JsonArray> search(
+			String query, Class<? extends RootEntity> type) {
+		if (Strings.nullOrEmpty(query))
+			return Response.error("query missing");
+		try {
+			var array = new JsonArray();
+			var refs = JsonRefs.snapshotOf(db);
+			var modelType = type != null
+					? ModelType.of(type)
+					: null;
+			for (var d : SearchIndex.of(db).find(query, modelType)) {
+				if (d instanceof RootDescriptor rd) {
+					array.add(refs.asRef(rd));
+				}
+			}
+			return Response.of(array);
+		} catch (Exception e) {
+			return Response.error(e);
+		}
+	}
+
 	/**
 	 * Get the descriptor for the given type and ID. Returns an empty response if
 	 * no such descriptor exists.
@@ -112,7 +141,7 @@ public record JsonDataService(IDatabase db) {
 			var d = db.getDescriptor(type, id);
 			if (d == null)
 				return Response.empty();
-			var ref = JsonRefs.of(db).asRef(d);
+			var ref = JsonRefs.snapshotOf(db).asRef(d);
 			return Response.of(ref);
 		} catch (Exception e) {
 			return Response.error(e);
@@ -242,7 +271,7 @@ public record JsonDataService(IDatabase db) {
 		try {
 			var providers = ProcessTable.create(db).getProviders();
 			var array = new JsonArray();
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			for (var p : providers) {
 				array.add(JsonUtil.encodeTechFlow(p, refs));
 			}
@@ -261,7 +290,7 @@ public record JsonDataService(IDatabase db) {
 				return Response.empty();
 			var providers = ProcessTable.create(db).getProviders(flow.id);
 			var array = new JsonArray();
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			for (var p : providers) {
 				array.add(JsonUtil.encodeTechFlow(p, refs));
 			}
@@ -29,16 +29,26 @@ public class JsonResultService {
 
 	private final IDatabase db;
 	private final CalculationQueue queue;
+	private final BinaryResultService binary;
 
 	private JsonResultService(ServerConfig config) {
 		this.db = Objects.requireNonNull(config.db());
 		this.queue = CalculationQueue.of(config);
+		this.binary = new BinaryResultService(queue);
 	}
 
 	public static JsonResultService of(ServerConfig config) {
 		return new JsonResultService(config);
 	}
 
+	/**
+	 * Returns the service for fetching vector results of the calculations of
+	 * this service in a compact binary format.
+	 */
+	public BinaryResultService binary() {
+		return binary;
+	}
+
 	public Response<JsonObject> calculate(JsonObject setup) {
 		try {
 			var r = JsonCalculationSetup.readFrom(setup, DbEntityResolver.of(db));
@@ -85,7 +95,7 @@ public class JsonResultService {
 
 	public Response<JsonArray> getTechFlows(String resultId) {
 		return withResult(resultId, result -> {
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var array = encodeArray(
 					result.techIndex(),
 					techFlow -> encodeTechFlow(techFlow, refs));
@@ -98,7 +108,7 @@ public class JsonResultService {
 			var index = result.enviIndex();
 			if (index == null)
 				return Response.of(new JsonArray());
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var array = encodeArray(index,
 					enviFlow -> encodeEnviFlow(enviFlow, refs));
 			return Response.of(array);
@@ -110,7 +120,7 @@ public class JsonResultService {
 			var index = result.impactIndex();
 			if (index == null)
 				return Response.of(new JsonArray());
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var array = encodeArray(index, refs::asRef);
 			return Response.of(array);
 		});
@@ -124,7 +134,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> {
 			var d = result.demand();
 			var v = TechFlowValue.of(d.techFlow(), d.value());
-			var json = encodeTechValue(v, JsonRefs.of(db));
+			var json = encodeTechValue(v, JsonRefs.snapshotOf(db));
 			return Response.of(json);
 		});
 	}
@@ -132,7 +142,7 @@ public class JsonResultService {
 	public Response<JsonArray> getScalingFactors(String resultId) {
 		return withResult(resultId, result -> {
 			var s = result.getScalingFactors();
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var array = encodeArray(s,
 					techValue -> encodeTechValue(techValue, refs));
 			return Response.of(array);
@@ -142,7 +152,7 @@ public class JsonResultService {
 	public Response<JsonArray> getTotalityFactors(String resultId) {
 		return withResult(resultId, result -> {
 			var tf = result.getTotalityFactors();
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var array = encodeArray(tf, techVal -> encodeTechValue(techVal, refs));
 			return Response.of(array);
 		});
@@ -153,7 +163,7 @@ public class JsonResultService {
 		return withResultOfTechFlow(resultId, techFlowId, (result, techFlow) -> {
 			var value = result.getTotalityFactorOf(techFlow);
 			var obj = encodeTechValue(
-					TechFlowValue.of(techFlow, value), JsonRefs.of(db));
+					TechFlowValue.of(techFlow, value), JsonRefs.snapshotOf(db));
 			return Response.of(obj);
 		});
 	}
@@ -161,7 +171,7 @@ public class JsonResultService {
 	public Response<JsonArray> getTotalRequirements(String resultId) {
 		return withResult(resultId, result -> {
 			var tr = result.getTotalRequirements();
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var array = encodeArray(tr,
 					techValue -> encodeTechValue(techValue, refs));
 			return Response.of(array);
@@ -173,7 +183,7 @@ public class JsonResultService {
 		return withResultOfTechFlow(resultId, techFlowId, (result, techFlow) -> {
 			var value = result.getTotalRequirementsOf(techFlow);
 			var obj = encodeTechValue(
-					TechFlowValue.of(techFlow, value), JsonRefs.of(db));
+					TechFlowValue.of(techFlow, value), JsonRefs.snapshotOf(db));
 			return Response.of(obj);
 		});
 	}
@@ -182,7 +192,7 @@ public class JsonResultService {
 			String resultId, TechFlowId techFlowId) {
 		return withResultOfTechFlow(resultId, techFlowId, (result, techFlow) -> {
 			var values = result.getScaledTechFlowsOf(techFlow);
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var array = encodeArray(values,
 					techValue -> encodeTechValue(techValue, refs));
 			return Response.of(array);
@@ -193,7 +203,7 @@ public class JsonResultService {
 			String resultId, TechFlowId techFlowId) {
 		return withResultOfTechFlow(resultId, techFlowId, (result, techFlow) -> {
 			var values = result.getUnscaledTechFlowsOf(techFlow);
-			var refs = JsonRefs.of(db);
+			var refs = JsonRefs.snapshotOf(db);
 			var array = encodeArray(values,
 					techValue -> encodeTechValue(techValue, refs));
 			return Response.of(array);
@@ -209,7 +219,7 @@ public class JsonResultService {
 			if (!result.hasEnviFlows())
 				return Response.of(new JsonArray());
 			var array = encodeEnviValues(
-					result.getTotalFlows(), JsonRefs.of(db));
+					result.getTotalFlows(), JsonRefs.snapshotOf(db));
 			return Response.of(array);
 		});
 	}
@@ -219,7 +229,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> enviFlowOf(result, enviFlowId)
 				.map(enviFlow -> {
 					var value = result.getTotalFlowValueOf(enviFlow);
-					return encodeEnviValue(enviFlow, value, JsonRefs.of(db));
+					return encodeEnviValue(enviFlow, value, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -228,7 +238,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> enviFlowOf(result, enviFlowId)
 				.map(enviFlow -> {
 					var values = result.getDirectFlowValuesOf(enviFlow);
-					return encodeTechValues(values, JsonRefs.of(db));
+					return encodeTechValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -237,7 +247,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> enviFlowOf(result, enviFlowId)
 				.map(enviFlow -> {
 					var values = result.getTotalFlowValuesOf(enviFlow);
-					return encodeTechValues(values, JsonRefs.of(db));
+					return encodeTechValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -246,7 +256,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> techFlowOf(result, techFlowId)
 				.map(techFlow -> {
 					var values = result.getDirectFlowsOf(techFlow);
-					return encodeEnviValues(values, JsonRefs.of(db));
+					return encodeEnviValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -257,7 +267,7 @@ public class JsonResultService {
 				techFlowOf(result, techFlowId),
 				(enviFlow, techFlow) -> {
 					double amount = result.getDirectFlowOf(enviFlow, techFlow);
-					var val = encodeEnviValue(enviFlow, amount, JsonRefs.of(db));
+					var val = encodeEnviValue(enviFlow, amount, JsonRefs.snapshotOf(db));
 					return Response.of(val);
 				}));
 	}
@@ -267,7 +277,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> techFlowOf(result, techFlowId)
 				.map(techFlow -> {
 					var values = result.getTotalFlowsOfOne(techFlow);
-					return encodeEnviValues(values, JsonRefs.of(db));
+					return encodeEnviValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -278,7 +288,7 @@ public class JsonResultService {
 				techFlowOf(result, techFlowId),
 				(enviFlow, techFlow) -> {
 					var amount = result.getTotalFlowOfOne(enviFlow, techFlow);
-					var value = encodeEnviValue(enviFlow, amount, JsonRefs.of(db));
+					var value = encodeEnviValue(enviFlow, amount, JsonRefs.snapshotOf(db));
 					return Response.of(value);
 				}));
 	}
@@ -288,7 +298,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> techFlowOf(result, techFlowId)
 				.map(techFlow -> {
 					var values = result.getTotalFlowsOf(techFlow);
-					return encodeEnviValues(values, JsonRefs.of(db));
+					return encodeEnviValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -299,7 +309,7 @@ public class JsonResultService {
 				techFlowOf(result, techFlowId),
 				(enviFlow, techFlow) -> {
 					var amount = result.getTotalFlowOf(enviFlow, techFlow);
-					var value = encodeEnviValue(enviFlow, amount, JsonRefs.of(db));
+					var value = encodeEnviValue(enviFlow, amount, JsonRefs.snapshotOf(db));
 					return Response.of(value);
 				}));
 	}
@@ -313,7 +323,7 @@ public class JsonResultService {
 			if (!result.hasImpacts())
 				return Response.of(new JsonArray());
 			var array = encodeImpactValues(
-					result.getTotalImpacts(), JsonRefs.of(db));
+					result.getTotalImpacts(), JsonRefs.snapshotOf(db));
 			return Response.of(array);
 		});
 	}
@@ -323,7 +333,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> impactOf(result, impactId)
 				.map(impact -> {
 					double amount = result.getTotalImpactValueOf(impact);
-					return encodeImpact(impact, amount, JsonRefs.of(db));
+					return encodeImpact(impact, amount, JsonRefs.snapshotOf(db));
 				})
 		);
 	}
@@ -341,7 +351,7 @@ public class JsonResultService {
 				return Response.error("no nw-set was defined");
 			var factors = NwSetTable.of(db, setup.nwSet());
 			var normalized = factors.normalize(impacts);
-			return Response.of(encodeImpactValues(normalized, JsonRefs.of(db)));
+			return Response.of(encodeImpactValues(normalized, JsonRefs.snapshotOf(db)));
 		});
 	}
 
@@ -358,7 +368,7 @@ public class JsonResultService {
 				return Response.error("no nw-set was defined");
 			var factors = NwSetTable.of(db, setup.nwSet());
 			var weighted = factors.apply(impacts);
-			return Response.of(encodeImpactValues(weighted, JsonRefs.of(db)));
+			return Response.of(encodeImpactValues(weighted, JsonRefs.snapshotOf(db)));
 		});
 	}
 
@@ -367,7 +377,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> impactOf(result, impactId)
 				.map(impact -> {
 					var values = result.getDirectImpactValuesOf(impact);
-					return encodeTechValues(values, JsonRefs.of(db));
+					return encodeTechValues(values, JsonRefs.snapshotOf(db));
 				})
 		);
 	}
@@ -376,14 +386,14 @@ public class JsonResultService {
 			String resultId, String impactId) {
 		return withResult(resultId, result -> impactOf(result, impactId)
 				.map(impact -> encodeTechValues(
-						result.getTotalImpactValuesOf(impact), JsonRefs.of(db))));
+						result.getTotalImpactValuesOf(impact), JsonRefs.snapshotOf(db))));
 	}
 
 	public Response<JsonArray> getDirectImpactsOf(
 			String resultId, TechFlowId techFlowId) {
 		return withResult(resultId, result -> techFlowOf(result, techFlowId)
 				.map(techFlow -> encodeImpactValues(
-						result.getDirectImpactsOf(techFlow), JsonRefs.of(db))));
+						result.getDirectImpactsOf(techFlow), JsonRefs.snapshotOf(db))));
 	}
 
 	public Response<JsonObject> getDirectImpactOf(
@@ -393,7 +403,7 @@ public class JsonResultService {
 				techFlowOf(result, techFlowId),
 				(impact, techFlow) -> {
 					double amount = result.getDirectImpactOf(impact, techFlow);
-					var value = encodeImpact(impact, amount, JsonRefs.of(db));
+					var value = encodeImpact(impact, amount, JsonRefs.snapshotOf(db));
 					return Response.of(value);
 				}));
 	}
@@ -403,7 +413,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> techFlowOf(result, techFlowId)
 				.map(techFlow -> {
 					var values = result.getTotalImpactsOfOne(techFlow);
-					return encodeImpactValues(values, JsonRefs.of(db));
+					return encodeImpactValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -414,7 +424,7 @@ public class JsonResultService {
 				techFlowOf(result, techFlowId),
 				(impact, techFlow) -> {
 					double amount = result.getTotalImpactOfOne(impact, techFlow);
-					var value = encodeImpact(impact, amount, JsonRefs.of(db));
+					var value = encodeImpact(impact, amount, JsonRefs.snapshotOf(db));
 					return Response.of(value);
 				}));
 	}
@@ -424,7 +434,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> techFlowOf(result, techFlowId)
 				.map(techFlow -> {
 					var values = result.getTotalImpactsOf(techFlow);
-					return encodeImpactValues(values, JsonRefs.of(db));
+					return encodeImpactValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -435,7 +445,7 @@ public class JsonResultService {
 				techFlowOf(result, techFlowId),
 				(impact, techFlow) -> {
 					double amount = result.getTotalImpactOf(impact, techFlow);
-					var value = encodeImpact(impact, amount, JsonRefs.of(db));
+					var value = encodeImpact(impact, amount, JsonRefs.snapshotOf(db));
 					return Response.of(value);
 				}));
 	}
@@ -445,7 +455,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> impactOf(result, impactId)
 				.map(impact -> {
 					var values = result.getImpactFactorsOf(impact);
-					return encodeEnviValues(values, JsonRefs.of(db));
+					return encodeEnviValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -456,7 +466,7 @@ public class JsonResultService {
 				enviFlowOf(result, enviFlowId),
 				(impact, enviFlow) -> {
 					double amount = result.getImpactFactorOf(impact, enviFlow);
-					var value = encodeEnviValue(enviFlow, amount, JsonRefs.of(db));
+					var value = encodeEnviValue(enviFlow, amount, JsonRefs.snapshotOf(db));
 					return Response.of(value);
 				}));
 	}
@@ -466,7 +476,7 @@ public class JsonResultService {
 		return withResult(resultId, result -> impactCategoryOf(result, impactId)
 				.map(impact -> {
 					var values = result.getFlowImpactsOf(impact);
-					return encodeEnviValues(values, JsonRefs.of(db));
+					return encodeEnviValues(values, JsonRefs.snapshotOf(db));
 				}));
 	}
 
@@ -477,7 +487,7 @@ public class JsonResultService {
 				enviFlowOf(result, enviFlowId),
 				(impact, enviFlow) -> {
 					double amount = result.getFlowImpactOf(impact, enviFlow);
-					var value = encodeEnviValue(enviFlow, amount, JsonRefs.of(db));
+					var value = encodeEnviValue(enviFlow, amount, JsonRefs.snapshotOf(db));
 					return Response.of(value);
 				}));
 	}
@@ -497,7 +507,7 @@ public class JsonResultService {
 	public Response<JsonArray> getCostContributions(String resultId) {
 		return withResult(resultId, result -> {
 			var values = result.getDirectCostValues();
-			var array = encodeTechValues(values, JsonRefs.of(db));
+			var array = encodeTechValues(values, JsonRefs.snapshotOf(db));
 			return Response.of(array);
 		});
 	}
@@ -505,7 +515,7 @@ public class JsonResultService {
 	public Response<JsonArray> getTotalCostValues(String resultId) {
 		return withResult(resultId, result -> {
 			var values = result.getTotalCostValues();
-			var array = encodeTechValues(values, JsonRefs.of(db));
+			var array = encodeTechValues(values, JsonRefs.snapshotOf(db));
 			return Response.of(array);
 		});
 	}
@@ -569,7 +579,7 @@ public class JsonResultService {
 
 	private JsonArray getUpstreamNodes(String path, UpstreamTree tree) {
 		var nodes = UpstreamPath.parse(path).selectChilds(tree);
-		var refs = JsonRefs.of(db);
+		var refs = JsonRefs.snapshotOf(db);
 		return encodeArray(nodes, node -> encodeUpstreamNode(node, refs));
 	}
 
@@ -597,7 +607,7 @@ public class JsonResultService {
 					.build();
 
 			// convert the graph
-			var json = JsonSankeyGraph.of(sankey,JsonRefs.of(db));
+			var json = JsonSankeyGraph.of(sankey,JsonRefs.snapshotOf(db));
 			return Response.of(json);
 		});
 	}
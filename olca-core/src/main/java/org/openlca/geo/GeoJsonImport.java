@@ -81,28 +81,24 @@ public class GeoJsonImport implements Runnable {
 	public void run() {
 		try {
 
-			// parse GeoJSON
-			log.trace("parse GeoJSON file {}", file);
-			FeatureCollection coll = GeoJSON.read(file);
-			if (coll == null || coll.features.isEmpty())
-				return;
-
 			// index locations
 			for (var loc : db.getAll(Location.class)) {
 				index(loc);
 			}
 
-			// create and/or update locations
-			for (var feature : coll.features) {
+			// stream the features of the file and create and/or update
+			// the locations
+			log.trace("read GeoJSON file {}", file);
+			GeoJSON.forEachFeature(file, feature -> {
 				if (feature.geometry == null || feature.properties == null)
-					continue;
+					return;
 				var loc = findExisting(feature);
 				if (loc == null && mode.canCreate()) {
 					create(feature);
 				} else if (loc != null && mode.canUpdate()) {
 					update(loc, feature);
 				}
-			}
+			});
 		} catch (Exception e) {
 			log.error("Failed to import GeoJSON file " + file, e);
 		}
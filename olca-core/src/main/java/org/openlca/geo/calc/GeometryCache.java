@@ -0,0 +1,165 @@
+package org.openlca.geo.calc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.locationtech.jts.geom.Geometry;
+import org.openlca.core.model.Location;
+import org.openlca.geo.geojson.GeoJSON;
+
+/**
+ * A shared, size-bounded cache of the decoded and projected JTS geometries of
+ * locations. Decoding the packed geometry of a location (gzip + Protocol
+ * Buffers), projecting it, and converting it into a JTS geometry is expensive
+ * and was done again for each calculation that needed it.
+ * <p>
+ * Entries are stored by the location ID and checked against the version,
+ * last-change date, and the packed geometry of the location. Thus, when a
+ * location is updated, the outdated entry is not used but replaced. The cache
+ * is bounded by the number of coordinates of the cached geometries; the least
+ * recently used entries are removed first.
+ * <p>
+ * The returned geometries are shared and must not be modified.
+ */
+public final class GeometryCache {
+
+	private static final GeometryCache instance = new GeometryCache(4_000_000);
+
+	private final long maxPoints;
+	private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private long points;
+
+	private GeometryCache(long maxPoints) {
+		this.maxPoints = maxPoints;
+	}
+
+	/**
+	 * Returns the shared instance of the cache.
+	 */
+	public static GeometryCache get() {
+		return instance;
+	}
+
+	/**
+	 * Returns the JTS geometries of the features of the given location in the
+	 * given projection. The list contains an element for each feature of the
+	 * location which is {@code null} when the feature has no valid geometry.
+	 */
+	public List<Geometry> of(Location loc, Projection projection) {
+		if (loc == null || loc.geodata == null)
+			return List.of();
+		var key = projection != null
+				? projection.cacheKey()
+				: "none";
+		if (loc.id == 0)
+			return geometriesOf(loc.geodata, projection);
+
+		synchronized (this) {
+			var entry = entries.get(loc.id);
+			if (entry != null && entry.matches(loc)) {
+				var geometries = entry.projections.get(key);
+				if (geometries != null)
+					return geometries;
+			}
+		}
+
+		// decode the geometries outside of the lock
+		var geometries = geometriesOf(loc.geodata, projection);
+		put(loc, key, geometries);
+		return geometries;
+	}
+
+	/**
+	 * Removes the entry of the location with the given ID.
+	 */
+	public synchronized void invalidate(long locationId) {
+		var entry = entries.remove(locationId);
+		if (entry != null) {
+			points -= entry.points;
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		points = 0;
+	}
+
+	private synchronized void put(
+			Location loc, String key, List<Geometry> geometries) {
+		long n = 0;
+		for (var g : geometries) {
+			if (g != null) {
+				n += g.getNumPoints();
+			}
+		}
+		if (n > maxPoints / 4)
+			return;
+
+		var entry = entries.get(loc.id);
+		if (entry == null || !entry.matches(loc)) {
+			if (entry != null) {
+				points -= entry.points;
+			}
+			entry = new Entry(loc.geodata, loc.version, loc.lastChange);
+			entries.put(loc.id, entry);
+		}
+		var old = entry.projections.put(key, geometries);
+		if (old == null) {
+			entry.points += n;
+			points += n;
+		}
+
+		var it = entries.values().iterator();
+		while (points > maxPoints && it.hasNext()) {
+			var next = it.next();
+			if (next == entry)
+				continue;
+			points -= next.points;
+			it.remove();
+		}
+	}
+
+	private static List<Geometry> geometriesOf(byte[] data, Projection projection) {
+		var coll = GeoJSON.unpack(data);
+		if (coll == null || coll.features.isEmpty())
+			return List.of();
+		var geometries = new ArrayList<Geometry>(coll.features.size());
+		for (var f : coll.features) {
+			if (f.geometry == null) {
+				geometries.add(null);
+				continue;
+			}
+			if (projection != null) {
+				projection.project(f.geometry);
+			}
+			geometries.add(JTS.fromGeoJSON(f.geometry));
+		}
+		return Collections.unmodifiableList(geometries);
+	}
+
+	private static class Entry {
+
+		final byte[] geodata;
+		final long version;
+		final long lastChange;
+		final Map<String, List<Geometry>> projections = new HashMap<>();
+		long points;
+
+		Entry(byte[] geodata, long version, long lastChange) {
+			this.geodata = geodata;
+			this.version = version;
+			this.lastChange = lastChange;
+		}
+
+		boolean matches(Location loc) {
+			return version == loc.version
+					&& lastChange == loc.lastChange
+					&& (geodata == loc.geodata || Arrays.equals(geodata, loc.geodata));
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package org.openlca.geo.calc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.Location;
+import org.openlca.geo.geojson.Feature;
+import org.openlca.geo.geojson.FeatureCollection;
+import org.openlca.geo.geojson.Geometry;
+import org.openlca.geo.geojson.GeometryCollection;
+import org.openlca.geo.geojson.LineString;
+import org.openlca.geo.geojson.MultiLineString;
+import org.openlca.geo.geojson.MultiPoint;
+import org.openlca.geo.geojson.MultiPolygon;
+import org.openlca.geo.geojson.Point;
+import org.openlca.geo.geojson.Polygon;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent cache of the intersection shares of locations with a feature
+ * collection. The cache of a feature collection and projection is stored in
+ * a file that is named by a hash of the collection and projection. In this
+ * file, the shares of a location are stored under a hash of the packed
+ * geometry of the location. Thus, the cached shares are reused as long as
+ * neither the location geometry, nor the feature collection, nor the
+ * projection changed.
+ * <p>
+ * Only the features and values of the shares are cached but not the
+ * intersection geometries: the intersection features of the shares returned
+ * from this cache are {@code null}.
+ */
+public class IntersectionCache {
+
+	/** The folder in the file store of a database in which the caches are stored. */
+	public static final String FOLDER = "geo_shares";
+
+	private static final int MAGIC = 0x4f475301;
+	private static final Logger log = LoggerFactory.getLogger(IntersectionCache.class);
+
+	private final File file;
+	private final List<Feature> features;
+	private final Map<Feature, Integer> positions = new IdentityHashMap<>();
+	private final Map<String, Entry[]> entries = new ConcurrentHashMap<>();
+	private volatile boolean changed;
+
+	private IntersectionCache(File file, FeatureCollection coll) {
+		this.file = file;
+		this.features = coll.features;
+		for (int i = 0; i < features.size(); i++) {
+			positions.put(features.get(i), i);
+		}
+		read();
+	}
+
+	/**
+	 * Opens the cache for the given feature collection and projection in the
+	 * file store of the given database.
+	 */
+	public static IntersectionCache of(
+			IDatabase db, FeatureCollection coll, Projection projection) {
+		var dir = new File(db.getFileStorageLocation(), FOLDER);
+		return of(dir, coll, projection);
+	}
+
+	/**
+	 * Opens the cache for the given feature collection and projection in the
+	 * given folder.
+	 */
+	public static IntersectionCache of(
+			File dir, FeatureCollection coll, Projection projection) {
+		var hash = hashOf(coll, projection);
+		return new IntersectionCache(new File(dir, hash + ".shares"), coll);
+	}
+
+	/**
+	 * Returns the cached shares of the given location, or {@code null} when
+	 * they are not cached yet. For locations without geometry, an empty list
+	 * is returned.
+	 */
+	public List<IntersectionShare> get(Location loc) {
+		if (loc == null || loc.geodata == null)
+			return List.of();
+		var cached = entries.get(hashOf(loc.geodata));
+		if (cached == null)
+			return null;
+		var shares = new ArrayList<IntersectionShare>(cached.length);
+		for (var e : cached) {
+			shares.add(new IntersectionShare(features.get(e.feature), null, e.value));
+		}
+		return shares;
+	}
+
+	/**
+	 * Adds the shares of the given location to the cache. The shares are only
+	 * written to the file when {@link #save()} is called.
+	 */
+	public void put(Location loc, List<IntersectionShare> shares) {
+		if (loc == null || loc.geodata == null || shares == null)
+			return;
+		var cached = new Entry[shares.size()];
+		for (int i = 0; i < cached.length; i++) {
+			var share = shares.get(i);
+			var pos = positions.get(share.origin());
+			if (pos == null)
+				return; // not a feature of this collection
+			cached[i] = new Entry(pos, share.value());
+		}
+		entries.put(hashOf(loc.geodata), cached);
+		changed = true;
+	}
+
+	/**
+	 * Writes the cache to its file if it was changed.
+	 */
+	public synchronized void save() {
+		if (!changed)
+			return;
+		try {
+			Files.createDirectories(file.getParentFile().toPath());
+			var tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+			try (var out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(entries.size());
+				for (var e : entries.entrySet()) {
+					out.writeUTF(e.getKey());
+					out.writeInt(e.getValue().length);
+					for (var entry : e.getValue()) {
+						out.writeInt(entry.feature);
+						out.writeDouble(entry.value);
+					}
+				}
+			}
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+			changed = false;
+		} catch (IOException e) {
+			log.error("failed to write intersection cache " + file, e);
+		}
+	}
+
+	private void read() {
+		if (!file.exists())
+			return;
+		try (var in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException("invalid cache file");
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				var key = in.readUTF();
+				var cached = new Entry[in.readInt()];
+				for (int j = 0; j < cached.length; j++) {
+					int feature = in.readInt();
+					if (feature < 0 || feature >= features.size())
+						throw new IOException("invalid feature index " + feature);
+					cached[j] = new Entry(feature, in.readDouble());
+				}
+				entries.put(key, cached);
+			}
+		} catch (IOException e) {
+			log.warn("failed to read intersection cache " + file, e);
+			entries.clear();
+		}
+	}
+
+	private static String hashOf(byte[] data) {
+		var digest = newDigest();
+		return HexFormat.of().formatHex(digest.digest(data));
+	}
+
+	/**
+	 * Calculates the hash of the projection and the feature collection. The
+	 * geometries and properties of the features are written directly into the
+	 * digest, so that the collection does not need to be serialized as a
+	 * whole.
+	 */
+	private static String hashOf(FeatureCollection coll, Projection projection) {
+		var digest = newDigest();
+		var stream = new DigestOutputStream(OutputStream.nullOutputStream(), digest);
+		try (var out = new DataOutputStream(new BufferedOutputStream(stream))) {
+			out.writeUTF(projection != null
+					? projection.cacheKey()
+					: "none");
+			out.writeInt(coll.features.size());
+			for (var f : coll.features) {
+				writeGeometry(out, f.geometry);
+				writeProperties(out, f.properties);
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("failed to hash features", e);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void writeGeometry(
+			DataOutputStream out, Geometry g) throws IOException {
+		if (g == null) {
+			out.writeByte(0);
+			return;
+		}
+		if (g instanceof Point point) {
+			out.writeByte(1);
+			writePoint(out, point);
+		} else if (g instanceof MultiPoint mp) {
+			out.writeByte(2);
+			out.writeInt(mp.points.size());
+			for (var point : mp.points) {
+				writePoint(out, point);
+			}
+		} else if (g instanceof LineString line) {
+			out.writeByte(3);
+			out.writeInt(line.points.size());
+			for (var point : line.points) {
+				writePoint(out, point);
+			}
+		} else if (g instanceof MultiLineString mls) {
+			out.writeByte(4);
+			out.writeInt(mls.lineStrings.size());
+			for (var line : mls.lineStrings) {
+				writeGeometry(out, line);
+			}
+		} else if (g instanceof Polygon polygon) {
+			out.writeByte(5);
+			out.writeInt(polygon.rings.size());
+			for (var ring : polygon.rings) {
+				writeGeometry(out, ring);
+			}
+		} else if (g instanceof MultiPolygon mp) {
+			out.writeByte(6);
+			out.writeInt(mp.polygons.size());
+			for (var polygon : mp.polygons) {
+				writeGeometry(out, polygon);
+			}
+		} else if (g instanceof GeometryCollection coll) {
+			out.writeByte(7);
+			out.writeInt(coll.geometries.size());
+			for (var gg : coll.geometries) {
+				writeGeometry(out, gg);
+			}
+		}
+	}
+
+	private static void writePoint(
+			DataOutputStream out, Point point) throws IOException {
+		if (point == null) {
+			out.writeDouble(Double.NaN);
+			out.writeDouble(Double.NaN);
+			return;
+		}
+		out.writeDouble(point.x);
+		out.writeDouble(point.y);
+	}
+
+	private static void writeProperties(
+			DataOutputStream out, Map<String, Object> props) throws IOException {
+		if (props == null) {
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(props.size());
+		// the order of the properties is not defined, so they are sorted
+		for (var e : new TreeMap<>(props).entrySet()) {
+			out.writeUTF(e.getKey());
+			out.writeUTF(String.valueOf(e.getValue()));
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private record Entry(int feature, double value) {
+	}
+}
@@ -1,15 +1,18 @@
 package org.openlca.geo.calc;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
 import org.openlca.core.model.Location;
 import org.openlca.geo.geojson.Feature;
 import org.openlca.geo.geojson.FeatureCollection;
-import org.openlca.geo.geojson.GeoJSON;
 import org.openlca.geo.geojson.Geometry;
 import org.openlca.util.Pair;
 
@@ -19,6 +22,12 @@ import org.openlca.util.Pair;
  * with characterization factors of an LCIA category). A specific projection can
  * be applied when calculating the intersections. By default, the Mollweide
  * projection is used.
+ * <p>
+ * The features are stored in an STR-tree spatial index. For a geometry g,
+ * only the features whose bounding boxes intersect with the bounding box of
+ * g are tested. g is prepared for these tests so that features that do not
+ * intersect g, or that are completely covered by g, are handled without a
+ * full intersection calculation.
  */
 public class IntersectionCalculator {
 
@@ -35,6 +44,12 @@ public class IntersectionCalculator {
 
 	private final Projection projection;
 
+	/**
+	 * The spatial index of the geometries; the items are the positions of the
+	 * geometries in the respective array.
+	 */
+	private final STRtree index;
+
 	private IntersectionCalculator(
 			Feature[] features,
 			org.locationtech.jts.geom.Geometry[] geometries,
@@ -42,6 +57,13 @@ public class IntersectionCalculator {
 		this.features = features;
 		this.geometries = geometries;
 		this.projection = projection;
+		this.index = new STRtree();
+		for (int i = 0; i < geometries.length; i++) {
+			index.insert(geometries[i].getEnvelopeInternal(), i);
+		}
+		// building the tree is not thread-safe, so we do it here before
+		// the queries which are then safe to run in parallel
+		index.build();
 	}
 
 	public static IntersectionCalculator on(FeatureCollection coll) {
@@ -93,20 +115,18 @@ public class IntersectionCalculator {
 	}
 
 	/**
-	 * Calculates the intersection shares of the given location.
+	 * Calculates the intersection shares of the given location. The decoded
+	 * and projected geometries of the location are taken from the shared
+	 * {@link GeometryCache}.
 	 */
 	public List<IntersectionShare> shares(Location loc) {
 		if (loc == null || loc.geodata == null)
 			return List.of();
-		var coll = GeoJSON.unpack(loc.geodata);
-		if (coll == null || coll.features.isEmpty())
-			return List.of();
-
 		var shares = new ArrayList<IntersectionShare>();
-		for (var f : coll.features) {
-			if (f.geometry == null)
+		for (var g : GeometryCache.get().of(loc, projection)) {
+			if (g == null)
 				continue;
-			var next = shares(f.geometry);
+			var next = sharesOf(jts(g));
 			if (!next.isEmpty()) {
 				shares.addAll(next);
 			}
@@ -126,9 +146,13 @@ public class IntersectionCalculator {
 	 * </ol>
 	 */
 	public List<IntersectionShare> shares(Geometry g) {
+		return sharesOf(jts(g));
+	}
+
+	private List<IntersectionShare> sharesOf(Stream<Sect> sects) {
 
 		// calculate the intersections
-		var intersections = jts(g).toList();
+		var intersections = sects.toList();
 
 		// select the maximum dimension
 		int maxDim = intersections.stream().reduce(0,
@@ -167,14 +191,40 @@ public class IntersectionCalculator {
 			projection.project(clone);
 			jts = JTS.fromGeoJSON(clone);
 		}
-		if (jts == null)
+		return jts(jts);
+	}
+
+	/**
+	 * Calculates the intersections with the given JTS geometry which must be
+	 * already in the projection of this calculator.
+	 */
+	private Stream<Sect> jts(org.locationtech.jts.geom.Geometry jts) {
+		if (jts == null || jts.isEmpty())
 			return Stream.empty();
-		return IntStream.range(0, features.length)
+		int[] candidates = candidatesOf(jts);
+		if (candidates.length == 0)
+			return Stream.empty();
+		var prepared = PreparedGeometryFactory.prepare(jts);
+		return IntStream.of(candidates)
 				.parallel()
-				.mapToObj(i -> Sect.of(features[i], geometries[i], jts))
+				.mapToObj(i -> Sect.of(features[i], geometries[i], jts, prepared))
 				.filter(s -> !s.isEmpty());
 	}
 
+	/**
+	 * Returns the sorted positions of the geometries whose envelopes intersect
+	 * with the envelope of the given geometry.
+	 */
+	private int[] candidatesOf(org.locationtech.jts.geom.Geometry g) {
+		var items = index.query(g.getEnvelopeInternal());
+		var positions = new int[items.size()];
+		for (int i = 0; i < positions.length; i++) {
+			positions[i] = (Integer) items.get(i);
+		}
+		Arrays.sort(positions);
+		return positions;
+	}
+
 	private record Sect(
 			Feature feature,
 			org.locationtech.jts.geom.Geometry geometry) {
@@ -182,8 +232,13 @@ public class IntersectionCalculator {
 		static Sect of(
 				Feature f,
 				org.locationtech.jts.geom.Geometry g1,
-				org.locationtech.jts.geom.Geometry g2) {
+				org.locationtech.jts.geom.Geometry g2,
+				PreparedGeometry prepared) {
 			try {
+				if (!prepared.intersects(g1))
+					return new Sect(f, null);
+				if (prepared.covers(g1))
+					return new Sect(f, g1);
 				var sect = g1.intersection(g2);
 				return new Sect(f, sect);
 			} catch (Exception e) {
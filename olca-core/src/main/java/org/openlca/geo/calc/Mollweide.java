@@ -1,11 +1,13 @@
 package org.openlca.geo.calc;
 
 import org.openlca.core.model.Location;
-import org.openlca.geo.geojson.GeoJSON;
 import org.openlca.geo.geojson.Point;
 
 public class Mollweide extends Projection {
 
+	/** The Mollweide projection with the radius of the earth in meters. */
+	private static final Mollweide EARTH = new Mollweide(6_378_137);
+
 	private final double R;
 
 	public Mollweide(double r) {
@@ -16,6 +18,11 @@ public class Mollweide extends Projection {
 		this(1.0);
 	}
 
+	@Override
+	String cacheKey() {
+		return "Mollweide:" + R;
+	}
+
 	@Override
 	protected void apply(Point p) {
 		if (p == null)
@@ -84,15 +91,12 @@ public class Mollweide extends Projection {
 	public static double areaOf(Location loc) {
 		if (loc == null || loc.geodata == null)
 			return 0;
-		var features = GeoJSON.unpack(loc.geodata);
-		if (features.isEmpty())
-			return 0;
-		var feature = features.first();
-		if (feature == null || feature.geometry == null)
+		var geometries = GeometryCache.get().of(loc, EARTH);
+		if (geometries.isEmpty())
 			return 0;
-		var projection = new Mollweide(6_378_137);
-		projection.project(feature);
-		var jts = JTS.fromGeoJSON(feature.geometry);
-		return jts.getArea();
+		var jts = geometries.get(0);
+		return jts != null
+				? jts.getArea()
+				: 0;
 	}
 }
@@ -32,6 +32,14 @@ public abstract class Projection {
 	 */
 	protected abstract void apply(Point point);
 
+	/**
+	 * Returns a key that identifies the projection with its parameters, e.g.
+	 * for caching projected geometries.
+	 */
+	String cacheKey() {
+		return getClass().getName();
+	}
+
 	/**
 	 * Applies the inverse projection on the given point.
 	 */
@@ -88,6 +88,11 @@ public class WebMercator extends Projection {
 		return c;
 	}
 
+	@Override
+	String cacheKey() {
+		return "WebMercator:" + zoom;
+	}
+
 	@Override
 	protected void apply(Point point) {
 		apply(point, zoom);
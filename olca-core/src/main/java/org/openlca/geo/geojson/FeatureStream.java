@@ -0,0 +1,72 @@
+package org.openlca.geo.geojson;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Reads the features of GeoJSON text one by one. Only a single feature is
+ * parsed into a JSON tree at a time, so that the memory that is required for
+ * reading a feature collection is bounded by the size of its largest feature
+ * and not by the size of the complete collection.
+ */
+class FeatureStream {
+
+	private final JsonReader reader;
+	private final Consumer<Feature> fn;
+
+	private FeatureStream(Reader reader, Consumer<Feature> fn) {
+		this.reader = new JsonReader(reader);
+		this.fn = fn;
+	}
+
+	static void read(Reader reader, Consumer<Feature> fn) throws IOException {
+		new FeatureStream(reader, fn).read();
+	}
+
+	private void read() throws IOException {
+		if (reader.peek() != JsonToken.BEGIN_OBJECT)
+			return;
+
+		// the members of the root object other than the features array; for
+		// a single feature or geometry, this is the complete object
+		var root = new JsonObject();
+		boolean hasFeatures = false;
+
+		reader.beginObject();
+		while (reader.hasNext()) {
+			var name = reader.nextName();
+			if ("features".equals(name)
+					&& reader.peek() == JsonToken.BEGIN_ARRAY) {
+				hasFeatures = true;
+				readFeatures();
+				continue;
+			}
+			root.add(name, JsonParser.parseReader(reader));
+		}
+		reader.endObject();
+
+		if (hasFeatures)
+			return;
+		for (var feature : GeoJSON.read(root).features) {
+			fn.accept(feature);
+		}
+	}
+
+	private void readFeatures() throws IOException {
+		reader.beginArray();
+		while (reader.hasNext()) {
+			var elem = JsonParser.parseReader(reader);
+			if (!elem.isJsonObject())
+				continue;
+			var feature = Feature.fromJson(elem.getAsJsonObject());
+			fn.accept(feature);
+		}
+		reader.endArray();
+	}
+}
@@ -1,10 +1,14 @@
 package org.openlca.geo.geojson;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 import org.openlca.util.BinUtils;
 
@@ -58,6 +62,57 @@ public final class GeoJSON {
 		return read(obj);
 	}
 
+	/**
+	 * Reads the features of the given GeoJSON file one by one and passes them
+	 * to the given function. Other than {@link #read(File)}, the file is not
+	 * parsed into a complete JSON tree but streamed. Thus, very large feature
+	 * collections can be processed with bounded memory.
+	 */
+	public static void forEachFeature(File file, Consumer<Feature> fn) {
+		try (Reader r = Files.newBufferedReader(
+			file.toPath(), StandardCharsets.UTF_8)) {
+			forEachFeature(r, fn);
+		} catch (Exception e) {
+			throw new RuntimeException("failed to read " + file, e);
+		}
+	}
+
+	/**
+	 * Streams the features of the GeoJSON text of the given reader; see
+	 * {@link #forEachFeature(File, Consumer)}.
+	 */
+	public static void forEachFeature(Reader reader, Consumer<Feature> fn) {
+		if (reader == null || fn == null)
+			return;
+		try {
+			FeatureStream.read(reader, fn);
+		} catch (IOException e) {
+			throw new RuntimeException("failed to read GeoJSON", e);
+		}
+	}
+
+	/**
+	 * Streams the features of the given GeoJSON file in batches of the given
+	 * size; the last batch can be smaller.
+	 */
+	public static void forEachBatch(
+		File file, int batchSize, Consumer<List<Feature>> fn) {
+		if (fn == null)
+			return;
+		int size = Math.max(1, batchSize);
+		var batch = new ArrayList<Feature>(size);
+		forEachFeature(file, feature -> {
+			batch.add(feature);
+			if (batch.size() >= size) {
+				fn.accept(new ArrayList<>(batch));
+				batch.clear();
+			}
+		});
+		if (!batch.isEmpty()) {
+			fn.accept(batch);
+		}
+	}
+
 	public static FeatureCollection read(JsonObject obj) {
 		if (obj == null)
 			return FeatureCollection.empty();
@@ -4,8 +4,10 @@ import org.openlca.core.database.IDatabase;
 import org.openlca.core.model.ImpactFactor;
 import org.openlca.core.model.Location;
 import org.openlca.expressions.FormulaInterpreter;
+import org.openlca.geo.calc.IntersectionCache;
 import org.openlca.geo.calc.IntersectionShare;
 import org.openlca.geo.calc.IntersectionCalculator;
+import org.openlca.geo.calc.Mollweide;
 import org.openlca.geo.geojson.FeatureCollection;
 import org.openlca.util.Pair;
 import org.slf4j.Logger;
@@ -59,11 +61,25 @@ public class GeoFactorCalculator {
 	 */
 	private Map<Location, List<PropVal>> parameterValuesOf(FeatureCollection coll) {
 
-		// calculate intersections
-		var calc = IntersectionCalculator.on(coll);
+		// calculate the intersections that are not cached yet; when all
+		// are cached, we do not even need to set up the calculator
+		var projection = new Mollweide();
+		var cache = IntersectionCache.of(db, coll, projection);
+		var missing = locations.stream()
+				.filter(loc -> cache.get(loc) == null)
+				.toList();
+		if (!missing.isEmpty()) {
+			var calc = IntersectionCalculator.on(coll, projection);
+			missing.parallelStream()
+					.forEach(loc -> cache.put(loc, calc.shares(loc)));
+			cache.save();
+		}
 		Map<Location, List<IntersectionShare>> intersections = locations
-				.parallelStream()
-				.map(loc -> Pair.of(loc, calc.shares(loc)))
+				.stream()
+				.map(loc -> {
+					var shares = cache.get(loc);
+					return Pair.of(loc, shares != null ? shares : List.<IntersectionShare>of());
+				})
 				.collect(Collectors.toMap(p -> p.first, p -> p.second));
 
 		// calculate parameter values based on intersections
@@ -0,0 +1,85 @@
+package org.openlca.jsonld;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * A stream for writing the JSON data of a data set directly into a store (see
+ * {@link JsonStoreWriter#openJson}). The data set is only added to the store
+ * when the stream is closed. When writing the data set fails, the stream
+ * needs to be discarded instead, so that no incomplete data set is added to
+ * the store. After the stream was discarded, closing it has no effect.
+ */
+public abstract class DataSetOutput extends OutputStream {
+
+	/**
+	 * Drops the data that were written to this stream without adding them to
+	 * the store.
+	 */
+	public abstract void discard();
+
+	/**
+	 * Creates a stream that collects the data in memory and passes them to
+	 * the given function when it is closed. The buffer that is passed to the
+	 * function wraps the internal array of the stream without copying it; its
+	 * remaining bytes are the data of the data set.
+	 */
+	public static DataSetOutput buffered(Consumer<ByteBuffer> fn) {
+		return new Buffered(fn);
+	}
+
+	private static class Buffered extends DataSetOutput {
+
+		private final Consumer<ByteBuffer> fn;
+		private Buffer buffer = new Buffer();
+
+		Buffered(Consumer<ByteBuffer> fn) {
+			this.fn = fn;
+		}
+
+		@Override
+		public void write(int b) {
+			if (buffer != null) {
+				buffer.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			if (buffer != null) {
+				buffer.write(b, off, len);
+			}
+		}
+
+		@Override
+		public void discard() {
+			buffer = null;
+		}
+
+		@Override
+		public void close() {
+			if (buffer == null)
+				return;
+			var data = buffer.wrap();
+			buffer = null;
+			fn.accept(data);
+		}
+	}
+
+	/**
+	 * Gives access to the internal array of a byte array stream so that it
+	 * does not need to be copied.
+	 */
+	private static class Buffer extends ByteArrayOutputStream {
+
+		Buffer() {
+			super(8192);
+		}
+
+		ByteBuffer wrap() {
+			return ByteBuffer.wrap(buf, 0, count);
+		}
+	}
+}
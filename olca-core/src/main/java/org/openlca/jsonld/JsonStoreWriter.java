@@ -4,6 +4,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 
 import org.openlca.core.model.ModelType;
+import org.openlca.core.model.RootEntity;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
@@ -40,6 +41,20 @@ public interface JsonStoreWriter {
 		PackageInfo.create().withLibraries(libraries).writeTo(this);
 	}
 
+	/**
+	 * Opens a stream for writing the JSON data of the given entity directly
+	 * into this store. This is used for large data sets, like product systems
+	 * with many process links, so that they can be written without creating
+	 * the complete JSON object tree in memory first. The data set is added to
+	 * the store when the returned stream is closed; when writing fails, the
+	 * stream needs to be discarded instead. Stores that do not support this
+	 * return {@code null} (the default); the data set is then added via
+	 * {@link #put(ModelType, JsonObject)}.
+	 */
+	default DataSetOutput openJson(RootEntity entity) {
+		return null;
+	}
+
 	void put(String path, byte[] data);
 
 }
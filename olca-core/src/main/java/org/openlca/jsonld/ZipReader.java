@@ -0,0 +1,413 @@
+package org.openlca.jsonld;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import org.openlca.core.model.ModelType;
+import org.openlca.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A read-only store for JSON-LD packages in zip files. Other than the
+ * {@link ZipStore}, this reader does not use the zip file system provider but
+ * reads the central directory of the zip file once into an index of the entry
+ * paths and their positions in the file. The entries are then read with
+ * positional reads from a file channel. Thus, the reader can be used by many
+ * threads in parallel, e.g. in an import where the data sets are read by
+ * multiple worker threads. Note that a thread which is interrupted while it
+ * reads from the channel closes it for all threads, which is how file
+ * channels in Java work.
+ * <p>
+ * Only stored and deflated entries are supported, which are the compression
+ * methods that are used by the zip file system provider and common zip tools.
+ */
+public class ZipReader implements JsonStoreReader, AutoCloseable {
+
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int CENTRAL_HEADER = 0x02014b50;
+	private static final int END_HEADER = 0x06054b50;
+	private static final int ZIP64_END_HEADER = 0x06064b50;
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final FileChannel channel;
+	private final NavigableMap<String, Entry> index;
+
+	private ZipReader(FileChannel channel) throws IOException {
+		this.channel = channel;
+		this.index = readIndex(channel);
+	}
+
+	public static ZipReader open(File zipFile) throws IOException {
+		var channel = FileChannel.open(zipFile.toPath(), StandardOpenOption.READ);
+		try {
+			return new ZipReader(channel);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns true if there is a file with the given path in the zip.
+	 */
+	public boolean contains(String path) {
+		var p = normalize(path);
+		return p != null && index.containsKey(p);
+	}
+
+	@Override
+	public List<String> getRefIds(ModelType type) {
+		var prefix = ModelPath.folderOf(type) + "/";
+		var ids = new ArrayList<String>();
+		for (var path : filesOf(prefix)) {
+			if (!path.endsWith(".json"))
+				continue;
+			var name = path.substring(path.lastIndexOf('/') + 1);
+			ids.add(name.substring(0, name.length() - 5));
+		}
+		return ids;
+	}
+
+	/**
+	 * Returns the paths of the files that are located under the given folder.
+	 * The returned paths are relative to the root of the zip file.
+	 */
+	@Override
+	public List<String> getFiles(String folder) {
+		var p = normalize(folder);
+		if (p == null)
+			return Collections.emptyList();
+		var prefix = p.endsWith("/") ? p : p + "/";
+		return filesOf(prefix);
+	}
+
+	private List<String> filesOf(String prefix) {
+		var paths = index.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+				.keySet();
+		return paths.isEmpty()
+				? Collections.emptyList()
+				: new ArrayList<>(paths);
+	}
+
+	@Override
+	public byte[] getBytes(String path) {
+		var entry = entryOf(path);
+		if (entry == null)
+			return null;
+		try {
+			if (entry.size > Integer.MAX_VALUE - 8
+					|| entry.compressedSize > Integer.MAX_VALUE - 8)
+				throw new ZipException("entry too large: " + entry.name);
+			var start = dataOffsetOf(entry);
+			var data = new byte[(int) entry.compressedSize
+					+ (entry.method == DEFLATED ? 1 : 0)];
+			readFully(ByteBuffer.wrap(data, 0, (int) entry.compressedSize), start);
+			if (entry.method == STORED)
+				return data;
+			return inflate(entry, data);
+		} catch (Exception e) {
+			log.error("failed to get file " + path, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Opens a stream of the content of the file with the given path. This is
+	 * useful for large files that should not be loaded into memory at once.
+	 * The returned stream needs to be closed by the caller.
+	 */
+	public InputStream getStream(String path) {
+		var entry = entryOf(path);
+		if (entry == null)
+			return null;
+		try {
+			var start = dataOffsetOf(entry);
+			var raw = new ChannelStream(channel, start, entry.compressedSize);
+			return entry.method == STORED
+					? raw
+					: new InflaterStream(raw);
+		} catch (Exception e) {
+			log.error("failed to open stream for path " + path, e);
+			return null;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private Entry entryOf(String path) {
+		var p = normalize(path);
+		return p != null ? index.get(p) : null;
+	}
+
+	private static String normalize(String path) {
+		if (Strings.nullOrEmpty(path))
+			return null;
+		var p = path.replace('\\', '/');
+		while (p.startsWith("/")) {
+			p = p.substring(1);
+		}
+		return p;
+	}
+
+	private byte[] inflate(Entry entry, byte[] data) throws Exception {
+		var inflater = new Inflater(true);
+		try {
+			// with the `nowrap` option, the inflater may need an extra dummy
+			// byte at the end of the input, which is why data is one byte
+			// larger than the compressed size
+			inflater.setInput(data);
+			var out = new byte[(int) entry.size];
+			int n = 0;
+			while (n < out.length) {
+				int k = inflater.inflate(out, n, out.length - n);
+				if (k == 0 && (inflater.finished() || inflater.needsInput()
+						|| inflater.needsDictionary()))
+					break;
+				n += k;
+			}
+			if (n != out.length)
+				throw new DataFormatException("invalid entry size: " + entry.name);
+			return out;
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Returns the position of the entry data in the file. We read this from
+	 * the local header as the lengths of the extra fields in the local and
+	 * central headers can differ.
+	 */
+	private long dataOffsetOf(Entry entry) throws IOException {
+		var header = ByteBuffer.allocate(30).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(header, entry.offset);
+		if (header.getInt(0) != LOCAL_HEADER)
+			throw new ZipException("invalid local header: " + entry.name);
+		int nameLength = header.getShort(26) & 0xffff;
+		int extraLength = header.getShort(28) & 0xffff;
+		return entry.offset + 30 + nameLength + extraLength;
+	}
+
+	private void readFully(ByteBuffer buffer, long position) throws IOException {
+		readFully(channel, buffer, position);
+	}
+
+	private static void readFully(
+			FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		long pos = position;
+		while (buffer.hasRemaining()) {
+			int n = channel.read(buffer, pos);
+			if (n < 0)
+				throw new ZipException("unexpected end of file");
+			pos += n;
+		}
+	}
+
+	private static NavigableMap<String, Entry> readIndex(FileChannel channel)
+			throws IOException {
+
+		// find the end of central directory record; it is at the end of the
+		// file, followed by an optional comment of at most 64 KB
+		long fileSize = channel.size();
+		int tailSize = (int) Math.min(fileSize, 22 + 0xffff);
+		var tail = ByteBuffer.allocate(tailSize).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(channel, tail, fileSize - tailSize);
+		int end = -1;
+		for (int i = tailSize - 22; i >= 0; i--) {
+			if (tail.getInt(i) == END_HEADER) {
+				end = i;
+				break;
+			}
+		}
+		if (end < 0)
+			throw new ZipException("not a zip file: no end of central directory");
+
+		long count = tail.getShort(end + 10) & 0xffff;
+		long dirSize = tail.getInt(end + 12) & 0xffffffffL;
+		long dirOffset = tail.getInt(end + 16) & 0xffffffffL;
+
+		// zip64: the values are stored in a separate record
+		long endPosition = fileSize - tailSize + end;
+		if ((count == 0xffff || dirSize == 0xffffffffL || dirOffset == 0xffffffffL)
+				&& endPosition >= 20) {
+			var locator = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+			readFully(channel, locator, endPosition - 20);
+			if (locator.getInt(0) == ZIP64_LOCATOR) {
+				var record = ByteBuffer.allocate(56).order(ByteOrder.LITTLE_ENDIAN);
+				readFully(channel, record, locator.getLong(8));
+				if (record.getInt(0) != ZIP64_END_HEADER)
+					throw new ZipException("invalid zip64 end of central directory");
+				count = record.getLong(32);
+				dirSize = record.getLong(40);
+				dirOffset = record.getLong(48);
+			}
+		}
+
+		if (dirSize > Integer.MAX_VALUE)
+			throw new ZipException("central directory too large");
+		var dir = ByteBuffer.allocate((int) dirSize).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(channel, dir, dirOffset);
+		dir.flip();
+
+		var index = new TreeMap<String, Entry>();
+		for (long i = 0; i < count; i++) {
+			int pos = dir.position();
+			if (dir.getInt(pos) != CENTRAL_HEADER)
+				throw new ZipException("invalid central directory header");
+			int method = dir.getShort(pos + 10) & 0xffff;
+			long compressedSize = dir.getInt(pos + 20) & 0xffffffffL;
+			long size = dir.getInt(pos + 24) & 0xffffffffL;
+			int nameLength = dir.getShort(pos + 28) & 0xffff;
+			int extraLength = dir.getShort(pos + 30) & 0xffff;
+			int commentLength = dir.getShort(pos + 32) & 0xffff;
+			long offset = dir.getInt(pos + 42) & 0xffffffffL;
+
+			// we always decode the names as UTF-8; this is what the zip file
+			// system writes and ASCII names are the same in all encodings
+			var nameBytes = new byte[nameLength];
+			dir.get(pos + 46, nameBytes);
+			var name = new String(nameBytes, StandardCharsets.UTF_8);
+
+			// zip64 extra field with the values that did not fit into the
+			// header; they are stored in this order, if present
+			int extraPos = pos + 46 + nameLength;
+			int extraEnd = extraPos + extraLength;
+			while (extraPos + 4 <= extraEnd) {
+				int tag = dir.getShort(extraPos) & 0xffff;
+				int length = dir.getShort(extraPos + 2) & 0xffff;
+				if (tag == 0x0001) {
+					int p = extraPos + 4;
+					if (size == 0xffffffffL) {
+						size = dir.getLong(p);
+						p += 8;
+					}
+					if (compressedSize == 0xffffffffL) {
+						compressedSize = dir.getLong(p);
+						p += 8;
+					}
+					if (offset == 0xffffffffL) {
+						offset = dir.getLong(p);
+					}
+					break;
+				}
+				extraPos += 4 + length;
+			}
+
+			dir.position(pos + 46 + nameLength + extraLength + commentLength);
+			if (name.endsWith("/"))
+				continue;
+			if (method != STORED && method != DEFLATED) {
+				LoggerFactory.getLogger(ZipReader.class).warn(
+						"unsupported compression method {} of {}", method, name);
+				continue;
+			}
+			var key = normalize(name);
+			if (key != null) {
+				index.put(key, new Entry(key, method, compressedSize, size, offset));
+			}
+		}
+		return index;
+	}
+
+	private record Entry(
+			String name, int method, long compressedSize, long size, long offset) {
+	}
+
+	/**
+	 * Like in the JDK's zip file implementation, we provide an extra dummy
+	 * byte at the end of the input of the inflater.
+	 */
+	private static class InflaterStream extends InflaterInputStream {
+
+		private boolean eof;
+
+		InflaterStream(InputStream in) {
+			super(in, new Inflater(true), 8192);
+		}
+
+		@Override
+		protected void fill() throws IOException {
+			if (eof)
+				throw new EOFException("unexpected end of zip entry");
+			len = in.read(buf, 0, buf.length);
+			if (len == -1) {
+				buf[0] = 0;
+				len = 1;
+				eof = true;
+			}
+			inf.setInput(buf, 0, len);
+		}
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			inf.end();
+		}
+	}
+
+	/**
+	 * Reads a range of the file channel with positional reads, so that it does
+	 * not change the position of the channel.
+	 */
+	private static class ChannelStream extends InputStream {
+
+		private final FileChannel channel;
+		private long position;
+		private long remaining;
+
+		ChannelStream(FileChannel channel, long position, long length) {
+			this.channel = channel;
+			this.position = position;
+			this.remaining = length;
+		}
+
+		@Override
+		public int read() throws IOException {
+			var b = new byte[1];
+			int n = read(b, 0, 1);
+			return n < 0 ? -1 : b[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0)
+				return -1;
+			int max = (int) Math.min(len, remaining);
+			int n = channel.read(ByteBuffer.wrap(b, off, max), position);
+			if (n < 0)
+				return -1;
+			position += n;
+			remaining -= n;
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return (int) Math.min(remaining, Integer.MAX_VALUE);
+		}
+	}
+}
@@ -3,6 +3,7 @@ package org.openlca.jsonld;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
@@ -10,6 +11,7 @@ import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
@@ -18,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.openlca.core.model.ModelType;
+import org.openlca.core.model.RootEntity;
 import org.openlca.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +61,84 @@ public class ZipStore implements JsonStoreWriter, JsonStoreReader, AutoCloseable
 		}
 	}
 
+	@Override
+	public DataSetOutput openJson(RootEntity entity) {
+		var type = ModelType.of(entity);
+		if (type == null || Strings.nullOrEmpty(entity.refId))
+			return null;
+		var path = ModelPath.jsonOf(type, entity.refId);
+		try {
+			Path file = zip.getPath(path);
+			Path dir = file.getParent();
+			if (dir != null && !(Files.exists(dir)))
+				Files.createDirectories(dir);
+			return new PartOutput(file);
+		} catch (Exception e) {
+			log.error("failed to open stream for path " + path, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes the data of a data set into a temporary entry which is moved to
+	 * the entry of the data set when the stream is closed. Thus, the zip never
+	 * contains an incomplete data set when writing fails.
+	 */
+	private class PartOutput extends DataSetOutput {
+
+		private final Path file;
+		private final Path part;
+		private final OutputStream out;
+		private boolean done;
+
+		PartOutput(Path file) throws IOException {
+			this.file = file;
+			this.part = file.resolveSibling(file.getFileName() + ".part");
+			this.out = Files.newOutputStream(part);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (done)
+				return;
+			done = true;
+			try {
+				out.close();
+				Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+			} finally {
+				Files.deleteIfExists(part);
+			}
+		}
+
+		@Override
+		public void discard() {
+			if (done)
+				return;
+			done = true;
+			try {
+				out.close();
+				Files.deleteIfExists(part);
+			} catch (IOException e) {
+				log.error("failed to delete " + part, e);
+			}
+		}
+	}
+
 	@Override
 	public byte[] getBytes(String path) {
 		if (Strings.nullOrEmpty(path))
@@ -0,0 +1,306 @@
+package org.openlca.jsonld;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.RootEntity;
+import org.openlca.util.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A write-only store that creates a new zip file. Other than the
+ * {@link ZipStore}, the entries are compressed in the threads that call
+ * {@link #put(String, byte[])} and only appending the compressed data to the
+ * file is synchronized. Thus, many threads can write into this store in
+ * parallel, e.g. in a {@link org.openlca.jsonld.output.ParallelJsonExport}.
+ * The central directory of the zip file is written when the store is closed.
+ * The result is a standard zip file (with Zip64 extensions when required)
+ * that can be read with the {@link ZipStore} or {@link ZipReader}.
+ * <p>
+ * Entries cannot be replaced: when a path is written twice, the second
+ * write is ignored.
+ */
+public class ZipWriter implements JsonStoreWriter, AutoCloseable {
+
+	private static final int LOCAL_HEADER = 0x04034b50;
+	private static final int CENTRAL_HEADER = 0x02014b50;
+	private static final int END_HEADER = 0x06054b50;
+	private static final int ZIP64_END_HEADER = 0x06064b50;
+	private static final int ZIP64_LOCATOR = 0x07064b50;
+
+	private static final int STORED = 0;
+	private static final int DEFLATED = 8;
+	private static final long MAX_32 = 0xffffffffL;
+	private static final int MAX_16 = 0xffff;
+
+	/** Version 4.5 is required for Zip64 extensions. */
+	private static final int VERSION = 45;
+
+	/** General purpose flag: file names are encoded in UTF-8. */
+	private static final int UTF8_FLAG = 1 << 11;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final OutputStream out;
+	private final int dosTime;
+	private final List<Entry> entries = new ArrayList<>();
+	private final Set<String> names = new HashSet<>();
+	private long offset;
+	private boolean closed;
+
+	private ZipWriter(File file) throws IOException {
+		this.out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+		this.dosTime = dosTimeOf(LocalDateTime.now());
+	}
+
+	/**
+	 * Creates a new zip file; an existing file is overwritten. As in the
+	 * {@link ZipStore}, the package information is directly written to the
+	 * new file.
+	 */
+	public static ZipWriter create(File file) throws IOException {
+		var writer = new ZipWriter(file);
+		PackageInfo.create().writeTo(writer);
+		return writer;
+	}
+
+	@Override
+	public void put(String path, byte[] data) {
+		if (data != null) {
+			put(path, ByteBuffer.wrap(data));
+		}
+	}
+
+	/**
+	 * Writes the remaining bytes of the given buffer into an entry with the
+	 * given path.
+	 */
+	private void put(String path, ByteBuffer data) {
+		if (Strings.nullOrEmpty(path) || data == null)
+			return;
+		var name = path.replace('\\', '/');
+		while (name.startsWith("/")) {
+			name = name.substring(1);
+		}
+		try {
+			append(name, compress(data));
+		} catch (Exception e) {
+			log.error("failed to put " + path, e);
+		}
+	}
+
+	@Override
+	public DataSetOutput openJson(RootEntity entity) {
+		var type = ModelType.of(entity);
+		if (type == null || Strings.nullOrEmpty(entity.refId))
+			return null;
+		var path = ModelPath.jsonOf(type, entity.refId);
+		return DataSetOutput.buffered(data -> put(path, data));
+	}
+
+	/**
+	 * Compresses the remaining bytes of the given buffer. Data that cannot be
+	 * compressed are stored as they are.
+	 */
+	private Compressed compress(ByteBuffer data) {
+		var array = data.array();
+		int offset = data.arrayOffset() + data.position();
+		int length = data.remaining();
+		var crc = new CRC32();
+		crc.update(array, offset, length);
+		var deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			deflater.setInput(array, offset, length);
+			deflater.finish();
+			var buffer = new ByteArrayOutputStream(Math.max(64, length / 4));
+			var chunk = new byte[8192];
+			while (!deflater.finished()) {
+				int n = deflater.deflate(chunk);
+				buffer.write(chunk, 0, n);
+				if (buffer.size() >= length)
+					return new Compressed(STORED, crc.getValue(), length, data);
+			}
+			return new Compressed(DEFLATED, crc.getValue(), length,
+					ByteBuffer.wrap(buffer.toByteArray()));
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private synchronized void append(String name, Compressed data)
+			throws IOException {
+		if (closed)
+			throw new IOException("zip writer is closed");
+		if (!names.add(name)) {
+			log.warn("ignored duplicate zip entry {}", name);
+			return;
+		}
+		var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+		var entry = new Entry(nameBytes, data.method, data.crc,
+				data.bytes.remaining(), data.size, offset);
+		boolean zip64 = entry.size >= MAX_32 || entry.compressedSize >= MAX_32;
+
+		var header = ByteBuffer.allocate(30 + nameBytes.length + (zip64 ? 20 : 0))
+				.order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(LOCAL_HEADER)
+				.putShort((short) VERSION)
+				.putShort((short) UTF8_FLAG)
+				.putShort((short) entry.method)
+				.putInt(dosTime) // modification time and date
+				.putInt((int) entry.crc)
+				.putInt((int) (zip64 ? MAX_32 : entry.compressedSize))
+				.putInt((int) (zip64 ? MAX_32 : entry.size))
+				.putShort((short) nameBytes.length)
+				.putShort((short) (zip64 ? 20 : 0))
+				.put(nameBytes);
+		if (zip64) {
+			header.putShort((short) 0x0001)
+					.putShort((short) 16)
+					.putLong(entry.size)
+					.putLong(entry.compressedSize);
+		}
+		out.write(header.array());
+		var bytes = data.bytes;
+		out.write(bytes.array(), bytes.arrayOffset() + bytes.position(),
+				bytes.remaining());
+		offset += header.capacity() + bytes.remaining();
+		entries.add(entry);
+	}
+
+	/**
+	 * Writes the central directory and closes the file.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		try (out) {
+			long dirOffset = offset;
+			for (var entry : entries) {
+				writeCentralHeader(entry);
+			}
+			long dirSize = offset - dirOffset;
+			writeEnd(dirOffset, dirSize);
+			out.flush();
+		}
+	}
+
+	private void writeCentralHeader(Entry entry) throws IOException {
+		boolean largeSize = entry.size >= MAX_32;
+		boolean largeCompressed = entry.compressedSize >= MAX_32;
+		boolean largeOffset = entry.offset >= MAX_32;
+		int extraLength = (largeSize ? 8 : 0)
+				+ (largeCompressed ? 8 : 0)
+				+ (largeOffset ? 8 : 0);
+		if (extraLength > 0) {
+			extraLength += 4;
+		}
+
+		var buffer = ByteBuffer.allocate(46 + entry.name.length + extraLength)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(CENTRAL_HEADER)
+				.putShort((short) VERSION) // version made by
+				.putShort((short) VERSION) // version needed to extract
+				.putShort((short) UTF8_FLAG)
+				.putShort((short) entry.method)
+				.putInt(dosTime) // modification time and date
+				.putInt((int) entry.crc)
+				.putInt((int) (largeCompressed ? MAX_32 : entry.compressedSize))
+				.putInt((int) (largeSize ? MAX_32 : entry.size))
+				.putShort((short) entry.name.length)
+				.putShort((short) extraLength)
+				.putShort((short) 0) // comment length
+				.putShort((short) 0) // disk number
+				.putShort((short) 0) // internal attributes
+				.putInt(0) // external attributes
+				.putInt((int) (largeOffset ? MAX_32 : entry.offset))
+				.put(entry.name);
+		if (extraLength > 0) {
+			buffer.putShort((short) 0x0001)
+					.putShort((short) (extraLength - 4));
+			if (largeSize) {
+				buffer.putLong(entry.size);
+			}
+			if (largeCompressed) {
+				buffer.putLong(entry.compressedSize);
+			}
+			if (largeOffset) {
+				buffer.putLong(entry.offset);
+			}
+		}
+		out.write(buffer.array());
+		offset += buffer.capacity();
+	}
+
+	private void writeEnd(long dirOffset, long dirSize) throws IOException {
+		long count = entries.size();
+		boolean zip64 = count >= MAX_16 || dirSize >= MAX_32 || dirOffset >= MAX_32;
+		if (zip64) {
+			long zip64End = offset;
+			var record = ByteBuffer.allocate(56 + 20).order(ByteOrder.LITTLE_ENDIAN);
+			record.putInt(ZIP64_END_HEADER)
+					.putLong(44) // size of the remaining record
+					.putShort((short) VERSION)
+					.putShort((short) VERSION)
+					.putInt(0) // number of this disk
+					.putInt(0) // disk with the central directory
+					.putLong(count)
+					.putLong(count)
+					.putLong(dirSize)
+					.putLong(dirOffset);
+			record.putInt(ZIP64_LOCATOR)
+					.putInt(0)
+					.putLong(zip64End)
+					.putInt(1); // total number of disks
+			out.write(record.array());
+			offset += record.capacity();
+		}
+
+		var end = ByteBuffer.allocate(22).order(ByteOrder.LITTLE_ENDIAN);
+		end.putInt(END_HEADER)
+				.putShort((short) 0)
+				.putShort((short) 0)
+				.putShort((short) (zip64 ? MAX_16 : count))
+				.putShort((short) (zip64 ? MAX_16 : count))
+				.putInt((int) (zip64 ? MAX_32 : dirSize))
+				.putInt((int) (zip64 ? MAX_32 : dirOffset))
+				.putShort((short) 0); // comment length
+		out.write(end.array());
+		offset += end.capacity();
+	}
+
+	private static int dosTimeOf(LocalDateTime t) {
+		int year = t.getYear() - 1980;
+		if (year < 0)
+			return (1 << 21) | (1 << 16);
+		return (year << 25)
+				| (t.getMonthValue() << 21)
+				| (t.getDayOfMonth() << 16)
+				| (t.getHour() << 11)
+				| (t.getMinute() << 5)
+				| (t.getSecond() >> 1);
+	}
+
+	private record Compressed(int method, long crc, long size, ByteBuffer bytes) {
+	}
+
+	private record Entry(byte[] name, int method, long crc,
+			long compressedSize, long size, long offset) {
+	}
+}
@@ -1,30 +1,31 @@
 package org.openlca.jsonld.input;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-
+import org.openlca.core.io.ImportPipeline;
 import org.openlca.core.model.ModelType;
 import org.openlca.core.model.RootEntity;
 
+/**
+ * Imports data sets of a type in batches. The data sets are read in the
+ * thread(s) of an {@link ImportPipeline} and written in a separate writer
+ * thread. When a thread count larger than one is set in the import, the data
+ * sets of types that support this are read in parallel.
+ */
 public class BatchImport<T extends RootEntity> {
 
 	private final JsonImport imp;
 	private final Class<T> clazz;
 	private final ModelType type;
-	private final int batchSize;
-	private final Writer writer = new Writer();
-
-	private final ArrayList<RootEntity> inserts = new ArrayList<>();
-	private final ArrayList<RootEntity> updates = new ArrayList<>();
+	private final ImportPipeline pipeline;
 
 	public BatchImport(JsonImport imp, Class<T> type, int batchSize) {
 		this.imp = imp;
 		this.type = imp.types.get(type);
 		this.clazz = type;
-		this.batchSize = batchSize;
+		var threads = ImportPipeline.canReadInParallel(this.type)
+				? imp.threadCount
+				: 1;
+		this.pipeline = new ImportPipeline(
+				imp.db(), batchSize, threads, imp::visited);
 	}
 
 	public static int batchSizeOf(ModelType type) {
@@ -42,101 +43,27 @@ public class BatchImport<T extends RootEntity> {
 		close();
 	}
 
-	@SuppressWarnings("unchecked")
 	public void run(String refId) {
+		pipeline.submit(() -> read(refId));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void read(String refId) {
 		var item = imp.fetch(clazz, refId);
 		if (item.isVisited() || item.isError())
 			return;
 		var reader = (EntityReader<T>) imp.readerFor(type);
 		if (item.isNew()) {
-			insert(reader.read(item.json()));
+			pipeline.insert(reader.read(item.json()));
 		} else {
 			T model = item.entity();
 			reader.update(model, item.json());
-			update(model);
+			pipeline.update(model);
 		}
 		imp.copyBinaryFilesOf(type, refId);
 	}
 
-	private void insert(RootEntity entity) {
-		inserts.add(entity);
-		if (inserts.size() >= batchSize) {
-			flushInserts();
-		}
-	}
-
-	private void update(RootEntity entity) {
-		updates.add(entity);
-		if (updates.size() >= batchSize) {
-			flushUpdates();
-		}
-	}
-
-	private void flushInserts() {
-		writer.insert(inserts);
-		inserts.clear();
-	}
-
-	private void flushUpdates() {
-		writer.update(updates);
-		updates.clear();
-	}
-
 	public void close() {
-		if (!inserts.isEmpty()) {
-			flushInserts();
-		}
-		if (!updates.isEmpty()) {
-			flushUpdates();
-		}
-		writer.close();
-	}
-
-	private class Writer {
-
-		private final ExecutorService exec = Executors.newFixedThreadPool(1);
-		private final ArrayList<RootEntity> buffer = new ArrayList<>();
-		private volatile Future<?> task;
-
-		void insert(List<RootEntity> batch) {
-			next(batch);
-			task = exec.submit(() -> {
-				imp.db().transaction(em -> buffer.forEach(em::persist));
-				buffer.forEach(imp::visited);
-				buffer.clear();
-			});
-		}
-
-		void update(List<RootEntity> batch) {
-			next(batch);
-			task = exec.submit(() -> {
-				imp.db().transaction(em -> buffer.replaceAll(em::merge));
-				buffer.forEach(imp::visited);
-				buffer.clear();
-			});
-		}
-
-		private void next(List<RootEntity> batch) {
-			flush();
-			buffer.clear();
-			buffer.addAll(batch);
-		}
-
-		private void flush() {
-			if (task != null) {
-				try {
-					task.get();
-					task = null;
-				} catch (Exception e) {
-					throw new RuntimeException("failed to wait for worker", e);
-				}
-			}
-		}
-
-		private void close() {
-			flush();
-			exec.shutdown();
-		}
+		pipeline.close();
 	}
-
 }
@@ -1,28 +1,34 @@
 package org.openlca.jsonld.input;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.google.gson.JsonObject;
+import org.openlca.core.database.descriptors.DescriptorReader;
 import org.openlca.core.model.Actor;
 import org.openlca.core.model.Currency;
 import org.openlca.core.model.DQSystem;
 import org.openlca.core.model.Flow;
 import org.openlca.core.model.FlowProperty;
 import org.openlca.core.model.Location;
+import org.openlca.core.model.ModelType;
 import org.openlca.core.model.RefEntity;
 import org.openlca.core.model.RootEntity;
 import org.openlca.core.model.SocialIndicator;
 import org.openlca.core.model.Source;
 import org.openlca.core.model.UnitGroup;
 import org.openlca.core.model.descriptors.Descriptor;
+import org.openlca.core.model.descriptors.RootDescriptor;
 
 class ImportCache {
 
 	private final JsonImport imp;
 
-	private final Map<Class<?>, Map<String, Object>> cache = new HashMap<>();
+	// the cache is accessed by the worker and writer threads of a pipelined
+	// import and thus needs to be thread-safe
+	private final Map<Class<?>, Map<String, Object>> cache =
+		new ConcurrentHashMap<>();
 
 	// small independent instances that we cache as full objects, instances
 	// of classes that are not in this set are cached as descriptors
@@ -38,15 +44,53 @@ class ImportCache {
 		UnitGroup.class
 	);
 
+	// the descriptors of the entities that are stored in the database, per
+	// entity class; only available for the types that were pre-warmed. When
+	// available, this index replaces the ref-ID queries for each data set.
+	private final Map<Class<?>, Map<String, RootDescriptor>> stored =
+		new ConcurrentHashMap<>();
+
 	ImportCache(JsonImport imp) {
 		this.imp = imp;
 	}
 
+	/**
+	 * Loads the descriptors of the entities of the given type that are stored
+	 * in the database with a single query.
+	 */
+	void prewarm(ModelType type) {
+		if (type == null)
+			return;
+		var index = new ConcurrentHashMap<String, RootDescriptor>();
+		for (var d : DescriptorReader.of(imp.db(), type).getAll()) {
+			if (d.refId != null) {
+				index.put(d.refId, d);
+			}
+		}
+		stored.put(type.getModelClass(), index);
+	}
+
+	/**
+	 * Returns the entity with the given type and ID if it was already visited
+	 * in this import and is cached as full object. Otherwise, null is returned.
+	 */
+	<T extends RootEntity> T getVisited(Class<T> type, String refId) {
+		if (type == null || refId == null)
+			return null;
+		var cacheMap = cache.get(type);
+		if (cacheMap == null)
+			return null;
+		var cached = cacheMap.get(refId);
+		return type.isInstance(cached)
+			? type.cast(cached)
+			: null;
+	}
+
 	void visited(RootEntity entity) {
-		if (entity == null)
+		if (entity == null || entity.refId == null)
 			return;
 		var type = entity.getClass();
-		var cacheMap = cache.computeIfAbsent(type, t -> new HashMap<>());
+		var cacheMap = cache.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
 		var cacheObj = fullyCached.contains(type)
 			? entity
 			: Descriptor.of(entity);
@@ -54,6 +98,8 @@ class ImportCache {
 	}
 
 	Descriptor getDescriptor(Class<?> type, String refId) {
+		if (type == null || refId == null)
+			return null;
 		var cacheMap = cache.get(type);
 		if (cacheMap == null)
 			return null;
@@ -75,7 +121,7 @@ class ImportCache {
 			return ImportItem.error();
 
 		// first, try to read it from cache
-		var cacheMap = cache.computeIfAbsent(type, t -> new HashMap<>());
+		var cacheMap = cache.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
 		var cached = cacheMap.get(refId);
 		if (cached != null) {
 			if (type.isInstance(cached))
@@ -88,7 +134,7 @@ class ImportCache {
 		}
 
 		// try to read it from the database
-		T model = imp.db().get(type, refId);
+		T model = load(type, refId);
 		if (model != null) {
 			if (imp.updateMode == UpdateMode.NEVER) {
 				visited(model);
@@ -114,6 +160,21 @@ class ImportCache {
 			: ImportItem.update(json, model);
 	}
 
+	private <T extends RootEntity> T load(Class<T> type, String refId) {
+		var index = stored.get(type);
+		if (index == null)
+			return imp.db().get(type, refId);
+		var d = index.get(refId);
+		if (d != null)
+			return imp.db().get(type, d.id);
+		// entities that are not in the index can be inserted by this import
+		// before they are visited, e.g. in a batch import
+		var cacheMap = cache.get(type);
+		return cacheMap != null && cacheMap.containsKey(refId)
+			? imp.db().get(type, refId)
+			: null;
+	}
+
 	private <T extends RefEntity> boolean skipImport(T model, JsonObject json) {
 		if (model == null || imp.updateMode == UpdateMode.ALWAYS)
 			return false;
@@ -31,6 +31,7 @@ public class JsonImport implements Runnable, EntityResolver {
 	private final IDatabase db;
 	final JsonStoreReader reader;
 	UpdateMode updateMode = UpdateMode.NEVER;
+	int threadCount = 1;
 	private Consumer<RefEntity> callback;
 	final CategorySync categories;
 	final Map<Class<?>, ModelType> types = new HashMap<>();
@@ -53,6 +54,38 @@ public class JsonImport implements Runnable, EntityResolver {
 		return this;
 	}
 
+	/**
+	 * Sets the number of threads that are used to read the data sets of a type
+	 * in a batch import (see {@link BatchImport}). With more than one thread,
+	 * the data sets are parsed and their references resolved in parallel while
+	 * a single writer thread inserts them into the database. The default is
+	 * one thread which reads the data sets in the order of the store.
+	 */
+	public JsonImport setThreadCount(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+		return this;
+	}
+
+	/**
+	 * Loads the descriptors of the data sets of the given types that are
+	 * already stored in the database into the import cache, each type with a
+	 * single query. The import then does not need to query the database for
+	 * each referenced data set to check if it exists. If no types are given,
+	 * all types are loaded. This is done automatically when the complete store
+	 * is imported via {@link #run()}.
+	 */
+	public JsonImport prewarmCache(ModelType... types) {
+		var list = types == null || types.length == 0
+				? ModelType.values()
+				: types;
+		for (var type : list) {
+			if (type == ModelType.CATEGORY)
+				continue;
+			cache.prewarm(type);
+		}
+		return this;
+	}
+
 	public JsonImport setCallback(Consumer<RefEntity> callback) {
 		this.callback = callback;
 		return this;
@@ -88,6 +121,7 @@ public class JsonImport implements Runnable, EntityResolver {
 
 	@Override
 	public void run() {
+		prewarmCache();
 		new CategoryImport(this).importAll();
 		new UnitGroupImport(this).importAll();
 		var typeOrder = new ModelType[]{
@@ -122,8 +156,19 @@ public class JsonImport implements Runnable, EntityResolver {
 	}
 
 	@Override
-	@SuppressWarnings("unchecked")
 	public <T extends RootEntity> T get(Class<T> type, String refId) {
+		// data sets that were already visited in this import, like the flows
+		// and units shared by many processes, are returned from the cache
+		// without waiting for the lock
+		var visited = cache.getVisited(type, refId);
+		return visited != null
+				? visited
+				: getSync(type, refId);
+	}
+
+	@SuppressWarnings("unchecked")
+	private synchronized <T extends RootEntity> T getSync(
+			Class<T> type, String refId) {
 		// unit groups can have cyclic dependencies with flow properties
 		// thus, we handle them a bit differently than other types
 		if (Objects.equals(UnitGroup.class, type))
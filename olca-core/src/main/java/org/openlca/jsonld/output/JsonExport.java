@@ -190,8 +190,10 @@ public class JsonExport {
 			return;
 		}
 		try {
-			var obj = w.write(entity);
-			writer.put(type, obj);
+			if (!(w instanceof JsonStreamWriter<T> sw) || !writeStream(entity, sw)) {
+				var obj = w.write(entity);
+				writer.put(type, obj);
+			}
 			if (!skipExternalFiles) {
 				writeExternalFiles(entity, type, cb);
 			}
@@ -203,6 +205,31 @@ public class JsonExport {
 		}
 	}
 
+	/**
+	 * Writes the given entity directly into a stream of the store if the store
+	 * supports this. Returns {@code false} if this is not the case. When
+	 * writing fails, the stream is discarded so that no incomplete data set is
+	 * added to the store.
+	 */
+	private <T extends RootEntity> boolean writeStream(
+			T entity, JsonStreamWriter<T> w) throws IOException {
+		var out = writer.openJson(entity);
+		if (out == null)
+			return false;
+		boolean written = false;
+		try {
+			var stream = JsonStream.of(out);
+			w.write(entity, stream);
+			stream.close();
+			written = true;
+		} finally {
+			if (!written) {
+				out.discard();
+			}
+		}
+		return true;
+	}
+
 	private void warn(Callback cb, String message, RefEntity entity) {
 		if (cb == null)
 			return;
@@ -16,34 +16,48 @@ import org.openlca.jsonld.Json;
 import org.openlca.util.Categories;
 import org.openlca.util.Categories.PathBuilder;
 
-import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JsonRefs helps to create data set references when no full-entities are
  * available. An instance of this class maintains an internal cache and can be
  * reused when multiple references should be created. For full-entities,
- * {@code Json.asRef} could be used instead.
+ * {@code Json.asRef} could be used instead. Services that create references
+ * for many requests should use the shared snapshot of a database, see
+ * {@link #snapshotOf(IDatabase)}.
  */
 public class JsonRefs {
 
 	private final IDatabase db;
 	private final PathBuilder categories;
 	private final Map<ModelType, TLongObjectHashMap<? extends RootDescriptor>> cache;
-	private Map<Long, String> _locationCodes;
-	private Map<Long, String> _refUnits;
+	private volatile Map<Long, String> _locationCodes;
+	private volatile Map<Long, String> _refUnits;
 
 	private JsonRefs(IDatabase db) {
 		this.db = db;
 		this.categories = Categories.pathsOf(db);
-		this.cache = new EnumMap<>(ModelType.class);
+		this.cache = new ConcurrentHashMap<>();
 	}
 
 	public static JsonRefs of(IDatabase db) {
 		return new JsonRefs(db);
 	}
 
+	/**
+	 * Returns a shared instance for the given database. This instance is reused
+	 * as long as the database is not modified, so that the reference data
+	 * (categories, locations, units etc.) are not loaded again for every
+	 * request. The returned instance can be used from multiple threads.
+	 */
+	public static JsonRefs snapshotOf(IDatabase db) {
+		return db.listeners()
+				.shared(Snapshot.class, Snapshot::new)
+				.get(db);
+	}
+
 	public JsonObject asRef(RootDescriptor d) {
 		if (d == null)
 			return null;
@@ -59,7 +73,7 @@ public class JsonRefs {
 
 		Json.put(ref, "@id", d.refId);
 		Json.put(ref, "name", d.name);
-		Json.put(ref, "category", categories.pathOf(d.category));
+		Json.put(ref, "category", categoryPathOf(d.category));
 
 		if (d instanceof FlowDescriptor fd) {
 			Json.put(ref, "flowType", (fd.flowType));
@@ -97,11 +111,23 @@ public class JsonRefs {
 		return map.get(id);
 	}
 
+	private String categoryPathOf(Long id) {
+		if (id == null)
+			return null;
+		synchronized (categories) {
+			return categories.pathOf(id);
+		}
+	}
+
 	private String locationCodeOf(Long id) {
 		if (id == null)
 			return null;
 		if (_locationCodes == null) {
-			_locationCodes = new LocationDao(db).getCodes();
+			synchronized (this) {
+				if (_locationCodes == null) {
+					_locationCodes = new LocationDao(db).getCodes();
+				}
+			}
 		}
 		return _locationCodes.get(id);
 	}
@@ -110,17 +136,45 @@ public class JsonRefs {
 		if (propId == null)
 			return null;
 		if (_refUnits == null) {
-			_refUnits = new HashMap<>();
-			var query = """
+			synchronized (this) {
+				if (_refUnits == null) {
+					_refUnits = refUnits();
+				}
+			}
+		}
+		return _refUnits.get(propId);
+	}
+
+	private Map<Long, String> refUnits() {
+		var map = new HashMap<Long, String>();
+		var query = """
 				select prop.id, unit.name from tbl_flow_properties prop
 				  inner join tbl_unit_groups as ug on prop.f_unit_group = ug.id
 				  inner join tbl_units unit on ug.f_reference_unit = unit.id
 				""";
-			NativeSql.on(db).query(query, r -> {
-				_refUnits.put(r.getLong(1), r.getString(2));
-				return true;
-			});
+		NativeSql.on(db).query(query, r -> {
+			map.put(r.getLong(1), r.getString(2));
+			return true;
+		});
+		return map;
+	}
+
+	/**
+	 * Holds the shared instance of a database together with the database
+	 * version for which it was created.
+	 */
+	private static class Snapshot {
+
+		private JsonRefs refs;
+		private long version = -1;
+
+		synchronized JsonRefs get(IDatabase db) {
+			long current = db.listeners().version();
+			if (refs == null || version != current) {
+				refs = new JsonRefs(db);
+				version = current;
+			}
+			return refs;
 		}
-		return _refUnits.get(propId);
 	}
 }
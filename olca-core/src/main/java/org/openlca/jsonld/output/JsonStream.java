@@ -0,0 +1,127 @@
+package org.openlca.jsonld.output;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes JSON data sets directly into an output stream. Small parts of a data
+ * set are still mapped to JSON objects that are then written to the stream,
+ * but large arrays, like the process links of a product system, can be
+ * written element by element. The output is the same as when the complete
+ * JSON object of a data set is converted with the default Gson configuration.
+ * <p>
+ * Like Gson, the methods of this class throw a {@link JsonIOException} when
+ * writing to the underlying stream fails.
+ */
+public class JsonStream implements Closeable {
+
+	private final Gson gson;
+	private final JsonWriter writer;
+
+	private JsonStream(Gson gson, JsonWriter writer) {
+		this.gson = gson;
+		this.writer = writer;
+	}
+
+	public static JsonStream of(OutputStream out) {
+		var gson = new Gson();
+		try {
+			var w = new BufferedWriter(
+					new OutputStreamWriter(out, StandardCharsets.UTF_8));
+			return new JsonStream(gson, gson.newJsonWriter(w));
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+	}
+
+	public JsonStream beginObject() {
+		try {
+			writer.beginObject();
+			return this;
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+	}
+
+	public JsonStream endObject() {
+		try {
+			writer.endObject();
+			return this;
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+	}
+
+	/**
+	 * Writes the members of the given object into the current object of the
+	 * stream.
+	 */
+	public JsonStream putAll(JsonObject obj) {
+		if (obj == null)
+			return this;
+		for (var e : obj.entrySet()) {
+			put(e.getKey(), e.getValue());
+		}
+		return this;
+	}
+
+	public JsonStream put(String property, JsonElement value) {
+		if (property == null || value == null)
+			return this;
+		try {
+			writer.name(property);
+			gson.toJson(value, writer);
+			return this;
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+	}
+
+	/**
+	 * Starts an array with the given name in the current object of the
+	 * stream.
+	 */
+	public JsonStream beginArray(String property) {
+		try {
+			writer.name(property);
+			writer.beginArray();
+			return this;
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+	}
+
+	/**
+	 * Adds the given element to the current array of the stream. As in a
+	 * {@link com.google.gson.JsonArray}, {@code null} is written as JSON null.
+	 */
+	public JsonStream add(JsonElement elem) {
+		gson.toJson(elem != null ? elem : JsonNull.INSTANCE, writer);
+		return this;
+	}
+
+	public JsonStream endArray() {
+		try {
+			writer.endArray();
+			return this;
+		} catch (IOException e) {
+			throw new JsonIOException(e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
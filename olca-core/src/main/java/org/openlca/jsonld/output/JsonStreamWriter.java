@@ -0,0 +1,15 @@
+package org.openlca.jsonld.output;
+
+import org.openlca.core.model.RefEntity;
+
+/**
+ * Converts an entity directly into a JSON stream without creating the
+ * complete JSON object first. This is implemented by the writers of entities
+ * that can be very large, like processes with many exchanges or product
+ * systems with many process links.
+ */
+public interface JsonStreamWriter<T extends RefEntity> extends JsonWriter<T> {
+
+	void write(T entity, JsonStream out);
+
+}
@@ -0,0 +1,133 @@
+package org.openlca.jsonld.output;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.ParameterDao;
+import org.openlca.core.model.Callback;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.descriptors.RootDescriptor;
+import org.openlca.jsonld.JsonStoreWriter;
+import org.openlca.jsonld.ZipWriter;
+
+/**
+ * Exports data sets of a database in parallel. Each worker thread loads the
+ * data sets, converts them to JSON, and puts them into the store with its
+ * own {@link JsonExport}. The store must be thread-safe for this, like the
+ * {@link ZipWriter} which also compresses the entries in these threads, so
+ * that only appending the compressed entries to the zip file is sequential.
+ * <p>
+ * As it is expected that all or a large part of the database is exported, the
+ * references of the data sets are not exported recursively. Use the
+ * {@link JsonExport} for exporting single data sets with their references.
+ */
+public class ParallelJsonExport {
+
+	private final IDatabase db;
+	private final JsonStoreWriter writer;
+	private int threads = Math.max(1, Runtime.getRuntime().availableProcessors());
+	private boolean skipLibraryData = true;
+	private boolean skipExternalFiles = false;
+	private Callback callback;
+
+	private ParallelJsonExport(IDatabase db, JsonStoreWriter writer) {
+		this.db = Objects.requireNonNull(db);
+		this.writer = Objects.requireNonNull(writer);
+	}
+
+	public static ParallelJsonExport of(IDatabase db, JsonStoreWriter writer) {
+		return new ParallelJsonExport(db, writer);
+	}
+
+	public ParallelJsonExport withThreads(int threads) {
+		this.threads = Math.max(1, threads);
+		return this;
+	}
+
+	public ParallelJsonExport skipLibraryData(boolean b) {
+		skipLibraryData = b;
+		return this;
+	}
+
+	public ParallelJsonExport skipExternalFiles(boolean b) {
+		skipExternalFiles = b;
+		return this;
+	}
+
+	/**
+	 * Sets a callback that is called for each exported data set. Note that
+	 * this callback is called from the worker threads.
+	 */
+	public ParallelJsonExport withCallback(Callback callback) {
+		this.callback = callback;
+		return this;
+	}
+
+	/**
+	 * Exports all data sets of the database.
+	 */
+	public void writeAll() {
+		var descriptors = new ArrayList<RootDescriptor>();
+		for (var type : ModelType.values()) {
+			if (type == ModelType.CATEGORY)
+				continue;
+			if (type == ModelType.PARAMETER) {
+				descriptors.addAll(new ParameterDao(db).getGlobalDescriptors());
+				continue;
+			}
+			descriptors.addAll(db.getDescriptors(type.getModelClass()));
+		}
+		write(descriptors);
+	}
+
+	/**
+	 * Exports the data sets of the given descriptors.
+	 */
+	public void write(Collection<? extends RootDescriptor> descriptors) {
+		if (descriptors == null || descriptors.isEmpty())
+			return;
+		var queue = new ConcurrentLinkedQueue<RootDescriptor>(descriptors);
+		int n = Math.min(threads, descriptors.size());
+		ExecutorService exec = Executors.newFixedThreadPool(n);
+		try {
+			var futures = new ArrayList<Future<?>>(n);
+			for (int i = 0; i < n; i++) {
+				futures.add(exec.submit(() -> work(queue)));
+			}
+			await(futures);
+		} finally {
+			exec.shutdownNow();
+		}
+	}
+
+	private void work(ConcurrentLinkedQueue<RootDescriptor> queue) {
+		var export = new JsonExport(db, writer)
+				.withReferences(false)
+				.skipLibraryData(skipLibraryData)
+				.skipExternalFiles(skipExternalFiles);
+		RootDescriptor d;
+		while ((d = queue.poll()) != null) {
+			if (d.type == null)
+				continue;
+			var entity = db.get(d.type.getModelClass(), d.id);
+			export.write(entity, callback);
+		}
+	}
+
+	private void await(List<Future<?>> futures) {
+		for (var f : futures) {
+			try {
+				f.get();
+			} catch (Exception e) {
+				throw new RuntimeException("failed to export data sets", e);
+			}
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package org.openlca.jsonld.output;
 
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.openlca.core.model.AllocationMethod;
 import org.openlca.core.model.Exchange;
@@ -12,10 +13,41 @@ import org.openlca.jsonld.Json;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
-public record ProcessWriter(JsonExport exp) implements JsonWriter<Process> {
+public record ProcessWriter(JsonExport exp) implements JsonStreamWriter<Process> {
 
 	@Override
 	public JsonObject write(Process p) {
+		var obj = mapHead(p);
+		mapExchanges(p, obj);
+		mapSocialAspects(p, obj);
+		mapAllocationFactors(p, obj);
+		GlobalParameters.sync(p, exp);
+		return obj;
+	}
+
+	/**
+	 * Writes the process directly into the given stream. The exchanges and
+	 * allocation factors are written one by one so that the JSON objects of
+	 * them are never held in memory at the same time.
+	 */
+	@Override
+	public void write(Process p, JsonStream out) {
+		out.beginObject();
+		out.putAll(mapHead(p));
+		out.beginArray("exchanges");
+		eachExchange(p, out::add);
+		out.endArray();
+		var aspects = new JsonObject();
+		mapSocialAspects(p, aspects);
+		out.putAll(aspects);
+		out.beginArray("allocationFactors");
+		eachAllocationFactor(p, out::add);
+		out.endArray();
+		out.endObject();
+		GlobalParameters.sync(p, exp);
+	}
+
+	private JsonObject mapHead(Process p) {
 		var obj = Util.init(p);
 		// AllocationCleanup.on(p);
 		Json.put(obj, "processType", p.processType);
@@ -32,10 +64,6 @@ public record ProcessWriter(JsonExport exp) implements JsonWriter<Process> {
 		Json.put(obj, "socialDqSystem", exp.handleRef(p.socialDqSystem));
 
 		mapParameters(p, obj);
-		mapExchanges(p, obj);
-		mapSocialAspects(p, obj);
-		mapAllocationFactors(p, obj);
-		GlobalParameters.sync(p, exp);
 		return obj;
 	}
 
@@ -85,15 +113,19 @@ public record ProcessWriter(JsonExport exp) implements JsonWriter<Process> {
 
 	private void mapExchanges(Process p, JsonObject json) {
 		var array = new JsonArray();
+		eachExchange(p, array::add);
+		Json.put(json, "exchanges", array);
+	}
+
+	private void eachExchange(Process p, Consumer<JsonObject> fn) {
 		for (var e : p.exchanges) {
 			var obj = new JsonObject();
 			map(e, obj);
 			if (Objects.equals(p.quantitativeReference, e)) {
 				Json.put(obj, "isQuantitativeReference", true);
 			}
-			array.add(obj);
+			fn.accept(obj);
 		}
-		Json.put(json, "exchanges", array);
 	}
 
 	private void mapSocialAspects(Process p, JsonObject json) {
@@ -114,6 +146,11 @@ public record ProcessWriter(JsonExport exp) implements JsonWriter<Process> {
 
 	private void mapAllocationFactors(Process p, JsonObject json) {
 		var factors = new JsonArray();
+		eachAllocationFactor(p, factors::add);
+		Json.put(json, "allocationFactors", factors);
+	}
+
+	private void eachAllocationFactor(Process p, Consumer<JsonObject> fn) {
 		for (var f : p.allocationFactors) {
 			var obj = new JsonObject();
 			Json.put(obj, "allocationType", f.method);
@@ -123,9 +160,8 @@ public record ProcessWriter(JsonExport exp) implements JsonWriter<Process> {
 			Json.put(obj, "product", exp.handleRef(findProduct(p, f.productId)));
 			Json.put(obj, "value", f.value);
 			Json.put(obj, "formula", f.formula);
-			factors.add(obj);
+			fn.accept(obj);
 		}
-		Json.put(json, "allocationFactors", factors);
 	}
 
 	private Flow findProduct(Process p, long id) {
@@ -1,6 +1,7 @@
 package org.openlca.jsonld.output;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.openlca.core.database.NativeSql;
 import org.openlca.core.model.FlowProperty;
@@ -18,15 +19,49 @@ import com.google.gson.JsonObject;
 import gnu.trove.map.hash.TLongLongHashMap;
 
 public record ProductSystemWriter(JsonExport exp)
-		implements JsonWriter<ProductSystem> {
+		implements JsonStreamWriter<ProductSystem> {
 
 	@Override
 	public JsonObject write(ProductSystem sys) {
+		var exchangeIDs = exchangeIDs(sys);
+		var obj = mapHead(sys, exchangeIDs);
+		if (exp.db == null)
+			return obj;
+		var processes = new JsonArray();
+		eachProcess(sys, processes::add);
+		Json.put(obj, "processes", processes);
+		var links = new JsonArray();
+		eachLink(sys, exchangeIDs, links::add);
+		Json.put(obj, "processLinks", links);
+		return obj;
+	}
+
+	/**
+	 * Writes the product system directly into the given stream. The processes
+	 * and process links are written one by one so that the JSON objects of
+	 * them are never held in memory at the same time.
+	 */
+	@Override
+	public void write(ProductSystem sys, JsonStream out) {
+		var exchangeIDs = exchangeIDs(sys);
+		out.beginObject();
+		out.putAll(mapHead(sys, exchangeIDs));
+		if (exp.db != null) {
+			out.beginArray("processes");
+			eachProcess(sys, out::add);
+			out.endArray();
+			out.beginArray("processLinks");
+			eachLink(sys, exchangeIDs, out::add);
+			out.endArray();
+		}
+		out.endObject();
+	}
+
+	private JsonObject mapHead(ProductSystem sys, TLongLongHashMap exchangeIDs) {
 		var obj = Util.init(sys);
 		Json.put(obj, "refProcess", exp.handleRef(sys.referenceProcess));
 
 		// the reference exchange
-		var exchangeIDs = exchangeIDs(sys);
 		if (sys.referenceExchange != null) {
 			var eObj = new JsonObject();
 			Json.put(eObj, "@type", "Exchange");
@@ -45,17 +80,11 @@ public record ProductSystemWriter(JsonExport exp)
 		// map the parameter redefinitions
 		GlobalParameters.sync(sys, exp);
 		putParameterSets(obj, sys.parameterSets);
-
-		if (exp.db == null)
-			return obj;
-		mapProcesses(sys, obj);
-		mapLinks(sys, obj, exchangeIDs);
 		return obj;
 	}
 
-	private void mapLinks(
-		ProductSystem sys, JsonObject json, TLongLongHashMap exchangeIDs) {
-		var array = new JsonArray();
+	private void eachLink(ProductSystem sys, TLongLongHashMap exchangeIDs,
+		Consumer<JsonObject> fn) {
 		for (var link : sys.processLinks) {
 			var obj = new JsonObject();
 			var providerType = providerTypeOf(link);
@@ -66,9 +95,8 @@ public record ProductSystemWriter(JsonExport exp)
 			Json.put(eObj, "@type", "Exchange");
 			Json.put(eObj, "internalId", exchangeIDs.get(link.exchangeId));
 			Json.put(obj, "exchange", eObj);
-			array.add(obj);
+			fn.accept(obj);
 		}
-		Json.put(json, "processLinks", array);
 	}
 
 	private ModelType providerTypeOf(ProcessLink link) {
@@ -79,11 +107,10 @@ public record ProductSystemWriter(JsonExport exp)
 		return ModelType.PROCESS;
 	}
 
-	private void mapProcesses(ProductSystem sys, JsonObject json) {
+	private void eachProcess(ProductSystem sys, Consumer<JsonObject> fn) {
 		var refs = exp.dbRefs;
 		if (refs == null)
 			return;
-		var array = new JsonArray();
 		var types = new ModelType[]{
 			ModelType.PROCESS, ModelType.PRODUCT_SYSTEM, ModelType.RESULT};
 
@@ -103,9 +130,8 @@ public record ProductSystemWriter(JsonExport exp)
 			var ref = exp.handleRef(type, unboxedId);
 			if (ref == null)
 				continue;
-			array.add(ref);
+			fn.accept(ref);
 		}
-		Json.put(json, "processes", array);
 	}
 
 	/**
@@ -1,24 +1,89 @@
 package org.openlca.util;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
+import org.openlca.core.database.CategoryDao;
+import org.openlca.core.database.Daos;
 import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.RootEntityDao;
+import org.openlca.core.model.Category;
 import org.openlca.core.model.ModelType;
+import org.openlca.core.model.RootEntity;
 import org.openlca.core.model.descriptors.RootDescriptor;
-import org.openlca.jsonld.ZipStore;
-import org.openlca.jsonld.output.JsonExport;
+import org.openlca.jsonld.Json;
+import org.openlca.jsonld.ZipReader;
+import org.openlca.jsonld.ZipWriter;
+import org.openlca.jsonld.input.JsonImport;
+import org.openlca.jsonld.input.UpdateMode;
+import org.openlca.jsonld.output.ParallelJsonExport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Creates and applies packages with the differences between two databases.
+ * A diff package is a JSON-LD zip file that contains only the data sets that
+ * are new or changed in a database compared to an origin, and a list of the
+ * data sets that were deleted ({@link #DELETED_FILE}). Changes are detected
+ * by comparing the version and last-change fields of the data sets.
+ * <p>
+ * The origin can be another database or an index file with the versions of
+ * the data sets of the origin ({@link #writeIndex(IDatabase, File)}). Thus,
+ * to synchronize a mirror with a source database, the index of the mirror is
+ * created and passed to the source, the source creates the diff package, and
+ * the package is then applied to the mirror with {@link #apply(File,
+ * IDatabase)}.
+ */
 public class JsonDiffZip {
 
+	/**
+	 * The name of the file in the diff package that contains the deleted data
+	 * sets: a JSON object that maps the model types to arrays of reference IDs.
+	 */
+	public static final String DELETED_FILE = "deleted.json";
+
+	private static final int DELETE_BATCH = 1000;
+
+	/**
+	 * The order in which deleted data sets are removed: data sets are removed
+	 * before the data sets they can depend on.
+	 */
+	private static final ModelType[] DELETE_ORDER = {
+			ModelType.EPD,
+			ModelType.PROJECT,
+			ModelType.RESULT,
+			ModelType.PRODUCT_SYSTEM,
+			ModelType.IMPACT_METHOD,
+			ModelType.IMPACT_CATEGORY,
+			ModelType.PROCESS,
+			ModelType.PARAMETER,
+			ModelType.SOCIAL_INDICATOR,
+			ModelType.FLOW,
+			ModelType.FLOW_PROPERTY,
+			ModelType.UNIT_GROUP,
+			ModelType.LOCATION,
+			ModelType.DQ_SYSTEM,
+			ModelType.CURRENCY,
+			ModelType.SOURCE,
+			ModelType.ACTOR,
+			ModelType.CATEGORY,
+	};
+
 	private final Logger log = LoggerFactory.getLogger(getClass());
 	private final IDatabase db;
-	private IDatabase origin;
+	private Map<ModelType, Map<String, Stamp>> origin;
+	private String originName;
 
 	private JsonDiffZip(IDatabase db) {
 		this.db = Objects.requireNonNull(db);
@@ -29,10 +94,46 @@ public class JsonDiffZip {
 	}
 
 	public JsonDiffZip withOrigin(IDatabase origin) {
-		this.origin = Objects.requireNonNull(origin);
+		Objects.requireNonNull(origin);
+		this.origin = indexOf(origin);
+		this.originName = origin.getName();
+		return this;
+	}
+
+	/**
+	 * Uses the given index file as origin; see
+	 * {@link #writeIndex(IDatabase, File)}.
+	 */
+	public JsonDiffZip withOriginIndex(File index) {
+		Objects.requireNonNull(index);
+		var json = Json.readObject(index).orElseThrow(
+				() -> new IllegalArgumentException("invalid index file: " + index));
+		this.origin = readIndex(json);
+		this.originName = index.getName();
 		return this;
 	}
 
+	/**
+	 * Writes the versions of the data sets of the given database into an
+	 * index file. This index can be used as origin of a diff package instead
+	 * of the database itself.
+	 */
+	public static void writeIndex(IDatabase db, File file) {
+		var index = indexOf(db);
+		var json = new JsonObject();
+		for (var e : index.entrySet()) {
+			var obj = new JsonObject();
+			for (var stamp : e.getValue().entrySet()) {
+				var array = new JsonArray(2);
+				array.add(stamp.getValue().version);
+				array.add(stamp.getValue().lastChange);
+				obj.add(stamp.getKey(), array);
+			}
+			json.add(e.getKey().name(), obj);
+		}
+		Json.write(json, file);
+	}
+
 	public void exportTo(File file) {
 		Objects.requireNonNull(file);
 		if (origin == null) {
@@ -40,49 +141,194 @@ public class JsonDiffZip {
 			return;
 		}
 
-		log.info("write diff of '{}' and '{}' to: {}", db, origin, file);
-		try (var zip = ZipStore.open(file)) {
-
-			var export = new JsonExport(db, zip)
-					.withReferences(false)
-					.withDefaultProviders(false)
-					.skipLibraryData(true);
-
-			int count = 0;
+		log.info("write diff of '{}' and '{}' to: {}", db, originName, file);
+		try (var zip = ZipWriter.create(file)) {
+			var changed = new ArrayList<RootDescriptor>();
+			var deleted = new JsonObject();
+			int deletedCount = 0;
 			for (var type : ModelType.values()) {
 				var diff = getDiff(type);
-				for (var d : diff) {
-					var entity = db.get(type.getModelClass(), d.id);
-					if (entity == null) {
-						log.error("failed to load entity: {}", d);
-						continue;
-					}
-					export.write(entity);
-					count++;
-				}
+				changed.addAll(diff.changed);
+				if (diff.deleted.isEmpty())
+					continue;
+				deletedCount += diff.deleted.size();
+				var refIds = new JsonArray(diff.deleted.size());
+				diff.deleted.forEach(refIds::add);
+				deleted.add(type.name(), refIds);
 			}
-			log.info("wrote Json diff with {} entities", count);
+
+			ParallelJsonExport.of(db, zip)
+					.skipLibraryData(true)
+					.write(changed);
+			zip.put(DELETED_FILE,
+					deleted.toString().getBytes(StandardCharsets.UTF_8));
+			log.info("wrote Json diff with {} changed and {} deleted entities",
+					changed.size(), deletedCount);
 
 		} catch (Exception e) {
 			throw new RuntimeException("failed to export diff-zip", e);
 		}
 	}
 
-	private Set<RootDescriptor> getDiff(ModelType type) {
-		var clazz = type.getModelClass();
-		var origins = new HashMap<String, RootDescriptor>();
-		for (var o : origin.getDescriptors(clazz)) {
-			origins.put(o.refId, o);
+	/**
+	 * Applies the given diff package to the given database: the changed data
+	 * sets are imported in batches and the deleted data sets are removed.
+	 * Deleted categories are only removed when they are empty after the
+	 * import.
+	 */
+	public static void apply(File file, IDatabase db) {
+		Objects.requireNonNull(file);
+		Objects.requireNonNull(db);
+		var log = LoggerFactory.getLogger(JsonDiffZip.class);
+		log.info("apply diff {} to '{}'", file, db);
+		try (var zip = ZipReader.open(file)) {
+			new JsonImport(zip, db)
+					.setUpdateMode(UpdateMode.ALWAYS)
+					.run();
+
+			var json = zip.getJson(DELETED_FILE);
+			if (json == null || !json.isJsonObject())
+				return;
+			var deleted = json.getAsJsonObject();
+			for (var type : DELETE_ORDER) {
+				var refIds = Json.getArray(deleted, type.name());
+				if (refIds == null || refIds.isEmpty())
+					continue;
+				var set = new HashSet<String>();
+				for (var refId : refIds) {
+					set.add(refId.getAsString());
+				}
+				if (type == ModelType.CATEGORY) {
+					deleteCategories(db, set);
+				} else {
+					delete(db, type, set);
+				}
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("failed to apply diff-zip", e);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void delete(IDatabase db, ModelType type, Set<String> refIds) {
+		var ids = new ArrayList<Long>();
+		for (var d : db.getDescriptors(type.getModelClass())) {
+			if (refIds.contains(d.refId)) {
+				ids.add(d.id);
+			}
+		}
+		var dao = (RootEntityDao<RootEntity, ?>) Daos.root(db, type);
+		for (int start = 0; start < ids.size(); start += DELETE_BATCH) {
+			int end = Math.min(start + DELETE_BATCH, ids.size());
+			var batch = new HashSet<>(ids.subList(start, end));
+			dao.deleteAll(dao.getForIds(batch));
+		}
+	}
+
+	/**
+	 * Deletes the given categories if they are empty. A category is only
+	 * deleted when it does not contain data sets and when all of its child
+	 * categories are deleted too, as the child categories are deleted with
+	 * their parent.
+	 */
+	private static void deleteCategories(IDatabase db, Set<String> refIds) {
+		var content = new CategoryContentTest(db);
+		var deletable = new HashSet<String>();
+		var candidates = new ArrayList<Category>();
+		for (var d : db.getDescriptors(Category.class)) {
+			if (!refIds.contains(d.refId))
+				continue;
+			var category = db.get(Category.class, d.id);
+			if (category == null)
+				continue;
+			candidates.add(category);
+			if (isEmpty(category, refIds, content)) {
+				deletable.add(category.refId);
+			}
+		}
+		var dao = new CategoryDao(db);
+		for (var category : candidates) {
+			if (!deletable.contains(category.refId))
+				continue;
+			// deleted with its parent
+			if (category.category != null
+					&& deletable.contains(category.category.refId))
+				continue;
+			dao.delete(category);
+		}
+	}
+
+	private static boolean isEmpty(
+			Category category, Set<String> refIds, CategoryContentTest content) {
+		if (content.hasNonLibraryContent(category)
+				|| content.hasLibraryContent(category))
+			return false;
+		return isDeletedTree(category, refIds);
+	}
+
+	private static boolean isDeletedTree(Category category, Set<String> refIds) {
+		for (var child : category.childCategories) {
+			if (!refIds.contains(child.refId) || !isDeletedTree(child, refIds))
+				return false;
 		}
-		var diff = new HashSet<RootDescriptor>();
-		for (var d : db.getDescriptors(clazz)) {
+		return true;
+	}
+
+	private Diff getDiff(ModelType type) {
+		var origins = origin.getOrDefault(type, Map.of());
+		var diff = new Diff(new ArrayList<>(), new ArrayList<>());
+		var refIds = new HashSet<String>();
+		for (var d : db.getDescriptors(type.getModelClass())) {
+			refIds.add(d.refId);
 			var o = origins.get(d.refId);
 			if (o == null
 					|| d.version > o.version
 					|| (d.version == o.version && d.lastChange > o.lastChange)) {
-				diff.add(d);
+				diff.changed.add(d);
+			}
+		}
+		for (var refId : origins.keySet()) {
+			if (!refIds.contains(refId)) {
+				diff.deleted.add(refId);
 			}
 		}
 		return diff;
 	}
+
+	private static Map<ModelType, Map<String, Stamp>> indexOf(IDatabase db) {
+		var index = new EnumMap<ModelType, Map<String, Stamp>>(ModelType.class);
+		for (var type : ModelType.values()) {
+			var stamps = new HashMap<String, Stamp>();
+			for (var d : db.getDescriptors(type.getModelClass())) {
+				if (d.refId != null) {
+					stamps.put(d.refId, new Stamp(d.version, d.lastChange));
+				}
+			}
+			index.put(type, stamps);
+		}
+		return index;
+	}
+
+	private static Map<ModelType, Map<String, Stamp>> readIndex(JsonObject json) {
+		var index = new EnumMap<ModelType, Map<String, Stamp>>(ModelType.class);
+		for (var type : ModelType.values()) {
+			var obj = Json.getObject(json, type.name());
+			var stamps = new HashMap<String, Stamp>();
+			if (obj != null) {
+				for (var e : obj.entrySet()) {
+					var array = e.getValue().getAsJsonArray();
+					stamps.put(e.getKey(), new Stamp(
+							array.get(0).getAsLong(), array.get(1).getAsLong()));
+				}
+			}
+			index.put(type, stamps);
+		}
+		return index;
+	}
+
+	private record Stamp(long version, long lastChange) {
+	}
+
+	private record Diff(List<RootDescriptor> changed, List<String> deleted) {
+	}
 }
@@ -0,0 +1,28 @@
+package org.openlca.core.database;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.openlca.core.Tests;
+import org.openlca.core.model.Actor;
+
+public class DatabaseListenersTest {
+
+	@Test
+	public void testVersionPerChange() {
+		var db = Tests.getDb();
+		var listeners = db.listeners();
+
+		// one change increases the version by exactly one, also when there are
+		// registered listeners
+		SearchIndex.of(db);
+		long v = listeners.version();
+		var actor = db.insert(Actor.of("actor"));
+		assertEquals(v + 1, listeners.version());
+		actor.name = "updated actor";
+		actor = db.update(actor);
+		assertEquals(v + 2, listeners.version());
+		db.delete(actor);
+		assertEquals(v + 3, listeners.version());
+	}
+}
@@ -0,0 +1,168 @@
+package org.openlca.core.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.core.Tests;
+import org.openlca.core.model.Actor;
+import org.openlca.core.model.Flow;
+import org.openlca.core.model.FlowProperty;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.core.model.descriptors.Descriptor;
+
+public class SearchIndexTest {
+
+	private final IDatabase db = Tests.getDb();
+	private final String prefix = "x" + UUID.randomUUID()
+			.toString().substring(0, 8);
+
+	private UnitGroup units;
+	private FlowProperty mass;
+	private Flow flow;
+
+	@Before
+	public void setup() {
+		units = db.insert(UnitGroup.of("Units of mass", "kg"));
+		mass = db.insert(FlowProperty.of("Mass", units));
+		var f = Flow.elementary(prefix + " carbon dioxide", mass);
+		f.synonyms = prefix + "carbonic gas";
+		f.casNumber = "000124-38-9";
+		flow = db.insert(f);
+	}
+
+	@After
+	public void tearDown() {
+		db.delete(flow, mass, units);
+	}
+
+	@Test
+	public void testPrefixAndInfix() {
+		var index = SearchIndex.of(db);
+		assertTrue(contains(index.find(prefix + " dioxide"), flow));
+		assertTrue(contains(index.find("oxid"), flow));
+		assertTrue(contains(index.find(flow.refId), flow));
+		assertTrue(contains(index.find("diox", ModelType.FLOW), flow));
+		assertFalse(contains(index.find("diox", ModelType.ACTOR), flow));
+	}
+
+	@Test
+	public void testSynonymsAndCas() {
+		var index = SearchIndex.of(db);
+		assertTrue(contains(index.find(prefix + "carbonic"), flow));
+		assertTrue(contains(index.find("000124-38-9"), flow));
+	}
+
+	@Test
+	public void testRanking() {
+		var actor = db.insert(Actor.of("dioxide " + prefix));
+		var results = SearchIndex.of(db).find("dioxide " + prefix);
+		int actorPos = results.indexOf(Descriptor.of(actor));
+		int flowPos = results.indexOf(Descriptor.of(flow));
+		assertTrue(actorPos >= 0 && flowPos >= 0);
+		assertTrue(actorPos < flowPos);
+		db.delete(actor);
+	}
+
+	@Test
+	public void testUpdates() {
+		var index = SearchIndex.of(db);
+		index.find(prefix);
+
+		// inserts
+		var actor = db.insert(Actor.of(prefix + " lca consultant"));
+		assertTrue(contains(index.find("consult"), actor));
+
+		// updates
+		actor.name = prefix + " software vendor";
+		actor = db.update(actor);
+		assertFalse(contains(index.find("consult"), actor));
+		assertTrue(contains(index.find("vendor"), actor));
+
+		// deletions
+		db.delete(actor);
+		assertFalse(contains(index.find("vendor"), actor));
+		var results = index.find(prefix);
+		assertEquals(1, results.size());
+		assertEquals(flow.refId, results.get(0).refId);
+	}
+
+	@Test
+	public void testIdMatchFirst() {
+		// the actor matches the ID of the flow in its name
+		var actor = db.insert(Actor.of(prefix + " " + flow.refId));
+		var results = SearchIndex.of(db).find(flow.refId);
+		assertEquals(2, results.size());
+		assertEquals(flow.refId, results.get(0).refId);
+		assertEquals(actor.refId, results.get(1).refId);
+		db.delete(actor);
+	}
+
+	@Test
+	public void testPunctuationTerms() {
+		var actor = db.insert(Actor.of(prefix + " #~ consultant"));
+		var index = SearchIndex.of(db);
+		assertTrue(contains(index.find("#~"), actor));
+		assertFalse(contains(index.find("~#"), actor));
+		db.delete(actor);
+	}
+
+	@Test
+	public void testCompaction() {
+		var index = SearchIndex.of(db);
+		index.find(prefix);
+		var actor = db.insert(Actor.of(prefix + " update 0"));
+		int slots = index.slots();
+		int updates = slots / 4 + 100;
+		for (int i = 1; i <= updates; i++) {
+			actor.name = prefix + " update " + i;
+			actor = db.update(actor);
+			// the recorded update is applied with the next search
+			index.find(prefix + " update", ModelType.ACTOR);
+		}
+		assertTrue(index.slots() < slots + updates);
+		var results = index.find(prefix + " update", ModelType.ACTOR);
+		assertEquals(1, results.size());
+		assertEquals(actor.name, results.get(0).name);
+		db.delete(actor);
+	}
+
+	@Test
+	public void testDeferredUpdates() {
+		var index = SearchIndex.of(db);
+		index.find(prefix);
+		int slots = index.slots();
+		var actor = db.insert(Actor.of(prefix + " deferred"));
+		assertEquals(slots, index.slots());
+		assertTrue(contains(index.find(prefix + " deferred"), actor));
+		assertEquals(slots + 1, index.slots());
+		db.delete(actor);
+		assertFalse(contains(index.find(prefix + " deferred"), actor));
+	}
+
+	@Test
+	public void testShortInfixTerms() {
+		var actor = db.insert(Actor.of(prefix + " xqzx"));
+		var index = SearchIndex.of(db);
+		assertTrue(contains(index.find("qz"), actor));
+		assertTrue(contains(index.find("x"), actor));
+		db.delete(actor);
+	}
+
+	private boolean contains(List<Descriptor> results, Flow flow) {
+		return results.stream()
+				.anyMatch(d -> d.type == ModelType.FLOW && d.id == flow.id);
+	}
+
+	private boolean contains(List<Descriptor> results, Actor actor) {
+		return results.stream()
+				.anyMatch(d -> d.type == ModelType.ACTOR && d.id == actor.id);
+	}
+}
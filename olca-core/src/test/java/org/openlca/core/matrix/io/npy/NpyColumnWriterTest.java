@@ -0,0 +1,148 @@
+package org.openlca.core.matrix.io.npy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.core.matrix.Demand;
+import org.openlca.core.matrix.MatrixData;
+import org.openlca.core.matrix.format.CSCMatrix;
+import org.openlca.core.matrix.format.DenseMatrix;
+import org.openlca.core.matrix.format.MatrixReader;
+import org.openlca.core.matrix.index.EnviFlow;
+import org.openlca.core.matrix.index.EnviIndex;
+import org.openlca.core.matrix.index.TechFlow;
+import org.openlca.core.matrix.index.TechIndex;
+import org.openlca.core.matrix.io.NpyColumnWriter;
+import org.openlca.core.matrix.io.NpyMatrix;
+import org.openlca.core.model.descriptors.FlowDescriptor;
+import org.openlca.core.model.descriptors.ProcessDescriptor;
+import org.openlca.core.results.providers.ResultProviders;
+import org.openlca.core.results.providers.SolverContext;
+import org.openlca.util.Dirs;
+
+public class NpyColumnWriterTest {
+
+	private final double[][] values = {
+		{0.0, 1.0, 0.0, 0.0},
+		{0.0, 4.0, 0.0, 2.0},
+		{0.0, 0.0, 0.0, 1.0},
+	};
+
+	private File dir;
+
+	@Before
+	public void setup() throws IOException {
+		dir = Files.createTempDirectory("_npy_olca").toFile();
+	}
+
+	@After
+	public void cleanup() {
+		Dirs.delete(dir);
+	}
+
+	@Test
+	public void testDense() {
+		File file;
+		try (var writer = NpyColumnWriter.dense(dir, "M", 3, 4)) {
+			// write the columns in reverse order and skip the first one
+			for (int j = 3; j > 0; j--) {
+				writer.put(j, columnOf(j));
+			}
+			file = writer.file();
+		}
+		assertTrue(file.getName().endsWith(".npy"));
+		var m = NpyMatrix.read(file);
+		assertTrue(m instanceof DenseMatrix);
+		check(m);
+	}
+
+	@Test
+	public void testSparse() {
+		File file;
+		try (var writer = NpyColumnWriter.sparse(dir, "M", 3, 4)) {
+			// skip the first and last column
+			for (int j = 1; j < 3; j++) {
+				writer.put(j, columnOf(j));
+			}
+			file = writer.file();
+		}
+		var m = NpyMatrix.read(file);
+		assertTrue(m instanceof CSCMatrix);
+		var csc = (CSCMatrix) m;
+		assertArrayEquals(new int[]{0, 0, 2, 2, 2}, csc.columnPointers);
+		assertArrayEquals(new int[]{0, 1}, csc.rowIndices);
+		assertArrayEquals(new double[]{1.0, 4.0}, csc.values, 1e-16);
+
+		try (var writer = NpyColumnWriter.sparse(dir, "M", 3, 4)) {
+			for (int j = 0; j < 4; j++) {
+				writer.put(j, columnOf(j));
+			}
+		}
+		check(NpyMatrix.read(file));
+	}
+
+	@Test
+	public void testResultProvider() {
+		var data = new MatrixData();
+		data.techIndex = new TechIndex();
+		for (int i = 0; i < 3; i++) {
+			var techFlow = TechFlow.of(
+				ProcessDescriptor.create().id(i).get(),
+				FlowDescriptor.create().id(i + 42).get());
+			data.techIndex.add(techFlow);
+		}
+		data.techMatrix = DenseMatrix.of(new double[][]{
+			{1, 0, 0},
+			{-1, 1, 0},
+			{0, -1, 1}
+		});
+		data.enviIndex = EnviIndex.create();
+		data.enviIndex.add(EnviFlow.outputOf(
+			FlowDescriptor.create().id(99).get()));
+		data.enviMatrix = DenseMatrix.of(new double[][]{
+			{1, 1, 1},
+		});
+		data.demand = Demand.of(data.techIndex.at(0), 1);
+		var provider = ResultProviders.solveEager(SolverContext.of(data));
+
+		var inv = NpyMatrix.read(
+			NpyColumnWriter.writeSolutionsOf(provider, dir, "INV"));
+		var expected = new double[][]{
+			{1, 0, 0},
+			{1, 1, 0},
+			{1, 1, 1},
+		};
+		for (int i = 0; i < 3; i++) {
+			assertArrayEquals(expected[i], inv.getRow(i), 1e-10);
+		}
+
+		var m = NpyMatrix.read(
+			NpyColumnWriter.writeTotalFlowsOf(provider, dir, "M"));
+		assertEquals(1, m.rows());
+		assertArrayEquals(new double[]{3, 2, 1}, m.getRow(0), 1e-10);
+	}
+
+	private double[] columnOf(int j) {
+		var column = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			column[i] = values[i][j];
+		}
+		return column;
+	}
+
+	private void check(MatrixReader m) {
+		assertEquals(3, m.rows());
+		assertEquals(4, m.columns());
+		for (int i = 0; i < 3; i++) {
+			assertArrayEquals(values[i], m.getRow(i), 1e-16);
+		}
+	}
+}
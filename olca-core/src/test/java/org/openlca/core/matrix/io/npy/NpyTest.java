@@ -1,6 +1,7 @@
 package org.openlca.core.matrix.io.npy;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.nio.file.Files;
 
 import org.junit.After;
@@ -44,6 +45,18 @@ public class NpyTest {
 		assertArrayEquals(matrix.data, copy.data, 1e-10);
 	}
 
+	@Test
+	public void testWriteStream() throws Exception {
+		var file = new File(npy.getParentFile(), "M_stream.npy");
+		try (var out = new FileOutputStream(file)) {
+			NpyMatrix.write(out, matrix);
+		}
+		DenseMatrix copy = (DenseMatrix) NpyMatrix.read(file);
+		assertEquals(matrix.rows, copy.rows());
+		assertEquals(matrix.columns, copy.columns());
+		assertArrayEquals(matrix.data, copy.data, 1e-10);
+	}
+
 	@Test
 	public void testLoadColumn() {
 		for (int j = 0; j < matrix.columns; j++) {
@@ -0,0 +1,115 @@
+package org.openlca.core.results.providers;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.openlca.core.matrix.Demand;
+import org.openlca.core.matrix.MatrixData;
+import org.openlca.core.matrix.format.JavaMatrix;
+import org.openlca.core.matrix.index.EnviFlow;
+import org.openlca.core.matrix.index.EnviIndex;
+import org.openlca.core.matrix.index.ImpactIndex;
+import org.openlca.core.matrix.index.TechFlow;
+import org.openlca.core.matrix.index.TechIndex;
+import org.openlca.core.matrix.solvers.JavaSolver;
+import org.openlca.core.model.descriptors.FlowDescriptor;
+import org.openlca.core.model.descriptors.ImpactDescriptor;
+import org.openlca.core.model.descriptors.ProcessDescriptor;
+
+/**
+ * Tests the calculation of the full contribution matrices with the pure Java
+ * solver, so that they are also checked when the native libraries are not
+ * available (see also the ResultProviderTest).
+ */
+public class ImpactMatrixTest {
+
+	@Test
+	public void testFactorizationSolver() {
+		var provider = FactorizationSolver.solve(context());
+		check(provider);
+	}
+
+	@Test
+	public void testInversionResult() {
+		var provider = InversionResult.of(context()).calculate().provider();
+		check(provider);
+	}
+
+	@Test
+	public void testMatchesColumns() {
+		var provider = FactorizationSolver.solve(context());
+		var m = provider.totalImpactMatrix();
+		for (int j = 0; j < m.columns(); j++) {
+			assertArrayEquals(provider.totalImpactsOf(j), m.getColumn(j), 1e-10);
+		}
+	}
+
+	private void check(ResultProvider provider) {
+		var direct = provider.directImpactMatrix();
+		assertEquals(3, direct.rows());
+		assertEquals(2, direct.columns());
+		assertArrayEquals(d(1, 3, 3.5), direct.getColumn(0), 1e-10);
+		assertArrayEquals(d(2, 3, 5.5), direct.getColumn(1), 1e-10);
+
+		var total = provider.totalImpactMatrix();
+		assertEquals(3, total.rows());
+		assertEquals(2, total.columns());
+		assertArrayEquals(d(3, 6, 9), total.getColumn(0), 1e-10);
+		assertArrayEquals(d(2.5, 4.5, 7.25), total.getColumn(1), 1e-10);
+	}
+
+	private SolverContext context() {
+		var data = new MatrixData();
+		data.techIndex = new TechIndex(product(1));
+		data.techIndex.add(product(2));
+		data.demand = Demand.of(data.techIndex.at(0), 0.5);
+		data.techMatrix = JavaMatrix.of(new double[][]{
+			{1.0, -0.5},
+			{-1.0, 1.0},
+		});
+
+		data.enviIndex = EnviIndex.create();
+		data.enviIndex.add(EnviFlow.outputOf(flow(1)));
+		data.enviIndex.add(EnviFlow.inputOf(flow(2)));
+		data.enviMatrix = JavaMatrix.of(new double[][]{
+			{1.0, 2.0},
+			{-3.0, -3.0},
+		});
+
+		data.impactIndex = new ImpactIndex();
+		for (int i = 1; i <= 3; i++) {
+			var impact = new ImpactDescriptor();
+			impact.id = i;
+			impact.name = "i" + i;
+			data.impactIndex.add(impact);
+		}
+		data.impactMatrix = JavaMatrix.of(new double[][]{
+			{1.0, 0.0},
+			{0.0, -1.0},
+			{2.0, -0.5},
+		});
+		return SolverContext.of(data).withSolver(new JavaSolver());
+	}
+
+	private TechFlow product(int i) {
+		var process = new ProcessDescriptor();
+		process.id = i;
+		process.name = "p" + i;
+		var flow = new FlowDescriptor();
+		flow.id = i;
+		flow.name = "p" + i;
+		return TechFlow.of(process, flow);
+	}
+
+	private FlowDescriptor flow(int i) {
+		var flow = new FlowDescriptor();
+		flow.id = 100 + i;
+		flow.name = "e" + i;
+		return flow;
+	}
+
+	private double[] d(double... values) {
+		return values;
+	}
+}
@@ -407,6 +407,13 @@ public record ResultProviderTest(ResultProvider provider) {
 		}
 	}
 
+	@Test
+	public void testDirectImpactMatrix() {
+		var m = provider.directImpactMatrix();
+		assertArrayEquals(d(1, 3, 3.5), m.getColumn(0), 1e-10);
+		assertArrayEquals(d(2, 3, 5.5), m.getColumn(1), 1e-10);
+	}
+
 	@Test
 	public void testTotalImpactsOfOne() {
 		assertArrayEquals(
@@ -440,6 +447,13 @@ public record ResultProviderTest(ResultProvider provider) {
 			d(2.5, 4.5, 7.25), provider.totalImpactsOf(1), 1e-10);
 	}
 
+	@Test
+	public void testTotalImpactMatrix() {
+		var m = provider.totalImpactMatrix();
+		assertArrayEquals(d(3, 6, 9), m.getColumn(0), 1e-10);
+		assertArrayEquals(d(2.5, 4.5, 7.25), m.getColumn(1), 1e-10);
+	}
+
 	@Test
 	public void testTotalImpactOf() {
 		double[][] expected = new double[][]{
@@ -0,0 +1,89 @@
+package org.openlca.core.services;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.core.Tests;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.CalculationSetup;
+import org.openlca.core.model.Flow;
+import org.openlca.core.model.FlowProperty;
+import org.openlca.core.model.Process;
+import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.core.services.BinaryValues.IndexType;
+
+public class BinaryValuesTest {
+
+	private final IDatabase db = Tests.getDb();
+	private Process process;
+	private List<RootEntity> entities;
+
+	@Before
+	public void setup() {
+		var units = UnitGroup.of("Mass units", "kg");
+		var mass = FlowProperty.of("Mass", units);
+		var co2 = Flow.elementary("CO2", mass);
+		var ore = Flow.elementary("Iron ore", mass);
+		var steel = Flow.product("Steel", mass);
+		process = Process.of("Steel production", steel);
+		process.output(co2, 2);
+		process.input(ore, 3);
+		entities = List.of(process, steel, ore, co2, mass, units);
+		db.insert(units, mass, co2, ore, steel, process);
+	}
+
+	@After
+	public void tearDown() {
+		for (var e : entities) {
+			db.delete(e);
+		}
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		var values = new double[]{1, -2.5, Math.PI, 0, 1e-42};
+		var bin = new BinaryValues(IndexType.ENVI_FLOWS, values);
+		var bytes = bin.toBytes();
+		assertEquals(16 + 8 * values.length, bytes.length);
+		assertEquals(bin.byteSize(), bytes.length);
+
+		var copy = BinaryValues.readFrom(new ByteArrayInputStream(bytes));
+		assertEquals(IndexType.ENVI_FLOWS, copy.indexType());
+		assertArrayEquals(values, copy.values(), 0);
+	}
+
+	@Test
+	public void testResultValues() throws Exception {
+		var queue = new CalculationQueue(db, 1);
+		var state = queue.schedule(CalculationSetup.of(process));
+		while (queue.get(state.id()).isScheduled()) {
+			Thread.sleep(50);
+		}
+		assertTrue(queue.get(state.id()).isReady());
+
+		var service = new BinaryResultService(queue);
+		var flows = service.getTotalFlows(state.id());
+		assertTrue(flows.isValue());
+		assertEquals(IndexType.ENVI_FLOWS, flows.value().indexType());
+		// input flows are shown as positive values like in the JSON results
+		var values = flows.value().values();
+		assertEquals(2, values.length);
+		assertEquals(5, values[0] + values[1], 1e-10);
+		assertTrue(values[0] > 0 && values[1] > 0);
+
+		var scaling = service.getScalingFactors(state.id());
+		assertEquals(IndexType.TECH_FLOWS, scaling.value().indexType());
+		assertArrayEquals(new double[]{1}, scaling.value().values(), 1e-10);
+
+		assertTrue(service.getTotalFlows("does not exist").isEmpty());
+		queue.dispose(state.id());
+	}
+}
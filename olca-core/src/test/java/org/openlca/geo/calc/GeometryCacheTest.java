@@ -0,0 +1,56 @@
+package org.openlca.geo.calc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+import org.openlca.core.model.Location;
+import org.openlca.geo.geojson.FeatureCollection;
+import org.openlca.geo.geojson.GeoJSON;
+import org.openlca.geo.geojson.LineString;
+import org.openlca.geo.geojson.Point;
+import org.openlca.geo.geojson.Polygon;
+
+public class GeometryCacheTest {
+
+	@Test
+	public void testCachedGeometries() {
+		var loc = new Location();
+		loc.id = 4242;
+		loc.geodata = GeoJSON.pack(FeatureCollection.of(rect(0, 0, 2, 1)));
+
+		var cache = GeometryCache.get();
+		var projection = Projection.identity();
+		var first = cache.of(loc, projection);
+		assertEquals(1, first.size());
+		assertEquals(2, first.get(0).getArea(), 1e-10);
+		assertSame(first, cache.of(loc, projection));
+
+		// other projections are cached separately
+		var projected = cache.of(loc, new Mollweide());
+		assertNotSame(first, projected);
+		assertSame(projected, cache.of(loc, new Mollweide()));
+
+		// an updated location is decoded again
+		loc.geodata = GeoJSON.pack(FeatureCollection.of(rect(0, 0, 3, 1)));
+		var updated = cache.of(loc, projection);
+		assertNotSame(first, updated);
+		assertEquals(3, updated.get(0).getArea(), 1e-10);
+
+		cache.invalidate(loc.id);
+		assertNotSame(updated, cache.of(loc, projection));
+	}
+
+	private Polygon rect(double x1, double y1, double x2, double y2) {
+		var ring = new LineString();
+		ring.points.add(new Point(x1, y1));
+		ring.points.add(new Point(x2, y1));
+		ring.points.add(new Point(x2, y2));
+		ring.points.add(new Point(x1, y2));
+		ring.points.add(new Point(x1, y1));
+		var polygon = new Polygon();
+		polygon.rings.add(ring);
+		return polygon;
+	}
+}
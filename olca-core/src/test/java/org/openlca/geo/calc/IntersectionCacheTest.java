@@ -0,0 +1,109 @@
+package org.openlca.geo.calc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.HashMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.core.model.Location;
+import org.openlca.geo.geojson.Feature;
+import org.openlca.geo.geojson.FeatureCollection;
+import org.openlca.geo.geojson.GeoJSON;
+import org.openlca.geo.geojson.LineString;
+import org.openlca.geo.geojson.Point;
+import org.openlca.geo.geojson.Polygon;
+import org.openlca.util.Dirs;
+
+public class IntersectionCacheTest {
+
+	private File dir;
+
+	@Before
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("_olca_geo_cache").toFile();
+	}
+
+	@After
+	public void tearDown() {
+		Dirs.delete(dir);
+	}
+
+	@Test
+	public void testCacheShares() {
+		var coll = grid(4);
+		var loc = new Location();
+		loc.geodata = GeoJSON.pack(FeatureCollection.of(rect(0.5, 0.5, 1.5, 1)));
+
+		var cache = IntersectionCache.of(dir, coll, Projection.identity());
+		assertNull(cache.get(loc));
+		assertTrue(cache.get(new Location()).isEmpty());
+
+		var shares = IntersectionCalculator.on(coll, Projection.identity())
+				.shares(loc);
+		assertEquals(2, shares.size());
+		cache.put(loc, shares);
+		cache.save();
+
+		// read the shares from the file
+		var cached = IntersectionCache.of(dir, coll, Projection.identity())
+				.get(loc);
+		assertEquals(shares.size(), cached.size());
+		for (int i = 0; i < shares.size(); i++) {
+			assertSame(shares.get(i).origin(), cached.get(i).origin());
+			assertEquals(shares.get(i).value(), cached.get(i).value(), 1e-16);
+		}
+
+		// a changed location or feature collection is not cached
+		var other = new Location();
+		other.geodata = GeoJSON.pack(FeatureCollection.of(rect(0.5, 0.5, 2, 1)));
+		assertNull(IntersectionCache.of(dir, coll, Projection.identity())
+				.get(other));
+		assertNull(IntersectionCache.of(dir, grid(5), Projection.identity())
+				.get(loc));
+		var changed = grid(4);
+		changed.features.get(0).properties.put("value", 42);
+		assertNull(IntersectionCache.of(dir, changed, Projection.identity())
+				.get(loc));
+
+		// the projection parameters are part of the cache key
+		var mollweide = IntersectionCache.of(dir, coll, new Mollweide(1));
+		mollweide.put(loc, shares);
+		mollweide.save();
+		assertEquals(shares.size(),
+				IntersectionCache.of(dir, coll, new Mollweide(1)).get(loc).size());
+		assertNull(IntersectionCache.of(dir, coll, new Mollweide(2)).get(loc));
+	}
+
+	private FeatureCollection grid(int n) {
+		var coll = new FeatureCollection();
+		for (int x = 0; x < n; x++) {
+			for (int y = 0; y < n; y++) {
+				var cell = new Feature();
+				cell.geometry = rect(x, y, x + 1, y + 1);
+				cell.properties = new HashMap<>();
+				cell.properties.put("value", x * n + y);
+				coll.features.add(cell);
+			}
+		}
+		return coll;
+	}
+
+	private Polygon rect(double x1, double y1, double x2, double y2) {
+		var ring = new LineString();
+		ring.points.add(new Point(x1, y1));
+		ring.points.add(new Point(x2, y1));
+		ring.points.add(new Point(x2, y2));
+		ring.points.add(new Point(x1, y2));
+		ring.points.add(new Point(x1, y1));
+		var polygon = new Polygon();
+		polygon.rings.add(ring);
+		return polygon;
+	}
+}
@@ -1,5 +1,6 @@
 package org.openlca.geo.calc;
 
+import java.util.HashMap;
 import java.util.List;
 
 import org.junit.Assert;
@@ -9,6 +10,7 @@ import org.openlca.geo.geojson.FeatureCollection;
 import org.openlca.geo.geojson.Geometry;
 import org.openlca.geo.geojson.LineString;
 import org.openlca.geo.geojson.Point;
+import org.openlca.geo.geojson.Polygon;
 import org.openlca.util.Pair;
 
 public class IntersectionTest {
@@ -60,4 +62,47 @@ public class IntersectionTest {
 		b.points.add(new Point(35, 60));
 		b.points.add(new Point(85, 40));
 	}
+
+	@Test
+	public void testGridShares() {
+		// a 10 x 10 grid of unit cells
+		var coll = new FeatureCollection();
+		for (int x = 0; x < 10; x++) {
+			for (int y = 0; y < 10; y++) {
+				var cell = new Feature();
+				cell.geometry = rect(x, y, x + 1, y + 1);
+				cell.properties = new HashMap<>();
+				cell.properties.put("cell", x + "/" + y);
+				coll.features.add(cell);
+			}
+		}
+		var calc = IntersectionCalculator.on(coll, Projection.identity());
+
+		// covers two cells completely and two cells by half
+		var shares = calc.shares(rect(2.5, 3, 5.5, 4));
+		Assert.assertEquals(4, shares.size());
+		var values = new HashMap<String, Double>();
+		for (var s : shares) {
+			values.put((String) s.origin().properties.get("cell"), s.value());
+		}
+		Assert.assertEquals(0.5, values.get("2/3"), 1e-10);
+		Assert.assertEquals(1.0, values.get("3/3"), 1e-10);
+		Assert.assertEquals(1.0, values.get("4/3"), 1e-10);
+		Assert.assertEquals(0.5, values.get("5/3"), 1e-10);
+
+		// outside of the grid
+		Assert.assertTrue(calc.shares(rect(20, 20, 21, 21)).isEmpty());
+	}
+
+	private Polygon rect(double x1, double y1, double x2, double y2) {
+		var ring = new LineString();
+		ring.points.add(new Point(x1, y1));
+		ring.points.add(new Point(x2, y1));
+		ring.points.add(new Point(x2, y2));
+		ring.points.add(new Point(x1, y2));
+		ring.points.add(new Point(x1, y1));
+		var polygon = new Polygon();
+		polygon.rings.add(ring);
+		return polygon;
+	}
 }
@@ -8,7 +8,9 @@ import java.io.StringReader;
 import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -134,4 +136,43 @@ public class GeoJSONTest {
 			throw new RuntimeException(e);
 		}
 	}
+
+	@Test
+	public void testStreamFeatures() throws Exception {
+		var coll = new FeatureCollection();
+		for (int i = 0; i < 100; i++) {
+			var f = new Feature();
+			f.geometry = new Point(i, i);
+			f.properties = new HashMap<>();
+			f.properties.put("i", (double) i);
+			coll.features.add(f);
+		}
+		var file = Files.createTempFile("_olca_stream_", ".geojson").toFile();
+		try {
+			GeoJSON.write(coll, file);
+
+			var features = new ArrayList<Feature>();
+			GeoJSON.forEachFeature(file, features::add);
+			Assert.assertEquals(100, features.size());
+			for (int i = 0; i < 100; i++) {
+				var p = (Point) features.get(i).geometry;
+				Assert.assertEquals(i, p.x, 1e-10);
+				Assert.assertEquals((double) i, features.get(i).properties.get("i"));
+			}
+
+			var batches = new ArrayList<Integer>();
+			GeoJSON.forEachBatch(file, 30, batch -> batches.add(batch.size()));
+			Assert.assertEquals(List.of(30, 30, 30, 10), batches);
+		} finally {
+			Files.delete(file.toPath());
+		}
+
+		// single geometries and features are also streamed
+		var points = new ArrayList<Feature>();
+		GeoJSON.forEachFeature(new StringReader(
+				"{\"coordinates\": [13.28, 52.51], \"type\": \"Point\"}"),
+				points::add);
+		Assert.assertEquals(1, points.size());
+		Assert.assertTrue(points.get(0).geometry instanceof Point);
+	}
 }
@@ -0,0 +1,101 @@
+package org.openlca.jsonld;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.FileOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Test;
+import org.openlca.core.model.ModelType;
+
+import com.google.gson.JsonObject;
+
+public class ZipReaderTest extends AbstractZipTest {
+
+	@Test
+	public void testReadZipStore() throws Exception {
+		var ids = new HashSet<String>();
+		with(zip -> {
+			for (int i = 0; i < 100; i++) {
+				var refId = UUID.randomUUID().toString();
+				ids.add(refId);
+				var obj = new JsonObject();
+				obj.addProperty("@id", refId);
+				obj.addProperty("name", "flow " + i);
+				zip.put(ModelPath.jsonOf(ModelType.FLOW, refId),
+						obj.toString().getBytes(StandardCharsets.UTF_8));
+			}
+			zip.put("bin/flows/a/doc.txt", "doc".getBytes(StandardCharsets.UTF_8));
+		});
+
+		try (var reader = ZipReader.open(zipFile)) {
+			assertEquals(ids, new HashSet<>(reader.getRefIds(ModelType.FLOW)));
+			assertTrue(reader.getRefIds(ModelType.PROCESS).isEmpty());
+			assertTrue(reader.contains(PackageInfo.FILE_NAME));
+
+			// read the data sets in parallel
+			var names = ids.parallelStream()
+					.map(id -> reader.get(ModelType.FLOW, id))
+					.map(obj -> Json.getString(obj, "name"))
+					.toList();
+			assertEquals(ids.size(), new HashSet<>(names).size());
+
+			var bins = reader.getBinFiles(ModelType.FLOW, "a");
+			assertEquals(1, bins.size());
+			assertEquals("doc", new String(
+					reader.getBytes(bins.get(0)), StandardCharsets.UTF_8));
+			assertNull(reader.getBytes("does/not/exist.json"));
+		}
+	}
+
+	@Test
+	public void testStoredAndDeflated() throws Exception {
+		var rand = new Random(42);
+		var large = new byte[200_000];
+		for (int i = 0; i < large.length; i++) {
+			large[i] = (byte) (rand.nextInt(16) + 'a');
+		}
+		var small = "some text".getBytes(StandardCharsets.UTF_8);
+
+		try (var zip = new ZipOutputStream(new FileOutputStream(zipFile))) {
+			zip.putNextEntry(new ZipEntry("deflated/large.txt"));
+			zip.write(large);
+			zip.closeEntry();
+
+			var stored = new ZipEntry("stored/small.txt");
+			stored.setMethod(ZipEntry.STORED);
+			stored.setSize(small.length);
+			var crc = new CRC32();
+			crc.update(small);
+			stored.setCrc(crc.getValue());
+			zip.putNextEntry(stored);
+			zip.write(small);
+			zip.closeEntry();
+		}
+
+		try (var reader = ZipReader.open(zipFile)) {
+			assertArrayEquals(large, reader.getBytes("deflated/large.txt"));
+			assertArrayEquals(small, reader.getBytes("/stored/small.txt"));
+			try (var stream = reader.getStream("deflated/large.txt")) {
+				assertArrayEquals(large, stream.readAllBytes());
+			}
+			try (var stream = reader.getStream("stored/small.txt")) {
+				assertArrayEquals(small, stream.readAllBytes());
+			}
+
+			// concurrent reads of the same entry
+			IntStream.range(0, 20).parallel().forEach(
+					i -> assertArrayEquals(large, reader.getBytes("deflated/large.txt")));
+		}
+	}
+}
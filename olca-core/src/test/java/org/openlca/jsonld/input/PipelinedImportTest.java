@@ -0,0 +1,92 @@
+package org.openlca.jsonld.input;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openlca.core.database.Derby;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.Flow;
+import org.openlca.core.model.FlowProperty;
+import org.openlca.core.model.Location;
+import org.openlca.core.model.Process;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.jsonld.MemStore;
+import org.openlca.jsonld.output.JsonExport;
+
+public class PipelinedImportTest {
+
+	private static final int N = 250;
+
+	private static IDatabase source;
+	private static IDatabase target;
+	private static final MemStore store = new MemStore();
+
+	@BeforeClass
+	public static void setup() {
+		source = Derby.createInMemory();
+		target = Derby.createInMemory();
+
+		// a chain of processes where each process has the next process as
+		// provider of its input
+		var units = source.insert(UnitGroup.of("Mass units", "kg"));
+		var mass = source.insert(FlowProperty.of("Mass", units));
+		var processes = new ArrayList<Process>();
+		for (int i = 0; i < N; i++) {
+			var loc = source.insert(Location.of("Location " + i, "L" + i));
+			var product = source.insert(Flow.product("Product " + i, mass));
+			var process = Process.of("Process " + i, product);
+			process.location = loc;
+			processes.add(process);
+		}
+		for (int i = 0; i < N - 1; i++) {
+			var process = processes.get(i);
+			var provider = processes.get(i + 1);
+			process.input(provider.quantitativeReference.flow, 1);
+		}
+		processes.forEach(source::insert);
+		for (int i = 0; i < N - 1; i++) {
+			var process = processes.get(i);
+			var provider = processes.get(i + 1);
+			process.exchanges.stream()
+					.filter(e -> e.isInput)
+					.forEach(e -> e.defaultProviderId = provider.id);
+			source.update(process);
+		}
+		var export = new JsonExport(source, store);
+		processes.forEach(export::write);
+	}
+
+	@AfterClass
+	public static void closeDbs() throws Exception {
+		source.close();
+		target.close();
+	}
+
+	@Test
+	public void testImport() {
+		new JsonImport(store, target)
+				.setThreadCount(4)
+				.run();
+
+		assertEquals(N, target.getAll(Location.class).size());
+		assertEquals(N, target.getAll(Flow.class).size());
+		assertEquals(N, target.getAll(Process.class).size());
+
+		for (int i = 0; i < N - 1; i++) {
+			var process = target.getForName(Process.class, "Process " + i);
+			var provider = target.getForName(Process.class, "Process " + (i + 1));
+			assertNotNull(process.location);
+			var input = process.exchanges.stream()
+					.filter(e -> e.isInput)
+					.findAny()
+					.orElseThrow();
+			assertEquals(provider.id, input.defaultProviderId);
+			assertEquals(provider.quantitativeReference.flow, input.flow);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package org.openlca.jsonld.input;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.core.database.Derby;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.Flow;
+import org.openlca.core.model.FlowProperty;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.Process;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.jsonld.MemStore;
+import org.openlca.jsonld.output.JsonExport;
+
+public class PrewarmedImportTest {
+
+	private IDatabase source;
+	private IDatabase target;
+	private Process process;
+
+	@Before
+	public void setup() {
+		source = Derby.createInMemory();
+		target = Derby.createInMemory();
+		var units = source.insert(UnitGroup.of("Mass units", "kg"));
+		var mass = source.insert(FlowProperty.of("Mass", units));
+		var product = source.insert(Flow.product("Product", mass));
+		process = Process.of("Process", product);
+		for (int i = 0; i < 10; i++) {
+			var flow = source.insert(Flow.elementary("Emission " + i, mass));
+			process.output(flow, i);
+		}
+		process = source.insert(process);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		source.close();
+		target.close();
+	}
+
+	@Test
+	public void testImportIntoExistingData() {
+		var store = export();
+		new JsonImport(store, target).run();
+		assertEquals(11, target.getAll(Flow.class).size());
+
+		// change the data and import them again; the existing data sets are
+		// found via the pre-warmed cache and updated, not duplicated
+		for (var flow : source.getAll(Flow.class)) {
+			flow.name = flow.name + " v2";
+			flow.version++;
+			source.update(flow);
+		}
+		process = source.get(Process.class, process.id);
+		process.name = "Process v2";
+		process.version++;
+		process = source.update(process);
+		var store2 = export();
+		new JsonImport(store2, target)
+				.setUpdateMode(UpdateMode.IF_NEWER)
+				.setThreadCount(4)
+				.run();
+
+		assertEquals(11, target.getAll(Flow.class).size());
+		assertEquals(1, target.getAll(Process.class).size());
+		var p = target.get(Process.class, process.refId);
+		assertEquals("Process v2", p.name);
+		assertEquals(11, p.exchanges.size());
+		for (var e : p.exchanges) {
+			assertEquals(source.get(Flow.class, e.flow.refId).name, e.flow.name);
+		}
+	}
+
+	@Test
+	public void testPrewarmSingleTypes() {
+		new JsonImport(export(), target).run();
+		var store = export();
+		var imp = new JsonImport(store, target)
+				.prewarmCache(ModelType.FLOW, ModelType.PROCESS);
+		imp.run(ModelType.PROCESS, process.refId);
+		assertEquals(11, target.getAll(Flow.class).size());
+		assertEquals(1, target.getAll(Process.class).size());
+	}
+
+	private MemStore export() {
+		var store = new MemStore();
+		new JsonExport(source, store).write(process);
+		return store;
+	}
+}
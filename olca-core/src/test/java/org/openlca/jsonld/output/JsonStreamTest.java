@@ -0,0 +1,164 @@
+package org.openlca.jsonld.output;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.function.Consumer;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openlca.core.database.Derby;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.AllocationFactor;
+import org.openlca.core.model.Flow;
+import org.openlca.core.model.FlowProperty;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.Process;
+import org.openlca.core.model.ProductSystem;
+import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.jsonld.DataSetOutput;
+import org.openlca.jsonld.Json;
+import org.openlca.jsonld.JsonStoreWriter;
+import org.openlca.jsonld.MemStore;
+import org.openlca.jsonld.ModelPath;
+import org.openlca.jsonld.ZipStore;
+import org.openlca.util.Dirs;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+public class JsonStreamTest {
+
+	private static IDatabase db;
+	private Process process;
+	private ProductSystem system;
+
+	@BeforeClass
+	public static void createDb() {
+		db = Derby.createInMemory();
+	}
+
+	@AfterClass
+	public static void closeDb() throws Exception {
+		db.close();
+	}
+
+	@Before
+	public void setup() {
+		var units = UnitGroup.of("Mass units", "kg");
+		var mass = FlowProperty.of("Mass", units);
+		var steel = Flow.product("Steel <hot>", mass);
+		var iron = Flow.product("Iron & ore", mass);
+		var co2 = Flow.elementary("CO2", mass);
+		var provider = Process.of("Iron production", iron);
+		process = Process.of("Steel production", steel);
+		process.input(iron, 1.5);
+		process.output(co2, 2);
+		process.allocationFactors.add(AllocationFactor.physical(steel, 1));
+		db.insert(units, mass, steel, iron, co2, provider, process);
+		system = ProductSystem.of(process).link(provider, process);
+		db.insert(system);
+	}
+
+	@Test
+	public void testSameAsTree() {
+		var export = new JsonExport(db, new MemStore()).withReferences(false);
+		var processWriter = new ProcessWriter(export);
+		check(processWriter.write(process), out -> processWriter.write(process, out));
+		var systemWriter = new ProductSystemWriter(export);
+		check(systemWriter.write(system), out -> systemWriter.write(system, out));
+	}
+
+	@Test
+	public void testZipExport() throws Exception {
+		var dir = Files.createTempDirectory("_olca_tests_").toFile();
+		var zip = new File(dir, "stream.zip");
+		try (var store = ZipStore.open(zip)) {
+			new JsonExport(db, store).write(system);
+		}
+		try (var store = ZipStore.open(zip)) {
+			var obj = store.get(ModelType.PRODUCT_SYSTEM, system.refId);
+			assertNotNull(obj);
+			assertEquals(1, Json.getArray(obj, "processLinks").size());
+			assertEquals(2, Json.getArray(obj, "processes").size());
+			var p = store.get(ModelType.PROCESS, process.refId);
+			assertEquals(3, Json.getArray(p, "exchanges").size());
+		}
+		Dirs.delete(dir);
+	}
+
+	@Test
+	public void testDiscardOnFailure() throws Exception {
+		var dir = Files.createTempDirectory("_olca_tests_").toFile();
+		var zip = new File(dir, "stream.zip");
+		try (var store = ZipStore.open(zip)) {
+			new JsonExport(db, store).write(process);
+
+			// a store which stream fails after a few bytes
+			var failing = new JsonStoreWriter() {
+				@Override
+				public void put(String path, byte[] data) {
+					store.put(path, data);
+				}
+
+				@Override
+				public DataSetOutput openJson(RootEntity entity) {
+					var out = store.openJson(entity);
+					return new DataSetOutput() {
+						int count;
+
+						@Override
+						public void write(int b) throws IOException {
+							if (++count > 10)
+								throw new IOException("disk full");
+							out.write(b);
+						}
+
+						@Override
+						public void discard() {
+							out.discard();
+						}
+
+						@Override
+						public void close() throws IOException {
+							out.close();
+						}
+					};
+				}
+			};
+			process.name = "Changed steel production";
+			new JsonExport(db, failing).write(process);
+		}
+
+		// the zip still contains the complete first version of the process
+		try (var store = ZipStore.open(zip)) {
+			var p = store.get(ModelType.PROCESS, process.refId);
+			assertEquals("Steel production", Json.getString(p, "name"));
+			assertEquals(3, Json.getArray(p, "exchanges").size());
+			assertTrue(store.getFiles(ModelPath.folderOf(ModelType.PROCESS)).stream()
+					.noneMatch(f -> f.endsWith(".part")));
+		}
+		Dirs.delete(dir);
+	}
+
+	private void check(JsonObject tree, Consumer<JsonStream> fn) {
+		var expected = new Gson().toJson(tree).getBytes(StandardCharsets.UTF_8);
+		var bytes = new ByteArrayOutputStream();
+		try (var stream = JsonStream.of(bytes)) {
+			fn.accept(stream);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+		assertArrayEquals(expected, bytes.toByteArray());
+	}
+}
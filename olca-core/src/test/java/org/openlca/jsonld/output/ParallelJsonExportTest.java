@@ -0,0 +1,81 @@
+package org.openlca.jsonld.output;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.nio.file.Files;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openlca.core.database.Derby;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.Flow;
+import org.openlca.core.model.FlowProperty;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.Process;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.jsonld.Json;
+import org.openlca.jsonld.ZipReader;
+import org.openlca.jsonld.ZipStore;
+import org.openlca.jsonld.ZipWriter;
+import org.openlca.util.Dirs;
+
+public class ParallelJsonExportTest {
+
+	private static final int N = 200;
+	private static IDatabase db;
+
+	@BeforeClass
+	public static void setup() {
+		db = Derby.createInMemory();
+		var units = db.insert(UnitGroup.of("Mass units", "kg"));
+		var mass = db.insert(FlowProperty.of("Mass", units));
+		for (int i = 0; i < N; i++) {
+			var product = db.insert(Flow.product("Product " + i, mass));
+			var process = Process.of("Process " + i, product);
+			process.output(product, 2);
+			db.insert(process);
+		}
+	}
+
+	@AfterClass
+	public static void closeDb() throws Exception {
+		db.close();
+	}
+
+	@Test
+	public void testExport() throws Exception {
+		var dir = Files.createTempDirectory("_olca_tests_").toFile();
+		var zip = dir.toPath().resolve("export.zip").toFile();
+		try (var writer = ZipWriter.create(zip)) {
+			ParallelJsonExport.of(db, writer)
+					.withThreads(4)
+					.writeAll();
+		}
+
+		// check that it can be read with the zip file system
+		try (var store = ZipStore.open(zip)) {
+			assertEquals(1, store.getRefIds(ModelType.UNIT_GROUP).size());
+			assertEquals(1, store.getRefIds(ModelType.FLOW_PROPERTY).size());
+			assertEquals(N, store.getRefIds(ModelType.FLOW).size());
+			assertEquals(N, store.getRefIds(ModelType.PROCESS).size());
+			for (var p : db.getAll(Process.class)) {
+				var obj = store.get(ModelType.PROCESS, p.refId);
+				assertNotNull(obj);
+				assertEquals(p.name, Json.getString(obj, "name"));
+				assertEquals(2, Json.getArray(obj, "exchanges").size());
+			}
+		}
+
+		// and with the indexed reader
+		try (var reader = ZipReader.open(zip)) {
+			assertEquals(N, reader.getRefIds(ModelType.PROCESS).size());
+			for (var f : db.getAll(Flow.class)) {
+				var obj = reader.get(ModelType.FLOW, f.refId);
+				assertEquals(f.name, Json.getString(obj, "name"));
+			}
+		}
+		Dirs.delete(dir);
+	}
+}
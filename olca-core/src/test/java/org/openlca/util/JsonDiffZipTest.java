@@ -0,0 +1,119 @@
+package org.openlca.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.core.database.Derby;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.Actor;
+import org.openlca.core.model.Category;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.Source;
+import org.openlca.jsonld.ZipReader;
+
+public class JsonDiffZipTest {
+
+	private IDatabase source;
+	private IDatabase mirror;
+	private File dir;
+
+	@Before
+	public void setup() throws Exception {
+		source = Derby.createInMemory();
+		mirror = Derby.createInMemory();
+		dir = Files.createTempDirectory("_olca_diff_zip").toFile();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		source.close();
+		mirror.close();
+		Dirs.delete(dir);
+	}
+
+	@Test
+	public void testSyncWithIndex() throws Exception {
+		var kept = source.insert(Actor.of("kept"));
+		var changed = source.insert(Actor.of("changed"));
+		var deleted = source.insert(Source.of("deleted"));
+
+		// initial sync of the empty mirror
+		sync();
+		assertEquals(2, mirror.getAll(Actor.class).size());
+		assertNotNull(mirror.get(Source.class, deleted.refId));
+
+		// change the source
+		changed.name = "changed v2";
+		changed.version++;
+		source.update(changed);
+		source.delete(deleted);
+		var added = source.insert(Actor.of("added"));
+
+		var zip = sync();
+		try (var reader = ZipReader.open(zip)) {
+			assertEquals(2, reader.getRefIds(ModelType.ACTOR).size());
+			assertNotNull(reader.getBytes(JsonDiffZip.DELETED_FILE));
+		}
+
+		assertEquals(3, mirror.getAll(Actor.class).size());
+		assertEquals("kept", mirror.get(Actor.class, kept.refId).name);
+		assertEquals("changed v2", mirror.get(Actor.class, changed.refId).name);
+		assertNotNull(mirror.get(Actor.class, added.refId));
+		assertNull(mirror.get(Source.class, deleted.refId));
+	}
+
+	@Test
+	public void testDeleteOnlyEmptyCategories() throws Exception {
+		var empty = source.insert(Category.of("empty", ModelType.ACTOR));
+		var used = source.insert(Category.of("used", ModelType.ACTOR));
+		var a1 = Actor.of("a1");
+		a1.category = empty;
+		a1 = source.insert(a1);
+		var a2 = Actor.of("a2");
+		a2.category = used;
+		a2 = source.insert(a2);
+		sync();
+		assertNotNull(mirror.get(Category.class, empty.refId));
+		assertNotNull(mirror.get(Category.class, used.refId));
+
+		source.delete(a1);
+		source.delete(a2);
+		source.delete(empty);
+		source.delete(used);
+		var index = new File(dir, "index.json");
+		var zip = new File(dir, "diff.zip");
+		JsonDiffZip.writeIndex(mirror, index);
+
+		// a data set that was added to the mirror after the index was created
+		var category = mirror.get(Category.class, used.refId);
+		var actor = Actor.of("local");
+		actor.category = category;
+		mirror.insert(actor);
+
+		JsonDiffZip.of(source)
+				.withOriginIndex(index)
+				.exportTo(zip);
+		JsonDiffZip.apply(zip, mirror);
+		assertNull(mirror.get(Category.class, empty.refId));
+		assertNotNull(mirror.get(Category.class, used.refId));
+		assertNotNull(mirror.get(Actor.class, actor.refId));
+	}
+
+	private File sync() {
+		var index = new File(dir, "index.json");
+		var zip = new File(dir, "diff.zip");
+		JsonDiffZip.writeIndex(mirror, index);
+		JsonDiffZip.of(source)
+				.withOriginIndex(index)
+				.exportTo(zip);
+		JsonDiffZip.apply(zip, mirror);
+		return zip;
+	}
+}
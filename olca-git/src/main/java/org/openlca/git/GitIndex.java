@@ -1,15 +1,27 @@
 package org.openlca.git;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -22,63 +34,213 @@ import org.openlca.core.model.descriptors.RootDescriptor;
 import org.openlca.git.util.GitUtil;
 import org.openlca.util.Categories;
 import org.openlca.util.Categories.PathBuilder;
-
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maps the paths of the model type folders, categories, and data sets of a
+ * database to the IDs of the respective objects in the repository.
+ * <p>
+ * The index is stored in a compact binary format: a table of fixed-width
+ * records, sorted by path, with the version, last change, and object ID of
+ * each entry, followed by the UTF-8 encoded paths. This table is
+ * memory-mapped and entries are looked up via binary search, so that the
+ * index does not need to be read into memory. Changes are held in memory and
+ * appended to a change log when the index is saved. When the log grows too
+ * large, it is merged into a new table. Thus, loading and saving the index
+ * scales with the number of changed entries and not with the size of the
+ * repository. Index files in the old, Java-serialized format are converted
+ * on the first save.
+ * <p>
+ * A mapped file cannot be replaced or deleted on Windows until it is unmapped
+ * by the garbage collector. Thus, the tables are stored in generation files
+ * ({@code <index file>.<generation>}) that are never replaced. The index file
+ * itself only contains the number of the current generation; it is small and
+ * not mapped, so it can always be replaced. Older generations are deleted
+ * when this is possible.
+ */
 public class GitIndex {
 
+	private static final byte[] MAGIC = {'O', 'L', 'G', 'I'};
+
+	/**
+	 * The format version of the index file and the table files.
+	 */
+	private static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 16;
+	private static final int RECORD_SIZE = 4 + 4 + 8 + 8 + 20;
+	private static final int MIN_COMPACTION_SIZE = 1024;
+
+	private static final byte LOG_PUT = 1;
+	private static final byte LOG_REMOVE = 2;
+
+	/**
+	 * Marks entries that were removed from the index but may still exist in
+	 * the table.
+	 */
+	private static final GitIndexEntry REMOVED = new GitIndexEntry(null, -1, -1, null);
+
 	private final File file;
-	private Map<String, GitIndexEntry> entries = new HashMap<>();
-	private Map<String, Set<String>> subPaths = new HashMap<>();
+	private final File logFile;
+
+	/**
+	 * The generation of the current table; 0 if there is no table yet.
+	 */
+	private int generation;
+
+	/**
+	 * The memory-mapped table; null if there is no table yet.
+	 */
+	private ByteBuffer table;
+	private int tableSize;
+
+	/**
+	 * The changes that are not yet merged into the table.
+	 */
+	private final Map<String, GitIndexEntry> changes = new HashMap<>();
+
+	/**
+	 * The changes that are not yet written to the log.
+	 */
+	private final Map<String, GitIndexEntry> pending = new LinkedHashMap<>();
+
+	/**
+	 * Is set to true when the table needs to be rewritten on the next save,
+	 * e.g. after the index was cleared or converted from the old format.
+	 */
+	private boolean rewrite;
 
 	private GitIndex(File file) {
 		this.file = file;
+		this.logFile = file != null
+				? new File(file.getPath() + ".log")
+				: null;
 	}
 
-	@SuppressWarnings("unchecked")
 	public static GitIndex fromFile(File file) throws IOException {
 		var index = new GitIndex(file);
 		if (file == null || !file.exists())
 			return index;
+		if (isLegacyFile(file)) {
+			index.readLegacyFile();
+			return index;
+		}
+		index.readHead();
+		index.readLog();
+		return index;
+	}
+
+	public static GitIndex inMemory() {
+		return new GitIndex(null);
+	}
+
+	private static boolean isLegacyFile(File file) throws IOException {
+		try (var in = new FileInputStream(file)) {
+			var head = new byte[2];
+			if (in.read(head) < 2)
+				return false;
+			// the stream header of the Java object serialization
+			return (head[0] & 0xff) == 0xac && (head[1] & 0xff) == 0xed;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void readLegacyFile() throws IOException {
 		try (var fis = new FileInputStream(file);
 				var ois = new ObjectInputStream(fis)) {
-			index.entries = (HashMap<String, GitIndexEntry>) ois.readObject();
+			var entries = (HashMap<String, GitIndexEntry>) ois.readObject();
+			changes.putAll(entries);
+			rewrite = true;
 		} catch (ClassNotFoundException e) {
 			throw new IOException(e);
 		}
-		for (var key : index.entries.keySet()) {
-			index.addSubPath(key);
-		}
-		return index;
 	}
 
-	private void addSubPath(String path) {
-		if (path.isEmpty())
+	private void readHead() throws IOException {
+		if (file.length() == 0)
 			return;
-		var parent = getParent(path);
-		subPaths.computeIfAbsent(parent, k -> new HashSet<>()).add(path);
+		var bytes = Files.readAllBytes(file.toPath());
+		var head = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		int version = checkHeader(head, file);
+		if (version != VERSION)
+			throw new IOException("unsupported index format: " + version);
+		generation = head.getInt(8);
+		if (generation > 0) {
+			mapTable(tableFile(generation));
+		}
 	}
 
-	private void removeSubPath(String path) {
-		if (path.isEmpty())
-			return;
-		var parent = getParent(path);
-		var set = subPaths.get(parent);
-		if (set == null)
-			return;
-		set.remove(path);
-		if (set.isEmpty()) {
-			subPaths.remove(parent);
+	private int checkHeader(ByteBuffer buffer, File f) throws IOException {
+		if (buffer.capacity() < HEADER_SIZE)
+			throw new IOException("invalid index file: " + f);
+		for (int i = 0; i < MAGIC.length; i++) {
+			if (buffer.get(i) != MAGIC[i])
+				throw new IOException("invalid index file: " + f);
 		}
+		return buffer.getInt(4);
 	}
 
-	private String getParent(String path) {
-		var lastSlash = path.lastIndexOf('/');
-		if (lastSlash == -1)
-			return "";
-		return path.substring(0, lastSlash);
+	private int checkTableSize(ByteBuffer buffer, File f) throws IOException {
+		int size = buffer.getInt(8);
+		if (size < 0 || HEADER_SIZE + (long) size * RECORD_SIZE > buffer.capacity())
+			throw new IOException("invalid index file: " + f);
+		return size;
 	}
 
-	public static GitIndex inMemory() {
-		return new GitIndex(null);
+	private File tableFile(int generation) {
+		return new File(file.getPath() + "." + generation);
+	}
+
+	private void mapTable(File tableFile) throws IOException {
+		table = null;
+		tableSize = 0;
+		try (var channel = FileChannel.open(tableFile.toPath(), StandardOpenOption.READ)) {
+			var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+					.order(ByteOrder.LITTLE_ENDIAN);
+			int version = checkHeader(buffer, tableFile);
+			if (version != VERSION)
+				throw new IOException("unsupported index format: " + version);
+			tableSize = checkTableSize(buffer, tableFile);
+			table = buffer;
+		}
+	}
+
+	private void readLog() throws IOException {
+		if (logFile == null || !logFile.exists())
+			return;
+		long size = logFile.length();
+		long pos = 0;
+		try (var in = new DataInputStream(
+				new BufferedInputStream(new FileInputStream(logFile)))) {
+			while (true) {
+				try {
+					byte op = in.readByte();
+					int length = in.readInt();
+					pos += 5;
+					// a corrupt length field would result in a huge allocation
+					if (length < 0 || length > size - pos)
+						break;
+					var bytes = new byte[length];
+					in.readFully(bytes);
+					pos += length;
+					var path = new String(bytes, StandardCharsets.UTF_8);
+					if (op == LOG_REMOVE) {
+						changes.put(path, REMOVED);
+						continue;
+					}
+					long version = in.readLong();
+					long lastChange = in.readLong();
+					var id = new byte[20];
+					in.readFully(id);
+					pos += 36;
+					changes.put(path, entryOf(version, lastChange, id));
+				} catch (EOFException e) {
+					// the end of the log or an incomplete record at the end,
+					// e.g. when the application stopped while writing it
+					break;
+				}
+			}
+		}
 	}
 
 	public void save() throws IOException {
@@ -87,10 +249,153 @@ public class GitIndex {
 		if (!file.getParentFile().exists()) {
 			Files.createDirectories(file.getParentFile().toPath());
 		}
-		try (var fos = new FileOutputStream(file);
-				var oos = new ObjectOutputStream(fos)) {
-			oos.writeObject(entries);
+		if (rewrite || table == null
+				|| changes.size() > Math.max(MIN_COMPACTION_SIZE, tableSize / 8)) {
+			compact();
+			return;
+		}
+		appendLog();
+	}
+
+	private void appendLog() throws IOException {
+		if (pending.isEmpty())
+			return;
+		try (var out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(logFile, true)))) {
+			for (var e : pending.entrySet()) {
+				var path = e.getKey().getBytes(StandardCharsets.UTF_8);
+				var entry = e.getValue();
+				out.writeByte(entry == REMOVED ? LOG_REMOVE : LOG_PUT);
+				out.writeInt(path.length);
+				out.write(path);
+				if (entry == REMOVED)
+					continue;
+				out.writeLong(entry.version);
+				out.writeLong(entry.lastChange);
+				out.write(rawIdOf(entry), 0, 20);
+			}
 		}
+		pending.clear();
+	}
+
+	/**
+	 * Merges the table and the changes into a table of the next generation,
+	 * points the index file to it, and deletes the log.
+	 */
+	private void compact() throws IOException {
+
+		// collect the current paths in sorted order
+		var paths = new HashSet<String>();
+		for (int i = 0; i < tableSize; i++) {
+			paths.add(pathAt(i));
+		}
+		for (var e : changes.entrySet()) {
+			if (e.getValue() == REMOVED) {
+				paths.remove(e.getKey());
+			} else {
+				paths.add(e.getKey());
+			}
+		}
+		var sorted = new byte[paths.size()][];
+		int n = 0;
+		for (var path : paths) {
+			sorted[n++] = path.getBytes(StandardCharsets.UTF_8);
+		}
+		paths.clear();
+		Arrays.sort(sorted, Arrays::compareUnsigned);
+
+		// write the new table into a new generation file; a file of that
+		// generation may be left from an interrupted save
+		int next = generation + 1;
+		while (tableFile(next).exists() && !tableFile(next).delete()) {
+			next++;
+		}
+		var nextFile = tableFile(next);
+		try (var out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(nextFile)))) {
+			out.write(header(VERSION, sorted.length));
+			var record = ByteBuffer.allocate(RECORD_SIZE)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			int offset = 0;
+			for (var path : sorted) {
+				var entry = get(new String(path, StandardCharsets.UTF_8));
+				record.clear();
+				record.putInt(offset)
+						.putInt(path.length)
+						.putLong(entry.version)
+						.putLong(entry.lastChange)
+						.put(rawIdOf(entry), 0, 20);
+				out.write(record.array());
+				offset += path.length;
+			}
+			for (var path : sorted) {
+				out.write(path);
+			}
+		}
+
+		// point the index file to the new generation; the index file is
+		// never mapped, so it can be replaced on all platforms
+		var tmp = new File(file.getPath() + ".tmp");
+		try {
+			Files.write(tmp.toPath(), header(VERSION, next));
+			Files.move(tmp.toPath(), file.toPath(),
+					StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Files.deleteIfExists(tmp.toPath());
+			Files.deleteIfExists(nextFile.toPath());
+			throw e;
+		}
+		Files.deleteIfExists(logFile.toPath());
+		generation = next;
+		mapTable(nextFile);
+		changes.clear();
+		pending.clear();
+		rewrite = false;
+		deleteOldTables();
+	}
+
+	private byte[] header(int version, int value) {
+		return ByteBuffer.allocate(HEADER_SIZE)
+				.order(ByteOrder.LITTLE_ENDIAN)
+				.put(MAGIC)
+				.putInt(version)
+				.putInt(value)
+				.putInt(0)
+				.array();
+	}
+
+	/**
+	 * Tries to delete the tables of older generations. On Windows, this fails
+	 * for tables that are still mapped; they are deleted with a later save.
+	 */
+	private void deleteOldTables() {
+		var dir = file.getParentFile();
+		var prefix = file.getName() + ".";
+		var files = dir != null ? dir.listFiles() : null;
+		if (files == null)
+			return;
+		for (var f : files) {
+			var name = f.getName();
+			if (!name.startsWith(prefix))
+				continue;
+			var suffix = name.substring(prefix.length());
+			if (suffix.isEmpty() || !suffix.chars().allMatch(Character::isDigit))
+				continue;
+			if (suffix.equals(Integer.toString(generation)))
+				continue;
+			try {
+				Files.deleteIfExists(f.toPath());
+			} catch (IOException e) {
+				LoggerFactory.getLogger(getClass())
+						.debug("could not delete old index table {}", f);
+			}
+		}
+	}
+
+	private byte[] rawIdOf(GitIndexEntry entry) {
+		return entry.objectId != null
+				? entry.objectId
+				: new byte[20];
 	}
 
 	public boolean has(ModelType type) {
@@ -111,8 +416,8 @@ public class GitIndex {
 	public boolean has(String path) {
 		if (path == null)
 			return false;
-		var entry = entries.get(path);
-		return entry != null && entry.objectId != null;
+		var entry = get(path);
+		return entry != GitIndexEntry.NULL && entry.objectId != null;
 	}
 
 	public GitIndexEntry getRoot() {
@@ -137,16 +442,131 @@ public class GitIndex {
 	public GitIndexEntry get(String path) {
 		if (path == null)
 			return GitIndexEntry.NULL;
-		var entry = entries.get(path);
-		if (entry != null)
-			return entry;
-		return GitIndexEntry.NULL;
+		var changed = changes.get(path);
+		if (changed != null)
+			return changed == REMOVED
+					? GitIndexEntry.NULL
+					: changed;
+		int i = find(path.getBytes(StandardCharsets.UTF_8));
+		return i >= 0
+				? entryAt(i)
+				: GitIndexEntry.NULL;
+	}
+
+	/**
+	 * Returns the position of the given path in the table or -(insertion
+	 * point) - 1 if the table does not contain it.
+	 */
+	private int find(byte[] path) {
+		if (table == null)
+			return -1;
+		int low = 0;
+		int high = tableSize - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int c = compareAt(mid, path);
+			if (c < 0) {
+				low = mid + 1;
+			} else if (c > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	private int compareAt(int i, byte[] path) {
+		int pos = HEADER_SIZE + i * RECORD_SIZE;
+		int offset = stringsOffset() + table.getInt(pos);
+		int length = table.getInt(pos + 4);
+		int n = Math.min(length, path.length);
+		for (int k = 0; k < n; k++) {
+			int c = Byte.compareUnsigned(table.get(offset + k), path[k]);
+			if (c != 0)
+				return c;
+		}
+		return Integer.compare(length, path.length);
+	}
+
+	private int stringsOffset() {
+		return HEADER_SIZE + tableSize * RECORD_SIZE;
+	}
+
+	private String pathAt(int i) {
+		int pos = HEADER_SIZE + i * RECORD_SIZE;
+		int offset = stringsOffset() + table.getInt(pos);
+		int length = table.getInt(pos + 4);
+		if (offset < 0 || length < 0 || (long) offset + length > table.capacity())
+			throw new IllegalStateException("invalid index file: " + file);
+		var bytes = new byte[length];
+		table.get(offset, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private GitIndexEntry entryAt(int i) {
+		int pos = HEADER_SIZE + i * RECORD_SIZE;
+		long version = table.getLong(pos + 8);
+		long lastChange = table.getLong(pos + 16);
+		var id = new byte[20];
+		table.get(pos + 24, id);
+		return entryOf(version, lastChange, id);
+	}
+
+	private GitIndexEntry entryOf(long version, long lastChange, byte[] id) {
+		var isZero = true;
+		for (byte b : id) {
+			if (b != 0) {
+				isZero = false;
+				break;
+			}
+		}
+		var objectId = isZero ? null : ObjectId.fromRaw(id);
+		return new GitIndexEntry(null, version, lastChange, objectId);
 	}
 
 	public Set<String> getSubPaths(String path) {
+		var subPaths = new HashSet<String>();
 		if (path == null)
-			return new HashSet<>();
-		return subPaths.getOrDefault(path, new HashSet<>());
+			return subPaths;
+		var prefix = path.isEmpty() ? "" : path + "/";
+
+		// scan the range of the table that starts with the prefix
+		if (table != null) {
+			var prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+			int i = find(prefixBytes);
+			if (i < 0) {
+				i = -(i + 1);
+			}
+			for (; i < tableSize; i++) {
+				var next = pathAt(i);
+				if (!next.startsWith(prefix))
+					break;
+				if (next.isEmpty() || next.indexOf('/', prefix.length()) >= 0)
+					continue;
+				subPaths.add(next);
+			}
+		}
+
+		// apply the changes
+		for (var e : changes.entrySet()) {
+			var next = e.getKey();
+			if (next.isEmpty() || !getParent(next).equals(path))
+				continue;
+			if (e.getValue() == REMOVED) {
+				subPaths.remove(next);
+			} else {
+				subPaths.add(next);
+			}
+		}
+		return subPaths;
+	}
+
+	private String getParent(String path) {
+		var lastSlash = path.lastIndexOf('/');
+		if (lastSlash == -1)
+			return "";
+		return path.substring(0, lastSlash);
 	}
 
 	public void putRoot(ObjectId id) {
@@ -175,8 +595,12 @@ public class GitIndex {
 	public void put(String path, long version, long lastChange, ObjectId id) {
 		if (path == null)
 			return;
-		entries.put(path, new GitIndexEntry(path, version, lastChange, id));
-		addSubPath(path);
+		change(path, new GitIndexEntry(path, version, lastChange, id));
+	}
+
+	private void change(String path, GitIndexEntry entry) {
+		changes.put(path, entry);
+		pending.put(path, entry);
 	}
 
 	public void removeRoot() {
@@ -201,8 +625,7 @@ public class GitIndex {
 	public void remove(String path) {
 		if (path == null)
 			return;
-		entries.remove(path);
-		removeSubPath(path);
+		change(path, REMOVED);
 	}
 
 	public void invalidate() {
@@ -236,20 +659,24 @@ public class GitIndex {
 					k += "/";
 				}
 			}
-			invalidate(entries.get(k));
+			invalidateEntry(k);
 		}
-		invalidate(entries.get(""));
+		invalidateEntry("");
 	}
 
-	private void invalidate(GitIndexEntry entry) {
-		if (entry == null)
+	private void invalidateEntry(String path) {
+		var entry = get(path);
+		if (entry == GitIndexEntry.NULL || entry.objectId == null)
 			return;
-		entry.objectId = null;
+		change(path, new GitIndexEntry(path, entry.version, entry.lastChange, null));
 	}
 
 	public void clear() {
-		entries.clear();
-		subPaths.clear();
+		table = null;
+		tableSize = 0;
+		changes.clear();
+		pending.clear();
+		rewrite = true;
 	}
 
 	public String getPath(ModelType type) {
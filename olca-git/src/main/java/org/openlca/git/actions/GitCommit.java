@@ -9,9 +9,12 @@ import org.eclipse.jgit.lib.Repository;
 import org.openlca.core.database.IDatabase;
 import org.openlca.git.Compatibility;
 import org.openlca.git.GitIndex;
+import org.openlca.git.find.CommitGraph;
 import org.openlca.git.model.Change;
+import org.openlca.git.util.ChangeTracker;
 import org.openlca.git.util.Descriptors;
 import org.openlca.git.util.Diffs;
+import org.openlca.git.util.Repositories;
 import org.openlca.git.writer.DbCommitWriter;
 import org.openlca.util.Strings;
 
@@ -70,11 +73,18 @@ public class GitCommit extends GitProgressAction<String> {
 		}
 		Compatibility.checkRepositoryClientVersion(repo);
 		progressMonitor.beginTask("Writing commit", changes.size());
+		var previousCommit = Repositories.headCommitOf(repo);
 		var writer = new DbCommitWriter(repo, database, Descriptors.of(database))
 				.update(gitIndex)
 				.as(committer)
 				.with(progressMonitor);
 		var commitId = writer.write(message, changes);
+		if (gitIndex != null) {
+			ChangeTracker.of(database).committed(repo, gitIndex,
+					previousCommit != null ? previousCommit.getName() : null,
+					commitId, changes);
+		}
+		CommitGraph.of(repo);
 		return commitId;
 	}
 
@@ -7,6 +7,7 @@ import java.util.List;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Repository;
+import org.openlca.git.find.CommitGraph;
 import org.openlca.git.find.Commits;
 import org.openlca.git.model.Commit;
 import org.openlca.git.util.Constants;
@@ -39,6 +40,7 @@ public class GitFetch extends GitRemoteAction<List<Commit>> {
 				.call();
 		if (result == null)
 			return new ArrayList<>();
+		CommitGraph.of(repo);
 		var newCommits = commits.find()
 				.refs(Constants.REMOTE_REF)
 				.after(lastId)
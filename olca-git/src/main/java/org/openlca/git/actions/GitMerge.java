@@ -44,6 +44,7 @@ public class GitMerge extends GitProgressAction<Boolean> {
 	private ConflictResolver conflictResolver = ConflictResolver.NULL;
 	private LibraryResolver libraryResolver;
 	private boolean applyStash;
+	private int threadCount = 1;
 
 	private GitMerge(Repository repo) {
 		this.repo = repo;
@@ -81,6 +82,17 @@ public class GitMerge extends GitProgressAction<Boolean> {
 		return this;
 	}
 
+	/**
+	 * Sets the number of threads that are used to read and convert the data
+	 * sets in the import. By default, the import runs in a single thread;
+	 * see {@link org.openlca.core.io.ImportPipeline#defaultThreadCount()} for
+	 * a value that fits the available processors.
+	 */
+	public GitMerge withThreads(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+		return this;
+	}
+
 	GitMerge applyStash() {
 		this.applyStash = true;
 		return this;
@@ -121,6 +133,7 @@ public class GitMerge extends GitProgressAction<Boolean> {
 		var gitStore = new GitStoreReader(repo, localCommit, remoteCommit, addedOrChanged, conflictResolver);
 		var importHelper = new ImportHelper(repo, database, descriptors, gitIndex, progressMonitor);
 		importHelper.conflictResolver = conflictResolver;
+		importHelper.threadCount = threadCount;
 		importHelper.runImport(gitStore);
 		importHelper.delete(deleted);
 		// TODO unmount libs removed from package info; not yet supported
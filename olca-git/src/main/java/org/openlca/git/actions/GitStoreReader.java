@@ -2,6 +2,7 @@ package org.openlca.git.actions;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 import org.eclipse.jgit.lib.Repository;
@@ -11,6 +12,7 @@ import org.openlca.git.actions.ConflictResolver.ConflictResolutionType;
 import org.openlca.git.actions.ImportResults.ImportState;
 import org.openlca.git.find.Datasets;
 import org.openlca.git.find.Entries;
+import org.openlca.git.find.ObjectCache;
 import org.openlca.git.find.References;
 import org.openlca.git.model.Commit;
 import org.openlca.git.model.ModelRef;
@@ -28,6 +30,7 @@ class GitStoreReader implements JsonStoreReader {
 	private static final Gson gson = new Gson();
 	private final References references;
 	private final Datasets datasets;
+	private final ObjectCache cache;
 	private final Commit previousCommit;
 	private final Commit commit;
 	private final Categories categories;
@@ -44,7 +47,8 @@ class GitStoreReader implements JsonStoreReader {
 			ConflictResolver conflictResolver) {
 		this.categories = Categories.of(Entries.of(repo), commit.id);
 		this.references = References.of(repo);
-		this.datasets = Datasets.of(repo);
+		this.cache = ObjectCache.of(repo);
+		this.datasets = Datasets.of(repo, cache);
 		this.previousCommit = previousCommit;
 		this.commit = commit;
 		this.conflictResolver = conflictResolver != null ? conflictResolver : ConflictResolver.NULL;
@@ -95,12 +99,24 @@ class GitStoreReader implements JsonStoreReader {
 		var ref = changes.get(type, refId);
 		if (ref == null)
 			return null;
-		if (conflictResolver.peekConflictResolution(ref) == ConflictResolutionType.IS_EQUAL) {
-			results.add(ref, ImportState.UPDATED);
+		if (isEqual(ref))
 			return null;
-		}
+		// loading and parsing the data set is done outside of the lock so that
+		// this can run in parallel in a pipelined import
 		var data = datasets.get(ref);
 		var remote = parse(data);
+		return resolve(type, refId, ref, remote);
+	}
+
+	private synchronized boolean isEqual(Reference ref) {
+		if (conflictResolver.peekConflictResolution(ref) != ConflictResolutionType.IS_EQUAL)
+			return false;
+		results.add(ref, ImportState.UPDATED);
+		return true;
+	}
+
+	private synchronized JsonObject resolve(ModelType type, String refId, Reference ref,
+			JsonObject remote) {
 		if (!conflictResolver.isConflict(ref)) {
 			results.add(ref, ImportState.UPDATED);
 			return remote;
@@ -155,7 +171,7 @@ class GitStoreReader implements JsonStoreReader {
 	List<? extends ModelRef> getChanges(ModelType type) {
 		if (type == ModelType.CATEGORY)
 			return Collections.emptyList();
-		return changes.get(type).stream().map(ref -> {
+		var refs = changes.get(type).stream().map(ref -> {
 			// performance improvement: JsonImport will load model from
 			// database. If ref will not be imported and conflict resolver can
 			// determine resolution without json data we can skip that.
@@ -176,6 +192,13 @@ class GitStoreReader implements JsonStoreReader {
 			}
 			return ref;
 		}).collect(Collectors.toList());
+		// read the data sets that will be imported in the order of the pack
+		// files before the import requests them one by one
+		cache.prefetch(refs.stream()
+				.filter(Objects::nonNull)
+				.map(ref -> ref.objectId)
+				.toList());
+		return refs;
 	}
 
 	private JsonObject parse(String data) {
@@ -36,6 +36,7 @@ class ImportHelper {
 	final ProgressMonitor progressMonitor;
 	final Descriptors descriptors;
 	ConflictResolver conflictResolver = ConflictResolver.NULL;
+	int threadCount = 1;
 
 	ImportHelper(Repository repo, IDatabase database, Descriptors descriptors, GitIndex gitIndex,
 			ProgressMonitor progressMonitor) {
@@ -82,6 +83,8 @@ class ImportHelper {
 		Compatibility.checkRepositoryClientVersion(repo);
 		var jsonImport = new JsonImport(gitStore, database);
 		jsonImport.setUpdateMode(UpdateMode.ALWAYS);
+		jsonImport.setThreadCount(threadCount);
+		jsonImport.prewarmCache();
 		for (var type : ImportHelper.TYPE_ORDER) {
 			var changes = gitStore.getChanges(type);
 			if (changes.isEmpty())
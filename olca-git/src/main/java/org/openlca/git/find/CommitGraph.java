@@ -0,0 +1,601 @@
+package org.openlca.git.find;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.openlca.core.model.ModelType;
+import org.openlca.git.util.GitUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A persistent cache of the commit graph of a repository. For each commit, it
+ * stores the parents, the commit time, the generation number (the length of
+ * the longest path to a root commit), and a Bloom filter of the paths that
+ * were changed compared to the first parent. With this, the history of a
+ * repository can be traversed without parsing the commit objects, and tree
+ * diffs are only calculated for commits that may have changed a path.
+ * <p>
+ * The graph is stored in the file {@value #FILE_NAME} in the repository
+ * directory. New commits are appended to this file when they are first seen,
+ * e.g. after a commit or fetch, so that the graph is updated incrementally.
+ * There is one shared instance per repository directory, see
+ * {@link #of(Repository)}.
+ */
+public class CommitGraph {
+
+	public static final String FILE_NAME = "olca-commit-graph";
+
+	private static final Logger log = LoggerFactory.getLogger(CommitGraph.class);
+	private static final int MAGIC = 0x4f434701;
+	private static final Map<File, Store> stores = new ConcurrentHashMap<>();
+
+	/**
+	 * For commits that changed more paths than this, we do not create a Bloom
+	 * filter but always calculate the diff.
+	 */
+	private static final int MAX_BLOOM_KEYS = 8192;
+	private static final int BITS_PER_KEY = 10;
+	private static final int HASH_COUNT = 7;
+
+	private final Repository repo;
+	private final Store store;
+	private final Map<ObjectId, Integer> index;
+	private final List<Node> nodes;
+
+	private CommitGraph(Repository repo, Store store) {
+		this.repo = repo;
+		this.store = store;
+		this.index = store.index;
+		this.nodes = store.nodes;
+	}
+
+	/**
+	 * Returns the commit graph of the given repository. The graph data are
+	 * shared between all instances of the same repository directory. The graph
+	 * is updated with the commits of the current references of the repository
+	 * before it is returned.
+	 */
+	public static CommitGraph of(Repository repo) {
+		var dir = repo.getDirectory().getAbsoluteFile();
+		var store = stores.computeIfAbsent(dir, Store::new);
+		var graph = new CommitGraph(repo, store);
+		graph.update();
+		return graph;
+	}
+
+	/**
+	 * Returns the key of the given data set in the Bloom filters of the
+	 * commits. Data sets are identified by their type and ID, independent of
+	 * their category path.
+	 */
+	static String modelKey(ModelType type, String refId) {
+		return "@" + type.name() + ":" + refId;
+	}
+
+	/**
+	 * Adds the commits that are reachable from the references of the
+	 * repository and that are not yet contained in the graph.
+	 */
+	public void update() {
+		synchronized (store) {
+			updateGraph();
+		}
+	}
+
+	private void updateGraph() {
+		try {
+			var tips = new ArrayList<ObjectId>();
+			for (var ref : repo.getRefDatabase().getRefs()) {
+				var id = ref.getObjectId();
+				if (id != null && !index.containsKey(id)) {
+					tips.add(id);
+				}
+			}
+			if (tips.isEmpty())
+				return;
+			var added = add(tips);
+			if (!added.isEmpty()) {
+				store.append(added);
+			}
+		} catch (Exception e) {
+			log.error("failed to update commit graph", e);
+		}
+	}
+
+	/**
+	 * Returns true if the given commit is contained in the graph.
+	 */
+	public boolean contains(ObjectId commitId) {
+		synchronized (store) {
+			return commitId != null && index.containsKey(commitId);
+		}
+	}
+
+	/**
+	 * Returns the generation number of the given commit or 0 if the commit is
+	 * not contained in the graph.
+	 */
+	public int generationOf(ObjectId commitId) {
+		synchronized (store) {
+			var i = commitId != null ? index.get(commitId) : null;
+			return i != null ? nodes.get(i).generation : 0;
+		}
+	}
+
+	/**
+	 * Returns true if the given commit is reachable from the given start
+	 * commit (which includes the start commit itself). Generation numbers are
+	 * used to stop the search early.
+	 */
+	public boolean isReachable(ObjectId from, ObjectId commitId) {
+		synchronized (store) {
+			var start = from != null ? index.get(from) : null;
+			var target = commitId != null ? index.get(commitId) : null;
+			if (start == null || target == null)
+				return false;
+			int minGen = nodes.get(target).generation;
+			var visited = new BitSet();
+			var queue = new ArrayDeque<Integer>();
+			queue.add(start);
+			while (!queue.isEmpty()) {
+				int next = queue.poll();
+				if (next == target)
+					return true;
+				if (visited.get(next))
+					continue;
+				visited.set(next);
+				var node = nodes.get(next);
+				if (node.generation <= minGen)
+					continue;
+				for (int p : node.parents) {
+					queue.add(p);
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the IDs of the commits that are reachable from the given start
+	 * commits, including these start commits.
+	 */
+	Set<ObjectId> ancestorsOf(ObjectId start) {
+		synchronized (store) {
+			var set = new HashSet<ObjectId>();
+			var i = start != null ? index.get(start) : null;
+			if (i == null)
+				return set;
+			var queue = new ArrayDeque<Integer>();
+			queue.add(i);
+			while (!queue.isEmpty()) {
+				var node = nodes.get(queue.poll());
+				if (!set.add(node.id))
+					continue;
+				for (int p : node.parents) {
+					queue.add(p);
+				}
+			}
+			return set;
+		}
+	}
+
+	/**
+	 * Walks the history from the given start commits in the same order as a
+	 * JGit RevWalk without sorting, which is by commit time, newest first.
+	 * Commits in the given exclusion set are not visited. If a filter is
+	 * given, only the commits are returned that changed a path matching this
+	 * filter. For merge commits, the same history simplification as in JGit is
+	 * applied: when a merge commit did not change the filtered paths compared
+	 * to one of its parents, the merge is skipped and only this parent is
+	 * followed.
+	 *
+	 * @param starts    the IDs of the start commits
+	 * @param excluded  the IDs of the commits that should not be visited
+	 * @param filter    an optional tree filter
+	 * @param keys      the keys of the filter for checking the Bloom filters;
+	 *                  a commit can only match if all keys are possibly
+	 *                  contained in its Bloom filter
+	 * @param maxCount  the maximum number of commits that are returned, or
+	 *                  {@code -1} for no limit
+	 */
+	List<ObjectId> walk(List<ObjectId> starts, Set<ObjectId> excluded,
+			TreeFilter filter, List<String> keys, int maxCount) throws IOException {
+		synchronized (store) {
+			var result = new ArrayList<ObjectId>();
+			var queue = new PriorityQueue<QueueItem>();
+			var queued = new BitSet();
+			long seq = 0;
+			for (var start : starts) {
+				var i = index.get(start);
+				if (i == null || queued.get(i))
+					continue;
+				queued.set(i);
+				queue.add(new QueueItem(nodes.get(i).time, seq++, i));
+			}
+			try (var walk = new RevWalk(repo)) {
+				while (!queue.isEmpty()) {
+					var node = nodes.get(queue.poll().node);
+					if (excluded.contains(node.id))
+						continue;
+					int[] next = node.parents;
+					if (filter == null) {
+						result.add(node.id);
+					} else if (node.parents.length == 0) {
+						if (matchesTree(walk, node, filter)) {
+							result.add(node.id);
+						}
+					} else {
+						int same = -1;
+						for (int k = 0; k < node.parents.length; k++) {
+							if (!changed(walk, node, k, filter, keys)) {
+								same = node.parents[k];
+								break;
+							}
+						}
+						if (same < 0) {
+							result.add(node.id);
+						} else {
+							next = new int[] { same };
+						}
+					}
+					if (maxCount > 0 && result.size() >= maxCount)
+						break;
+					for (int p : next) {
+						if (queued.get(p))
+							continue;
+						queued.set(p);
+						queue.add(new QueueItem(nodes.get(p).time, seq++, p));
+					}
+				}
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * Follows the first parents of the given commit and returns the first
+	 * commit (which can be the given commit itself) that changed a path that
+	 * matches the given filter compared to its first parent. The paths that
+	 * match the filter are then the same in the given commit and the returned
+	 * commit. Returns {@code null} if no such commit was found.
+	 */
+	RevCommit lastChange(ObjectId commitId, TreeFilter filter,
+			List<String> keys) throws IOException {
+		synchronized (store) {
+			var i = commitId != null ? index.get(commitId) : null;
+			if (i == null)
+				return null;
+			try (var walk = new RevWalk(repo)) {
+				var node = nodes.get(i);
+				while (true) {
+					if (node.parents.length == 0)
+						return matchesTree(walk, node, filter)
+								? walk.parseCommit(node.id)
+								: null;
+					if (changed(walk, node, 0, filter, keys))
+						return walk.parseCommit(node.id);
+					node = nodes.get(node.parents[0]);
+				}
+			}
+		}
+	}
+
+	private boolean changed(RevWalk walk, Node node, int parent, TreeFilter filter,
+			List<String> keys) throws IOException {
+		if (parent == 0 && node.bloom != null) {
+			for (var key : keys) {
+				if (!mightContain(node.bloom, key))
+					return false;
+			}
+		}
+		var commit = walk.parseCommit(node.id);
+		var parentCommit = walk.parseCommit(nodes.get(node.parents[parent]).id);
+		try (var treeWalk = new TreeWalk(repo)) {
+			treeWalk.addTree(commit.getTree());
+			treeWalk.addTree(parentCommit.getTree());
+			treeWalk.setRecursive(filter.shouldBeRecursive());
+			treeWalk.setFilter(AndTreeFilter.create(filter, TreeFilter.ANY_DIFF));
+			return treeWalk.next();
+		}
+	}
+
+	private boolean matchesTree(RevWalk walk, Node node, TreeFilter filter)
+			throws IOException {
+		var commit = walk.parseCommit(node.id);
+		try (var treeWalk = new TreeWalk(repo)) {
+			treeWalk.addTree(commit.getTree());
+			treeWalk.setRecursive(true);
+			treeWalk.setFilter(filter);
+			return treeWalk.next();
+		}
+	}
+
+	/**
+	 * Adds the commits that are reachable from the given tips and that are not
+	 * yet contained in the graph. The commits are added in an order where the
+	 * parents are always added before their children.
+	 */
+	private List<Node> add(List<ObjectId> tips) throws IOException {
+		var added = new ArrayList<Node>();
+		try (var walk = new RevWalk(repo)) {
+			var stack = new ArrayDeque<RevCommit>();
+			var visited = new HashSet<ObjectId>();
+			for (var tip : tips) {
+				var obj = walk.parseAny(tip);
+				if (obj instanceof RevCommit commit) {
+					stack.push(commit);
+				}
+			}
+			while (!stack.isEmpty()) {
+				var commit = stack.peek();
+				if (index.containsKey(commit.getId())) {
+					stack.pop();
+					continue;
+				}
+				walk.parseHeaders(commit);
+				boolean ready = true;
+				if (visited.add(commit.getId().copy())) {
+					for (var parent : commit.getParents()) {
+						if (!index.containsKey(parent.getId())) {
+							stack.push(parent);
+							ready = false;
+						}
+					}
+				}
+				if (!ready)
+					continue;
+				stack.pop();
+				var node = nodeOf(walk, commit);
+				index.put(node.id, nodes.size());
+				nodes.add(node);
+				added.add(node);
+			}
+		}
+		return added;
+	}
+
+	private Node nodeOf(RevWalk walk, RevCommit commit) throws IOException {
+		var parents = new int[commit.getParentCount()];
+		int generation = 1;
+		for (int i = 0; i < parents.length; i++) {
+			int p = index.get(commit.getParent(i).getId());
+			parents[i] = p;
+			generation = Math.max(generation, nodes.get(p).generation + 1);
+		}
+		var keys = new LinkedHashSet<String>();
+		try (var treeWalk = new TreeWalk(repo)) {
+			treeWalk.addTree(commit.getTree());
+			if (parents.length > 0) {
+				var parent = walk.parseCommit(commit.getParent(0));
+				treeWalk.addTree(parent.getTree());
+				treeWalk.setFilter(TreeFilter.ANY_DIFF);
+			}
+			treeWalk.setRecursive(true);
+			while (treeWalk.next() && keys.size() <= MAX_BLOOM_KEYS) {
+				addKeys(treeWalk.getPathString(), keys);
+			}
+		}
+		var bloom = keys.size() <= MAX_BLOOM_KEYS
+				? bloomOf(keys)
+				: null;
+		return new Node(commit.getId().copy(), commit.getCommitTime(),
+				generation, parents, bloom);
+	}
+
+	/**
+	 * Adds the keys of a changed file to the given set: the path itself, the
+	 * paths of its parent folders, and the model key if it is a data set.
+	 */
+	private static void addKeys(String path, Set<String> keys) {
+		keys.add(path);
+		int slash = path.lastIndexOf('/');
+		while (slash > 0) {
+			keys.add(path.substring(0, slash));
+			slash = path.lastIndexOf('/', slash - 1);
+		}
+		int first = path.indexOf('/');
+		if (first < 0 || !path.endsWith(GitUtil.DATASET_SUFFIX))
+			return;
+		var name = path.substring(path.lastIndexOf('/') + 1);
+		var refId = name.substring(0, name.length() - GitUtil.DATASET_SUFFIX.length());
+		try {
+			var type = ModelType.valueOf(path.substring(0, first));
+			keys.add(modelKey(type, refId));
+		} catch (IllegalArgumentException e) {
+			// not a model type folder
+		}
+	}
+
+	private static byte[] bloomOf(Set<String> keys) {
+		int bits = Math.max(64, keys.size() * BITS_PER_KEY);
+		var bloom = new byte[(bits + 7) / 8];
+		bits = bloom.length * 8;
+		for (var key : keys) {
+			var bytes = key.getBytes(StandardCharsets.UTF_8);
+			int h1 = murmur3(bytes, 0x293ae76f);
+			int h2 = murmur3(bytes, 0x7e646e2c);
+			for (int i = 0; i < HASH_COUNT; i++) {
+				int bit = Math.floorMod(h1 + i * h2, bits);
+				bloom[bit >>> 3] |= (byte) (1 << (bit & 7));
+			}
+		}
+		return bloom;
+	}
+
+	private static boolean mightContain(byte[] bloom, String key) {
+		int bits = bloom.length * 8;
+		var bytes = key.getBytes(StandardCharsets.UTF_8);
+		int h1 = murmur3(bytes, 0x293ae76f);
+		int h2 = murmur3(bytes, 0x7e646e2c);
+		for (int i = 0; i < HASH_COUNT; i++) {
+			int bit = Math.floorMod(h1 + i * h2, bits);
+			if ((bloom[bit >>> 3] & (1 << (bit & 7))) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	private static int murmur3(byte[] data, int seed) {
+		int h = seed;
+		int n = data.length / 4;
+		for (int i = 0; i < n; i++) {
+			int k = (data[4 * i] & 0xff)
+					| ((data[4 * i + 1] & 0xff) << 8)
+					| ((data[4 * i + 2] & 0xff) << 16)
+					| ((data[4 * i + 3] & 0xff) << 24);
+			k *= 0xcc9e2d51;
+			k = Integer.rotateLeft(k, 15);
+			k *= 0x1b873593;
+			h ^= k;
+			h = Integer.rotateLeft(h, 13);
+			h = h * 5 + 0xe6546b64;
+		}
+		// the remaining 1 to 3 bytes in little-endian order
+		int rest = data.length & 3;
+		if (rest > 0) {
+			int tail = 4 * n;
+			int k = 0;
+			for (int i = rest - 1; i >= 0; i--) {
+				k = (k << 8) | (data[tail + i] & 0xff);
+			}
+			k *= 0xcc9e2d51;
+			k = Integer.rotateLeft(k, 15);
+			k *= 0x1b873593;
+			h ^= k;
+		}
+		h ^= data.length;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * The shared data of the commit graph of a repository directory.
+	 */
+	private static class Store {
+
+		private final File file;
+		private final Map<ObjectId, Integer> index = new HashMap<>();
+		private final List<Node> nodes = new ArrayList<>();
+
+		Store(File dir) {
+			this.file = new File(dir, FILE_NAME);
+			read();
+		}
+
+		private void read() {
+			if (!file.exists())
+				return;
+			try (var in = new DataInputStream(
+					new BufferedInputStream(new FileInputStream(file)))) {
+				if (in.readInt() != MAGIC)
+					throw new IOException("invalid commit graph file");
+				var idBytes = new byte[20];
+				while (true) {
+					try {
+						in.readFully(idBytes);
+					} catch (EOFException e) {
+						break;
+					}
+					var id = ObjectId.fromRaw(idBytes);
+					int time = in.readInt();
+					int generation = in.readInt();
+					var parents = new int[in.readUnsignedByte()];
+					for (int i = 0; i < parents.length; i++) {
+						parents[i] = in.readInt();
+					}
+					int bloomLength = in.readInt();
+					byte[] bloom = null;
+					if (bloomLength >= 0) {
+						bloom = new byte[bloomLength];
+						in.readFully(bloom);
+					}
+					index.put(id, nodes.size());
+					nodes.add(new Node(id, time, generation, parents, bloom));
+				}
+			} catch (Exception e) {
+				// the file is rebuilt on the next update
+				log.warn("failed to read commit graph " + file + ", rebuilding it", e);
+				index.clear();
+				nodes.clear();
+				file.delete();
+			}
+		}
+
+		/**
+		 * Appends the given nodes to the file. If the file does not exist, e.g.
+		 * because it was deleted, the complete graph is written.
+		 */
+		void append(List<Node> added) {
+			boolean isNew = !file.exists();
+			var list = isNew ? nodes : added;
+			try (var out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(file, !isNew)))) {
+				if (isNew) {
+					out.writeInt(MAGIC);
+				}
+				for (var node : list) {
+					node.id.copyRawTo(out);
+					out.writeInt(node.time);
+					out.writeInt(node.generation);
+					out.writeByte(node.parents.length);
+					for (int p : node.parents) {
+						out.writeInt(p);
+					}
+					if (node.bloom == null) {
+						out.writeInt(-1);
+					} else {
+						out.writeInt(node.bloom.length);
+						out.write(node.bloom);
+					}
+				}
+			} catch (IOException e) {
+				log.error("failed to write commit graph " + file, e);
+			}
+		}
+	}
+
+	private record Node(ObjectId id, int time, int generation, int[] parents,
+			byte[] bloom) {
+	}
+
+	private record QueueItem(int time, long seq, int node)
+			implements Comparable<QueueItem> {
+
+		@Override
+		public int compareTo(QueueItem other) {
+			int c = Integer.compare(other.time, time);
+			return c != 0 ? c : Long.compare(seq, other.seq);
+		}
+	}
+}
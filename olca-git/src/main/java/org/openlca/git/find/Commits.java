@@ -6,6 +6,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.ObjectId;
@@ -153,6 +154,79 @@ public class Commits {
 		}
 
 		private List<Commit> all(boolean singleResult) {
+			try {
+				return fromGraph(singleResult);
+			} catch (Exception e) {
+				log.warn("failed to use commit graph, walking the history", e);
+				return fromWalk(singleResult);
+			}
+		}
+
+		/**
+		 * Collects the commits from the commit graph of the repository. This
+		 * gives the same result as {@link #fromWalk(boolean)} but without
+		 * parsing all commits and with tree diffs only for the commits that
+		 * may have changed the filtered paths.
+		 */
+		private List<Commit> fromGraph(boolean singleResult) throws IOException {
+			var graph = CommitGraph.of(repo);
+			var startId = toObjectId(start);
+			var endId = toObjectId(end);
+			var tips = new ArrayList<ObjectId>();
+			if (endId != null) {
+				tips.add(endId);
+			} else {
+				for (var ref : repo.getRefDatabase().getRefs()) {
+					if (branches.isEmpty() || branches.contains(ref.getName())) {
+						var id = ref.getObjectId();
+						if (id == null || (startId != null && startId.equals(id)))
+							continue;
+						tips.add(id);
+					}
+				}
+			}
+			for (var tip : tips) {
+				if (!graph.contains(tip))
+					throw new IOException("commit not in graph: " + tip.name());
+			}
+			Set<ObjectId> excluded = startId != null
+					? graph.ancestorsOf(startId)
+					: Set.of();
+
+			TreeFilter filter = null;
+			var keys = new ArrayList<String>();
+			if (!Strings.nullOrEmpty(path)) {
+				var encoded = GitUtil.encode(path);
+				filter = addFilter(filter, PathFilter.create(encoded));
+				keys.add(encoded);
+			}
+			if (type != null && !Strings.nullOrEmpty(refId)) {
+				filter = addFilter(filter, new ModelFilter(type, refId));
+				keys.add(CommitGraph.modelKey(type, refId));
+			}
+
+			// with the end commit excluded, we may need one more
+			int max = singleResult ? (!includeEnd && end != null ? 2 : 1) : -1;
+			var ids = graph.walk(tips, excluded, filter, keys, max);
+			var commits = new LinkedHashSet<Commit>();
+			try (var walk = new RevWalk(repo)) {
+				for (var id : ids) {
+					if (!includeEnd && end != null && id.name().equals(end))
+						continue;
+					commits.add(new Commit(walk.parseCommit(id)));
+					if (singleResult)
+						return new ArrayList<>(commits);
+				}
+				if (includeStart && start != null) {
+					commits.add(new Commit(walk.parseCommit(startId)));
+				}
+			}
+			var list = new ArrayList<>(commits);
+			Collections.reverse(list);
+			return list;
+		}
+
+		private List<Commit> fromWalk(boolean singleResult) {
 			var commits = new LinkedHashSet<Commit>();
 			try (var walk = walk()) {
 				for (var commit : walk) {
@@ -21,13 +21,22 @@ public class Datasets {
 
 	private static final Logger log = LoggerFactory.getLogger(Datasets.class);
 	private final Repository repo;
+	private final ObjectCache cache;
 
 	public static Datasets of(Repository repo) {
-		return new Datasets(repo);
+		return new Datasets(repo, null);
 	}
 
-	private Datasets(Repository repo) {
+	/**
+	 * Creates an instance that reads the data sets via the given object cache.
+	 */
+	public static Datasets of(Repository repo, ObjectCache cache) {
+		return new Datasets(repo, cache);
+	}
+
+	private Datasets(Repository repo, ObjectCache cache) {
 		this.repo = repo;
+		this.cache = cache;
 	}
 
 	public String getName(Reference ref) {
@@ -69,6 +78,8 @@ public class Datasets {
 	private byte[] getBytes(ObjectId id) {
 		if (id == null || id.equals(ObjectId.zeroId()))
 			return null;
+		if (cache != null)
+			return cache.get(id);
 		try (var reader = repo.getObjectDatabase().newReader()) {
 			var loader = reader.open(id);
 			// large objects will throw an exception if getBytes() is used
@@ -0,0 +1,209 @@
+package org.openlca.git.find;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.internal.storage.file.ObjectDirectory;
+import org.eclipse.jgit.internal.storage.file.Pack;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A size-bounded cache of object contents for a single read operation, e.g.
+ * the import of the changed data sets of a merge. Objects can be prefetched
+ * in batches: the objects of a batch are sorted by their position in the pack
+ * files so that the pack files are read sequentially instead of jumping
+ * around for each data set. Because git objects are immutable, cached objects
+ * never need to be invalidated.
+ */
+public class ObjectCache {
+
+	/** The default maximum size of the cached objects: 64 MB. */
+	public static final long DEFAULT_SIZE = 64L * 1024 * 1024;
+
+	private static final Logger log = LoggerFactory.getLogger(ObjectCache.class);
+	private final Repository repo;
+	private final long maxSize;
+	private final Map<ObjectId, byte[]> objects = new LinkedHashMap<>(16, 0.75f, true);
+	private long size;
+
+	private ObjectCache(Repository repo, long maxSize) {
+		this.repo = repo;
+		this.maxSize = maxSize;
+	}
+
+	public static ObjectCache of(Repository repo) {
+		return new ObjectCache(repo, DEFAULT_SIZE);
+	}
+
+	public static ObjectCache of(Repository repo, long maxSize) {
+		return new ObjectCache(repo, maxSize);
+	}
+
+	/**
+	 * Returns the content of the object with the given ID, either from the
+	 * cache or from the repository. Returns null if the object could not be
+	 * loaded.
+	 */
+	public byte[] get(ObjectId id) {
+		if (id == null || id.equals(ObjectId.zeroId()))
+			return null;
+		synchronized (this) {
+			var data = objects.get(id);
+			if (data != null)
+				return data;
+		}
+		try (var reader = repo.getObjectDatabase().newReader()) {
+			var data = load(reader, id);
+			put(id, data);
+			return data;
+		} catch (IOException e) {
+			log.error("Error loading " + id);
+			return null;
+		}
+	}
+
+	/**
+	 * Loads the objects with the given IDs into the cache. The objects are read
+	 * in the order of their positions in the pack files. Objects that are not
+	 * in a pack file are read after the packed objects. If the positions
+	 * cannot be determined, the objects are read in the given order. The
+	 * prefetch stops when the next object would not fit into the cache anymore;
+	 * the remaining objects are then loaded when they are requested.
+	 */
+	public void prefetch(Collection<? extends ObjectId> ids) {
+		if (ids == null || ids.isEmpty())
+			return;
+		var queue = new ArrayList<ObjectId>();
+		synchronized (this) {
+			for (var id : ids) {
+				if (id != null && !id.equals(ObjectId.zeroId())
+						&& !objects.containsKey(id)) {
+					queue.add(id);
+				}
+			}
+		}
+		if (queue.isEmpty())
+			return;
+		var sorted = sortByPackOffset(queue);
+		long budget = maxSize;
+		try (var reader = repo.getObjectDatabase().newReader()) {
+			for (var id : sorted) {
+				var loader = reader.open(id);
+				long objectSize = loader.getSize();
+				if (objectSize > maxSize / 4)
+					continue;
+				if (objectSize > budget)
+					break;
+				var data = bytesOf(loader);
+				budget -= data.length;
+				put(id, data);
+			}
+		} catch (IOException e) {
+			log.error("Error prefetching objects", e);
+		}
+	}
+
+	private byte[] load(ObjectReader reader, ObjectId id) throws IOException {
+		return bytesOf(reader.open(id));
+	}
+
+	private byte[] bytesOf(ObjectLoader loader) throws IOException {
+		// large objects will throw an exception if getBytes() is used
+		// so use getBytes(loader.getSize()) to circumvent this
+		if (loader.isLarge() && loader.getSize() <= Integer.MAX_VALUE)
+			return loader.getBytes((int) loader.getSize());
+		return loader.getBytes();
+	}
+
+	private synchronized void put(ObjectId id, byte[] data) {
+		// objects larger than a quarter of the cache are not cached, as they
+		// would evict too many other objects
+		if (data == null || data.length > maxSize / 4)
+			return;
+		var old = objects.put(id.copy(), data);
+		if (old != null) {
+			size -= old.length;
+		}
+		size += data.length;
+		var it = objects.values().iterator();
+		while (size > maxSize && it.hasNext()) {
+			size -= it.next().length;
+			it.remove();
+		}
+	}
+
+	/**
+	 * Sorts the given object IDs by the pack file and the offset in the pack
+	 * file in which the objects are stored. Objects that are not found in a
+	 * pack file (loose objects) are added at the end of the list. The pack
+	 * files are only accessible via the internal API of JGit; if this is not
+	 * available, e.g. after an update of JGit, the IDs are returned unsorted.
+	 */
+	private List<ObjectId> sortByPackOffset(List<ObjectId> ids) {
+		try {
+			return PackOrder.sort(repo, ids);
+		} catch (LinkageError | RuntimeException e) {
+			log.warn("failed to sort objects by pack offset", e);
+			return ids;
+		}
+	}
+
+	/**
+	 * Encapsulates the access to the internal JGit API, so that linkage errors
+	 * only occur when the pack order is requested and not when the cache is
+	 * loaded.
+	 */
+	private static class PackOrder {
+
+		static List<ObjectId> sort(Repository repo, List<ObjectId> ids) {
+			if (!(repo.getObjectDatabase() instanceof ObjectDirectory dir))
+				return ids;
+			var positions = new ArrayList<Position>(ids.size());
+			var loose = new ArrayList<ObjectId>();
+			var packs = new ArrayList<>(dir.getPacks());
+			for (var id : ids) {
+				var pos = positionOf(packs, id);
+				if (pos != null) {
+					positions.add(pos);
+				} else {
+					loose.add(id);
+				}
+			}
+			positions.sort(Comparator.comparingInt(Position::pack)
+					.thenComparingLong(Position::offset));
+			var sorted = new ArrayList<ObjectId>(ids.size());
+			for (var pos : positions) {
+				sorted.add(pos.id);
+			}
+			sorted.addAll(loose);
+			return sorted;
+		}
+
+		private static Position positionOf(List<Pack> packs, ObjectId id) {
+			for (int i = 0; i < packs.size(); i++) {
+				try {
+					long offset = packs.get(i).getIndex().findOffset(id);
+					if (offset >= 0)
+						return new Position(id, i, offset);
+				} catch (IOException e) {
+					log.warn("failed to read pack index of " + packs.get(i), e);
+				}
+			}
+			return null;
+		}
+	}
+
+	private record Position(ObjectId id, int pack, long offset) {
+	}
+
+}
@@ -3,11 +3,17 @@ package org.openlca.git.find;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
@@ -22,6 +28,8 @@ public class References {
 
 	static final Logger log = LoggerFactory.getLogger(References.class);
 	private final Repository repo;
+	private final Map<String, Optional<Reference>> refCache = new ConcurrentHashMap<>();
+	private final Map<String, List<String>> binaryCache = new ConcurrentHashMap<>();
 
 	public static References of(Repository repo) {
 		return new References(repo);
@@ -31,13 +39,31 @@ public class References {
 		this.repo = repo;
 	}
 
+	/**
+	 * Returns the reference of the data set with the given type and ID in the
+	 * given commit. As commits are immutable, the results of lookups for a
+	 * specific commit are memoized in this instance.
+	 */
 	public Reference get(ModelType type, String refId, String commitId) {
-		return find().model(type, refId).commit(commitId).first();
+		if (commitId == null)
+			return find().model(type, refId).commit(commitId).first();
+		var key = commitId + ":" + type + ":" + refId;
+		return refCache.computeIfAbsent(key, k -> Optional.ofNullable(
+				find().model(type, refId).commit(commitId).first()))
+				.orElse(null);
 	}
 
 	public List<String> getBinaries(Reference ref) {
 		if (ref == null)
 			return new ArrayList<>();
+		if (ref.commitId == null)
+			return findBinaries(ref);
+		var key = ref.commitId + ":" + ref.getBinariesPath();
+		var paths = binaryCache.computeIfAbsent(key, k -> findBinaries(ref));
+		return paths != null ? new ArrayList<>(paths) : null;
+	}
+
+	private List<String> findBinaries(Reference ref) {
 		try {
 			var commit = Commits.of(repo).getRev(ref.commitId);
 			if (commit == null)
@@ -128,6 +154,9 @@ public class References {
 				if (commit == null)
 					return;
 				var commitId = commit.getId().name();
+				if (path == null && type != null && refId != null
+						&& iterateChanges(commit, consumer))
+					return;
 				try (var walk = new TreeWalk(repo)) {
 					walk.addTree(commit.getTree());
 					walk.setRecursive(true);
@@ -150,6 +179,47 @@ public class References {
 			}
 		}
 
+		/**
+		 * Finds the references of a single data set via the commit graph: the
+		 * data set is the same as in the last commit that changed it, so we
+		 * only need to diff that commit with its parent instead of walking the
+		 * complete tree of the type. Returns false if the references could not
+		 * be determined this way.
+		 */
+		private boolean iterateChanges(RevCommit commit, Function<Reference, Boolean> consumer) {
+			try {
+				var graph = CommitGraph.of(repo);
+				if (!graph.contains(commit.getId()))
+					return false;
+				var filter = AndTreeFilter.create(new KnownFilesFilter(), new ModelFilter(type, refId));
+				var keys = List.of(CommitGraph.modelKey(type, refId));
+				var changed = graph.lastChange(commit.getId(), filter, keys);
+				if (changed == null)
+					return true;
+				if (changed.getParentCount() == 0)
+					return false;
+				var commitId = commit.getId().name();
+				try (var revWalk = new RevWalk(repo);
+						var walk = new TreeWalk(repo)) {
+					var parent = revWalk.parseCommit(changed.getParent(0));
+					walk.addTree(changed.getTree());
+					walk.addTree(parent.getTree());
+					walk.setRecursive(true);
+					walk.setFilter(AndTreeFilter.create(filter, TreeFilter.ANY_DIFF));
+					while (walk.next()) {
+						if (ObjectId.zeroId().equals(walk.getObjectId(0)))
+							continue;
+						if (!consumer.apply(createRef(walk, commitId, 0)))
+							break;
+					}
+				}
+				return true;
+			} catch (Exception e) {
+				log.warn("failed to use commit graph for references", e);
+				return false;
+			}
+		}
+
 	}
 
 }
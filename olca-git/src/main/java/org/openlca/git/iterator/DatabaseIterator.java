@@ -28,6 +28,16 @@ public class DatabaseIterator extends EntryIterator {
 		this(database, gitIndex, init(database));
 	}
 
+	/**
+	 * Creates an iterator that only contains the data sets of the given model
+	 * type. This is used to scan the model types of a database in parallel.
+	 */
+	public DatabaseIterator(IDatabase database, GitIndex gitIndex, ModelType type) {
+		this(database, gitIndex, hasContent(database, type)
+				? List.of(new TreeEntry(type))
+				: List.of());
+	}
+
 	private DatabaseIterator(IDatabase database, GitIndex gitIndex, List<TreeEntry> entries) {
 		super(entries);
 		this.database = database;
@@ -35,26 +45,29 @@ public class DatabaseIterator extends EntryIterator {
 		this.categoryPaths = Categories.pathsOf(database);
 	}
 
-	private DatabaseIterator(DatabaseIterator parent, IDatabase database, GitIndex gitIndex,
-			List<TreeEntry> entries) {
+	private DatabaseIterator(DatabaseIterator parent, List<TreeEntry> entries) {
 		super(parent, entries);
-		this.database = database;
-		this.gitIndex = gitIndex;
-		this.categoryPaths = Categories.pathsOf(database);
+		this.database = parent.database;
+		this.gitIndex = parent.gitIndex;
+		this.categoryPaths = parent.categoryPaths;
 	}
 
 	private static List<TreeEntry> init(IDatabase database) {
-		return Arrays.stream(ModelType.values()).filter(type -> {
-			if (type == ModelType.CATEGORY)
-				return false;
-			var dao = new CategoryDao(database);
-			if (!dao.getRootCategories(type).isEmpty())
-				return true;
-			return !Daos.root(database, type).getDescriptors(Optional.empty()).isEmpty();
-		}).map(TreeEntry::new)
+		return Arrays.stream(ModelType.values())
+				.filter(type -> hasContent(database, type))
+				.map(TreeEntry::new)
 				.toList();
 	}
 
+	private static boolean hasContent(IDatabase database, ModelType type) {
+		if (type == null || type == ModelType.CATEGORY)
+			return false;
+		var dao = new CategoryDao(database);
+		if (!dao.getRootCategories(type).isEmpty())
+			return true;
+		return !Daos.root(database, type).getDescriptors(Optional.empty()).isEmpty();
+	}
+
 	private static List<TreeEntry> init(IDatabase database, ModelType type) {
 		var entries = new CategoryDao(database).getRootCategories(type).stream()
 				.filter(c -> !c.isFromLibrary())
@@ -124,9 +137,9 @@ public class DatabaseIterator extends EntryIterator {
 	public DatabaseIterator createSubtreeIterator(ObjectReader reader) {
 		var data = getEntryData();
 		if (data instanceof ModelType type)
-			return new DatabaseIterator(this, database, gitIndex, init(database, type));
+			return new DatabaseIterator(this, init(database, type));
 		if (data instanceof Category category)
-			return new DatabaseIterator(this, database, gitIndex, init(database, category));
+			return new DatabaseIterator(this, init(database, category));
 		return null;
 	}
 
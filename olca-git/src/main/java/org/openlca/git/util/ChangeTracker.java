@@ -0,0 +1,369 @@
+package org.openlca.git.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.openlca.core.database.Daos;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.database.IDatabaseListener;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.descriptors.Descriptor;
+import org.openlca.core.model.descriptors.RootDescriptor;
+import org.openlca.git.GitIndex;
+import org.openlca.git.model.Diff;
+import org.openlca.git.model.DiffType;
+import org.openlca.git.model.ModelRef;
+import org.openlca.git.model.Reference;
+import org.openlca.util.Categories;
+import org.openlca.util.Categories.PathBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Tracks the changes of a database so that the differences between the
+ * database and the HEAD commit of a repository can be updated without scanning
+ * the complete database again. The tracker is registered as listener of the
+ * database and records the data sets that were inserted, updated, or deleted
+ * since the differences were calculated the last time. When these differences
+ * are requested again for the same repository, HEAD commit, and git index,
+ * only the recorded data sets are compared and the result of the previous
+ * calculation is updated. If nothing was recorded and the modification counter
+ * of the database did not change, the previous result is returned directly.
+ * <p>
+ * Changes that cannot be tracked on the level of single data sets, like
+ * changes of categories (which move all data sets in these categories),
+ * invalidate the tracked state so that the next request falls back to a full
+ * scan. The tracker only sees changes that are reported to the listeners of
+ * the database. Changes that are directly executed via native SQL are not
+ * reported, so callers that modify data sets that way must call
+ * {@link IDatabase#clearCache()} afterwards (which invalidates the tracked
+ * state), or the differences would be calculated from a stale state. When in
+ * doubt, {@link Diffs#withFullScan} always scans the complete database.
+ */
+public class ChangeTracker implements IDatabaseListener {
+
+	/**
+	 * When more data sets than this are changed, a full scan of the database
+	 * is done instead of checking the data sets one by one.
+	 */
+	private static final int MAX_TRACKED = 2000;
+
+	private static final Logger log = LoggerFactory.getLogger(ChangeTracker.class);
+	private final IDatabase database;
+	private final Object scanLock = new Object();
+
+	private TypedRefIdSet dirty = new TypedRefIdSet();
+	private int dirtyCount;
+	private long epoch;
+	private boolean scanning;
+	private Snapshot snapshot;
+
+	private ChangeTracker(IDatabase database) {
+		this.database = database;
+	}
+
+	/**
+	 * Returns the change tracker of the given database. There is only one
+	 * tracker per database which is registered as listener when it is
+	 * requested the first time.
+	 */
+	public static ChangeTracker of(IDatabase database) {
+		var listeners = database.listeners();
+		return listeners.shared(ChangeTracker.class, () -> {
+			var tracker = new ChangeTracker(database);
+			listeners.add(tracker);
+			return tracker;
+		});
+	}
+
+	/**
+	 * Returns the differences between the database and the HEAD commit of the
+	 * given repository. If there is no previous result for the repository, its
+	 * HEAD commit, and the given git index, the given function is called to
+	 * calculate the differences by a full scan of the database.
+	 */
+	public List<Diff> diffs(Repository repo, GitIndex gitIndex,
+			Supplier<List<Diff>> fullScan) {
+		synchronized (scanLock) {
+			var head = Repositories.headCommitOf(repo);
+			var headId = head != null ? head.getName() : null;
+			Snapshot base;
+			TypedRefIdSet changed;
+			long startEpoch;
+			long version;
+			synchronized (this) {
+				base = snapshot != null && snapshot.isFor(repo, gitIndex, headId)
+						? snapshot
+						: null;
+				version = database.listeners().version();
+				if (base != null && dirtyCount == 0 && base.version == version)
+					return new ArrayList<>(base.diffs);
+				changed = dirty;
+				dirty = new TypedRefIdSet();
+				dirtyCount = 0;
+				startEpoch = epoch;
+				scanning = true;
+			}
+
+			List<Diff> diffs = null;
+			try {
+				if (base != null) {
+					diffs = update(base.diffs, changed, repo, head, gitIndex);
+				}
+			} catch (Exception e) {
+				log.warn("failed to update tracked changes, running full scan", e);
+			}
+			if (diffs == null) {
+				diffs = fullScan.get();
+			}
+
+			synchronized (this) {
+				scanning = false;
+				snapshot = epoch == startEpoch
+						? new Snapshot(repo.getDirectory(), gitIndex, headId, version,
+								List.copyOf(diffs))
+						: null;
+			}
+			return diffs;
+		}
+	}
+
+	/**
+	 * Updates the tracked state after the given changes were committed on top
+	 * of the given previous HEAD commit. The remaining differences are then
+	 * still valid for the new HEAD commit.
+	 */
+	public synchronized void committed(Repository repo, GitIndex gitIndex,
+			String previousCommitId, String commitId, List<? extends ModelRef> changes) {
+		if (snapshot == null || commitId == null)
+			return;
+		if (!snapshot.isFor(repo, gitIndex, previousCommitId)) {
+			snapshot = null;
+			return;
+		}
+		var paths = new HashSet<String>();
+		for (var change : changes) {
+			paths.add(change.path);
+		}
+		var remaining = snapshot.diffs.stream()
+				.filter(diff -> !paths.contains(diff.path))
+				.toList();
+		snapshot = new Snapshot(snapshot.repoDir, gitIndex, commitId,
+				snapshot.version, remaining);
+	}
+
+	/**
+	 * Drops the tracked state so that the next request of the differences
+	 * results in a full scan of the database.
+	 */
+	public synchronized void invalidate() {
+		epoch++;
+		snapshot = null;
+		dirty = new TypedRefIdSet();
+		dirtyCount = 0;
+	}
+
+	@Override
+	public void modelInserted(Descriptor descriptor) {
+		track(descriptor);
+	}
+
+	@Override
+	public void modelUpdated(Descriptor descriptor) {
+		track(descriptor);
+	}
+
+	@Override
+	public void modelDeleted(Descriptor descriptor) {
+		track(descriptor);
+	}
+
+	@Override
+	public void databaseChanged() {
+		invalidate();
+	}
+
+	private synchronized void track(Descriptor d) {
+		if (d == null || d.type == null)
+			return;
+		if (snapshot == null && !scanning)
+			return;
+		if (d.type == ModelType.CATEGORY || dirtyCount >= MAX_TRACKED) {
+			invalidate();
+			return;
+		}
+		var ref = new TypedRefId(d.type, d.refId);
+		if (dirty.contains(ref))
+			return;
+		dirty.add(ref);
+		dirtyCount++;
+	}
+
+	private List<Diff> update(List<Diff> base, TypedRefIdSet changed,
+			Repository repo, RevCommit head, GitIndex gitIndex) throws IOException {
+		var diffs = new ArrayList<Diff>();
+		for (var diff : base) {
+			if (!changed.contains(diff)) {
+				diffs.add(diff);
+			}
+		}
+		if (changed.types().isEmpty())
+			return diffs;
+
+		var headRefs = headRefsOf(repo, head, changed);
+		var paths = Categories.pathsOf(database);
+		for (var type : changed.types()) {
+			var dao = Daos.root(database, type);
+			for (var refId : changed.get(type)) {
+				RootDescriptor d = dao.getDescriptorForRefId(refId);
+				var refs = headRefs.get(type, refId);
+				compare(d, refs, paths, gitIndex, diffs);
+			}
+		}
+		Collections.sort(diffs);
+		return diffs;
+	}
+
+	private void compare(RootDescriptor d, List<Reference> headRefs,
+			PathBuilder paths, GitIndex gitIndex, List<Diff> diffs) {
+		String path = null;
+		var objectId = ObjectId.zeroId();
+		if (d != null && !d.isFromLibrary()) {
+			path = gitIndex.getPath(paths, d);
+			var entry = gitIndex.get(path);
+			if (entry.objectId() != null
+					&& entry.version() == d.version
+					&& entry.lastChange() == d.lastChange) {
+				objectId = entry.objectId();
+			}
+		}
+		var found = false;
+		if (headRefs != null) {
+			for (var ref : headRefs) {
+				if (path == null || !ref.path.equals(new ModelRef(path).path)) {
+					diffs.add(new Diff(DiffType.DELETED, ref, null));
+					continue;
+				}
+				found = true;
+				if (!ref.objectId.equals(objectId)) {
+					var newRef = new Reference(path, null, objectId);
+					diffs.add(new Diff(DiffType.MODIFIED, ref, newRef));
+				}
+			}
+		}
+		if (path != null && !found) {
+			var newRef = new Reference(path, null, objectId);
+			diffs.add(new Diff(DiffType.ADDED, null, newRef));
+		}
+	}
+
+	/**
+	 * Collects the references of the given data sets in the HEAD commit in a
+	 * single tree walk. Usually, there is only one reference per data set but
+	 * we collect all of them to not miss duplicates in different categories.
+	 */
+	private TypedRefIdMap<List<Reference>> headRefsOf(
+			Repository repo, RevCommit head, TypedRefIdSet refs) throws IOException {
+		var map = new TypedRefIdMap<List<Reference>>();
+		if (head == null)
+			return map;
+		try (var walk = new TreeWalk(repo)) {
+			walk.addTree(head.getTree().getId());
+			walk.setRecursive(true);
+			walk.setFilter(new RefIdFilter(refs));
+			while (walk.next()) {
+				var path = GitUtil.decode(walk.getPathString());
+				// the binaries of a data set are written together with its
+				// data set file, they are not compared separately
+				if (GitUtil.findBinDir(path) != null)
+					continue;
+				var ref = new Reference(path, null, walk.getObjectId(0));
+				var list = map.get(ref);
+				if (list == null) {
+					list = new ArrayList<>(1);
+					map.put(ref, list);
+				}
+				list.add(ref);
+			}
+		}
+		return map;
+	}
+
+	private record Snapshot(File repoDir, GitIndex gitIndex, String headId,
+			long version, List<Diff> diffs) {
+
+		boolean isFor(Repository repo, GitIndex gitIndex, String headId) {
+			return this.gitIndex == gitIndex
+					&& Objects.equals(this.headId, headId)
+					&& Objects.equals(repoDir, repo.getDirectory());
+		}
+	}
+
+	/**
+	 * Only includes the model type folders, categories, data sets, and binary
+	 * folders ({@code <refId>_bin}) of the given references. The binary
+	 * folders of other data sets are skipped.
+	 */
+	private static class RefIdFilter extends TreeFilter {
+
+		private final Map<ModelType, Set<String>> names = new EnumMap<>(ModelType.class);
+		private final Set<String> typeNames = new HashSet<>();
+
+		RefIdFilter(TypedRefIdSet refs) {
+			for (var type : refs.types()) {
+				var set = new HashSet<String>();
+				for (var refId : refs.get(type)) {
+					set.add(refId + GitUtil.DATASET_SUFFIX);
+					set.add(refId + GitUtil.BIN_DIR_SUFFIX);
+				}
+				names.put(type, set);
+				typeNames.add(type.name());
+			}
+		}
+
+		@Override
+		public boolean include(TreeWalk walker)
+				throws MissingObjectException, IncorrectObjectTypeException, IOException {
+			var path = walker.getPathString();
+			if (walker.getDepth() == 0)
+				return walker.isSubtree() && typeNames.contains(path);
+			var type = ModelType.valueOf(path.substring(0, path.indexOf('/')));
+			var set = names.get(type);
+			if (set == null)
+				return false;
+			var binDir = GitUtil.findBinDir(path);
+			if (binDir != null)
+				return set.contains(binDir.substring(binDir.lastIndexOf('/') + 1));
+			var name = path.substring(path.lastIndexOf('/') + 1);
+			if (walker.isSubtree())
+				return !GitUtil.isBinDir(name) || set.contains(name);
+			return set.contains(name);
+		}
+
+		@Override
+		public boolean shouldBeRecursive() {
+			return false;
+		}
+
+		@Override
+		public TreeFilter clone() {
+			return this;
+		}
+	}
+}
@@ -2,6 +2,8 @@ package org.openlca.git.util;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -18,6 +20,7 @@ import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
 import org.eclipse.jgit.treewalk.filter.PathFilter;
 import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.ModelType;
 import org.openlca.git.GitIndex;
 import org.openlca.git.find.Commits;
 import org.openlca.git.find.KnownFilesFilter;
@@ -55,14 +58,55 @@ public class Diffs {
 		return this;
 	}
 
+	/**
+	 * Returns the differences between the database and the commit of this
+	 * instance (or the HEAD commit if no commit was specified). When the
+	 * differences to the HEAD commit are requested without path filters, the
+	 * changes that were tracked since the last request are used to update the
+	 * previous result (see {@link ChangeTracker}). Otherwise, a full scan is
+	 * done.
+	 */
 	public List<Diff> with(IDatabase database, GitIndex gitIndex) {
+		var filter = paths != null
+				? paths.stream().distinct().toList()
+				: new ArrayList<String>();
+		if (commit != null || gitIndex == null || !filter.isEmpty())
+			return scan(database, gitIndex, filter);
+		return ChangeTracker.of(database).diffs(repo, gitIndex,
+				() -> scan(database, gitIndex, filter));
+	}
+
+	/**
+	 * Returns the differences between the database and the commit of this
+	 * instance (or the HEAD commit if no commit was specified) by scanning the
+	 * complete database. The model types are scanned in parallel. This can be
+	 * used to verify the result of {@link #with(IDatabase, GitIndex)}.
+	 */
+	public List<Diff> withFullScan(IDatabase database, GitIndex gitIndex) {
+		var filter = paths != null
+				? paths.stream().distinct().toList()
+				: new ArrayList<String>();
+		return scan(database, gitIndex, filter);
+	}
+
+	private List<Diff> scan(IDatabase database, GitIndex gitIndex, List<String> paths) {
+		return Arrays.stream(ModelType.values())
+				.filter(type -> type != ModelType.CATEGORY)
+				.sorted(Comparator.comparing(type -> type.name() + "/"))
+				.toList()
+				.parallelStream()
+				.map(type -> scan(database, gitIndex, type, paths))
+				.flatMap(List::stream)
+				.collect(Collectors.toList());
+	}
+
+	private List<Diff> scan(IDatabase database, GitIndex gitIndex, ModelType type,
+			List<String> paths) {
 		try (var walk = new TreeWalk(repo)) {
 			addTree(repo, walk, commit, true);
-			walk.addTree(new DatabaseIterator(database, gitIndex));
-			if (paths == null) {
-				paths = new ArrayList<>();
-			}
-			walk.setFilter(getPathsFilter(paths.stream().distinct().toList()));
+			walk.addTree(new DatabaseIterator(database, gitIndex, type));
+			walk.setFilter(AndTreeFilter.create(
+					getPathsFilter(paths), PathFilter.create(type.name())));
 			walk.setRecursive(true);
 			return scan(walk, e -> map(e, commit, null));
 		} catch (IOException e) {
@@ -3,12 +3,15 @@ package org.openlca.git.util;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
+import org.openlca.git.find.CommitGraph;
 import org.openlca.git.find.Commits;
 import org.openlca.git.model.Commit;
 
 public class History {
 
+	private final Repository repo;
 	private final Commits commits;
 	private final String ref;
 
@@ -25,6 +28,7 @@ public class History {
 	}
 
 	private History(Repository repo, String ref) {
+		this.repo = repo;
 		this.commits = Commits.of(repo);
 		this.ref = ref;
 	}
@@ -34,6 +38,19 @@ public class History {
 	}
 
 	public boolean contains(Commit commit) {
+		if (commit == null)
+			return false;
+		try {
+			var tip = repo.resolve(ref);
+			if (tip == null)
+				return false;
+			var commitId = ObjectId.fromString(commit.id);
+			var graph = CommitGraph.of(repo);
+			if (graph.contains(tip) && graph.contains(commitId))
+				return graph.isReachable(tip, commitId);
+		} catch (Exception e) {
+			// fall back to the commit history
+		}
 		return get().contains(commit);
 	}
 
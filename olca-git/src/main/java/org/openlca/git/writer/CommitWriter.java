@@ -1,6 +1,7 @@
 package org.openlca.git.writer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 
@@ -250,6 +251,12 @@ public abstract class CommitWriter {
 		return objectInserter.insert(Constants.OBJ_BLOB, blob);
 	}
 
+	private ObjectId insertBlob(ByteBuffer blob) throws IOException {
+		var inserter = packInserter != null ? packInserter : objectInserter;
+		return inserter.insert(Constants.OBJ_BLOB, blob.array(),
+				blob.arrayOffset() + blob.position(), blob.remaining());
+	}
+
 	private boolean matches(String path, Change change, String filePath) {
 		if (change == null)
 			return false;
@@ -321,6 +328,10 @@ public abstract class CommitWriter {
 		return List.of();
 	}
 
-	protected abstract byte[] getData(Change change) throws IOException;
+	/**
+	 * Returns the data of the given change; the remaining bytes of the
+	 * returned buffer are inserted as blob without copying them.
+	 */
+	protected abstract ByteBuffer getData(Change change) throws IOException;
 
 }
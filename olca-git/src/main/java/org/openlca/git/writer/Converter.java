@@ -1,20 +1,23 @@
 package org.openlca.git.writer;
 
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.Callback.Message;
 import org.openlca.core.model.ModelType;
 import org.openlca.core.model.RootEntity;
 import org.openlca.git.model.Change;
 import org.openlca.git.model.DiffType;
 import org.openlca.git.util.GitUtil;
+import org.openlca.jsonld.DataSetOutput;
 import org.openlca.jsonld.Json;
 import org.openlca.jsonld.JsonStoreWriter;
 import org.openlca.jsonld.output.JsonExport;
@@ -24,7 +27,6 @@ import org.slf4j.LoggerFactory;
 import org.thavam.util.concurrent.blockingMap.BlockingHashMap;
 import org.thavam.util.concurrent.blockingMap.BlockingMap;
 
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
 /**
@@ -39,13 +41,16 @@ import com.google.gson.JsonObject;
  * Expects all entries that are converted also to be taken in the same order,
  * otherwise runs into deadlock.
  * 
- * Product systems are not queued, but converted on demand, because the
- * JsonObjects during conversion take to much memory
+ * Large data sets like processes and product systems are streamed directly
+ * into byte buffers (see {@link #openJson(RootEntity)}) instead of creating
+ * their complete JsonObject trees, because these can take too much memory.
+ * For the same reason, product systems are not queued, but converted on
+ * demand one after another.
  */
 class Converter implements JsonStoreWriter {
 
 	private static final Logger log = LoggerFactory.getLogger(Converter.class);
-	private final BlockingMap<String, byte[]> queue = new BlockingHashMap<>();
+	private final BlockingMap<String, ByteBuffer> queue = new BlockingHashMap<>();
 	private final IDatabase database;
 	private final ExecutorService threads;
 	private final Deque<Change> changes = new LinkedList<>();
@@ -107,37 +112,64 @@ class Converter implements JsonStoreWriter {
 			return;
 		try {
 			var model = database.get(change.type.getModelClass(), change.refId);
-			convert(model);
+			if (!convert(model)) {
+				put(change.path, new byte[0]);
+			}
 		} catch (Exception e) {
 			log.error("failed to convert data set " + change, e);
 			put(change.path, new byte[0]);
 		}
 	}
 
-	private void convert(RootEntity entity) {
+	/**
+	 * Writes the given entity into the queue. Returns false when the entity
+	 * does not exist or when writing it failed, so that no data were added to
+	 * the queue.
+	 */
+	private boolean convert(RootEntity entity) {
 		if (entity == null)
-			return;
-		try {
-			export.write(entity);
-		} catch (Exception e) {
-			log.error("failed to serialize " + entity, e);
-		}
+			return false;
+		var failed = new AtomicBoolean();
+		export.write(entity, (message, data) -> {
+			if (message.type != Message.ERROR)
+				return;
+			log.error("failed to serialize " + entity, message.error);
+			failed.set(true);
+		});
+		return !failed.get();
 	}
 
 	@Override
 	public void put(ModelType type, JsonObject object) {
-		var path = type.name() + "/";
 		var category = Json.getString(object, "category");
 		var refId = Json.getString(object, "@id");
+		put(pathOf(type, category, refId), object);
+	}
+
+	@Override
+	public DataSetOutput openJson(RootEntity entity) {
+		var type = ModelType.of(entity);
+		var category = entity.category != null
+				? entity.category.toPath()
+				: null;
+		var path = pathOf(type, category, entity.refId);
+		return DataSetOutput.buffered(data -> put(path, data));
+	}
+
+	private String pathOf(ModelType type, String category, String refId) {
+		var path = type.name() + "/";
 		if (!Strings.nullOrEmpty(category)) {
 			path += category + "/";
 		}
-		path += refId + GitUtil.DATASET_SUFFIX;
-		put(path, object);
+		return path + refId + GitUtil.DATASET_SUFFIX;
 	}
 
 	@Override
 	public void put(String path, byte[] data) {
+		put(path, ByteBuffer.wrap(data));
+	}
+
+	private void put(String path, ByteBuffer data) {
 		try {
 			queue.offer(path, data);
 		} catch (InterruptedException e) {
@@ -145,22 +177,18 @@ class Converter implements JsonStoreWriter {
 		}
 	}
 
-	byte[] take(String path) throws InterruptedException {
-		if (systems.containsKey(path))
-			return convertProductSystem(systems.get(path));
-		byte[] data = queue.take(path);
+	ByteBuffer take(String path) throws InterruptedException {
+		var system = systems.remove(path);
+		if (system != null) {
+			convert(system);
+			return queue.take(path);
+		}
+		var data = queue.take(path);
 		queueSize.decrementAndGet();
 		startNext();
 		return data;
 	}
 
-	private byte[] convertProductSystem(Change change) {
-		var model = database.get(change.type.getModelClass(), change.refId);
-		var object = export.getWriter(model).write(model);
-		var json = new Gson().toJson(object);
-		return json.getBytes(StandardCharsets.UTF_8);
-	}
-
 	void clear() {
 		queue.clear();
 	}
@@ -2,6 +2,7 @@ package org.openlca.git.writer;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -168,7 +169,7 @@ public class DbCommitWriter extends CommitWriter {
 	}
 
 	@Override
-	protected byte[] getData(Change change) {
+	protected ByteBuffer getData(Change change) {
 		try {
 			return converter.take(change.path);
 		} catch (InterruptedException e) {
@@ -0,0 +1,170 @@
+package org.openlca.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.core.database.FileStore;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.git.actions.GitCommit;
+import org.openlca.git.model.Diff;
+import org.openlca.git.model.DiffType;
+import org.openlca.git.util.Diffs;
+import org.openlca.git.util.GitUtil;
+import org.openlca.git.util.Repositories;
+import org.openlca.util.Dirs;
+
+public class ChangeTrackerTest {
+
+	private final IDatabase db = Tests.db();
+	private File dir;
+	private Repository repo;
+	private GitIndex gitIndex;
+
+	@Before
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("_olca_git_tracker").toFile();
+		repo = Repositories.open(new File(dir, "repo"));
+		gitIndex = GitIndex.fromFile(new File(dir, "git.index"));
+	}
+
+	@After
+	public void tearDown() {
+		repo.close();
+		Dirs.delete(dir);
+	}
+
+	@Test
+	public void testTrackedChanges() throws Exception {
+		check();
+
+		// insert
+		var units = db.insert(UnitGroup.of("Units of mass", "kg"));
+		var diff = check(units.refId);
+		assertEquals(DiffType.ADDED, diff.diffType);
+
+		// commit
+		var commitId = GitCommit.from(db)
+				.to(repo)
+				.update(gitIndex)
+				.as(new PersonIdent("user", "user@example.com"))
+				.withMessage("initial commit")
+				.run();
+		assertNotNull(commitId);
+		assertTrue(ids(check()).isEmpty());
+
+		// update
+		units.lastChange = System.currentTimeMillis() + 1;
+		units = db.update(units);
+		diff = check(units.refId);
+		assertEquals(DiffType.MODIFIED, diff.diffType);
+
+		// delete
+		db.delete(units);
+		diff = check(units.refId);
+		assertEquals(DiffType.DELETED, diff.diffType);
+	}
+
+	@Test
+	public void testFileAttachments() throws Exception {
+		check();
+		var units = db.insert(UnitGroup.of("Units of length", "m"));
+		var folder = new FileStore(db).getFolder(units);
+		Files.createDirectories(folder.toPath());
+		var file = new File(folder, "doc.txt");
+		Files.writeString(file.toPath(), "v1");
+		assertEquals(DiffType.ADDED, check(units.refId).diffType);
+		commit("add attachment");
+		assertTrue(ids(check()).isEmpty());
+		assertEquals("v1", headFile(units, "doc.txt"));
+
+		// update the attachment together with the data set
+		Files.writeString(file.toPath(), "v2");
+		units.lastChange = System.currentTimeMillis() + 1;
+		units = db.update(units);
+		assertEquals(DiffType.MODIFIED, check(units.refId).diffType);
+		commit("update attachment");
+		assertTrue(ids(check()).isEmpty());
+		assertEquals("v2", headFile(units, "doc.txt"));
+
+		// delete the data set with its attachment
+		db.delete(units);
+		Dirs.delete(folder);
+		assertEquals(DiffType.DELETED, check(units.refId).diffType);
+		commit("delete attachment");
+		assertTrue(ids(check()).isEmpty());
+		assertNull(headFile(units, "doc.txt"));
+	}
+
+	private void commit(String message) throws Exception {
+		var commitId = GitCommit.from(db)
+				.to(repo)
+				.update(gitIndex)
+				.as(new PersonIdent("user", "user@example.com"))
+				.withMessage(message)
+				.run();
+		assertNotNull(commitId);
+	}
+
+	/**
+	 * Returns the content of the given attachment of the data set in the HEAD
+	 * commit, or null if it does not exist.
+	 */
+	private String headFile(RootEntity e, String name) throws Exception {
+		var head = Repositories.headCommitOf(repo);
+		try (var walk = new TreeWalk(repo)) {
+			walk.addTree(head.getTree());
+			walk.setRecursive(true);
+			while (walk.next()) {
+				var path = walk.getPathString();
+				if (path.endsWith("/" + e.refId + GitUtil.BIN_DIR_SUFFIX + "/" + name))
+					return new String(repo.open(walk.getObjectId(0)).getBytes(),
+							StandardCharsets.UTF_8);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks that the tracked changes are the same as the changes of a full
+	 * scan and returns the diff of the given data set.
+	 */
+	private Diff check(String refId) {
+		var diffs = check();
+		var matches = diffs.stream()
+				.filter(d -> refId.equals(d.refId))
+				.toList();
+		assertEquals(1, matches.size());
+		return matches.get(0);
+	}
+
+	private List<Diff> check() {
+		var tracked = Diffs.of(repo).with(db, gitIndex);
+		var scanned = Diffs.of(repo).withFullScan(db, gitIndex);
+		assertEquals(ids(scanned), ids(tracked));
+		return tracked;
+	}
+
+	private Set<String> ids(List<Diff> diffs) {
+		return diffs.stream()
+				.map(d -> d.diffType + ":" + d.path + ":"
+						+ d.oldObjectId.name() + ":" + d.newObjectId.name())
+				.collect(Collectors.toSet());
+	}
+}
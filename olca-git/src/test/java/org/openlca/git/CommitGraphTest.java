@@ -0,0 +1,131 @@
+package org.openlca.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.core.database.IDatabase;
+import org.openlca.core.model.ModelType;
+import org.openlca.core.model.UnitGroup;
+import org.openlca.git.actions.GitCommit;
+import org.openlca.git.find.CommitGraph;
+import org.openlca.git.find.Commits;
+import org.openlca.git.find.References;
+import org.openlca.git.model.Commit;
+import org.openlca.git.util.History;
+import org.openlca.git.util.Repositories;
+import org.openlca.util.Dirs;
+
+public class CommitGraphTest {
+
+	private final IDatabase db = Tests.db();
+	private File dir;
+	private Repository repo;
+	private GitIndex gitIndex;
+	private UnitGroup mass;
+	private UnitGroup energy;
+
+	@Before
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("_olca_git_graph").toFile();
+		repo = Repositories.open(new File(dir, "repo"));
+		gitIndex = GitIndex.fromFile(new File(dir, "git.index"));
+	}
+
+	@After
+	public void tearDown() {
+		repo.close();
+		Dirs.delete(dir);
+		if (mass != null) {
+			db.delete(mass);
+		}
+		if (energy != null) {
+			db.delete(energy);
+		}
+	}
+
+	@Test
+	public void testFindChanges() throws Exception {
+		mass = db.insert(UnitGroup.of("Units of mass", "kg"));
+		var c1 = commit("add mass");
+		energy = db.insert(UnitGroup.of("Units of energy", "MJ"));
+		var c2 = commit("add energy");
+		mass.description = "changed";
+		mass.lastChange = System.currentTimeMillis() + 1;
+		mass = db.update(mass);
+		var c3 = commit("update mass");
+
+		assertTrue(new File(repo.getDirectory(), CommitGraph.FILE_NAME).exists());
+		check(c1, c2, c3);
+
+		// a deleted graph file is rebuilt
+		new File(repo.getDirectory(), CommitGraph.FILE_NAME).delete();
+		var graph = CommitGraph.of(repo);
+		assertTrue(graph.contains(ObjectId.fromString(c3)));
+		assertEquals(3, graph.generationOf(ObjectId.fromString(c3)));
+		assertTrue(graph.isReachable(
+				ObjectId.fromString(c3), ObjectId.fromString(c1)));
+		assertFalse(graph.isReachable(
+				ObjectId.fromString(c1), ObjectId.fromString(c3)));
+		check(c1, c2, c3);
+	}
+
+	private void check(String c1, String c2, String c3) throws Exception {
+		var commits = Commits.of(repo);
+		assertEquals(List.of(c1, c3), ids(commits.find()
+				.model(ModelType.UNIT_GROUP, mass.refId)
+				.all()));
+		assertEquals(List.of(c2), ids(commits.find()
+				.model(ModelType.UNIT_GROUP, energy.refId)
+				.all()));
+		assertEquals(List.of(c3), ids(commits.find()
+				.after(c1)
+				.model(ModelType.UNIT_GROUP, mass.refId)
+				.all()));
+		assertEquals(c3, commits.find()
+				.model(ModelType.UNIT_GROUP, mass.refId)
+				.latestId());
+
+		// the reference of an unchanged data set points to the same object
+		var refs = References.of(repo);
+		var r1 = refs.get(ModelType.UNIT_GROUP, mass.refId, c1);
+		var r2 = refs.get(ModelType.UNIT_GROUP, mass.refId, c2);
+		var r3 = refs.get(ModelType.UNIT_GROUP, mass.refId, c3);
+		assertNotNull(r1);
+		assertEquals(c2, r2.commitId);
+		assertEquals(r1.objectId, r2.objectId);
+		assertFalse(r1.objectId.equals(r3.objectId));
+		assertNull(refs.get(ModelType.UNIT_GROUP, energy.refId, c1));
+
+		var history = History.of(repo, repo.getFullBranch());
+		assertTrue(history.contains(commits.get(c1)));
+		assertEquals(3, history.get().size());
+	}
+
+	private String commit(String message) throws Exception {
+		return GitCommit.from(db)
+				.to(repo)
+				.update(gitIndex)
+				.as(new PersonIdent("user", "user@example.com"))
+				.withMessage(message)
+				.run();
+	}
+
+	private List<String> ids(List<Commit> commits) {
+		return commits.stream()
+				.map(c -> c.id)
+				.toList();
+	}
+}
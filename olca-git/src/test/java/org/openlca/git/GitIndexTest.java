@@ -0,0 +1,158 @@
+package org.openlca.git;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.Set;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.util.Dirs;
+
+public class GitIndexTest {
+
+	private File dir;
+	private File file;
+
+	@Before
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("_olca_git_index").toFile();
+		file = new File(dir, "git.index");
+	}
+
+	@After
+	public void tearDown() {
+		Dirs.delete(dir);
+	}
+
+	@Test
+	public void testSaveAndLoad() throws Exception {
+		var index = GitIndex.fromFile(file);
+		index.putRoot(id(1));
+		index.put("PROCESS", id(2));
+		index.put("PROCESS/a.json", 3, 42, id(3));
+		index.put("PROCESS/b/c.json", 4, 43, id(4));
+		index.save();
+
+		// changes after the first save are written to the log
+		index.put("PROCESS/d.json", 5, 44, id(5));
+		index.remove("PROCESS/a.json");
+		index.save();
+		assertTrue(new File(dir, "git.index.log").exists());
+
+		var copy = GitIndex.fromFile(file);
+		assertEquals(id(1), copy.getRoot().objectId());
+		assertEquals(id(2), copy.get("PROCESS").objectId());
+		assertFalse(copy.has("PROCESS/a.json"));
+		var c = copy.get("PROCESS/b/c.json");
+		assertEquals(4, c.version());
+		assertEquals(43, c.lastChange());
+		assertEquals(id(4), c.objectId());
+		assertEquals(id(5), copy.get("PROCESS/d.json").objectId());
+		assertEquals(Set.of("PROCESS/d.json"), copy.getSubPaths("PROCESS"));
+		assertEquals(Set.of("PROCESS"), copy.getSubPaths(""));
+	}
+
+	@Test
+	public void testCompaction() throws Exception {
+		var index = GitIndex.fromFile(file);
+		index.putRoot(id(1));
+		index.save();
+
+		int n = 5000;
+		for (int i = 0; i < n; i++) {
+			index.put("FLOW/f" + i + ".json", i, i, id(i + 10));
+		}
+		index.save();
+		assertFalse(new File(dir, "git.index.log").exists());
+
+		var copy = GitIndex.fromFile(file);
+		for (int i = 0; i < n; i++) {
+			var entry = copy.get("FLOW/f" + i + ".json");
+			assertEquals(i, entry.version());
+			assertEquals(id(i + 10), entry.objectId());
+		}
+		assertEquals(n, copy.getSubPaths("FLOW").size());
+	}
+
+	@Test
+	public void testInvalidate() throws Exception {
+		var index = GitIndex.fromFile(file);
+		index.putRoot(id(1));
+		index.put("PROCESS", id(2));
+		index.put("PROCESS/a.json", 1, 1, id(3));
+		index.save();
+
+		index.invalidate("PROCESS/a.json");
+		index.save();
+		var copy = GitIndex.fromFile(file);
+		assertFalse(copy.has(""));
+		assertFalse(copy.has("PROCESS"));
+		assertFalse(copy.has("PROCESS/a.json"));
+		assertEquals(1, copy.get("PROCESS/a.json").version());
+	}
+
+	@Test
+	public void testClear() throws Exception {
+		var index = GitIndex.fromFile(file);
+		index.put("PROCESS/a.json", 1, 1, id(3));
+		index.save();
+		index.clear();
+		index.put("FLOW/b.json", 1, 1, id(4));
+		index.save();
+
+		var copy = GitIndex.fromFile(file);
+		assertFalse(copy.has("PROCESS/a.json"));
+		assertTrue(copy.has("FLOW/b.json"));
+	}
+
+	@Test
+	public void testGenerations() throws Exception {
+		var index = GitIndex.fromFile(file);
+		index.putRoot(id(1));
+		index.save();
+		index.clear();
+		index.putRoot(id(2));
+		index.save();
+
+		// the index file only points to the current table and the older
+		// table is deleted (it cannot be deleted while it is mapped on
+		// Windows, but this is not the case in this test)
+		assertEquals(16, file.length());
+		var tables = dir.list((d, name) -> name.matches("git\\.index\\.\\d+"));
+		assertEquals(1, tables.length);
+		assertEquals(id(2), GitIndex.fromFile(file).getRoot().objectId());
+	}
+
+	@Test
+	public void testCorruptLog() throws Exception {
+		var index = GitIndex.fromFile(file);
+		index.putRoot(id(1));
+		index.save();
+		index.put("PROCESS", id(2));
+		index.save();
+
+		// append a record with an invalid path length
+		var log = new File(dir, "git.index.log");
+		try (var out = new DataOutputStream(new FileOutputStream(log, true))) {
+			out.writeByte(1);
+			out.writeInt(Integer.MAX_VALUE - 8);
+			out.write(new byte[16]);
+		}
+		var copy = GitIndex.fromFile(file);
+		assertEquals(id(1), copy.getRoot().objectId());
+		assertEquals(id(2), copy.get("PROCESS").objectId());
+	}
+
+	private ObjectId id(int i) {
+		var hex = String.format("%040x", i);
+		return ObjectId.fromString(hex);
+	}
+}
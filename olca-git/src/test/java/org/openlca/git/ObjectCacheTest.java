@@ -0,0 +1,72 @@
+package org.openlca.git;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openlca.git.find.ObjectCache;
+import org.openlca.git.util.Repositories;
+import org.openlca.util.Dirs;
+
+public class ObjectCacheTest {
+
+	private File dir;
+	private Repository repo;
+
+	@Before
+	public void setup() throws Exception {
+		dir = Files.createTempDirectory("_olca_git_cache").toFile();
+		repo = Repositories.open(new File(dir, "repo"));
+	}
+
+	@After
+	public void tearDown() {
+		repo.close();
+		Dirs.delete(dir);
+	}
+
+	@Test
+	public void testPrefetch() throws Exception {
+		var ids = new ArrayList<ObjectId>();
+		var data = new ArrayList<byte[]>();
+		try (var inserter = repo.newObjectInserter()) {
+			for (int i = 0; i < 50; i++) {
+				var bytes = ("{\"@id\": \"" + i + "\"}").getBytes(StandardCharsets.UTF_8);
+				ids.add(inserter.insert(Constants.OBJ_BLOB, bytes));
+				data.add(bytes);
+			}
+			inserter.flush();
+		}
+
+		// loose objects
+		check(ObjectCache.of(repo), ids, data);
+
+		// after gc; without an expiry date, unreachable objects are not pruned
+		Git.wrap(repo).gc().setExpire(null).call();
+		check(ObjectCache.of(repo), ids, data);
+
+		// a small cache evicts objects but still returns them
+		check(ObjectCache.of(repo, 64), ids, data);
+
+		assertNull(ObjectCache.of(repo).get(ObjectId.zeroId()));
+	}
+
+	private void check(ObjectCache cache, List<ObjectId> ids, List<byte[]> data) {
+		cache.prefetch(ids);
+		for (int i = ids.size() - 1; i >= 0; i--) {
+			assertArrayEquals(data.get(i), cache.get(ids.get(i)));
+		}
+	}
+}
@@ -48,8 +48,7 @@ public class EcoSpold2Import implements Import {
 			log.info("files is null, nothing to do");
 			return;
 		}
-		RefDataIndex index = importRefData(files);
-		importProcesses(files, index);
+		importDataSets(files);
 
 		// expand ISIC category trees
 		log.info("expand ISIC categories");
@@ -61,30 +60,27 @@ public class EcoSpold2Import implements Import {
 		config.db.getEntityFactory().getCache().evictAll();
 	}
 
-	private RefDataIndex importRefData(File[] files) {
-		log.info("import reference data");
-		var imp = new RefDataImport(config);
-		try (var it = new DataSetIterator(files)) {
+	/**
+	 * Imports the reference data and processes of the data sets in a single
+	 * pass over the files. The data sets are parsed in parallel but imported
+	 * in the order of the files: the reference data of a data set are imported
+	 * before its process, so that the process can link to them. The processes
+	 * are then written in batches.
+	 */
+	private void importDataSets(File[] files) {
+		log.info("import reference data and processes");
+		var refData = new RefDataImport(config);
+		var processes = new ProcessImport(refData.getIndex(), config);
+		try (var it = new ParallelDataSetIterator(files, config.threads)) {
 			while (!canceled && it.hasNext()) {
 				var dataSet = it.next();
-				imp.importDataSet(dataSet);
+				refData.importDataSet(dataSet);
+				processes.importDataSet(dataSet);
 			}
 		} catch (Exception e) {
-			log.error("reference data import failed", e);
-		}
-		return imp.getIndex();
-	}
-
-	private void importProcesses(File[] files, RefDataIndex index) {
-		log.info("import processes");
-		var imp = new ProcessImport(index, config);
-		try (var it = new DataSetIterator(files)) {
-			while (!canceled && it.hasNext()) {
-				var dataSet = it.next();
-				imp.importDataSet(dataSet);
-			}
-		} catch (Exception e) {
-			log.error("process import failed", e);
+			log.error("data set import failed", e);
+		} finally {
+			processes.flush();
 		}
 	}
 }
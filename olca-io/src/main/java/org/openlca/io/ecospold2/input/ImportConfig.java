@@ -5,6 +5,7 @@ import java.util.Map;
 
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.io.ImportLog;
+import org.openlca.core.io.ImportPipeline;
 import org.openlca.core.io.maps.FlowMap;
 import org.openlca.core.io.maps.FlowMapEntry;
 
@@ -36,6 +37,17 @@ public class ImportConfig {
 	 */
 	public boolean checkFormulas = false;
 
+	/**
+	 * The number of threads that are used for parsing the data sets. The data
+	 * sets are still imported in the order of the files.
+	 */
+	public int threads = ImportPipeline.defaultThreadCount();
+
+	/**
+	 * The number of processes that are written in one transaction.
+	 */
+	public int batchSize = 100;
+
 	public final IDatabase db;
 	private final ImportLog log = new ImportLog();
 	private Map<String, FlowMapEntry> flowMap;
@@ -0,0 +1,151 @@
+package org.openlca.io.ecospold2.input;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+
+import org.openlca.util.ZipFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import spold2.DataSet;
+import spold2.EcoSpold2;
+
+/**
+ * Iterates over the data sets of a set of SPOLD and ZIP files like the
+ * {@link DataSetIterator} but parses the data sets in parallel. The data sets
+ * are returned in the same order as they are returned by the
+ * {@link DataSetIterator}. Only a bounded window of data sets is parsed in
+ * advance so that the memory usage does not grow with the number of files.
+ */
+class ParallelDataSetIterator implements Iterator<DataSet>, Closeable {
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+
+	private final List<ZipFile> zips = new ArrayList<>();
+	private final List<Callable<DataSet>> tasks = new ArrayList<>();
+	private final ArrayDeque<Future<DataSet>> window = new ArrayDeque<>();
+	private final ExecutorService pool;
+	private final int windowSize;
+	private int nextTask;
+	private DataSet next;
+
+	ParallelDataSetIterator(File[] files, int threads) {
+		int n = Math.max(1, threads);
+		pool = Executors.newFixedThreadPool(n);
+		windowSize = 4 * n;
+		if (files != null) {
+			for (var file : files) {
+				collectTasks(file);
+			}
+		}
+		moveNext();
+	}
+
+	private void collectTasks(File file) {
+		if (file == null)
+			return;
+		var name = file.getName().toLowerCase();
+		if (name.endsWith(".spold")) {
+			tasks.add(() -> EcoSpold2.read(file).activity());
+			return;
+		}
+		if (!name.endsWith(".zip")) {
+			log.trace("ignore file {}", file);
+			return;
+		}
+		try {
+			var zip = ZipFiles.open(file);
+			zips.add(zip);
+			var entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				var entry = entries.nextElement();
+				if (entry.isDirectory()
+						|| !entry.getName().toLowerCase().endsWith(".spold"))
+					continue;
+				tasks.add(() -> {
+					try (var stream = zip.getInputStream(entry)) {
+						return EcoSpold2.read(stream).activity();
+					}
+				});
+			}
+		} catch (Exception e) {
+			log.error("failed to open Zip file " + file, e);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return next != null;
+	}
+
+	@Override
+	public DataSet next() {
+		if (next == null)
+			throw new NoSuchElementException();
+		var current = next;
+		moveNext();
+		return current;
+	}
+
+	private void moveNext() {
+		next = null;
+		while (next == null) {
+			fillWindow();
+			var future = window.poll();
+			if (future == null)
+				return;
+			try {
+				next = future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				log.error("failed to read data set", e);
+			}
+		}
+	}
+
+	private void fillWindow() {
+		while (window.size() < windowSize && nextTask < tasks.size()) {
+			var task = tasks.get(nextTask);
+			tasks.set(nextTask, null);
+			nextTask++;
+			window.add(pool.submit(task));
+		}
+	}
+
+	@Override
+	public void close() {
+		next = null;
+		pool.shutdownNow();
+		window.clear();
+		tasks.clear();
+		// wait for running tasks before closing the zip files they read from
+		try {
+			if (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+				log.warn("data set readers did not terminate in time");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		for (var zip : zips) {
+			try {
+				zip.close();
+			} catch (Exception e) {
+				log.error("failed to close zip file " + zip.getName(), e);
+			}
+		}
+		zips.clear();
+	}
+}
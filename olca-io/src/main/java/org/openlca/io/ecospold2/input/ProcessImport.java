@@ -2,6 +2,7 @@ package org.openlca.io.ecospold2.input;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -51,6 +52,12 @@ class ProcessImport {
 	 */
 	private final HashMap<String, List<Exchange>> linkQueue = new HashMap<>();
 
+	/**
+	 * Processes that are not written yet and their reference IDs.
+	 */
+	private final List<Process> batch = new ArrayList<>();
+	private final HashSet<String> pending = new HashSet<>();
+
 	ProcessImport(RefDataIndex index, ImportConfig config) {
 		this.log = config.log();
 		this.index = index;
@@ -80,7 +87,7 @@ class ProcessImport {
 		Activity activity = Spold2.getActivity(ds);
 		try {
 			String refId = RefId.forProcess(ds);
-			boolean contains = dao.contains(refId);
+			boolean contains = pending.contains(refId) || dao.contains(refId);
 			if (contains) {
 				log.info("process '" + activity.id + "' is already in the database");
 				return;
@@ -154,9 +161,97 @@ class ProcessImport {
 
 		p.exchangeDqSystem = dqSystem;
 		new DocImportMapper(config.db).map(ds, p);
-		new ProcessDao(config.db).insert(p);
-		index.putProcessId(refId, p.id);
-		flushLinkQueue(p);
+		batch.add(p);
+		pending.add(refId);
+		if (batch.size() >= config.batchSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes the processes that are not written yet in a single transaction.
+	 * If this transaction fails, the processes are written one by one so that
+	 * a single invalid data set does not drop the complete batch. This must be
+	 * called when all data sets were imported.
+	 */
+	void flush() {
+		if (batch.isEmpty())
+			return;
+		var processes = new ArrayList<>(batch);
+		batch.clear();
+		pending.clear();
+		try {
+			write(processes);
+			return;
+		} catch (Exception e) {
+			if (processes.size() == 1) {
+				dropped(processes.get(0), e);
+				return;
+			}
+			log.warn("failed to write a batch of " + processes.size()
+					+ " processes, writing them one by one: " + e.getMessage());
+		}
+		for (var p : processes) {
+			try {
+				write(List.of(p));
+			} catch (Exception e) {
+				dropped(p, e);
+			}
+		}
+	}
+
+	private void dropped(Process p, Exception e) {
+		log.error("Failed to write process " + p.refId + " (" + p.name + ")", e);
+	}
+
+	private void write(List<Process> processes) {
+		var updates = new ArrayList<Exchange>();
+		try {
+			config.db.transaction(em -> {
+				processes.forEach(em::persist);
+				// the IDs are assigned now; exchanges of processes in this
+				// batch that wait for a provider of this batch are updated
+				// directly in this transaction
+				for (var p : processes) {
+					var queued = linkQueue.get(p.refId);
+					if (queued == null)
+						continue;
+					for (var e : queued) {
+						e.defaultProviderId = p.id;
+						if (!em.contains(e)) {
+							updates.add(e);
+						}
+					}
+				}
+			});
+		} catch (Exception e) {
+			// the provider IDs of the rolled back transaction are not valid;
+			// the links stay in the queue for a next attempt
+			for (var p : processes) {
+				var queued = linkQueue.get(p.refId);
+				if (queued == null)
+					continue;
+				for (var q : queued) {
+					q.defaultProviderId = 0;
+				}
+			}
+			throw e;
+		}
+
+		for (var p : processes) {
+			index.putProcessId(p.refId, p.id);
+			linkQueue.remove(p.refId);
+		}
+		if (updates.isEmpty())
+			return;
+		try {
+			var exchanges = new ExchangeDao(config.db);
+			for (var e : updates) {
+				exchanges.update(e);
+			}
+		} catch (Exception e) {
+			log.error("failed to update default provider", e);
+		}
 	}
 
 	private void handleParameters(DataSet dataSet, Process process) {
@@ -181,21 +276,6 @@ class ProcessImport {
 		}
 	}
 
-	private void flushLinkQueue(Process process) {
-		List<Exchange> exchanges = linkQueue.remove(process.refId);
-		if (exchanges == null || process.id == 0)
-			return;
-		try {
-			ExchangeDao dao = new ExchangeDao(config.db);
-			for (Exchange exchange : exchanges) {
-				exchange.defaultProviderId = process.id;
-				dao.update(exchange);
-			}
-		} catch (Exception e) {
-			log.error("failed to update default provider", e);
-		}
-	}
-
 	private void createElementaryExchanges(DataSet ds, Process process) {
 		for (ElementaryExchange e : Spold2.getElemFlows(ds)) {
 			if (e.amount == 0 && config.skipNullExchanges)
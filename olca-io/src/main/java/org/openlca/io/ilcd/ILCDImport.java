@@ -19,6 +19,7 @@ import org.openlca.io.ilcd.input.FlowImport;
 import org.openlca.io.ilcd.input.FlowPropertyImport;
 import org.openlca.io.ilcd.input.ImpactImport;
 import org.openlca.io.ilcd.input.ImportConfig;
+import org.openlca.io.ilcd.input.ParallelImport;
 import org.openlca.io.ilcd.input.ProcessImport;
 import org.openlca.io.ilcd.input.SourceImport;
 import org.openlca.io.ilcd.input.UnitGroupImport;
@@ -53,6 +54,10 @@ public class ILCDImport implements Import {
 	public void run() {
 		if (canceled)
 			return;
+		if (config.threads() > 1) {
+			runParallel();
+			return;
+		}
 		importAll(Contact.class);
 		importAll(Source.class);
 		importAll(UnitGroup.class);
@@ -65,11 +70,41 @@ public class ILCDImport implements Import {
 		importAll(Model.class);
 	}
 
+	/**
+	 * Runs the import in the parallel mode: the data sets are parsed in
+	 * parallel and new processes are written in batches. The processes are
+	 * flushed before the models are imported, as models link to them.
+	 */
+	private void runParallel() {
+		try (var parallel = ParallelImport.open(config)) {
+			importAll(Contact.class, parallel);
+			importAll(Source.class, parallel);
+			importAll(UnitGroup.class, parallel);
+			importAll(FlowProperty.class, parallel);
+			if (config.withAllFlows()) {
+				importAll(Flow.class, parallel);
+			}
+			importAll(Process.class, parallel);
+			parallel.flush();
+			importAll(LCIAMethod.class, parallel);
+			importAll(Model.class, parallel);
+		} catch (Exception e) {
+			config.log().error("Parallel import failed", e);
+		}
+	}
+
 	private <T extends IDataSet> void importAll(Class<T> type) {
+		importAll(type, null);
+	}
+
+	private <T extends IDataSet> void importAll(
+		Class<T> type, ParallelImport parallel) {
 		if (canceled)
 			return;
 		try {
-			var it = config.store().iterator(type);
+			var it = parallel != null
+				? parallel.iterator(type)
+				: config.store().iterator(type);
 			while (!canceled && it.hasNext()) {
 				importOf(it.next());
 			}
@@ -2,7 +2,6 @@ package org.openlca.io.ilcd.input;
 
 import java.util.Date;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.model.Actor;
 import org.openlca.core.model.ModelType;
 import org.openlca.core.model.Version;
@@ -22,17 +21,17 @@ public class ContactImport {
 
 	public Actor run(Contact dataSet) {
 		this.ilcdContact = new ContactBag(dataSet, config.langOrder());
-		var actor = config.db().get(Actor.class, ilcdContact.getId());
+		var actor = config.get(Actor.class, ilcdContact.getId());
 		return actor != null
 			? actor
 			: createNew();
 	}
 
 	public static Actor get(ImportConfig config, String id) {
-		var actor = config.db().get(Actor.class, id);
+		var actor = config.get(Actor.class, id);
 		if (actor != null)
 			return actor;
-		var dataSet = config.store().get(Contact.class, id);
+		var dataSet = config.dataSetOf(Contact.class, id);
 		if (dataSet == null) {
 			config.log().error("invalid reference in ILCD data set:" +
 				" contact '" + id + "' does not exist");
@@ -44,8 +43,7 @@ public class ContactImport {
 	private Actor createNew() {
 		actor = new Actor();
 		var path = Categories.getPath(ilcdContact.getValue());
-		actor.category = new CategoryDao(config.db())
-				.sync(ModelType.ACTOR, path);
+		actor.category = config.categoryOf(ModelType.ACTOR, path);
 		setDescriptionAttributes();
 		setVersionTime();
 		return config.insert(actor);
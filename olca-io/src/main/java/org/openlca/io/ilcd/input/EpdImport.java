@@ -5,7 +5,6 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.model.*;
 import org.openlca.ilcd.epd.conversion.EpdExtensions;
 import org.openlca.ilcd.epd.model.Amount;
@@ -47,7 +46,7 @@ public class EpdImport {
 		oEpd.name = Strings.cut(
 			Processes.fullName(dataSet, config.langOrder()), 2048);
 		var path = Categories.getPath(dataSet);
-		oEpd.category = new CategoryDao(config.db()).sync(ModelType.EPD, path);
+		oEpd.category = config.categoryOf(ModelType.EPD, path);
 		oEpd.tags = tags();
 
 		var info = Processes.getDataSetInfo(dataSet);
@@ -91,8 +90,7 @@ public class EpdImport {
 				Processes.fullName(dataSet, config.langOrder()),
 				2044 - suffix.length()) + " - " + suffix;
 			config.log().info("import EPD result: " + result.name);
-			result.category = new CategoryDao(config.db())
-				.sync(ModelType.RESULT, path);
+			result.category = config.categoryOf(ModelType.RESULT, path);
 
 			if (refFlow != null) {
 				var resultRef = refFlow.copy();
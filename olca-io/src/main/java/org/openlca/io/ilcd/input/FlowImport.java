@@ -1,6 +1,5 @@
 package org.openlca.io.ilcd.input;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.model.Flow;
 import org.openlca.core.model.FlowProperty;
 import org.openlca.core.model.FlowType;
@@ -32,7 +31,7 @@ public class FlowImport {
 
 	public static SyncFlow get(ImportConfig config, String id) {
 		return config.flowSync().createIfAbsent(id, () -> {
-			var dataSet = config.store().get(org.openlca.ilcd.flows.Flow.class, id);
+			var dataSet = config.dataSetOf(org.openlca.ilcd.flows.Flow.class, id);
 			if (dataSet == null) {
 				return null;
 			}
@@ -44,8 +43,7 @@ public class FlowImport {
 		this.ilcdFlow = new FlowBag(dataSet, config.langOrder());
 		flow = new Flow();
 		String[] path = Categories.getPath(ilcdFlow.flow);
-		flow.category = new CategoryDao(config.db())
-			.sync(ModelType.FLOW, path);
+		flow.category = config.categoryOf(ModelType.FLOW, path);
 		createAndMapContent();
 		if (flow.referenceFlowProperty == null) {
 			config.log().error("Could not import flow "
@@ -101,7 +99,7 @@ public class FlowImport {
 		// of items" and set this as the reference flow property if possible
 		if (!addItems)
 			return;
-		var num = config.db().get(
+		var num = config.get(
 				FlowProperty.class, "01846770-4cfe-4a25-8ad9-919d8d378345");
 		if (num == null) {
 			config.log().error("flow " + flow.refId
@@ -1,6 +1,5 @@
 package org.openlca.io.ilcd.input;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.model.FlowProperty;
 import org.openlca.core.model.FlowPropertyType;
 import org.openlca.core.model.ModelType;
@@ -24,17 +23,17 @@ public class FlowPropertyImport {
 	public FlowProperty run(
 			org.openlca.ilcd.flowproperties.FlowProperty dataSet) {
 		this.ilcdProperty = new FlowPropertyBag(dataSet, config.langOrder());
-		var prop = config.db().get(FlowProperty.class, dataSet.getUUID());
+		var prop = config.get(FlowProperty.class, dataSet.getUUID());
 		return prop != null
 			? prop
 			: createNew();
 	}
 
 	public static FlowProperty get(ImportConfig config, String id) {
-		var property = config.db().get(FlowProperty.class, id);
+		var property = config.get(FlowProperty.class, id);
 		if (property != null)
 			return property;
-		var dataSet = config.store().get(
+		var dataSet = config.dataSetOf(
 			org.openlca.ilcd.flowproperties.FlowProperty.class, id);
 		if (dataSet == null) {
 			config.log().error("invalid reference in ILCD data set:" +
@@ -47,8 +46,7 @@ public class FlowPropertyImport {
 	private FlowProperty createNew() {
 		property = new FlowProperty();
 		var path = Categories.getPath(ilcdProperty.getValue());
-		property.category = new CategoryDao(config.db())
-				.sync(ModelType.FLOW_PROPERTY, path);
+		property.category = config.categoryOf(ModelType.FLOW_PROPERTY, path);
 		mapDescriptionAttributes();
 		Ref unitGroupRef = ilcdProperty.getUnitGroupReference();
 		if (unitGroupRef != null) {
@@ -1,6 +1,5 @@
 package org.openlca.io.ilcd.input;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.model.ImpactCategory;
 import org.openlca.core.model.ImpactFactor;
 import org.openlca.core.model.ImpactMethod;
@@ -29,7 +28,7 @@ public class ImpactImport {
 		var impact = config.db().get(ImpactCategory.class, id);
 		if (impact != null)
 			return impact;
-		var dataSet = config.store().get(LCIAMethod.class, id);
+		var dataSet = config.dataSetOf(LCIAMethod.class, id);
 		if (dataSet == null) {
 			config.log().error("invalid reference in ILCD data set:" +
 					" impact method '" + id + "' does not exist");
@@ -50,8 +49,8 @@ public class ImpactImport {
 		impact.refId = dataSet.getUUID();
 		impact.name = name();
 		config.log().info("import impact category: " + impact.name);
-		impact.category = new CategoryDao(config.db())
-				.sync(ModelType.IMPACT_CATEGORY, Categories.getPath(dataSet));
+		impact.category = config.categoryOf(
+				ModelType.IMPACT_CATEGORY, Categories.getPath(dataSet));
 
 		var info = Methods.getDataSetInfo(dataSet);
 		if (info != null) {
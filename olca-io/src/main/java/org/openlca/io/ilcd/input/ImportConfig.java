@@ -5,15 +5,24 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+import org.openlca.core.database.CategoryDao;
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.io.ExchangeProviderQueue;
 import org.openlca.core.io.ImportLog;
+import org.openlca.core.model.Actor;
+import org.openlca.core.model.Category;
+import org.openlca.core.model.FlowProperty;
 import org.openlca.core.model.ImpactMethod;
 import org.openlca.core.model.Location;
+import org.openlca.core.model.ModelType;
 import org.openlca.core.model.RootEntity;
+import org.openlca.core.model.Source;
+import org.openlca.core.model.UnitGroup;
 import org.openlca.core.model.descriptors.Descriptor;
 import org.openlca.core.model.descriptors.ImpactMethodDescriptor;
+import org.openlca.ilcd.commons.IDataSet;
 import org.openlca.ilcd.commons.LangString;
 import org.openlca.ilcd.io.DataStore;
 import org.openlca.core.io.maps.FlowMap;
@@ -34,6 +43,21 @@ public class ImportConfig {
 	private ExchangeProviderQueue providers;
 	private Map<String, ImpactMethodDescriptor> methods;
 	private Map<String, Location> locations;
+	private int threads = 1;
+
+	/**
+	 * Caches the shared entities (contacts, sources, unit groups, and flow
+	 * properties) by their reference IDs, so that they are loaded only once
+	 * from the database when they are referenced in many data sets.
+	 */
+	private final Map<Class<?>, Map<String, RootEntity>> refs =
+		new ConcurrentHashMap<>();
+	private final Map<String, Category> categories = new HashMap<>();
+
+	/**
+	 * Is set while the parallel mode of an import is open.
+	 */
+	ParallelImport parallel;
 
 	public ImportConfig(DataStore store, IDatabase db) {
 		this(store, db, null);
@@ -73,6 +97,20 @@ public class ImportConfig {
 		return withGabiGraphs;
 	}
 
+	/**
+	 * Set the number of threads that are used for parsing the data sets of
+	 * the import. With more than one thread, the import runs in the parallel
+	 * mode (see {@link ParallelImport}).
+	 */
+	public ImportConfig withThreads(int threads) {
+		this.threads = Math.max(1, threads);
+		return this;
+	}
+
+	public int threads() {
+		return threads;
+	}
+
 	/**
 	 * Define the order in which a multi-language string should be evaluated. It
 	 * first checks if there is a string for the first language of this list, then
@@ -122,6 +160,59 @@ public class ImportConfig {
 		return providers;
 	}
 
+	/**
+	 * Returns the data set of the given type and ID from the data store.
+	 */
+	<T extends IDataSet> T dataSetOf(Class<T> type, String id) {
+		return parallel != null
+			? parallel.get(type, id)
+			: store.get(type, id);
+	}
+
+	/**
+	 * Returns the entity of the given type and reference ID from the database.
+	 * Shared entities are cached.
+	 */
+	<T extends RootEntity> T get(Class<T> type, String refId) {
+		if (refId == null)
+			return null;
+		if (!isShared(type))
+			return db.get(type, refId);
+		var cache = refs.computeIfAbsent(type, $ -> new ConcurrentHashMap<>());
+		var cached = cache.get(refId);
+		if (cached != null)
+			return type.cast(cached);
+		var e = db.get(type, refId);
+		if (e != null) {
+			cache.put(refId, e);
+		}
+		return e;
+	}
+
+	private boolean isShared(Class<?> type) {
+		return type == Actor.class
+			|| type == Source.class
+			|| type == UnitGroup.class
+			|| type == FlowProperty.class;
+	}
+
+	/**
+	 * Returns the category of the given path. The categories are cached by
+	 * their paths so that the database is queried only once per path.
+	 */
+	synchronized Category categoryOf(ModelType type, String[] path) {
+		if (path == null || path.length == 0)
+			return null;
+		var key = new StringBuilder(type.name());
+		for (var segment : path) {
+			if (Strings.nullOrEmpty(segment))
+				continue;
+			key.append('/').append(segment.trim().toLowerCase());
+		}
+		return categories.computeIfAbsent(key.toString(),
+			$ -> new CategoryDao(db).sync(type, path));
+	}
+
 	String str(List<LangString> list) {
 		return LangString.getFirst(list, langOrder);
 	}
@@ -176,6 +267,10 @@ public class ImportConfig {
 	<T extends RootEntity> T insert(T e) {
 		var r = db.insert(e);
 		log.imported(r);
+		if (r != null && r.refId != null && isShared(r.getClass())) {
+			refs.computeIfAbsent(r.getClass(), $ -> new ConcurrentHashMap<>())
+				.put(r.refId, r);
+		}
 		return r;
 	}
 }
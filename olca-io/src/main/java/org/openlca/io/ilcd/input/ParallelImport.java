@@ -0,0 +1,255 @@
+package org.openlca.io.ilcd.input;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.openlca.core.io.ImportPipeline;
+import org.openlca.core.model.Process;
+import org.openlca.ilcd.commons.IDataSet;
+import org.openlca.ilcd.io.XmlBinder;
+import org.openlca.ilcd.io.ZipStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The parallel mode of an ILCD import. When it is opened for an import
+ * configuration, it is registered in that configuration until it is closed.
+ * In this mode:
+ * <ul>
+ * <li>the entries of a zip store are indexed by their UUIDs once, so that
+ * referenced data sets can be found without scanning all entries of a
+ * folder;</li>
+ * <li>the data sets of a type are parsed in parallel in a bounded window
+ * ahead of the import, but they are returned in the order of the store;</li>
+ * <li>new processes are written in batches in a separate writer thread while
+ * the next processes are converted.</li>
+ * </ul>
+ * The conversion of the data sets and the resolution of their references,
+ * which both read and write shared state, still run in the calling thread.
+ */
+public class ParallelImport implements AutoCloseable {
+
+	private static final int BATCH_SIZE = 100;
+
+	private final Logger log = LoggerFactory.getLogger(getClass());
+	private final ImportConfig config;
+	private final ZipStore zip;
+	private final int threads;
+	private final ExecutorService pool;
+	private final ThreadLocal<XmlBinder> binders =
+			ThreadLocal.withInitial(XmlBinder::new);
+	private final Map<Class<? extends IDataSet>, Map<String, Path>> index =
+			new ConcurrentHashMap<>();
+
+	private final Set<String> pendingProcesses = ConcurrentHashMap.newKeySet();
+	private ImportPipeline processes;
+
+	private ParallelImport(ImportConfig config) {
+		this.config = config;
+		this.zip = config.store() instanceof ZipStore z ? z : null;
+		this.threads = Math.max(1, config.threads());
+		this.pool = zip != null
+				? Executors.newFixedThreadPool(threads)
+				: null;
+		// initialize the provider queue before it is used in the writer thread
+		config.providers();
+	}
+
+	/**
+	 * Opens the parallel mode for the given configuration. It needs to be
+	 * closed after the import to write the pending data sets and to release
+	 * its threads.
+	 */
+	public static ParallelImport open(ImportConfig config) {
+		var p = new ParallelImport(config);
+		config.parallel = p;
+		return p;
+	}
+
+	/**
+	 * Returns an iterator over the data sets of the given type. For zip
+	 * stores, the data sets are parsed in parallel.
+	 */
+	public <T extends IDataSet> Iterator<T> iterator(Class<T> type) {
+		return zip != null
+				? new ParsingIterator<>(type, entriesOf(type))
+				: config.store().iterator(type);
+	}
+
+	/**
+	 * Writes the processes that are waiting in the current batch into the
+	 * database. This needs to be called before data sets are imported that
+	 * may link to these processes, like models.
+	 */
+	public void flush() {
+		if (processes == null)
+			return;
+		var p = processes;
+		processes = null;
+		p.close();
+		pendingProcesses.clear();
+	}
+
+	@Override
+	public void close() {
+		try {
+			flush();
+		} finally {
+			if (config.parallel == this) {
+				config.parallel = null;
+			}
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+		}
+	}
+
+	<T extends IDataSet> T get(Class<T> type, String id) {
+		if (zip == null || id == null)
+			return config.store().get(type, id);
+		var path = indexOf(type).get(id);
+		if (path == null)
+			return zip.get(type, id);
+		try {
+			return parse(type, path);
+		} catch (Exception e) {
+			log.error("failed to read data set " + id, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Returns true if a process with the given ID is waiting in the current
+	 * batch for insertion.
+	 */
+	boolean isPending(String processId) {
+		return processId != null && pendingProcesses.contains(processId);
+	}
+
+	/**
+	 * Adds the given process to the current batch. It is registered in the
+	 * provider queue when the batch is written.
+	 */
+	void insert(Process process) {
+		if (processes == null) {
+			processes = new ImportPipeline(config.db(), BATCH_SIZE, 1, e -> {
+				config.log().imported(e);
+				if (e instanceof Process p) {
+					config.providers().pop(p);
+				}
+			});
+		}
+		pendingProcesses.add(process.refId);
+		processes.insert(process);
+	}
+
+	private Map<String, Path> indexOf(Class<? extends IDataSet> type) {
+		return index.computeIfAbsent(type, t -> {
+			var entries = entriesOf(t);
+			var map = new HashMap<String, Path>(entries.size());
+			for (var entry : entries) {
+				var name = entry.getFileName().toString();
+				int end = name.length();
+				for (int i = 0; i < name.length(); i++) {
+					char c = name.charAt(i);
+					if (c == '_' || c == '.') {
+						end = i;
+						break;
+					}
+				}
+				map.putIfAbsent(name.substring(0, end), entry);
+			}
+			return map;
+		});
+	}
+
+	private List<Path> entriesOf(Class<? extends IDataSet> type) {
+		var entries = zip.getEntries(type);
+		return entries != null ? entries : List.of();
+	}
+
+	private <T> T parse(Class<T> type, Path path) {
+		try (var stream = Files.newInputStream(path)) {
+			return binders.get().fromStream(type, stream);
+		} catch (Exception e) {
+			throw new RuntimeException("failed to read " + path, e);
+		}
+	}
+
+	private static boolean isXml(Path path) {
+		var name = path.getFileName().toString().toLowerCase();
+		return name.endsWith(".xml");
+	}
+
+	/**
+	 * Parses the data sets of a list of entries in parallel, in a window of a
+	 * fixed size, and returns them in the order of the entries.
+	 */
+	private class ParsingIterator<T extends IDataSet> implements Iterator<T> {
+
+		private final Class<T> type;
+		private final List<Path> entries;
+		private final ArrayDeque<Future<T>> window = new ArrayDeque<>();
+		private int nextEntry;
+		private T next;
+
+		ParsingIterator(Class<T> type, List<Path> entries) {
+			this.type = type;
+			this.entries = entries;
+			moveNext();
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public T next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			var current = next;
+			moveNext();
+			return current;
+		}
+
+		private void moveNext() {
+			next = null;
+			while (next == null) {
+				fillWindow();
+				var future = window.poll();
+				if (future == null)
+					return;
+				try {
+					next = future.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				} catch (Exception e) {
+					log.error("failed to read data set of type "
+							+ type.getSimpleName(), e);
+				}
+			}
+		}
+
+		private void fillWindow() {
+			while (window.size() < 4 * threads && nextEntry < entries.size()) {
+				var entry = entries.get(nextEntry++);
+				if (!isXml(entry))
+					continue;
+				window.add(pool.submit(() -> parse(type, entry)));
+			}
+		}
+	}
+}
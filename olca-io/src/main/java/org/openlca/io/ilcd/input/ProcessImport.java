@@ -3,7 +3,6 @@ package org.openlca.io.ilcd.input;
 import java.util.Date;
 import java.util.List;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.model.Actor;
 import org.openlca.core.model.AllocationMethod;
 import org.openlca.core.model.ModelType;
@@ -34,6 +33,9 @@ public class ProcessImport {
 
 	public Process run(org.openlca.ilcd.processes.Process dataSet) {
 		this.ilcdProcess = new ProcessBag(dataSet, config.langOrder());
+		if (config.parallel != null
+			&& config.parallel.isPending(dataSet.getUUID()))
+			return null;
 		var process = config.db().get(Process.class, dataSet.getUUID());
 		return process != null
 			? process
@@ -44,7 +46,7 @@ public class ProcessImport {
 		var process = config.db().get(Process.class, id);
 		if (process != null)
 			return process;
-		var dataSet = config.store().get(
+		var dataSet = config.dataSetOf(
 			org.openlca.ilcd.processes.Process.class, id);
 		if (dataSet == null) {
 			config.log().error("invalid reference in ILCD data set:" +
@@ -57,10 +59,13 @@ public class ProcessImport {
 	private Process createNew() {
 		process = new Process();
 		String[] path = Categories.getPath(ilcdProcess.getValue());
-		process.category = new CategoryDao(config.db())
-			.sync(ModelType.PROCESS, path);
+		process.category = config.categoryOf(ModelType.PROCESS, path);
 		createAndMapContent();
 		org.openlca.util.Processes.fixInternalIds(process);
+		if (config.parallel != null) {
+			config.parallel.insert(process);
+			return process;
+		}
 		process = config.insert(process);
 		config.providers().pop(process);
 		return process;
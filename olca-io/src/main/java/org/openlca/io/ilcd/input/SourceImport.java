@@ -1,6 +1,5 @@
 package org.openlca.io.ilcd.input;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.database.FileStore;
 import org.openlca.core.model.ModelType;
 import org.openlca.core.model.Source;
@@ -27,17 +26,17 @@ public class SourceImport {
 
 	public Source run(org.openlca.ilcd.sources.Source dataSet) {
 		this.ilcdSource = new SourceBag(dataSet, config.langOrder());
-		var source = config.db().get(Source.class, dataSet.getUUID());
+		var source = config.get(Source.class, dataSet.getUUID());
 		return source != null
 			? source
 			: createNew();
 	}
 
 	public static Source get(ImportConfig config, String sourceId) {
-		var source = config.db().get(Source.class, sourceId);
+		var source = config.get(Source.class, sourceId);
 		if (source != null)
 			return source;
-		var dataSet = config.store().get(
+		var dataSet = config.dataSetOf(
 			org.openlca.ilcd.sources.Source.class, sourceId);
 		if (dataSet == null) {
 			config.log().error("invalid reference in ILCD data set:" +
@@ -50,8 +49,7 @@ public class SourceImport {
 	private Source createNew() {
 		source = new Source();
 		String[] path = Categories.getPath(ilcdSource.getValue());
-		source.category = new CategoryDao(config.db())
-				.sync(ModelType.SOURCE, path);
+		source.category = config.categoryOf(ModelType.SOURCE, path);
 		setDescriptionAttributes();
 		importExternalFile();
 		return config.insert(source);
@@ -3,7 +3,6 @@ package org.openlca.io.ilcd.input;
 import java.util.Date;
 import java.util.UUID;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.model.ModelType;
 import org.openlca.core.model.Unit;
 import org.openlca.core.model.UnitGroup;
@@ -33,11 +32,11 @@ public class UnitGroupImport {
 	}
 
 	public static UnitGroup get(ImportConfig config, String id) {
-		var group = config.db().get(UnitGroup.class, id);
+		var group = config.get(UnitGroup.class, id);
 		if (group != null)
 			// TODO: check if reference unit is in database!
 			return group;
-		var dataSet = config.store().get(
+		var dataSet = config.dataSetOf(
 			org.openlca.ilcd.units.UnitGroup.class, id);
 		if (dataSet == null) {
 			config.log().error("invalid reference in ILCD data set:" +
@@ -50,8 +49,7 @@ public class UnitGroupImport {
 	private UnitGroup createNew() {
 		unitGroup = new UnitGroup();
 		var path = Categories.getPath(ilcdUnitGroup.getValue());
-		unitGroup.category = new CategoryDao(config.db())
-				.sync(ModelType.UNIT_GROUP, path);
+		unitGroup.category = config.categoryOf(ModelType.UNIT_GROUP, path);
 		mapDescriptionAttributes();
 		createUnits();
 		return config.insert(unitGroup);
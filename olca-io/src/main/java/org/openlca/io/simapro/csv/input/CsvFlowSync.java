@@ -31,6 +31,11 @@ import org.openlca.simapro.csv.refdata.ElementaryFlowRow;
 import org.openlca.util.KeyGen;
 import org.openlca.util.Strings;
 
+/**
+ * Synchronizes the flows of SimaPro CSV files with the database. The flows
+ * are created on demand and then taken from a lookup table. The methods of
+ * this class are synchronized, so that processes can be mapped in parallel.
+ */
 class CsvFlowSync {
 
 	private final IDatabase db;
@@ -47,7 +52,7 @@ class CsvFlowSync {
 		flowInfos = new EnumMap<>(ElementaryFlowType.class);
 	}
 
-	void sync(CsvDataSet dataSet) {
+	synchronized void sync(CsvDataSet dataSet) {
 		try {
 
 			// collect elem. flow infos
@@ -92,7 +97,7 @@ class CsvFlowSync {
 		}
 	}
 
-	SyncFlow elemFlow(ImpactFactorRow row) {
+	synchronized SyncFlow elemFlow(ImpactFactorRow row) {
 		var type = ElementaryFlowType.of(row.compartment());
 		if (type == null) {
 			log.error("failed to detect compartment: " + row.compartment());
@@ -101,7 +106,8 @@ class CsvFlowSync {
 		return elemFlow(Compartment.of(type, subComp), row.flow(), row.unit());
 	}
 
-	SyncFlow elemFlow(ElementaryFlowType type, ElementaryExchangeRow row) {
+	synchronized SyncFlow elemFlow(
+			ElementaryFlowType type, ElementaryExchangeRow row) {
 		var subComp = SubCompartment.of(row.subCompartment());
 		return elemFlow(Compartment.of(type, subComp), row.name(), row.unit());
 	}
@@ -150,11 +156,11 @@ class CsvFlowSync {
 				comp.type().exchangeHeader(), sub);
 	}
 
-	SyncFlow product(ExchangeRow row) {
+	synchronized SyncFlow product(ExchangeRow row) {
 		return techFlow(row, null, false);
 	}
 
-	SyncFlow waste(ExchangeRow row) {
+	synchronized SyncFlow waste(ExchangeRow row) {
 		return techFlow(row, null, true);
 	}
 
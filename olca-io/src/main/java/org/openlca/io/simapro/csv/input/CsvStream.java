@@ -0,0 +1,157 @@
+package org.openlca.io.simapro.csv.input;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.openlca.simapro.csv.CsvDataSet;
+import org.openlca.simapro.csv.CsvHeader;
+import org.openlca.simapro.csv.CsvLine;
+import org.openlca.simapro.csv.SimaProCsv;
+import org.openlca.simapro.csv.enums.ElementaryFlowType;
+import org.openlca.simapro.csv.enums.ProductType;
+import org.openlca.simapro.csv.method.ImpactMethodBlock;
+import org.openlca.simapro.csv.process.ExchangeRow;
+import org.openlca.simapro.csv.process.ProcessBlock;
+import org.openlca.simapro.csv.process.ProductStageBlock;
+import org.openlca.simapro.csv.refdata.CalculatedParameterRow;
+import org.openlca.simapro.csv.refdata.ElementaryFlowRow;
+import org.openlca.simapro.csv.refdata.InputParameterRow;
+import org.openlca.simapro.csv.refdata.LiteratureReferenceBlock;
+import org.openlca.simapro.csv.refdata.QuantityRow;
+import org.openlca.simapro.csv.refdata.SystemDescriptionBlock;
+import org.openlca.simapro.csv.refdata.UnitRow;
+
+/**
+ * Reads a SimaPro CSV file block by block instead of loading it completely
+ * into memory. The process blocks, which are the largest part of a typical
+ * SimaPro export, are read in two passes over the file:
+ * <ol>
+ * <li>{@link #scan(File)} collects everything except the processes into a
+ * data set. For each process, only a stub with its reference products and
+ * waste treatments is added, and the units of all exchanges are collected, so
+ * that the reference data can be synchronized as in the normal import.</li>
+ * <li>{@link #eachProcess(File, Consumer)} then passes the complete process
+ * blocks one by one to a consumer.</li>
+ * </ol>
+ * The blocks are dispatched in the same way as in {@link SimaProCsv#read(File)}.
+ */
+class CsvStream {
+
+	private final CsvDataSet dataSet;
+	private final Consumer<ProcessBlock> processes;
+
+	private CsvStream(CsvDataSet dataSet, Consumer<ProcessBlock> processes) {
+		this.dataSet = dataSet;
+		this.processes = processes;
+	}
+
+	/**
+	 * The result of the first pass over a file: a data set with process stubs
+	 * and the units that are used in the exchanges of the processes.
+	 */
+	record Scan(CsvDataSet dataSet, Set<String> units) {
+	}
+
+	static Scan scan(File file) {
+		var header = CsvHeader.readFrom(file);
+		var dataSet = new CsvDataSet(header);
+		var units = new HashSet<String>();
+		Consumer<List<? extends ExchangeRow>> unitsOf = rows -> {
+			for (var row : rows) {
+				units.add(row.unit());
+			}
+		};
+		new CsvStream(dataSet, block -> {
+			for (var type : ProductType.values()) {
+				unitsOf.accept(block.exchangesOf(type));
+			}
+			for (var type : ElementaryFlowType.values()) {
+				unitsOf.accept(block.exchangesOf(type));
+			}
+			dataSet.processes().add(stubOf(block));
+		}).read(file, header);
+		return new Scan(dataSet, units);
+	}
+
+	static void eachProcess(File file, Consumer<ProcessBlock> fn) {
+		var header = CsvHeader.readFrom(file);
+		new CsvStream(null, fn).read(file, header);
+	}
+
+	private static ProcessBlock stubOf(ProcessBlock block) {
+		var stub = new ProcessBlock()
+				.identifier(block.identifier())
+				.name(block.name())
+				.category(block.category())
+				.processType(block.processType())
+				.wasteTreatment(block.wasteTreatment())
+				.wasteScenario(block.wasteScenario());
+		stub.products().addAll(block.products());
+		return stub;
+	}
+
+	private void read(File file, CsvHeader header) {
+		try (var reader = SimaProCsv.readerOf(file)) {
+			var lines = CsvLine.iter(header, reader);
+			var it = lines.iterator();
+			while (it.hasNext()) {
+				var line = it.next();
+				var first = line.first();
+				if (first == null)
+					continue;
+				switch (first) {
+					case "Process" -> processes.accept(ProcessBlock.read(lines));
+					case "Product stage" -> add(ProductStageBlock.read(lines),
+							d -> d.productStages());
+					case "System description" -> add(
+							SystemDescriptionBlock.read(lines),
+							d -> d.systemDescriptions());
+					case "Method" -> add(ImpactMethodBlock.read(lines),
+							d -> d.methods());
+					case "Literature reference" -> add(
+							LiteratureReferenceBlock.read(lines),
+							d -> d.literatureReferences());
+					case "Quantities" -> CsvLine.untilEmpty(it,
+							l -> add(QuantityRow.read(l), d -> d.quantities()));
+					case "Units" -> CsvLine.untilEmpty(it,
+							l -> add(UnitRow.read(l), d -> d.units()));
+					case "Database Input parameters" -> CsvLine.untilEmpty(it,
+							l -> add(InputParameterRow.read(l),
+									d -> d.databaseInputParameters()));
+					case "Database Calculated parameters" -> CsvLine.untilEmpty(it,
+							l -> add(CalculatedParameterRow.read(l),
+									d -> d.databaseCalculatedParameters()));
+					case "Project Input parameters" -> CsvLine.untilEmpty(it,
+							l -> add(InputParameterRow.read(l),
+									d -> d.projectInputParameters()));
+					case "Project Calculated parameters" -> CsvLine.untilEmpty(it,
+							l -> add(CalculatedParameterRow.read(l),
+									d -> d.projectCalculatedParameters()));
+					default -> {
+						var type = ElementaryFlowType.of(first);
+						if (type != null) {
+							CsvLine.untilEmpty(it, l -> add(ElementaryFlowRow.read(l),
+									d -> d.getElementaryFlows(type)));
+						}
+					}
+				}
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("failed to read SimaPro CSV file " + file, e);
+		}
+	}
+
+	/**
+	 * Adds the given element to the respective list of the data set. In the
+	 * second pass, there is no data set and the element is just dropped.
+	 */
+	private <T> void add(T elem, Function<CsvDataSet, List<T>> list) {
+		if (dataSet == null || elem == null)
+			return;
+		list.apply(dataSet).add(elem);
+	}
+}
@@ -34,6 +34,11 @@ record ImportContext(
 			refData.sync(dataSet);
 			return new ImportContext(this, dataSet);
 		}
+
+		ImportContext next(CsvStream.Scan scan) {
+			refData.sync(scan.dataSet(), scan.units());
+			return new ImportContext(this, scan.dataSet());
+		}
 	}
 
 }
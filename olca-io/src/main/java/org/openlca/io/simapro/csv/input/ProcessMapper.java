@@ -3,11 +3,9 @@ package org.openlca.io.simapro.csv.input;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.openlca.core.database.CategoryDao;
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.database.ParameterDao;
 import org.openlca.core.model.Exchange;
-import org.openlca.core.model.ModelType;
 import org.openlca.core.model.ParameterScope;
 import org.openlca.core.model.Process;
 import org.openlca.expressions.FormulaInterpreter;
@@ -112,8 +110,8 @@ interface ProcessMapper {
 		}
 		if (path.isEmpty())
 			return;
-		process().category = CategoryDao.sync(
-				db(), ModelType.PROCESS, path.toArray(String[]::new));
+		process().category = refData().processCategoryOf(
+				path.toArray(String[]::new));
 	}
 
 	default double eval(Numeric numeric) {
@@ -38,7 +38,24 @@ class Processes implements ProcessMapper {
 	}
 
 	static void map(ImportContext context, ProcessBlock block) {
-		new Processes(context, block).exec();
+		var process = create(context, block);
+		if (process != null) {
+			context.insert(process);
+		}
+	}
+
+	/**
+	 * Maps the given block to a new process without storing it. Returns
+	 * {@code null} if a process with the same identifier already exists.
+	 */
+	static Process create(ImportContext context, ProcessBlock block) {
+		return new Processes(context, block).exec();
+	}
+
+	static String refIdOf(ProcessBlock block) {
+		return Strings.notEmpty(block.identifier())
+			? KeyGen.get(block.identifier())
+			: UUID.randomUUID().toString();
 	}
 
 	// region ProcessMapper
@@ -68,15 +85,11 @@ class Processes implements ProcessMapper {
 	}
 	// endregion
 
-	private void exec() {
-		var refId = Strings.notEmpty(block.identifier())
-			? KeyGen.get(block.identifier())
-			: UUID.randomUUID().toString();
-		process = context.db().get(Process.class, refId);
-		if (process != null) {
-			log.warn("a process with the identifier '" + refId +
-				"' is already in the database and was not imported");
-			return;
+	private Process exec() {
+		var refId = refIdOf(block);
+		if (context.db().get(Process.class, refId) != null) {
+			logDuplicate(log, refId);
+			return null;
 		}
 
 		process = new Process();
@@ -95,7 +108,12 @@ class Processes implements ProcessMapper {
 		mapExchanges();
 		mapAllocation();
 		inferCategoryAndLocation();
-		context.insert(process);
+		return process;
+	}
+
+	static void logDuplicate(ImportLog log, String refId) {
+		log.warn("a process with the identifier '" + refId +
+			"' is already in the database and was not imported");
 	}
 
 	static String nameOf(ProcessBlock block) {
@@ -1,16 +1,26 @@
 package org.openlca.io.simapro.csv.input;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.openlca.core.database.CategoryDao;
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.io.ImportLog;
+import org.openlca.core.model.Category;
+import org.openlca.core.model.ModelType;
 import org.openlca.core.model.Source;
 import org.openlca.io.UnitMappingEntry;
 import org.openlca.core.io.maps.FlowMap;
 import org.openlca.io.maps.SyncFlow;
 import org.openlca.simapro.csv.CsvDataSet;
 import org.openlca.simapro.csv.enums.ElementaryFlowType;
+import org.openlca.simapro.csv.enums.ProductType;
 import org.openlca.simapro.csv.method.ImpactFactorRow;
 import org.openlca.simapro.csv.process.ElementaryExchangeRow;
 import org.openlca.simapro.csv.process.ExchangeRow;
+import org.openlca.simapro.csv.process.ProcessBlock;
 
 class RefData {
 
@@ -18,8 +28,11 @@ class RefData {
 	private final SourceSync sourceSync;
 	private final CsvFlowSync flowSync;
 	private final GlobalParameterSync parameterSync;
+	private final IDatabase db;
+	private final Map<String, Category> processCategories = new HashMap<>();
 
 	RefData(IDatabase db, FlowMap flowMap, ImportLog log) {
+		this.db = db;
 		this.unitSync = new UnitSync(db, log);
 		this.sourceSync = new SourceSync(db, log);
 		this.parameterSync = new GlobalParameterSync(db, log);
@@ -27,13 +40,64 @@ class RefData {
 	}
 
 	void sync(CsvDataSet dataSet) {
+		sync(dataSet, Collections.emptySet());
+	}
+
+	/**
+	 * Synchronizes the reference data of the given data set. The given units
+	 * are additionally checked in the unit synchronization; see
+	 * {@link UnitSync#sync(CsvDataSet, Set)}.
+	 */
+	void sync(CsvDataSet dataSet, Set<String> units) {
 		// sync order is important => units before flows
 		sourceSync.sync(dataSet);
-		unitSync.sync(dataSet);
+		unitSync.sync(dataSet, units);
 		flowSync.sync(dataSet);
 		parameterSync.sync(dataSet);
 	}
 
+	/**
+	 * Resolves the flows of the exchanges of the given process block, so that
+	 * they are created when they do not exist yet. When this is done in the
+	 * order of the process blocks, the processes can then be mapped in
+	 * parallel, as the flows are just taken from the lookup tables then.
+	 */
+	void prepare(ProcessBlock block) {
+		for (var row : block.products()) {
+			productOf(row);
+		}
+		if (block.wasteTreatment() != null) {
+			wasteFlowOf(block.wasteTreatment());
+		}
+		if (block.wasteScenario() != null) {
+			wasteFlowOf(block.wasteScenario());
+		}
+		for (var type : ProductType.values()) {
+			for (var row : block.exchangesOf(type)) {
+				if (type == ProductType.WASTE_TO_TREATMENT) {
+					wasteFlowOf(row);
+				} else {
+					productOf(row);
+				}
+			}
+		}
+		for (var type : ElementaryFlowType.values()) {
+			for (var row : block.exchangesOf(type)) {
+				elemFlowOf(type, row);
+			}
+		}
+	}
+
+	/**
+	 * Returns the process category with the given path and creates it if it
+	 * does not exist yet.
+	 */
+	synchronized Category processCategoryOf(String[] path) {
+		var key = String.join("/", path);
+		return processCategories.computeIfAbsent(
+				key, k -> CategoryDao.sync(db, ModelType.PROCESS, path));
+	}
+
 	Source sourceOf(String name) {
 		return sourceSync.sources().get(name);
 	}
@@ -2,12 +2,15 @@ package org.openlca.io.simapro.csv.input;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.HashSet;
 
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.io.ImportLog;
+import org.openlca.core.io.ImportPipeline;
 import org.openlca.core.model.Process;
 import org.openlca.io.Import;
 import org.openlca.core.io.maps.FlowMap;
+import org.openlca.simapro.csv.CsvDataSet;
 import org.openlca.simapro.csv.SimaProCsv;
 import org.openlca.simapro.csv.enums.ProductStageCategory;
 import org.openlca.simapro.csv.process.ProductStageBlock;
@@ -24,6 +27,7 @@ public class SimaProCsvImport implements Import {
 	private boolean unrollWasteScenarios;
 	private boolean expandImpactFactors;
 	private boolean generateLifeCycleSystems;
+	private boolean streaming;
 
 	public SimaProCsvImport(IDatabase db, File... files) {
 		this.db = db;
@@ -61,6 +65,20 @@ public class SimaProCsvImport implements Import {
 		return this;
 	}
 
+	/**
+	 * If set to {@code true}, the files are not loaded completely into memory
+	 * but are read block by block in two passes: first the reference data are
+	 * collected and synchronized, then the processes are streamed, mapped in
+	 * parallel, and written in batches. This is for large SimaPro exports that
+	 * do not fit into memory. The unrolling of waste scenarios requires all
+	 * processes of a file in memory; thus, files are read completely when this
+	 * option is also set.
+	 */
+	public SimaProCsvImport streaming(boolean b) {
+		this.streaming = b;
+		return this;
+	}
+
 	public boolean isCanceled() {
 		return canceled;
 	}
@@ -92,47 +110,100 @@ public class SimaProCsvImport implements Import {
 
 		try {
 			for (File file : files) {
+				if (canceled)
+					break;
 				log().info("import SimaPro CSV file: " + file.getName());
-
-				var dataSet = SimaProCsv.read(file);
-				if (unrollWasteScenarios) {
-					WasteScenarios.unroll(dataSet);
-				}
-				if (expandImpactFactors) {
-					for (var method : dataSet.methods()) {
-						for (var impact : method.impactCategories()) {
-							ImpactFactors.expand(impact);
-						}
-					}
+				if (streaming && !unrollWasteScenarios) {
+					importStreamed(file, contexts);
+				} else {
+					importFile(file, contexts);
 				}
+			}
+		} catch (Exception e) {
+			log().error("SimaPro CSV import failed", e);
+		}
+	}
 
-				// reference data
-				var context = contexts.next(dataSet);
+	private void importFile(File file, ImportContext.Builder contexts) {
+		var dataSet = SimaProCsv.read(file);
+		if (unrollWasteScenarios) {
+			WasteScenarios.unroll(dataSet);
+		}
+		expandImpactFactors(dataSet);
 
-				// processes
-				for (var process : dataSet.processes()) {
-					Processes.map(context, process);
-				}
+		// reference data
+		var context = contexts.next(dataSet);
 
-				// product stages and life cycle systems
-				var lifeCycles = new ArrayList<Pair<ProductStageBlock, Process>>();
-				for (var stage : dataSet.productStages()) {
-					var process = ProductStages.map(context, stage);
-					if (generateLifeCycleSystems
-						&& process.isPresent()
-						&& stage.category() == ProductStageCategory.LIFE_CYCLE) {
-						lifeCycles.add(Pair.of(stage, process.get()));
-					}
-				}
-				ProductSystems.map(context, lifeCycles);
+		// processes
+		for (var process : dataSet.processes()) {
+			Processes.map(context, process);
+		}
+		importOthers(context);
+	}
 
-				// impact methods
-				for (var method : dataSet.methods()) {
-					ImpactMethods.map(context, method);
+	private void importStreamed(File file, ImportContext.Builder contexts) {
+		var scan = CsvStream.scan(file);
+		expandImpactFactors(scan.dataSet());
+
+		// reference data; the data set contains only stubs of the processes
+		var context = contexts.next(scan);
+		scan.dataSet().processes().clear();
+
+		// the flows are resolved in file order, the processes are then mapped
+		// in parallel and written in batches
+		var refIds = new HashSet<String>();
+		try (var pipeline = new ImportPipeline(
+				db, 100, ImportPipeline.defaultThreadCount(), log()::imported)) {
+			CsvStream.eachProcess(file, block -> {
+				if (canceled)
+					return;
+				var refId = Processes.refIdOf(block);
+				if (!refIds.add(refId)) {
+					Processes.logDuplicate(log(), refId);
+					return;
 				}
+				context.refData().prepare(block);
+				pipeline.submit(() -> {
+					var process = Processes.create(context, block);
+					pipeline.insert(process);
+				});
+			});
+		}
+		importOthers(context);
+	}
+
+	private void expandImpactFactors(CsvDataSet dataSet) {
+		if (!expandImpactFactors)
+			return;
+		for (var method : dataSet.methods()) {
+			for (var impact : method.impactCategories()) {
+				ImpactFactors.expand(impact);
 			}
-		} catch (Exception e) {
-			log().error("SimaPro CSV import failed", e);
+		}
+	}
+
+	/**
+	 * Imports the product stages, life cycle systems, and impact methods of
+	 * the data set of the given context.
+	 */
+	private void importOthers(ImportContext context) {
+		var dataSet = context.dataSet();
+
+		// product stages and life cycle systems
+		var lifeCycles = new ArrayList<Pair<ProductStageBlock, Process>>();
+		for (var stage : dataSet.productStages()) {
+			var process = ProductStages.map(context, stage);
+			if (generateLifeCycleSystems
+				&& process.isPresent()
+				&& stage.category() == ProductStageCategory.LIFE_CYCLE) {
+				lifeCycles.add(Pair.of(stage, process.get()));
+			}
+		}
+		ProductSystems.map(context, lifeCycles);
+
+		// impact methods
+		for (var method : dataSet.methods()) {
+			ImpactMethods.map(context, method);
 		}
 	}
 
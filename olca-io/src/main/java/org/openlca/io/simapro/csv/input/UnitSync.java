@@ -51,13 +51,26 @@ class UnitSync {
 	 * missing.
 	 */
 	void sync(CsvDataSet dataSet) {
+		sync(dataSet, Collections.emptySet());
+	}
+
+	/**
+	 * Same as {@link #sync(CsvDataSet)} but also checks the given units, which
+	 * are used in the data set but are not contained in it; e.g. the units of
+	 * process exchanges in a streaming import.
+	 */
+	void sync(CsvDataSet dataSet, Set<String> moreUnits) {
 		if (dataSet == null)
 			return;
 		try {
 			log.info("check units");
 			var mapping = UnitMapping.createDefault(db);
 			var unknownUnits = new ArrayList<String>();
-			for (var unit : collectUnitsOf(dataSet)) {
+			var units = collectUnitsOf(dataSet);
+			if (moreUnits != null) {
+				units.addAll(moreUnits);
+			}
+			for (var unit : units) {
 				var entry = mapping.getEntry(unit);
 				if (entry == null) {
 					unknownUnits.add(unit);
@@ -229,9 +242,9 @@ class UnitSync {
 	 * Collects the used units from the given data set.
 	 */
 	private Set<String> collectUnitsOf(CsvDataSet csv) {
-		if (csv == null)
-			return Collections.emptySet();
 		var units = new HashSet<String>();
+		if (csv == null)
+			return units;
 
 		// from flows
 		for (var type : ElementaryFlowType.values()) {
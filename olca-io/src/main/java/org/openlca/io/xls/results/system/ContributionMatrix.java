@@ -1,12 +1,27 @@
 package org.openlca.io.xls.results.system;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.function.ObjDoubleConsumer;
 
 import org.apache.poi.ss.usermodel.Sheet;
 import org.openlca.io.xls.results.CellWriter;
 
+/**
+ * Writes a contribution matrix into a sheet. The values of the matrix are
+ * calculated column by column in pages of {@link #PAGE_SIZE} columns and
+ * buffered in a temporary file (see {@link MatrixBuffer}). The sheet is then
+ * written strictly row by row, so that the streaming workbook of the export
+ * can flush the written rows to disk.
+ */
 abstract class ContributionMatrix<C, R> {
 
+	/**
+	 * The number of columns that are calculated and buffered at once.
+	 */
+	static final int PAGE_SIZE = 256;
+
 	private final ResultExport export;
 	private final CellWriter writer;
 	private final String[] colHeaders;
@@ -20,47 +35,81 @@ abstract class ContributionMatrix<C, R> {
 		this.rowHeaders = rowHeaders;
 	}
 
-	void header(Sheet sheet) {
+	void write(Sheet sheet, List<C> colData, List<R> rowData) {
+
+		// the headers are in the first rows
 		writer.headerCol(sheet, 1, rowHeaders.length + 1, colHeaders);
 		writer.headerRow(sheet, colHeaders.length + 1, 1, rowHeaders);
-	}
-
-	void subHeaders(Sheet sheet, List<C> colData, List<R> rowData) {
-		int row = colHeaders.length + 2;
-		for (R desc : rowData) {
-			subHeaderRow(desc, sheet, row++);
-		}
 		int col = rowHeaders.length + 2;
 		for (C desc : colData) {
 			subHeaderCol(desc, sheet, col++);
 		}
-	}
-
-	protected abstract void subHeaderRow(R descriptor, Sheet sheet, int row);
 
-	protected abstract void subHeaderCol(C descriptor, Sheet sheet, int col);
+		try (var buffer = MatrixBuffer.create(
+				rowData.size(), colData.size(), PAGE_SIZE)) {
+			if (!fill(buffer, colData, rowData))
+				return;
+			int row = colHeaders.length + 2;
+			var values = new double[colData.size()];
+			for (int i = 0; i < rowData.size(); i++) {
+				if (i % PAGE_SIZE == 0 && export.wasCancelled())
+					return;
+				subHeaderRow(rowData.get(i), sheet, row);
+				buffer.readRow(i, values);
+				col = rowHeaders.length + 2;
+				for (double val : values) {
+					if (val != 0 || !export.skipZeros) {
+						// do not write zeros in the sheets -> makes the workbook
+						// much smaller (and also the export much faster)
+						writer.cell(sheet, row, col, val);
+					}
+					col++;
+				}
+				row++;
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("failed to buffer matrix values", e);
+		}
+	}
 
-	void data(Sheet sheet, List<C> colData, List<R> rowData) {
-		int row = colHeaders.length + 2;
-		for (R rowDesc : rowData) {
+	/**
+	 * Calculates the columns of the matrix page by page and adds them to the
+	 * buffer. Returns false if the export was cancelled.
+	 */
+	private boolean fill(MatrixBuffer buffer, List<C> colData, List<R> rowData)
+			throws IOException {
+		var rowIndex = new HashMap<R, Integer>();
+		for (int i = 0; i < rowData.size(); i++) {
+			rowIndex.put(rowData.get(i), i);
+		}
+		for (int start = 0; start < colData.size(); start += PAGE_SIZE) {
 			if (export.wasCancelled())
-				break;
-			int col = rowHeaders.length + 2;
-			for (C colDesc : colData) {
-				if (export.wasCancelled())
-					break;
-				double val = getValue(colDesc, rowDesc);
-				if (val != 0 || !export.skipZeros) {
-					// do not write zeros in the sheets -> makes the workbook
-					// much smaller (and also the export much faster)
-					writer.cell(sheet, row, col, val);
-				}
-				col++;
+				return false;
+			int end = Math.min(start + PAGE_SIZE, colData.size());
+			var page = new double[end - start][];
+			for (int j = start; j < end; j++) {
+				var column = new double[rowData.size()];
+				valuesOf(colData.get(j), (rowDesc, val) -> {
+					var i = rowIndex.get(rowDesc);
+					if (i != null) {
+						column[i] = val;
+					}
+				});
+				page[j - start] = column;
 			}
-			row++;
+			buffer.addPage(page);
 		}
+		return true;
 	}
 
-	protected abstract double getValue(C colDesc, R rowDesc);
+	protected abstract void subHeaderRow(R descriptor, Sheet sheet, int row);
+
+	protected abstract void subHeaderCol(C descriptor, Sheet sheet, int col);
+
+	/**
+	 * Calculates the values of the given column and passes them with their
+	 * row descriptors to the given function.
+	 */
+	protected abstract void valuesOf(C colDesc, ObjDoubleConsumer<R> fn);
 
 }
@@ -1,5 +1,7 @@
 package org.openlca.io.xls.results.system;
 
+import java.util.function.ObjDoubleConsumer;
+
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.openlca.core.matrix.index.TechFlow;
@@ -27,14 +29,15 @@ class DirectImpactMatrix extends ContributionMatrix<TechFlow, ImpactDescriptor>
 
 	private void write(Workbook wb) {
 		var sheet = wb.createSheet("Direct impact contributions");
-		header(sheet);
-		subHeaders(sheet, items.techFlows(), items.impacts());
-		data(sheet, items.techFlows(), items.impacts());
+		write(sheet, items.techFlows(), items.impacts());
 	}
 
 	@Override
-	protected double getValue(TechFlow techFlow, ImpactDescriptor impact) {
-		return r.getDirectImpactOf(impact, techFlow);
+	protected void valuesOf(
+			TechFlow techFlow, ObjDoubleConsumer<ImpactDescriptor> fn) {
+		for (var v : r.getDirectImpactsOf(techFlow)) {
+			fn.accept(v.impact(), v.value());
+		}
 	}
 
 	@Override
@@ -1,5 +1,7 @@
 package org.openlca.io.xls.results.system;
 
+import java.util.function.ObjDoubleConsumer;
+
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.openlca.core.matrix.index.EnviFlow;
@@ -27,14 +29,15 @@ class DirectInventoryMatrix extends ContributionMatrix<TechFlow, EnviFlow> {
 
 	private void write(Workbook workbook) {
 		var sheet = workbook.createSheet("Direct inventory contributions");
-		header(sheet);
-		subHeaders(sheet, items.techFlows(), items.enviFlows());
-		data(sheet, items.techFlows(), items.enviFlows());
+		write(sheet, items.techFlows(), items.enviFlows());
 	}
 
 	@Override
-	protected double getValue(TechFlow techFlow, EnviFlow flow) {
-		return r.getDirectFlowOf(flow, techFlow);
+	protected void valuesOf(
+			TechFlow techFlow, ObjDoubleConsumer<EnviFlow> fn) {
+		for (var v : r.getDirectFlowsOf(techFlow)) {
+			fn.accept(v.enviFlow(), v.value());
+		}
 	}
 
 	@Override
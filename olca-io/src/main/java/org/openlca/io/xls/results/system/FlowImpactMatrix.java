@@ -1,5 +1,7 @@
 package org.openlca.io.xls.results.system;
 
+import java.util.function.ObjDoubleConsumer;
+
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.openlca.core.matrix.index.EnviFlow;
@@ -28,14 +30,15 @@ class FlowImpactMatrix extends ContributionMatrix<EnviFlow, ImpactDescriptor> {
 
 	private void write(Workbook wb) {
 		var sheet = wb.createSheet("Impact contributions by flow");
-		header(sheet);
-		subHeaders(sheet, items.enviFlows(), items.impacts());
-		data(sheet, items.enviFlows(), items.impacts());
+		write(sheet, items.enviFlows(), items.impacts());
 	}
 
 	@Override
-	protected double getValue(EnviFlow flow, ImpactDescriptor impact) {
-		return r.getFlowImpactOf(impact, flow);
+	protected void valuesOf(
+			EnviFlow flow, ObjDoubleConsumer<ImpactDescriptor> fn) {
+		for (var v : r.getFlowImpactsOf(flow)) {
+			fn.accept(v.impact(), v.value());
+		}
 	}
 
 	@Override
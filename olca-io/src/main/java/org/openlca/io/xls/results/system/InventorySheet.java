@@ -36,8 +36,21 @@ class InventorySheet {
 		sheet = workbook.createSheet("Inventory");
 		int col = header(1, true);
 		header(col, false);
-		data(1, filterByInputType(true));
-		data(col, filterByInputType(false));
+		var inputs = filterByInputType(true);
+		var outputs = filterByInputType(false);
+
+		// write the inputs and outputs row by row, so that the rows can be
+		// flushed by the streaming workbook
+		int n = Math.max(inputs.size(), outputs.size());
+		for (int i = 0; i < n; i++) {
+			int row = 3 + i;
+			if (i < inputs.size()) {
+				data(row, 1, inputs.get(i));
+			}
+			if (i < outputs.size()) {
+				data(row, col, outputs.get(i));
+			}
+		}
 	}
 
 	private List<EnviFlow> filterByInputType(boolean input) {
@@ -58,21 +71,16 @@ class InventorySheet {
 		return col + 1;
 	}
 
-	private void data(int col, List<EnviFlow> flows) {
-		int row = 3;
+	private void data(int row, int col, EnviFlow flow) {
 		int startCol = ResultExport.FLOW_HEADER.length;
-		for (EnviFlow flow : flows) {
-			double value = result.getTotalFlowValueOf(flow);
-			writer.flowRow(sheet, row, col, flow);
-			writer.cell(sheet, row, startCol + col, value);
-			if (!withDQ()) {
-				row++;
-				continue;
-			}
-			writer.dataQuality(sheet, row++, startCol + col + 1,
-					dqResult.get(flow),
-					dqResult.setup.exchangeSystem);
-		}
+		double value = result.getTotalFlowValueOf(flow);
+		writer.flowRow(sheet, row, col, flow);
+		writer.cell(sheet, row, startCol + col, value);
+		if (!withDQ())
+			return;
+		writer.dataQuality(sheet, row, startCol + col + 1,
+				dqResult.get(flow),
+				dqResult.setup.exchangeSystem);
 	}
 
 	private boolean withDQ() {
@@ -0,0 +1,100 @@
+package org.openlca.io.xls.results.system;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+
+/**
+ * Buffers the values of a contribution matrix in a temporary file. In the
+ * result export, the values of a matrix are calculated column by column (e.g.
+ * the inventory result of a process) but the sheets need to be written row by
+ * row. Thus, the columns are added in pages of a fixed number of columns. The
+ * values of a page are stored row by row so that a row of the matrix can then
+ * be read with a single read per page. This way, only a page of the matrix
+ * and not the full matrix needs to be kept in memory.
+ */
+class MatrixBuffer implements Closeable {
+
+	private final int rows;
+	private final int cols;
+	private final int pageSize;
+	private final File file;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+	private final ByteBuffer rowBuffer;
+	private int nextCol;
+
+	private MatrixBuffer(int rows, int cols, int pageSize) throws IOException {
+		this.rows = rows;
+		this.cols = cols;
+		this.pageSize = pageSize;
+		this.file = Files.createTempFile("_olca_matrix_", ".bin").toFile();
+		this.raf = new RandomAccessFile(file, "rw");
+		this.channel = raf.getChannel();
+		this.rowBuffer = ByteBuffer.allocate(Math.min(pageSize, cols) * 8);
+	}
+
+	static MatrixBuffer create(int rows, int cols, int pageSize)
+			throws IOException {
+		return new MatrixBuffer(rows, cols, Math.max(1, pageSize));
+	}
+
+	/**
+	 * Adds the next page of columns: {@code page[k][i]} is the value of row
+	 * {@code i} in the k-th column of the page. Only the last page can contain
+	 * less columns than the page size.
+	 */
+	void addPage(double[][] page) throws IOException {
+		if (page.length == 0)
+			return;
+		if (page.length > pageSize || nextCol + page.length > cols)
+			throw new IllegalArgumentException("invalid page size");
+		var buffer = ByteBuffer.allocate(rows * page.length * 8);
+		for (int i = 0; i < rows; i++) {
+			for (double[] column : page) {
+				buffer.putDouble(column[i]);
+			}
+		}
+		buffer.flip();
+		long pos = (long) nextCol * rows * 8;
+		while (buffer.hasRemaining()) {
+			pos += channel.write(buffer, pos);
+		}
+		nextCol += page.length;
+	}
+
+	/**
+	 * Reads the values of the given row into the given array.
+	 */
+	void readRow(int row, double[] values) throws IOException {
+		for (int start = 0; start < nextCol; start += pageSize) {
+			int width = Math.min(pageSize, nextCol - start);
+			long pos = (long) start * rows * 8 + (long) row * width * 8;
+			rowBuffer.clear();
+			rowBuffer.limit(width * 8);
+			while (rowBuffer.hasRemaining()) {
+				int n = channel.read(rowBuffer, pos);
+				if (n < 0)
+					throw new IOException("unexpected end of matrix buffer");
+				pos += n;
+			}
+			rowBuffer.flip();
+			for (int k = 0; k < width; k++) {
+				values[start + k] = rowBuffer.getDouble();
+			}
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			raf.close();
+		} finally {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+}
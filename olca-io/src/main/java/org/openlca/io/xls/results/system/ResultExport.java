@@ -20,6 +20,12 @@ import org.slf4j.LoggerFactory;
 
 public class ResultExport implements Runnable {
 
+	/**
+	 * The number of rows that are kept in memory per sheet. The other rows are
+	 * flushed to (compressed) temporary files.
+	 */
+	private static final int ROW_WINDOW = 100;
+
 	private final Logger log = LoggerFactory.getLogger(ResultExport.class);
 	static final String[] FLOW_HEADER = {"Flow UUID", "Flow", "Category", "Sub-category", "Unit"};
 	static final String[] PROCESS_HEADER = {"Process UUID", "Process", "Location"};
@@ -90,7 +96,7 @@ public class ResultExport implements Runnable {
 	@Override
 	public void run() {
 		try {
-			workbook = new SXSSFWorkbook(-1);
+			workbook = new SXSSFWorkbook(null, ROW_WINDOW, true);
 			writer = new CellWriter(cache, workbook);
 			DQSetup dqSetup = dqResult != null
 					? dqResult.setup
@@ -109,10 +115,13 @@ public class ResultExport implements Runnable {
 					workbook.write(stream);
 				}
 			}
-			workbook.dispose();
 		} catch (Exception e) {
 			log.error("Error exporting results", e);
 			success = false;
+		} finally {
+			if (workbook != null) {
+				workbook.dispose();
+			}
 		}
 	}
 
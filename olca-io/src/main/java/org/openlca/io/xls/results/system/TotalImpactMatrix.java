@@ -1,5 +1,7 @@
 package org.openlca.io.xls.results.system;
 
+import java.util.function.ObjDoubleConsumer;
+
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.openlca.core.matrix.index.TechFlow;
@@ -28,14 +30,15 @@ class TotalImpactMatrix extends
 
 	private void write(Workbook wb) {
 		var sheet = wb.createSheet("Total upstream impacts");
-		header(sheet);
-		subHeaders(sheet, items.techFlows(), items.impacts());
-		data(sheet, items.techFlows(), items.impacts());
+		write(sheet, items.techFlows(), items.impacts());
 	}
 
 	@Override
-	protected double getValue(TechFlow techFlow, ImpactDescriptor impact) {
-		return r.getTotalImpactOf(impact, techFlow);
+	protected void valuesOf(
+			TechFlow techFlow, ObjDoubleConsumer<ImpactDescriptor> fn) {
+		for (var v : r.getTotalImpactsOf(techFlow)) {
+			fn.accept(v.impact(), v.value());
+		}
 	}
 
 	@Override
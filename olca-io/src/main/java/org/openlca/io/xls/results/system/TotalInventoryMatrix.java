@@ -1,5 +1,7 @@
 package org.openlca.io.xls.results.system;
 
+import java.util.function.ObjDoubleConsumer;
+
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.openlca.core.matrix.index.EnviFlow;
@@ -28,14 +30,15 @@ class TotalInventoryMatrix extends ContributionMatrix<TechFlow, EnviFlow> {
 
 	private void write(Workbook workbook) {
 		Sheet sheet = workbook.createSheet("Total upstream inventories");
-		header(sheet);
-		subHeaders(sheet, items.techFlows(), items.enviFlows());
-		data(sheet, items.techFlows(), items.enviFlows());
+		write(sheet, items.techFlows(), items.enviFlows());
 	}
 
 	@Override
-	protected double getValue(TechFlow process, EnviFlow flow) {
-		return r.getTotalFlowOf(flow, process);
+	protected void valuesOf(
+			TechFlow techFlow, ObjDoubleConsumer<EnviFlow> fn) {
+		for (var v : r.getTotalFlowsOf(techFlow)) {
+			fn.accept(v.enviFlow(), v.value());
+		}
 	}
 
 	@Override
@@ -4,22 +4,33 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.openlca.core.matrix.format.MatrixReader;
 import org.openlca.io.xls.Excel;
 
+/**
+ * Writes a matrix with row and column headers into a sheet. The sheet is
+ * written strictly row by row so that it can be used with a streaming
+ * workbook: first the rows of the column header are written and then, for
+ * each matrix row, the row header and the values of that row.
+ */
 class MatrixExcelExport {
 
-	private static final int ROW = 0;
-	private static final int COLUMN = 1;
+	/**
+	 * The number of rows that are kept in memory per sheet when the export
+	 * creates its own streaming workbook.
+	 */
+	static final int ROW_WINDOW = 100;
 
 	private ExcelHeader columnHeader;
 	private ExcelHeader rowHeader;
 	private MatrixReader matrix;
+	private boolean transposed;
 
 	public void setColumnHeader(ExcelHeader columnHeader) {
 		this.columnHeader = columnHeader;
@@ -33,62 +44,174 @@ class MatrixExcelExport {
 		this.matrix = matrix;
 	}
 
+	/**
+	 * If set to true, the transpose of the matrix is written. The matrix is
+	 * not copied for this but just read column by column.
+	 */
+	public void setTransposed(boolean transposed) {
+		this.transposed = transposed;
+	}
+
 	public void writeTo(File file) throws FileNotFoundException, IOException {
 		if (!file.exists())
 			file.createNewFile();
-		Workbook workbook = new XSSFWorkbook();
-		writeTo(workbook);
-		try (FileOutputStream fos = new FileOutputStream(file)) {
-			workbook.write(fos);
+		var workbook = new SXSSFWorkbook(null, ROW_WINDOW, true);
+		try {
+			writeTo(workbook);
+			try (FileOutputStream fos = new FileOutputStream(file)) {
+				workbook.write(fos);
+			}
+		} finally {
+			workbook.dispose();
 		}
 	}
 
 	public Sheet writeTo(Workbook workbook) {
+		Sheet sheet = createSheet(workbook);
+		writeRows(workbook, sheet);
+		return sheet;
+	}
+
+	/**
+	 * Creates the sheet and writes the rows of the column header into it.
+	 * Further formatting of the column header needs to be done before the
+	 * rows are written with {@link #writeRows(Workbook, Sheet)}.
+	 */
+	Sheet createSheet(Workbook workbook) {
 		Sheet sheet = workbook.createSheet("Data");
 		Excel.trackSize(sheet, 0, columnHeader.getHeaderSize() + 2);
-		writeHeader(workbook, sheet, COLUMN);
-		writeHeader(workbook, sheet, ROW);
-		writeValues(sheet);
-		Excel.autoSize(sheet, 0, columnHeader.getHeaderSize() + 2);
+		CellStyle bold = Excel.createBoldStyle(workbook);
+		int offset = rowHeader.getHeaderSize();
+		for (int row = 0; row < columnHeader.getHeaderSize(); row++) {
+			Excel.cell(sheet, row, offset, columnHeader.getHeader(row))
+					.ifPresent(c -> c.setCellStyle(bold));
+			for (int j = 0; j < columnHeader.getEntryCount(); j++) {
+				String value = columnHeader.getEntry(j).getValue(row);
+				Excel.cell(sheet, row, offset + j + 1, value);
+			}
+		}
 		return sheet;
 	}
 
-	private void writeHeader(Workbook workbook, Sheet sheet, int headerType) {
-		int offSet = headerType == COLUMN ? rowHeader.getHeaderSize()
-				: columnHeader.getHeaderSize();
-		ExcelHeader header = headerType == COLUMN ? columnHeader : rowHeader;
-
+	/**
+	 * Writes the rows with the row header and values into the sheet.
+	 */
+	void writeRows(Workbook workbook, Sheet sheet) {
 		CellStyle bold = Excel.createBoldStyle(workbook);
-		for (int i = 0; i < header.getHeaderSize(); i++) {
-			for (int j = 0; j <= header.getEntryCount(); j++) {
-				int row = headerType == COLUMN ? i : j + offSet;
-				int column = headerType == ROW ? i : j + offSet;
-
-				if (j == 0) {
-					String value = header.getHeader(i);
-					Excel.cell(sheet, row, column, value)
-							.ifPresent(c -> c.setCellStyle(bold));
-				} else {
-					int entryIndex = j - 1;
-					int valueIndex = i;
-					IExcelHeaderEntry entry = header.getEntry(entryIndex);
-					String value = entry.getValue(valueIndex);
-					Excel.cell(sheet, row, column, value);
+		int headerRow = columnHeader.getHeaderSize();
+		for (int col = 0; col < rowHeader.getHeaderSize(); col++) {
+			Excel.cell(sheet, headerRow, col, rowHeader.getHeader(col))
+					.ifPresent(c -> c.setCellStyle(bold));
+		}
+
+		var rows = Rows.of(matrix, transposed);
+		int columns = transposed ? matrix.rows() : matrix.columns();
+		var values = new double[columns];
+		int offset = rowHeader.getHeaderSize() + 1;
+		int n = Math.max(rowHeader.getEntryCount(), rows.count());
+		for (int i = 0; i < n; i++) {
+			int row = headerRow + 1 + i;
+			if (i < rowHeader.getEntryCount()) {
+				var entry = rowHeader.getEntry(i);
+				for (int col = 0; col < rowHeader.getHeaderSize(); col++) {
+					Excel.cell(sheet, row, col, entry.getValue(col));
+				}
+			}
+			if (i >= rows.count())
+				continue;
+			rows.read(rowHeader.mapIndex(i), values);
+			for (int j = 0; j < columns; j++) {
+				double value = values[columnHeader.mapIndex(j)];
+				if (value != 0) {
+					Excel.cell(sheet, row, offset + j, value);
 				}
 			}
 		}
+		Excel.autoSize(sheet, 0, columnHeader.getHeaderSize() + 2);
 	}
 
-	private void writeValues(Sheet sheet) {
-		for (int i = 0; i < matrix.rows(); i++) {
-			for (int j = 0; j < matrix.columns(); j++) {
-				int row = i + columnHeader.getHeaderSize() + 1;
-				int column = j + rowHeader.getHeaderSize() + 1;
-				int rowIndex = rowHeader.mapIndex(i);
-				int columnIndex = columnHeader.mapIndex(j);
-				double value = matrix.get(rowIndex, columnIndex);
-				if (value != 0)
-					Excel.cell(sheet, row, column, value);
+	/**
+	 * Reads the rows of a (possibly transposed) matrix. For sparse matrices,
+	 * the non-zero entries are collected once in compressed row arrays, so
+	 * that a row can be read without a lookup for each of its cells.
+	 */
+	private static abstract class Rows {
+
+		abstract int count();
+
+		abstract void read(int row, double[] buffer);
+
+		static Rows of(MatrixReader matrix, boolean transposed) {
+			return matrix.isSparse()
+					? new SparseRows(matrix, transposed)
+					: new DenseRows(matrix, transposed);
+		}
+	}
+
+	private static class DenseRows extends Rows {
+
+		private final MatrixReader matrix;
+		private final boolean transposed;
+
+		DenseRows(MatrixReader matrix, boolean transposed) {
+			this.matrix = matrix;
+			this.transposed = transposed;
+		}
+
+		@Override
+		int count() {
+			return transposed ? matrix.columns() : matrix.rows();
+		}
+
+		@Override
+		void read(int row, double[] buffer) {
+			if (transposed) {
+				matrix.readColumn(row, buffer);
+			} else {
+				matrix.readRow(row, buffer);
+			}
+		}
+	}
+
+	private static class SparseRows extends Rows {
+
+		private final int[] pointers;
+		private final int[] columns;
+		private final double[] values;
+
+		SparseRows(MatrixReader matrix, boolean transposed) {
+			int rows = transposed ? matrix.columns() : matrix.rows();
+			pointers = new int[rows + 1];
+			matrix.iterate((row, col, val) -> {
+				int r = transposed ? col : row;
+				pointers[r + 1]++;
+			});
+			for (int r = 0; r < rows; r++) {
+				pointers[r + 1] += pointers[r];
+			}
+			columns = new int[pointers[rows]];
+			values = new double[pointers[rows]];
+			var next = new int[rows];
+			System.arraycopy(pointers, 0, next, 0, rows);
+			matrix.iterate((row, col, val) -> {
+				int r = transposed ? col : row;
+				int c = transposed ? row : col;
+				int idx = next[r]++;
+				columns[idx] = c;
+				values[idx] = val;
+			});
+		}
+
+		@Override
+		int count() {
+			return pointers.length - 1;
+		}
+
+		@Override
+		void read(int row, double[] buffer) {
+			Arrays.fill(buffer, 0);
+			for (int idx = pointers[row]; idx < pointers[row + 1]; idx++) {
+				buffer[columns[idx]] = values[idx];
 			}
 		}
 	}
@@ -12,11 +12,8 @@ import java.util.stream.Collectors;
 
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.openlca.core.matrix.MatrixData;
-import org.openlca.core.matrix.format.DenseMatrix;
-import org.openlca.core.matrix.format.Matrix;
-import org.openlca.core.matrix.format.MatrixReader;
 import org.openlca.core.matrix.index.EnviIndex;
 import org.openlca.core.matrix.index.ImpactIndex;
 import org.openlca.core.matrix.index.TechIndex;
@@ -28,6 +25,11 @@ import org.openlca.util.Strings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Exports the matrices of a product system into Excel workbooks. The
+ * workbooks are written as streaming workbooks that keep only a window of
+ * rows in memory, and the matrix rows are read directly from the matrix data.
+ */
 class SystemExport {
 
 	private final Logger log = LoggerFactory.getLogger(getClass());
@@ -61,7 +63,7 @@ class SystemExport {
 
 	private void createElementaryWorkbook(File subDir) throws IOException {
 		log.trace("create workbook with elementary flows");
-		Workbook elementaryWorkbook = new XSSFWorkbook();
+		var elementaryWorkbook = newWorkbook();
 		createElementaryCoverSheet(elementaryWorkbook,
 			conf.allocationMethod);
 		createElementarySheet(elementaryWorkbook);
@@ -69,9 +71,13 @@ class SystemExport {
 			new File(subDir, FILE_NAMES.ELEMENTARY));
 	}
 
+	private SXSSFWorkbook newWorkbook() {
+		return new SXSSFWorkbook(null, MatrixExcelExport.ROW_WINDOW, true);
+	}
+
 	private void createProductWorkbook(File subDir) throws IOException {
 		log.trace("create workbook with product flows");
-		Workbook productWorkbook = new XSSFWorkbook();
+		var productWorkbook = newWorkbook();
 		createProductCoverSheet(productWorkbook, conf.allocationMethod);
 		createProductSheet(productWorkbook);
 		writeToFile(productWorkbook, new File(subDir, FILE_NAMES.PRODUCT));
@@ -79,7 +85,7 @@ class SystemExport {
 
 	private void createImpactWorkbook(File subDir) throws IOException {
 		log.trace("create workbook with impact assessment factors");
-		Workbook impactMethodWorkbook = new XSSFWorkbook();
+		var impactMethodWorkbook = newWorkbook();
 		createImpactMethodCoverSheet(impactMethodWorkbook);
 		createImpactMethodSheet(impactMethodWorkbook);
 		writeToFile(impactMethodWorkbook, new File(subDir,
@@ -277,11 +283,12 @@ class SystemExport {
 		export.setColumnHeader(columnHeader);
 		export.setRowHeader(rowHeader);
 		export.setMatrix(data.techMatrix);
-		Sheet sheet = export.writeTo(workbook);
+		Sheet sheet = export.createSheet(workbook);
 		int columnOffSet = rowHeader.getHeaderSize() + 1;
 		for (int i = 0; i < columnHeader.getHeaderSize(); i++) {
 			Excel.bold(workbook, sheet, i, columnOffSet);
 		}
+		export.writeRows(workbook, sheet);
 	}
 
 	private void createImpactMethodSheet(Workbook workbook) {
@@ -291,7 +298,8 @@ class SystemExport {
 		MatrixExcelExport export = new MatrixExcelExport();
 		export.setColumnHeader(columnHeader);
 		export.setRowHeader(rowHeader);
-		export.setMatrix(transpose(data.impactMatrix));
+		export.setMatrix(data.impactMatrix);
+		export.setTransposed(true);
 		export.writeTo(workbook);
 	}
 
@@ -333,18 +341,8 @@ class SystemExport {
 		return sortedCategories;
 	}
 
-	private Matrix transpose(MatrixReader matrix) {
-		var result = new DenseMatrix(matrix.columns(), matrix.rows());
-		for (int row = 0; row < matrix.rows(); row++) {
-			for (int column = 0; column < matrix.columns(); column++) {
-				double value = matrix.get(row, column);
-				result.set(column, row, value);
-			}
-		}
-		return result;
-	}
-
-	private void writeToFile(Workbook workbook, File file) throws IOException {
+	private void writeToFile(SXSSFWorkbook workbook, File file)
+		throws IOException {
 		int i = 1;
 		File actFile = new File(file.getAbsolutePath());
 		while (actFile.exists()) {
@@ -358,6 +356,8 @@ class SystemExport {
 		log.trace("write file {}", actFile.getAbsolutePath());
 		try (FileOutputStream fos = new FileOutputStream(actFile)) {
 			workbook.write(fos);
+		} finally {
+			workbook.dispose();
 		}
 	}
 
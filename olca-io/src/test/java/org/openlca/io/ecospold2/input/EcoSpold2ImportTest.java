@@ -19,10 +19,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 public class EcoSpold2ImportTest {
 
@@ -114,6 +117,39 @@ public class EcoSpold2ImportTest {
 		}
 	}
 
+	@Test
+	public void testParallelZipImport() throws Exception {
+		var first = dao.getForRefId(REF_ID);
+		dao.delete(first);
+
+		// a zip with the same data set twice; the duplicate is skipped
+		var zip = new File(tempFile.getParentFile(),
+				UUID.randomUUID() + ".zip");
+		try (var out = new ZipOutputStream(new FileOutputStream(zip))) {
+			for (int i = 0; i < 2; i++) {
+				out.putNextEntry(new ZipEntry("data_set_" + i + ".spold"));
+				Files.copy(tempFile.toPath(), out);
+				out.closeEntry();
+			}
+		}
+		var config = new ImportConfig(Tests.getDb());
+		config.threads = 4;
+		var imp = new EcoSpold2Import(config);
+		imp.setFiles(new File[] { zip });
+		imp.run();
+		Assert.assertTrue(zip.delete());
+
+		var processes = dao.getDescriptors().stream()
+				.filter(d -> REF_ID.equals(d.refId))
+				.count();
+		Assert.assertEquals(1, processes);
+		var second = dao.getForRefId(REF_ID);
+		Assert.assertEquals(first.name, second.name);
+		Assert.assertEquals(first.exchanges.size(), second.exchanges.size());
+		Assert.assertEquals(first.parameters.size(), second.parameters.size());
+		Assert.assertEquals("p", second.quantitativeReference.formula);
+	}
+
 	@Test
 	public void testUncertaintyImported() {
 		Process process = dao.getForRefId(REF_ID);
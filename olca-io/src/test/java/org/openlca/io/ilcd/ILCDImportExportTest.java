@@ -139,4 +139,25 @@ public class ILCDImportExportTest {
 		assertTrue(exportConf.store.contains(Process.class, id));
 	}
 
+	@Test
+	public void testG_ParallelZipImport() throws Exception {
+		String id = "76d6aaa4-37e2-40b2-994c-03292b600074";
+		var db = Tests.getDb();
+		var process = db.get(org.openlca.core.model.Process.class, id);
+		int exchanges = process.exchanges.size();
+		db.delete(process);
+
+		// import the exported zip in the parallel mode
+		exportConf.store.close();
+		try (var store = new ZipStore(zip)) {
+			var config = new ImportConfig(store, db).withThreads(4);
+			new ILCDImport(config).run();
+		}
+
+		var copy = db.get(org.openlca.core.model.Process.class, id);
+		assertNotNull(copy);
+		assertEquals(exchanges, copy.exchanges.size());
+		assertEquals(process.name, copy.name);
+	}
+
 }
@@ -35,4 +35,28 @@ public class ProcessImportTest {
 		assertEquals(6, process.exchanges.size());
 	}
 
+	@Test
+	public void testStreamedProcessImport() {
+		new SimaProCsvImport(db, file).run();
+		var expected = db.getAll(Process.class).get(0);
+		db.clear();
+
+		new SimaProCsvImport(db, file).streaming(true).run();
+		var processes = db.getAll(Process.class);
+		assertEquals(1, processes.size());
+		var process = processes.get(0);
+		assertEquals(expected.name, process.name);
+		assertEquals(expected.exchanges.size(), process.exchanges.size());
+		assertEquals(expected.parameters.size(), process.parameters.size());
+		for (var e : expected.exchanges) {
+			var match = process.exchanges.stream()
+				.filter(ei -> ei.internalId == e.internalId)
+				.findFirst()
+				.orElseThrow();
+			assertEquals(e.flow.name, match.flow.name);
+			assertEquals(e.amount, match.amount, 1e-16);
+			assertEquals(e.unit.name, match.unit.name);
+		}
+	}
+
 }
@@ -2,6 +2,7 @@ package org.openlca.io.xls;
 
 import java.nio.file.Files;
 
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Assert;
 import org.junit.Test;
 import org.openlca.core.database.EntityCache;
@@ -15,6 +16,7 @@ import org.openlca.core.model.ProductSystem;
 import org.openlca.core.model.Unit;
 import org.openlca.core.model.UnitGroup;
 import org.openlca.io.Tests;
+import org.openlca.io.xls.results.system.MatrixPage;
 import org.openlca.io.xls.results.system.ResultExport;
 
 public class ResultExportTest {
@@ -48,4 +50,43 @@ public class ResultExportTest {
 		Files.delete(file.toPath());
 		db.clear();
 	}
+
+	@Test
+	public void testMatrixPages() throws Exception {
+		var units = db.insert(UnitGroup.of("Mass units", Unit.of("kg")));
+		var mass = db.insert(FlowProperty.of("Mass", units));
+		var steel = db.insert(Flow.product("Steel", mass));
+		var co2 = db.insert(Flow.elementary("C02", mass));
+		var process = Process.of("Steel production", steel);
+		process.output(co2, 2);
+		process = db.insert(process);
+
+		var sys = ProductSystem.of(process);
+		var setup = CalculationSetup.of(sys);
+		var result = new SystemCalculator(db).calculate(setup);
+
+		var file = Files.createTempFile("_olca_test_", ".xlsx").toFile();
+		var export = new ResultExport(setup, result, file, EntityCache.create(db))
+				.addPage(MatrixPage.DIRECT_INVENTORIES)
+				.addPage(MatrixPage.TOTAL_INVENTORIES);
+		export.run();
+		Assert.assertTrue(export.doneWithSuccess());
+
+		// the first value of the matrix is in the row after the process
+		// headers and in the column after the flow headers
+		try (var wb = new XSSFWorkbook(file)) {
+			for (var name : new String[]{
+					"Direct inventory contributions",
+					"Total upstream inventories"}) {
+				var sheet = wb.getSheet(name);
+				Assert.assertNotNull(sheet);
+				var cell = sheet.getRow(5).getCell(7);
+				Assert.assertEquals(2.0, cell.getNumericCellValue(), 1e-10);
+			}
+		}
+
+		result.dispose();
+		Files.delete(file.toPath());
+		db.clear();
+	}
 }
@@ -0,0 +1,86 @@
+package org.openlca.io.xls.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+import org.openlca.core.matrix.format.DenseMatrix;
+import org.openlca.core.matrix.format.HashPointMatrix;
+import org.openlca.core.matrix.format.MatrixReader;
+
+public class MatrixExcelExportTest {
+
+	private final double[][] values = {
+			{1, 0, 2},
+			{0, 3, 0}};
+
+	@Test
+	public void testSparse() throws Exception {
+		check(HashPointMatrix.of(values), false);
+		check(HashPointMatrix.of(values), true);
+	}
+
+	@Test
+	public void testDense() throws Exception {
+		check(DenseMatrix.of(values), false);
+		check(DenseMatrix.of(values), true);
+	}
+
+	private void check(MatrixReader matrix, boolean transposed)
+			throws Exception {
+		int rows = transposed ? matrix.columns() : matrix.rows();
+		int cols = transposed ? matrix.rows() : matrix.columns();
+
+		// write the rows and columns in reverse order
+		var rowHeader = header("row", rows);
+		var colHeader = header("col", cols);
+		var export = new MatrixExcelExport();
+		export.setRowHeader(rowHeader);
+		export.setColumnHeader(colHeader);
+		export.setMatrix(matrix);
+		export.setTransposed(transposed);
+
+		var file = Files.createTempFile("_olca_test_", ".xlsx").toFile();
+		export.writeTo(file);
+		try (var wb = new XSSFWorkbook(file)) {
+			var sheet = wb.getSheet("Data");
+			assertEquals("Name", sheet.getRow(0).getCell(1).getStringCellValue());
+			assertEquals("Name", sheet.getRow(1).getCell(0).getStringCellValue());
+			for (int i = 0; i < rows; i++) {
+				var row = sheet.getRow(i + 2);
+				assertEquals("row " + (rows - 1 - i),
+						row.getCell(0).getStringCellValue());
+				for (int j = 0; j < cols; j++) {
+					int mi = rows - 1 - i;
+					int mj = cols - 1 - j;
+					double expected = transposed
+							? matrix.get(mj, mi)
+							: matrix.get(mi, mj);
+					var cell = row.getCell(j + 2);
+					if (expected == 0) {
+						assertNull(cell);
+					} else {
+						assertEquals(expected, cell.getNumericCellValue(), 1e-10);
+					}
+				}
+			}
+		}
+		Files.delete(file.toPath());
+	}
+
+	private ExcelHeader header(String prefix, int size) {
+		var header = new ExcelHeader();
+		header.setHeaders(new String[]{"Name"});
+		var entries = new IExcelHeaderEntry[size];
+		for (int i = 0; i < size; i++) {
+			int idx = size - 1 - i;
+			entries[i] = count -> prefix + " " + idx;
+			header.putIndexMapping(i, idx);
+		}
+		header.setEntries(entries);
+		return header;
+	}
+}
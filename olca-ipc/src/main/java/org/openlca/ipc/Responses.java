@@ -2,6 +2,7 @@ package org.openlca.ipc;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
+import org.openlca.core.services.BinaryContent;
 import org.openlca.core.services.Response;
 
 /**
@@ -49,6 +50,25 @@ public class Responses {
 		return internalServerError("invalid response state", req);
 	}
 
+	public static RpcResponse binary(
+			Response<? extends BinaryContent> r, RpcRequest req) {
+		if (r == null)
+			return internalServerError("failed to produced response", req);
+		if (r.isValue()) {
+			var response = new RpcResponse();
+			if (req != null) {
+				response.id = req.id;
+			}
+			response.binary = r.value();
+			return response;
+		}
+		if (r.isEmpty())
+			return notFound("resource not found", req);
+		if (r.isError())
+			return internalServerError(r.error(), req);
+		return internalServerError("invalid response state", req);
+	}
+
 	public static RpcResponse badRequest(String message, RpcRequest req) {
 		return error(400, message, req);
 	}
@@ -2,6 +2,7 @@ package org.openlca.ipc;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonPrimitive;
+import org.openlca.core.services.BinaryContent;
 
 /**
  * When a rpc call is made, the Server MUST reply with a Response, except for in
@@ -39,4 +40,12 @@ public class RpcResponse {
 	 */
 	public JsonPrimitive id;
 
+	/**
+	 * An optional binary result. If this member is set, the server sends this
+	 * content as raw bytes instead of the JSON response. It is not part of the
+	 * JSON-RPC protocol but an extension for clients that explicitly request
+	 * results in binary format.
+	 */
+	public transient BinaryContent binary;
+
 }
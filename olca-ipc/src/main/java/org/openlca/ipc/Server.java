@@ -1,8 +1,10 @@
 package org.openlca.ipc;
 
 import com.google.gson.Gson;
+import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
+import org.openlca.core.services.BinaryContent;
 import org.openlca.core.services.JsonResultService;
 import org.openlca.core.services.ServerConfig;
 import org.openlca.ipc.handlers.DataHandler;
@@ -131,13 +133,14 @@ public class Server {
 	}
 
 	private void serve(HttpExchange t, RpcResponse r) {
+		if (r.binary != null) {
+			serveBinary(t, r.binary);
+			return;
+		}
 		try {
 			var headers = t.getResponseHeaders();
 			headers.put("Content-Type", List.of("application/json"));
-			headers.put("Access-Control-Allow-Origin", List.of("*"));
-			headers.put("Access-Control-Allow-Methods", List.of("POST"));
-			headers.put("Access-Control-Allow-Headers",
-					List.of("Content-Type, Allow-Control-Allow-Headers"));
+			putAccessHeaders(headers);
 			var json = new Gson().toJson(r).getBytes(StandardCharsets.UTF_8);
 			t.sendResponseHeaders(200, json.length);
 			try (var body = t.getResponseBody()) {
@@ -148,6 +151,30 @@ public class Server {
 		}
 	}
 
+	private void serveBinary(HttpExchange t, BinaryContent content) {
+		try {
+			var headers = t.getResponseHeaders();
+			headers.put("Content-Type", List.of(content.mediaType()));
+			putAccessHeaders(headers);
+
+			// a length of 0 means that the content is sent in chunks
+			var size = content.byteSize();
+			t.sendResponseHeaders(200, size >= 0 ? size : 0);
+			try (var body = t.getResponseBody()) {
+				content.writeTo(body);
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("failed to serve response", e);
+		}
+	}
+
+	private void putAccessHeaders(Headers headers) {
+		headers.put("Access-Control-Allow-Origin", List.of("*"));
+		headers.put("Access-Control-Allow-Methods", List.of("POST"));
+		headers.put("Access-Control-Allow-Headers",
+				List.of("Content-Type, Allow-Control-Allow-Headers"));
+	}
+
 	private record Handler(Object instance, java.lang.reflect.Method method) {
 
 		RpcResponse invoke(RpcRequest req) {
@@ -61,6 +61,22 @@ public class DataHandler {
 		});
 	}
 
+	@Rpc("data/search")
+	public RpcResponse search(RpcRequest req) {
+		var r = req.requireJsonObject();
+		if (r.isError())
+			return Responses.badRequest(r.error(), req);
+		var json = r.value();
+		var query = Json.getString(json, "query");
+		if (Strings.nullOrEmpty(query))
+			return Responses.invalidParams("no search query provided", req);
+		var type = JsonRef.typeOf(json);
+		var resp = service.search(query, type != null
+				? type.getModelClass()
+				: null);
+		return Responses.of(resp, req);
+	}
+
 	@Rpc("data/get/all")
 	public RpcResponse getAll(RpcRequest req) {
 		return withTypedParam(req, (json, type) -> {
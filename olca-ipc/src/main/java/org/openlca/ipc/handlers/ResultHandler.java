@@ -1,5 +1,6 @@
 package org.openlca.ipc.handlers;
 
+import org.openlca.core.services.BinaryResultService;
 import org.openlca.core.services.JsonResultService;
 import org.openlca.core.services.Response;
 import org.openlca.ipc.Responses;
@@ -10,9 +11,11 @@ import org.openlca.ipc.RpcResponse;
 public class ResultHandler {
 
 	private final JsonResultService results;
+	private final BinaryResultService binary;
 
 	public ResultHandler(HandlerContext context) {
 		this.results = context.results();
+		this.binary = results.binary();
 	}
 
 	@Rpc("result/calculate")
@@ -76,13 +79,16 @@ public class ResultHandler {
 
 	@Rpc("result/scaling-factors")
 	public RpcResponse getScalingFactors(RpcRequest req) {
-		return ResultRequest.of(req, rr -> results.getScalingFactors(rr.id()));
+		return ResultRequest.of(req,
+				rr -> results.getScalingFactors(rr.id()),
+				rr -> binary.getScalingFactors(rr.id()));
 	}
 
 	@Rpc("result/totality-factors")
 	public RpcResponse getTotalityFactors(RpcRequest req) {
 		return ResultRequest.of(req,
-				rr -> results.getTotalityFactors(rr.id()));
+				rr -> results.getTotalityFactors(rr.id()),
+				rr -> binary.getTotalityFactors(rr.id()));
 	}
 
 	@Rpc("result/totality-factor-of")
@@ -93,7 +99,9 @@ public class ResultHandler {
 
 	@Rpc("result/total-requirements")
 	public RpcResponse getTotalRequirements(RpcRequest req) {
-		return ResultRequest.of(req, rr -> results.getTotalRequirements(rr.id()));
+		return ResultRequest.of(req,
+				rr -> results.getTotalRequirements(rr.id()),
+				rr -> binary.getTotalRequirements(rr.id()));
 	}
 
 	@Rpc("result/total-requirements-of")
@@ -105,13 +113,15 @@ public class ResultHandler {
 	@Rpc("result/scaled-tech-flows-of")
 	public RpcResponse getScaledTechFlowsOf(RpcRequest req) {
 		return ResultRequest.of(req,
-				rr -> results.getScaledTechFlowsOf(rr.id(), rr.techFlow()));
+				rr -> results.getScaledTechFlowsOf(rr.id(), rr.techFlow()),
+				rr -> binary.getScaledTechFlowsOf(rr.id(), rr.techFlow()));
 	}
 
 	@Rpc("result/unscaled-tech-flows-of")
 	public RpcResponse getUnscaledTechFlowsOf(RpcRequest req) {
 		return ResultRequest.of(req,
-				rr -> results.getUnscaledTechFlowsOf(rr.id(), rr.techFlow()));
+				rr -> results.getUnscaledTechFlowsOf(rr.id(), rr.techFlow()),
+				rr -> binary.getUnscaledTechFlowsOf(rr.id(), rr.techFlow()));
 	}
 
 	// endregion
@@ -120,7 +130,9 @@ public class ResultHandler {
 
 	@Rpc("result/total-flows")
 	public RpcResponse getTotalFlows(RpcRequest req) {
-		return ResultRequest.of(req, rr -> results.getTotalFlows(rr.id()));
+		return ResultRequest.of(req,
+				rr -> results.getTotalFlows(rr.id()),
+				rr -> binary.getTotalFlows(rr.id()));
 	}
 
 	@Rpc("result/total-flow-value-of")
@@ -132,13 +144,15 @@ public class ResultHandler {
 	@Rpc("result/flow-contributions-of")
 	public RpcResponse getFlowContributionsOf(RpcRequest req) {
 		return ResultRequest.of(req,
-				rr -> results.getFlowContributionsOf(rr.id(), rr.enviFlow()));
+				rr -> results.getFlowContributionsOf(rr.id(), rr.enviFlow()),
+				rr -> binary.getFlowContributionsOf(rr.id(), rr.enviFlow()));
 	}
 
 	@Rpc("result/direct-interventions-of")
 	public RpcResponse getDirectInterventionsOf(RpcRequest req) {
 		return ResultRequest.of(req,
-				rr -> results.getDirectInterventionsOf(rr.id(), rr.techFlow()));
+				rr -> results.getDirectInterventionsOf(rr.id(), rr.techFlow()),
+				rr -> binary.getDirectInterventionsOf(rr.id(), rr.techFlow()));
 	}
 
 	@Rpc("result/direct-intervention-of")
@@ -150,8 +164,9 @@ public class ResultHandler {
 
 	@Rpc("result/flow-intensities-of")
 	public RpcResponse getFlowIntensitiesOf(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getFlowIntensitiesOf(rr.id(), rr.techFlow()));
+		return ResultRequest.of(req,
+				rr -> results.getFlowIntensitiesOf(rr.id(), rr.techFlow()),
+				rr -> binary.getFlowIntensitiesOf(rr.id(), rr.techFlow()));
 	}
 
 	@Rpc("result/flow-intensity-of")
@@ -162,8 +177,9 @@ public class ResultHandler {
 
 	@Rpc("result/total-interventions-of")
 	public RpcResponse getTotalInterventionsOf(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getTotalInterventionsOf(rr.id(), rr.techFlow()));
+		return ResultRequest.of(req,
+				rr -> results.getTotalInterventionsOf(rr.id(), rr.techFlow()),
+				rr -> binary.getTotalInterventionsOf(rr.id(), rr.techFlow()));
 	}
 
 	@Rpc("result/total-intervention-of")
@@ -184,8 +200,9 @@ public class ResultHandler {
 
 	@Rpc("result/total-impacts")
 	public RpcResponse getTotalImpacts(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getTotalImpacts(rr.id()));
+		return ResultRequest.of(req,
+				rr -> results.getTotalImpacts(rr.id()),
+				rr -> binary.getTotalImpacts(rr.id()));
 	}
 
 	@Rpc("result/total-impact-value-of")
@@ -208,14 +225,16 @@ public class ResultHandler {
 
 	@Rpc("result/impact-contributions-of")
 	public RpcResponse getImpactContributionsOf(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getImpactContributionsOf(rr.id(), rr.impact()));
+		return ResultRequest.of(req,
+				rr -> results.getImpactContributionsOf(rr.id(), rr.impact()),
+				rr -> binary.getImpactContributionsOf(rr.id(), rr.impact()));
 	}
 
 	@Rpc("result/direct-impacts-of")
 	public RpcResponse getDirectImpactsOf(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getDirectImpactsOf(rr.id(), rr.techFlow()));
+		return ResultRequest.of(req,
+				rr -> results.getDirectImpactsOf(rr.id(), rr.techFlow()),
+				rr -> binary.getDirectImpactsOf(rr.id(), rr.techFlow()));
 	}
 
 	@Rpc("result/direct-impact-of")
@@ -226,8 +245,9 @@ public class ResultHandler {
 
 	@Rpc("result/impact-intensities-of")
 	public RpcResponse getImpactIntensitiesOf(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getImpactIntensitiesOf(rr.id(), rr.techFlow()));
+		return ResultRequest.of(req,
+				rr -> results.getImpactIntensitiesOf(rr.id(), rr.techFlow()),
+				rr -> binary.getImpactIntensitiesOf(rr.id(), rr.techFlow()));
 	}
 
 	@Rpc("result/impact-intensity-of")
@@ -238,8 +258,9 @@ public class ResultHandler {
 
 	@Rpc("result/total-impacts-of")
 	public RpcResponse getTotalImpactsOf(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getTotalImpactsOf(rr.id(), rr.techFlow()));
+		return ResultRequest.of(req,
+				rr -> results.getTotalImpactsOf(rr.id(), rr.techFlow()),
+				rr -> binary.getTotalImpactsOf(rr.id(), rr.techFlow()));
 	}
 
 	@Rpc("result/total-impact-of")
@@ -250,8 +271,9 @@ public class ResultHandler {
 
 	@Rpc("result/impact-factors-of")
 	public RpcResponse getImpactFactorsOf(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getImpactFactorsOf(rr.id(), rr.impact()));
+		return ResultRequest.of(req,
+				rr -> results.getImpactFactorsOf(rr.id(), rr.impact()),
+				rr -> binary.getImpactFactorsOf(rr.id(), rr.impact()));
 	}
 
 	@Rpc("result/impact-factor-of")
@@ -262,8 +284,9 @@ public class ResultHandler {
 
 	@Rpc("result/flow-impacts-of")
 	public RpcResponse getFlowImpactsOf(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getFlowImpactsOf(rr.id(), rr.impact()));
+		return ResultRequest.of(req,
+				rr -> results.getFlowImpactsOf(rr.id(), rr.impact()),
+				rr -> binary.getFlowImpactsOf(rr.id(), rr.impact()));
 	}
 
 	@Rpc("result/flow-impact-of")
@@ -272,6 +295,18 @@ public class ResultHandler {
 				results.getFlowImpactOf(rr.id(), rr.impact(), rr.enviFlow()));
 	}
 
+	@Rpc("result/direct-impact-matrix")
+	public RpcResponse getDirectImpactMatrix(RpcRequest req) {
+		return ResultRequest.binary(req, rr ->
+				binary.getDirectImpactMatrix(rr.id()));
+	}
+
+	@Rpc("result/total-impact-matrix")
+	public RpcResponse getTotalImpactMatrix(RpcRequest req) {
+		return ResultRequest.binary(req, rr ->
+				binary.getTotalImpactMatrix(rr.id()));
+	}
+
 	@Rpc("result/upstream-impacts-of")
 	public RpcResponse getUpstreamImpactsOf(RpcRequest req) {
 		return ResultRequest.of(req, rr ->
@@ -290,8 +325,9 @@ public class ResultHandler {
 
 	@Rpc("result/cost-contributions")
 	public RpcResponse getCostContributions(RpcRequest req) {
-		return ResultRequest.of(req, rr ->
-				results.getCostContributions(rr.id()));
+		return ResultRequest.of(req,
+				rr -> results.getCostContributions(rr.id()),
+				rr -> binary.getCostContributions(rr.id()));
 	}
 
 	@Rpc("result/direct-costs-of")
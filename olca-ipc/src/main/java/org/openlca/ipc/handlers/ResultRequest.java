@@ -2,6 +2,7 @@ package org.openlca.ipc.handlers;
 
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import org.openlca.core.services.BinaryContent;
 import org.openlca.core.services.EnviFlowId;
 import org.openlca.core.services.Response;
 import org.openlca.core.services.TechFlowId;
@@ -28,18 +29,53 @@ class ResultRequest {
 
 	static RpcResponse of(RpcRequest req,
 			Function<ResultRequest, Response<? extends JsonElement>> handler) {
+		var reqQ = parse(req);
+		if (reqQ.isError())
+			return reqQ.error();
+		return Responses.of(handler.apply(reqQ.value()), req);
+	}
+
+	/**
+	 * Handles a request of a vector result which can be also returned in a
+	 * compact binary format. The binary handler is used when the request
+	 * contains the parameter {@code "format": "binary"}.
+	 */
+	static RpcResponse of(RpcRequest req,
+			Function<ResultRequest, Response<? extends JsonElement>> handler,
+			Function<ResultRequest, Response<? extends BinaryContent>> binaryHandler) {
+		var reqQ = parse(req);
+		if (reqQ.isError())
+			return reqQ.error();
+		var rr = reqQ.value();
+		return rr.isBinary()
+				? Responses.binary(binaryHandler.apply(rr), req)
+				: Responses.of(handler.apply(rr), req);
+	}
+
+	/**
+	 * Handles a request of a result that is only available in a binary format.
+	 */
+	static RpcResponse binary(RpcRequest req,
+			Function<ResultRequest, Response<? extends BinaryContent>> handler) {
+		var reqQ = parse(req);
+		if (reqQ.isError())
+			return reqQ.error();
+		return Responses.binary(handler.apply(reqQ.value()), req);
+	}
+
+	private static Effect<ResultRequest> parse(RpcRequest req) {
 		Effect<JsonObject> paramQ =
 				req == null || req.params == null || !req.params.isJsonObject()
 						? Effect.error(Responses.invalidParams(req))
 						: Effect.ok(req.params.getAsJsonObject());
 		if (paramQ.isError())
-			return paramQ.error();
+			return Effect.error(paramQ.error());
 		var param = paramQ.value();
 		var resultId = Json.getString(param, "@id");
 		if (Strings.nullOrEmpty(resultId))
-			return Responses.invalidParams("no result ID @id provided", req);
-		var reqData = new ResultRequest(param, resultId);
-		return Responses.of(handler.apply(reqData), req);
+			return Effect.error(
+					Responses.invalidParams("no result ID @id provided", req));
+		return Effect.ok(new ResultRequest(param, resultId));
 	}
 
 	String id() {
@@ -70,6 +106,10 @@ class ResultRequest {
 		return Json.getRefId(reqParam, "impactCategory");
 	}
 
+	boolean isBinary() {
+		return "binary".equalsIgnoreCase(Json.getString(reqParam, "format"));
+	}
+
 	JsonElement param(String param) {
 		return reqParam != null
 				? reqParam.get(param)
@@ -1,11 +1,6 @@
 package org.openlca.proto.io.input;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-
+import org.openlca.core.io.ImportPipeline;
 import org.openlca.core.model.ModelType;
 import org.openlca.core.model.RootEntity;
 
@@ -15,10 +10,6 @@ class BatchImport<T extends RootEntity> {
 	private final Class<T> clazz;
 	private final ModelType type;
 	private final int batchSize;
-	private final Writer writer = new Writer();
-
-	private final ArrayList<RootEntity> inserts = new ArrayList<>();
-	private final ArrayList<RootEntity> updates = new ArrayList<>();
 
 	BatchImport(ProtoImport imp, Class<T> type, int batchSize) {
 		this.imp = imp;
@@ -36,96 +27,27 @@ class BatchImport<T extends RootEntity> {
 	}
 
 	void run() {
-		for (var refId : imp.reader.getIds(type)) {
-			var item = imp.fetch(clazz, refId);
-			if (item.isVisited() || item.isError())
-				continue;
-			if (item.isNew()) {
-				insert(item.proto().read(imp));
-			} else {
-				T model = item.entity();
-				item.proto().update(model, imp);
-				update(model);
+		var threads = ImportPipeline.canReadInParallel(type)
+			? imp.threadCount
+			: 1;
+		try (var pipeline = new ImportPipeline(
+			imp.db(), batchSize, threads, imp::visited)) {
+			for (var refId : imp.reader.getIds(type)) {
+				pipeline.submit(() -> read(pipeline, refId));
 			}
 		}
-		if (inserts.size() > 0) {
-			flushInserts();
-		}
-		if (updates.size() > 0) {
-			flushUpdates();
-		}
-		writer.close();
-	}
-
-	private void insert(RootEntity entity) {
-		inserts.add(entity);
-		if (inserts.size() >= batchSize) {
-			flushInserts();
-		}
-	}
-
-	private void update(RootEntity entity) {
-		updates.add(entity);
-		if (updates.size() >= batchSize) {
-			flushUpdates();
-		}
-	}
-
-	private void flushInserts() {
-		writer.insert(inserts);
-		inserts.clear();
-	}
-
-	private void flushUpdates() {
-		writer.update(updates);
-		updates.clear();
 	}
 
-	private class Writer {
-
-		private final ExecutorService exec = Executors.newFixedThreadPool(1);
-		private final ArrayList<RootEntity> buffer = new ArrayList<>();
-		private volatile Future<?> task;
-
-		void insert(List<RootEntity> batch) {
-			next(batch);
-			task = exec.submit(() -> {
-				imp.db().transaction(em -> buffer.forEach(em::persist));
-				buffer.forEach(imp::visited);
-				buffer.clear();
-			});
-		}
-
-		void update(List<RootEntity> batch) {
-			next(batch);
-			task = exec.submit(() -> {
-				imp.db().transaction(em -> buffer.replaceAll(em::merge));
-				buffer.forEach(imp::visited);
-				buffer.clear();
-			});
-		}
-
-		private void next(List<RootEntity> batch) {
-			flush();
-			buffer.clear();
-			buffer.addAll(batch);
-		}
-
-		private void flush() {
-			if (task != null) {
-				try {
-					task.get();
-					task = null;
-				} catch (Exception e) {
-					throw new RuntimeException("failed to wait for worker", e);
-				}
-			}
-		}
-
-		private void close() {
-			flush();
-			exec.shutdown();
+	private void read(ImportPipeline pipeline, String refId) {
+		var item = imp.fetch(clazz, refId);
+		if (item.isVisited() || item.isError())
+			return;
+		if (item.isNew()) {
+			pipeline.insert(item.proto().read(imp));
+		} else {
+			T model = item.entity();
+			item.proto().update(model, imp);
+			pipeline.update(model);
 		}
 	}
-
 }
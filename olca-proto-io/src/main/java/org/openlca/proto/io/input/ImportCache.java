@@ -1,8 +1,8 @@
 package org.openlca.proto.io.input;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openlca.core.model.Actor;
 import org.openlca.core.model.Currency;
@@ -22,7 +22,10 @@ class ImportCache {
 
 	private final ProtoImport imp;
 
-	private final Map<Class<?>, Map<String, Object>> cache = new HashMap<>();
+	// the cache is accessed by the worker and writer threads of a pipelined
+	// import and thus needs to be thread-safe
+	private final Map<Class<?>, Map<String, Object>> cache =
+		new ConcurrentHashMap<>();
 
 	// small independent instances that we cache as full objects, instances
 	// of classes that are not in this set are cached as descriptors
@@ -43,10 +46,10 @@ class ImportCache {
 	}
 
 	void visited(RootEntity entity) {
-		if (entity == null)
+		if (entity == null || entity.refId == null)
 			return;
 		var type = entity.getClass();
-		var cacheMap = cache.computeIfAbsent(type, t -> new HashMap<>());
+		var cacheMap = cache.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
 		var cacheObj = fullyCached.contains(type)
 			? entity
 			: Descriptor.of(entity);
@@ -54,6 +57,8 @@ class ImportCache {
 	}
 
 	Descriptor getDescriptor(Class<?> type, String refId) {
+		if (type == null || refId == null)
+			return null;
 		var cacheMap = cache.get(type);
 		if (cacheMap == null)
 			return null;
@@ -76,7 +81,7 @@ class ImportCache {
 			return ImportItem.error();
 
 		// first, try to read it from cache
-		var cacheMap = cache.computeIfAbsent(type, t -> new HashMap<>());
+		var cacheMap = cache.computeIfAbsent(type, t -> new ConcurrentHashMap<>());
 		var cached = cacheMap.get(refId);
 		if (cached != null) {
 			if (type.isInstance(cached))
@@ -23,6 +23,7 @@ public class ProtoImport implements Runnable, EntityResolver {
 	private final IDatabase db;
 	final ProtoStoreReader reader;
 	UpdateMode updateMode = UpdateMode.NEVER;
+	int threadCount = 1;
 	final CategorySync categories;
 	final Map<Class<?>, ModelType> types = new HashMap<>();
 
@@ -44,6 +45,16 @@ public class ProtoImport implements Runnable, EntityResolver {
 		return this;
 	}
 
+	/**
+	 * Sets the number of threads that are used to read the data sets of a type
+	 * in a batch import. With more than one thread, the data sets are read in
+	 * parallel while a single writer thread inserts them into the database.
+	 */
+	public ProtoImport setThreadCount(int threadCount) {
+		this.threadCount = Math.max(1, threadCount);
+		return this;
+	}
+
 	@Override
 	public IDatabase db() {
 		return db;
@@ -97,7 +108,8 @@ public class ProtoImport implements Runnable, EntityResolver {
 	}
 
 	@Override
-	public <T extends RootEntity> T get(Class<T> type, String refId) {
+	public synchronized <T extends RootEntity> T get(
+		Class<T> type, String refId) {
 		// unit groups can have cyclic dependencies with flow properties
 		// thus, we handle them a bit differently than other types
 		if (Objects.equals(UnitGroup.class, type))
@@ -1,11 +1,15 @@
 package org.openlca.proto.io.output;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.google.protobuf.Message;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import org.openlca.core.database.IDatabase;
 import org.openlca.core.database.NativeSql;
 import org.openlca.core.model.Flow;
 import org.openlca.core.model.ImpactCategory;
+import org.openlca.core.model.ModelType;
 import org.openlca.core.model.Process;
 import org.openlca.core.model.RefEntity;
 import org.openlca.core.model.Version;
@@ -144,64 +148,143 @@ public final class Refs {
 		return new RefData(db);
 	}
 
+	/**
+	 * Returns the shared ref-data snapshot of the given database. The snapshot
+	 * is reused as long as the database is not modified and also caches the
+	 * encoded references of the descriptors for which references were created
+	 * (see {@link RefData#refOf(Descriptor)}). It can be used from multiple
+	 * threads.
+	 */
+	public static RefData snapshotOf(IDatabase db) {
+		return db.listeners()
+			.shared(Snapshot.class, Snapshot::new)
+			.get(db);
+	}
+
 	public static class RefData {
 
 		private final IDatabase db;
-		private Categories.PathBuilder categories;
-		private TLongObjectHashMap<String> flowUnits;
-		private TLongObjectHashMap<String> locationCodes;
+		private final Map<RefKey, ProtoRef> refs = new ConcurrentHashMap<>();
+		private volatile Categories.PathBuilder categories;
+		private volatile TLongObjectHashMap<String> flowUnits;
+		private volatile TLongObjectHashMap<String> locationCodes;
 
 		private RefData(IDatabase db) {
 			this.db = db;
 		}
 
+		/**
+		 * Returns the reference of the given descriptor. The reference is
+		 * created only once for a descriptor and then taken from an internal
+		 * cache for subsequent calls.
+		 */
+		public ProtoRef refOf(Descriptor d) {
+			if (d == null)
+				return ProtoRef.getDefaultInstance();
+			if (d.id == 0 || d.type == null)
+				return Refs.refOf(d, this).build();
+			var key = new RefKey(d.type, d.id);
+			var ref = refs.get(key);
+			if (ref != null)
+				return ref;
+			ref = Refs.refOf(d, this).build();
+			refs.put(key, ref);
+			return ref;
+		}
+
 		String categoryPathOf(Long categoryId) {
 			if (categoryId == null)
 				return "";
 			if (categories == null) {
-				categories = Categories.pathsOf(db);
+				synchronized (this) {
+					if (categories == null) {
+						categories = Categories.pathsOf(db);
+					}
+				}
+			}
+			synchronized (categories) {
+				return Strings.orEmpty(categories.pathOf(categoryId));
 			}
-			return Strings.orEmpty(categories.pathOf(categoryId));
 		}
 
 		String locationCodeOf(Long locationId) {
 			if (locationId == null)
 				return "";
 			if (locationCodes == null) {
-				locationCodes = new TLongObjectHashMap<>();
-				var query = "select id, code, name from tbl_locations";
-				NativeSql.on(db).query(query, r -> {
-					var locID = r.getLong(1);
-					var code = r.getString(2);
-					if (Strings.nullOrEmpty(code)) {
-						code = r.getString(3);
+				synchronized (this) {
+					if (locationCodes == null) {
+						locationCodes = queryLocationCodes();
 					}
-					if (Strings.notEmpty(code)) {
-						locationCodes.put(locID, code);
-					}
-					return true;
-				});
+				}
 			}
 			return Strings.orEmpty(locationCodes.get(locationId));
 		}
 
+		private TLongObjectHashMap<String> queryLocationCodes() {
+			var codes = new TLongObjectHashMap<String>();
+			var query = "select id, code, name from tbl_locations";
+			NativeSql.on(db).query(query, r -> {
+				var locID = r.getLong(1);
+				var code = r.getString(2);
+				if (Strings.nullOrEmpty(code)) {
+					code = r.getString(3);
+				}
+				if (Strings.notEmpty(code)) {
+					codes.put(locID, code);
+				}
+				return true;
+			});
+			return codes;
+		}
+
 		String flowUnitOf(long flowPropertyId) {
 			if (flowUnits == null) {
-				flowUnits = new TLongObjectHashMap<>();
-				var query = "select fp.id, u.name" +
-					"  from tbl_flow_properties fp" +
-					"  inner join tbl_unit_groups ug" +
-					"  on fp.f_unit_group = ug.id" +
-					"  inner join tbl_units u" +
-					"  on ug.f_reference_unit = u.id";
-				NativeSql.on(db).query(query, r -> {
-					long propID = r.getLong(1);
-					var unit = r.getString(2);
-					flowUnits.put(propID, unit);
-					return true;
-				});
+				synchronized (this) {
+					if (flowUnits == null) {
+						flowUnits = queryFlowUnits();
+					}
+				}
 			}
 			return Strings.orEmpty(flowUnits.get(flowPropertyId));
 		}
+
+		private TLongObjectHashMap<String> queryFlowUnits() {
+			var units = new TLongObjectHashMap<String>();
+			var query = "select fp.id, u.name" +
+				"  from tbl_flow_properties fp" +
+				"  inner join tbl_unit_groups ug" +
+				"  on fp.f_unit_group = ug.id" +
+				"  inner join tbl_units u" +
+				"  on ug.f_reference_unit = u.id";
+			NativeSql.on(db).query(query, r -> {
+				long propID = r.getLong(1);
+				var unit = r.getString(2);
+				units.put(propID, unit);
+				return true;
+			});
+			return units;
+		}
+	}
+
+	private record RefKey(ModelType type, long id) {
+	}
+
+	/**
+	 * Holds the shared ref-data of a database together with the database
+	 * version for which it was created.
+	 */
+	private static class Snapshot {
+
+		private RefData data;
+		private long version = -1;
+
+		synchronized RefData get(IDatabase db) {
+			long current = db.listeners().version();
+			if (data == null || version != current) {
+				data = new RefData(db);
+				version = current;
+			}
+			return data;
+		}
 	}
 }
@@ -1,6 +1,8 @@
 package org.openlca.proto.io.server;
 
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -8,6 +10,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 import com.google.protobuf.Empty;
+import org.openlca.core.database.BlockFetch;
 import org.openlca.core.database.CategoryDao;
 import org.openlca.core.database.Daos;
 import org.openlca.core.database.IDatabase;
@@ -18,6 +21,7 @@ import org.openlca.core.model.Category;
 import org.openlca.core.model.Flow;
 import org.openlca.core.model.FlowType;
 import org.openlca.core.model.RefEntity;
+import org.openlca.core.model.RootEntity;
 import org.openlca.core.model.descriptors.RootDescriptor;
 import org.openlca.core.model.descriptors.Descriptor;
 import org.openlca.core.model.descriptors.ProcessDescriptor;
@@ -37,11 +41,18 @@ import org.openlca.proto.grpc.SearchRequest;
 import org.openlca.proto.io.output.Refs;
 import org.openlca.util.Strings;
 
+import gnu.trove.map.hash.TLongObjectHashMap;
 import io.grpc.stub.StreamObserver;
 
 class DataFetchService extends
   DataFetchServiceGrpc.DataFetchServiceImplBase {
 
+  /**
+   * The number of entities that are loaded with a single {@code IN} query and then
+   * converted in parallel in {@code getAll}.
+   */
+  private static final int BLOCK_SIZE = 500;
+
   private final IDatabase db;
 
   DataFetchService(IDatabase db) {
@@ -139,14 +150,42 @@ class DataFetchService extends
     }
 
     response.setPageSize(selected.size());
-    selected.stream()
-      .map(d -> db.get(type, d.id))
-      .map(e -> DataUtil.toDataSet(db, e))
-      .forEach(response::addDataSet);
+
+    // load and convert the data sets block-wise, so that at most one block
+    // of JPA entities is loaded at a time; note that the converted data sets
+    // are still collected in the single response of this unary call
+    for (int start = 0; start < selected.size(); start += BLOCK_SIZE) {
+      var end = Math.min(selected.size(), start + BLOCK_SIZE);
+      var block = selected.subList(start, end);
+      response.addAllDataSet(fetchBlock(type, block));
+    }
     resp.onNext(response.build());
     resp.onCompleted();
   }
 
+  /**
+   * Loads the entities of the given descriptors with {@code IN} queries and
+   * converts them into data sets in parallel. The order of the returned
+   * data sets is the same as the order of the given descriptors.
+   */
+  private <T extends RootEntity> List<ProtoDataSet> fetchBlock(
+    Class<T> type, List<? extends Descriptor> descriptors) {
+    if (descriptors.isEmpty())
+      return Collections.emptyList();
+    var dao = Daos.base(db, type);
+    var ids = descriptors.stream()
+      .map(d -> d.id)
+      .toList();
+    var entities = new TLongObjectHashMap<T>();
+    BlockFetch.doFetch(ids, chunk -> dao.getForIds(new HashSet<>(chunk)))
+      .forEach(e -> entities.put(e.id, e));
+    return descriptors.parallelStream()
+      .map(d -> entities.get(d.id))
+      .filter(Objects::nonNull)
+      .map(e -> DataUtil.toDataSet(db, e).build())
+      .toList();
+  }
+
   @Override
   public void getDescriptors(
     GetDescriptorsRequest req, StreamObserver<ProtoRef> resp) {
@@ -160,14 +199,14 @@ class DataFetchService extends
       return;
     }
 
-    var refData = Refs.dataOf(db);
+    var refData = Refs.snapshotOf(db);
 
     // get by id
     var id = req.getId();
     if (Strings.notEmpty(id)) {
       var d = dao.getDescriptorForRefId(id);
       if (d != null) {
-        resp.onNext(Refs.refOf(d, refData).build());
+        resp.onNext(refData.refOf(d));
       }
       resp.onCompleted();
       return;
@@ -218,17 +257,16 @@ class DataFetchService extends
       });
     }
 
-    stream.forEach(d -> resp.onNext(
-      Refs.refOf(d, refData).build()));
+    stream.forEach(d -> resp.onNext(refData.refOf(d)));
     resp.onCompleted();
   }
 
   @Override
   public void search(SearchRequest req, StreamObserver<ProtoRef> resp) {
-    var refData = Refs.dataOf(db);
+    var refData = Refs.snapshotOf(db);
     Search.of(db, req).run()
-      .map(descriptor -> Refs.refOf(descriptor, refData))
-      .forEach(ref -> resp.onNext(ref.build()));
+      .map(refData::refOf)
+      .forEach(resp::onNext);
     resp.onCompleted();
   }
 
@@ -300,7 +338,7 @@ class DataFetchService extends
       return;
     }
 
-    var refData = Refs.dataOf(db);
+    var refData = Refs.snapshotOf(db);
 
 		ProviderIndex.lazy(db)
 			.getProvidersOf(flow.id)
@@ -308,7 +346,7 @@ class DataFetchService extends
       .map(TechFlow::provider)
       .filter(p -> p instanceof ProcessDescriptor)
       .map(p -> (ProcessDescriptor) p)
-      .forEach(p -> resp.onNext(Refs.refOf(p, refData).build()));
+      .forEach(p -> resp.onNext(refData.refOf(p)));
 
     resp.onCompleted();
   }
@@ -316,7 +354,7 @@ class DataFetchService extends
   @Override
   public void getTechFlows(Empty req, StreamObserver<ProtoTechFlow> resp) {
 
-		var refData = Refs.dataOf(db);
+		var refData = Refs.snapshotOf(db);
 
 		Function<TechFlow, ProtoTechFlow> mapper = techFlow -> {
 			var flow = techFlow.flow();
@@ -324,8 +362,8 @@ class DataFetchService extends
 			if (flow == null || process == null)
 				return null;
 			var proto = ProtoTechFlow.newBuilder()
-				.setProvider(Refs.refOf(process, refData));
-			var protoFlow = Refs.refOf(flow, refData);
+				.setProvider(refData.refOf(process));
+			var protoFlow = refData.refOf(flow);
 			if (flow.flowType == FlowType.WASTE_FLOW) {
 				proto.setWaste(protoFlow);
 			} else {
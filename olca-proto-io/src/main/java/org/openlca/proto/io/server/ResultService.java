@@ -73,7 +73,7 @@ class ResultService extends ResultServiceGrpc.ResultServiceImplBase {
 			Response.notFound(resp, "Result does not exist: " + req.getId());
 			return;
 		}
-		var refData = Refs.dataOf(db);
+		var refData = Refs.snapshotOf(db);
 		for (var product : result.techIndex()) {
 			resp.onNext(Results.toProto(product, refData));
 		}
@@ -93,7 +93,7 @@ class ResultService extends ResultServiceGrpc.ResultServiceImplBase {
 			resp.onCompleted();
 			return;
 		}
-		var refData = Refs.dataOf(db);
+		var refData = Refs.snapshotOf(db);
 		for (var flow : flows) {
 			resp.onNext(Results.toProto(flow, refData));
 		}
@@ -111,9 +111,9 @@ class ResultService extends ResultServiceGrpc.ResultServiceImplBase {
 		var impacts = result.impactIndex();
 		if (impacts == null)
 			return;
-		var refData = Refs.dataOf(db);
+		var refData = Refs.snapshotOf(db);
 		for (var impact : impacts) {
-			resp.onNext(Refs.refOf(impact, refData).build());
+			resp.onNext(refData.refOf(impact));
 		}
 		resp.onCompleted();
 	}
@@ -134,7 +134,7 @@ class ResultService extends ResultServiceGrpc.ResultServiceImplBase {
 			return;
 		}
 
-		var refData = Refs.dataOf(db);
+		var refData = Refs.snapshotOf(db);
 		for (var flow : flows) {
 			var value = result.getTotalFlowValueOf(flow);
 			if (value == 0)
@@ -160,11 +160,11 @@ class ResultService extends ResultServiceGrpc.ResultServiceImplBase {
 			return;
 		}
 
-		var refData = Refs.dataOf(db);
+		var refData = Refs.snapshotOf(db);
 		for (var impact : impacts) {
 			var value = result.getTotalImpactValueOf(impact);
 			var proto = ResultValue.newBuilder()
-				.setImpact(Refs.refOf(impact, refData))
+				.setImpact(refData.refOf(impact))
 				.setValue(value)
 				.build();
 			resp.onNext(proto);
@@ -199,7 +199,7 @@ class ResultService extends ResultServiceGrpc.ResultServiceImplBase {
 			return;
 		}
 
-		var refData = Refs.dataOf(db);
+		var refData = Refs.snapshotOf(db);
 
 		// get one specific factor of an indicator and flow
 		if (indicator != null && flow != null) {
@@ -83,10 +83,10 @@ final class Results {
     var proto = ProtoEnviFlow.newBuilder();
     if (flow == null)
       return proto.build();
-    proto.setFlow(Refs.refOf(flow.flow(), refData));
+    proto.setFlow(refData.refOf(flow.flow()));
     proto.setIsInput(flow.isInput());
     if (flow.location() != null) {
-      proto.setLocation(Refs.refOf(flow.location(), refData));
+      proto.setLocation(refData.refOf(flow.location()));
     }
     return proto.build();
   }
@@ -105,13 +105,13 @@ final class Results {
     if (product == null)
       return proto.build();
     if (product.provider() != null) {
-      proto.setProvider(Refs.refOf(product.provider(), refData));
+      proto.setProvider(refData.refOf(product.provider()));
     }
     if (product.flow() != null) {
       if (product.isWaste()) {
-        proto.setWaste(Refs.refOf(product.flow(), refData));
+        proto.setWaste(refData.refOf(product.flow()));
       } else {
-        proto.setProduct(Refs.refOf(product.flow(), refData));
+        proto.setProduct(refData.refOf(product.flow()));
       }
     }
     return proto.build();
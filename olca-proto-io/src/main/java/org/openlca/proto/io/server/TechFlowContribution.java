@@ -92,7 +92,7 @@ class TechFlowContribution {
 	private void closeWith(double value) {
 		if (isClosed)
 			return;
-		var refData = Refs.dataOf(service.db);
+		var refData = Refs.snapshotOf(service.db);
 		var proto = ResultValue.newBuilder()
 			.setTechFlow(Results.toProto(product, refData))
 			.setValue(value)
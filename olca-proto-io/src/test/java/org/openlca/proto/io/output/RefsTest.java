@@ -2,6 +2,8 @@ package org.openlca.proto.io.output;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 import java.util.List;
 import java.util.function.Consumer;
@@ -87,6 +89,24 @@ public class RefsTest {
 		checkAllFields(Refs.refOf(Descriptor.of(flow), refData));
 	}
 
+	@Test
+	public void testSnapshot() {
+		var db = Tests.db();
+		var refData = Refs.snapshotOf(db);
+		assertSame(refData, Refs.snapshotOf(db));
+
+		var ref = refData.refOf(Descriptor.of(flow));
+		checkAllFields(ref.toBuilder());
+		assertSame(ref, refData.refOf(Descriptor.of(flow)));
+
+		// a database change should create a new snapshot
+		var units = db.insert(UnitGroup.of("Length units", "m"));
+		var next = Refs.snapshotOf(db);
+		assertNotSame(refData, next);
+		checkAllFields(next.refOf(Descriptor.of(process)).toBuilder());
+		db.delete(units);
+	}
+
 	private void checkAllFields(ProtoRef.Builder ref) {
 		checkBaseFields(ref);
 		assertEquals("DE", ref.getLocation());
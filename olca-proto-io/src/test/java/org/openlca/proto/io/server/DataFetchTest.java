@@ -126,6 +126,20 @@ public class DataFetchTest {
 			var bigPage = stub.getAll(req.setPage(1).setPageSize(1000).build());
 			assertEquals(1, bigPage.getPage());
 			check.accept(count, bigPage);
+
+			var all = stub.getAll(GetAllRequest.newBuilder()
+				.setType(ProtoType.Actor)
+				.setSkipPaging(true)
+				.build());
+			assertEquals(1, all.getPage());
+			check.accept(count, all);
+
+			// the data sets should be in the same order as the pages
+			for (int i = 0; i < count; i++) {
+				assertEquals(
+					bigPage.getDataSet(i).getActor().getId(),
+					all.getDataSet(i).getActor().getId());
+			}
 		});
 
 		deleteAll.run();